@@ -0,0 +1,72 @@
+package cz.fi.muni.pa165.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The flights in the air at a time, the state of the live flight board to which its events are applied.
+ *
+ * @author Robert Duriancik
+ */
+public class FlightBoardDTO {
+
+    private long lastEventId;
+
+    private LocalDateTime time;
+
+    private List<FlightDTO> flights = new ArrayList<>();
+
+    /**
+     * @return sequence number of the last event reflected by the board, the following events may repeat
+     * some changes already reflected
+     */
+    public long getLastEventId() {
+        return lastEventId;
+    }
+
+    public void setLastEventId(long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    public void setTime(LocalDateTime time) {
+        this.time = time;
+    }
+
+    public List<FlightDTO> getFlights() {
+        return flights;
+    }
+
+    public void setFlights(List<FlightDTO> flights) {
+        this.flights = flights;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FlightBoardDTO that = (FlightBoardDTO) o;
+        return lastEventId == that.lastEventId &&
+                Objects.equals(time, that.time) &&
+                Objects.equals(flights, that.flights);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lastEventId, time, flights);
+    }
+
+    @Override
+    public String toString() {
+        return "FlightBoardDTO{" +
+                "lastEventId=" + lastEventId +
+                ", time=" + time +
+                ", flights=" + flights +
+                '}';
+    }
+}
@@ -0,0 +1,115 @@
+package cz.fi.muni.pa165.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A change of the live flight board: a flight was created, changed or deleted, or it departed or arrived.
+ *
+ * @author Robert Duriancik
+ */
+public class FlightBoardEventDTO {
+
+    /**
+     * Kinds of the board changes.
+     */
+    public enum Type {
+        CREATED,
+        CHANGED,
+        DELETED,
+        DEPARTED,
+        ARRIVED,
+        /**
+         * Some changes were lost, the board should be read again.
+         */
+        RESET
+    }
+
+    private long id;
+
+    private Type type;
+
+    private Long flightId;
+
+    private LocalDateTime time;
+
+    private FlightDTO flight;
+
+    /**
+     * @return sequence number of the event, growing by one with every event of the board
+     */
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    /**
+     * @return id of the changed flight, null for a reset
+     */
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+
+    /**
+     * @return departure or arrival time of the flight, the time of the change for the other events
+     */
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    public void setTime(LocalDateTime time) {
+        this.time = time;
+    }
+
+    /**
+     * @return the flight with its crew as of the event, null for a deleted flight and a reset
+     */
+    public FlightDTO getFlight() {
+        return flight;
+    }
+
+    public void setFlight(FlightDTO flight) {
+        this.flight = flight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FlightBoardEventDTO that = (FlightBoardEventDTO) o;
+        return id == that.id &&
+                type == that.type &&
+                Objects.equals(flightId, that.flightId) &&
+                Objects.equals(time, that.time);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, type, flightId, time);
+    }
+
+    @Override
+    public String toString() {
+        return "FlightBoardEventDTO{" +
+                "id=" + id +
+                ", type=" + type +
+                ", flightId=" + flightId +
+                ", time=" + time +
+                '}';
+    }
+}
@@ -0,0 +1,100 @@
+package cz.fi.muni.pa165.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Result of a single chunk of a flight import. Each chunk is stored in its own transaction.
+ *
+ * @author Robert Duriancik
+ */
+public class FlightImportChunkDTO {
+
+    private int index;
+
+    private long firstRow;
+
+    private long lastRow;
+
+    private int imported;
+
+    private List<FlightImportErrorDTO> errors = new ArrayList<>();
+
+    /**
+     * @return index of the chunk, counted from 0
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public long getFirstRow() {
+        return firstRow;
+    }
+
+    public void setFirstRow(long firstRow) {
+        this.firstRow = firstRow;
+    }
+
+    public long getLastRow() {
+        return lastRow;
+    }
+
+    public void setLastRow(long lastRow) {
+        this.lastRow = lastRow;
+    }
+
+    /**
+     * @return number of flights of the chunk that were stored
+     */
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * @return rejected rows of the chunk
+     */
+    public List<FlightImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<FlightImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FlightImportChunkDTO that = (FlightImportChunkDTO) o;
+        return index == that.index &&
+                firstRow == that.firstRow &&
+                lastRow == that.lastRow &&
+                imported == that.imported &&
+                Objects.equals(errors, that.errors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, firstRow, lastRow, imported, errors);
+    }
+
+    @Override
+    public String toString() {
+        return "FlightImportChunkDTO{" +
+                "index=" + index +
+                ", firstRow=" + firstRow +
+                ", lastRow=" + lastRow +
+                ", imported=" + imported +
+                ", errors=" + errors +
+                '}';
+    }
+}
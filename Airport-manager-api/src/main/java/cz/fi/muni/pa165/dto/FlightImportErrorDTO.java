@@ -0,0 +1,64 @@
+package cz.fi.muni.pa165.dto;
+
+import java.util.Objects;
+
+/**
+ * A row of a flight import that was not imported, and the reason why.
+ *
+ * @author Robert Duriancik
+ */
+public class FlightImportErrorDTO {
+
+    private long row;
+
+    private String message;
+
+    public FlightImportErrorDTO() {
+    }
+
+    public FlightImportErrorDTO(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    /**
+     * @return number of the rejected row, the line of the imported file if known, otherwise counted from 1
+     */
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FlightImportErrorDTO that = (FlightImportErrorDTO) o;
+        return row == that.row &&
+                Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(row, message);
+    }
+
+    @Override
+    public String toString() {
+        return "FlightImportErrorDTO{" +
+                "row=" + row +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
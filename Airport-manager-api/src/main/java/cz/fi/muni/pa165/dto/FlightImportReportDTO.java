@@ -0,0 +1,73 @@
+package cz.fi.muni.pa165.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Result of a flight import, with the outcome of every chunk.
+ *
+ * @author Robert Duriancik
+ */
+public class FlightImportReportDTO {
+
+    private long imported;
+
+    private long rejected;
+
+    private List<FlightImportChunkDTO> chunks = new ArrayList<>();
+
+    /**
+     * @return number of stored flights
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * @return number of rejected rows
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<FlightImportChunkDTO> getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(List<FlightImportChunkDTO> chunks) {
+        this.chunks = chunks;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FlightImportReportDTO that = (FlightImportReportDTO) o;
+        return imported == that.imported &&
+                rejected == that.rejected &&
+                Objects.equals(chunks, that.chunks);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(imported, rejected, chunks);
+    }
+
+    @Override
+    public String toString() {
+        return "FlightImportReportDTO{" +
+                "imported=" + imported +
+                ", rejected=" + rejected +
+                ", chunks=" + chunks +
+                '}';
+    }
+}
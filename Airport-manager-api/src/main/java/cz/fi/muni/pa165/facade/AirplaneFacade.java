@@ -17,6 +17,17 @@ public interface AirplaneFacade {
     
     List<AirplaneDTO> findAll();
     
+    /**
+     * Find a page of airplanes ordered by name and id. The page follows the airplane <b>afterId</b>,
+     * or precedes the airplane <b>beforeId</b> if given, or is the first page if neither is given.
+     *
+     * @param afterId  Id of the last airplane of the previous page, may be null.
+     * @param beforeId Id of the first airplane of the next page, may be null.
+     * @param limit    Maximal number of returned airplanes.
+     * @return List of airplanes.
+     */
+    List<AirplaneDTO> findPage(Long afterId, Long beforeId, int limit);
+    
     List<AirplaneDTO> findByName(String name);
     
     List<AirplaneDTO> findByType(String type);
@@ -66,6 +66,17 @@ public interface DestinationFacade {
      */
     List<DestinationDTO> getAllDestinations();
 
+    /**
+     * Find a page of destinations ordered by id. The page follows the destination <b>afterId</b>,
+     * or precedes the destination <b>beforeId</b> if given, or is the first page if neither is given.
+     *
+     * @param afterId  Id of the last destination of the previous page, may be null.
+     * @param beforeId Id of the first destination of the next page, may be null.
+     * @param limit    Maximal number of returned destinations.
+     * @return List of destinations.
+     */
+    List<DestinationDTO> getDestinationsPage(Long afterId, Long beforeId, int limit);
+
     /**
      * Find all incoming flights in this destination.
      *
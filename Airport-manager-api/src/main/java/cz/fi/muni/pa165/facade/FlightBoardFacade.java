@@ -0,0 +1,43 @@
+package cz.fi.muni.pa165.facade;
+
+import cz.fi.muni.pa165.dto.FlightBoardDTO;
+import cz.fi.muni.pa165.dto.FlightBoardEventDTO;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * An interface that defines the facade layer above the live departure and arrival board.
+ * <p>
+ * A client reads the board once and then applies the events to it. The events are delivered in the order
+ * of their ids, and applying an event already reflected by the board does not change it.
+ * After a <b>RESET</b> event the client should read the board again, as some changes were lost.
+ *
+ * @author Robert Duriancik
+ */
+public interface FlightBoardFacade {
+
+    /**
+     * Returns the flights in the air at the time.
+     *
+     * @param now the time
+     * @return the board with the id of the last event it reflects
+     */
+    FlightBoardDTO getBoard(LocalDateTime now);
+
+    /**
+     * Registers a listener of the board events. Every listener loads and maps the changed flights on its own,
+     * so a server pushing the events to many clients should share a single listener among them.
+     * The listener is called by a single thread of the board and should not block.
+     *
+     * @param listener the listener
+     */
+    void subscribe(Consumer<FlightBoardEventDTO> listener);
+
+    /**
+     * Removes a listener of the board events. Does nothing if the listener is not registered.
+     *
+     * @param listener the listener
+     */
+    void unsubscribe(Consumer<FlightBoardEventDTO> listener);
+}
@@ -2,11 +2,14 @@ package cz.fi.muni.pa165.facade;
 
 import cz.fi.muni.pa165.dto.FlightCreateDTO;
 import cz.fi.muni.pa165.dto.FlightDTO;
+import cz.fi.muni.pa165.dto.FlightImportReportDTO;
 import cz.fi.muni.pa165.dto.FlightUpdateDTO;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * An interface that defines the facade layer above the Flight entity.
@@ -23,6 +26,21 @@ public interface FlightFacade {
      */
     Long createFlight(FlightCreateDTO flightCreateDTO);
 
+    /**
+     * Imports flights read one by one from the iterator. The destinations, airplanes and stewards
+     * are loaded once for the whole import, the rows are validated in chunks and every chunk is stored
+     * in its own transaction. Invalid rows are reported and skipped. A failed chunk is rolled back and its rows
+     * are stored one by one, so that only the failing rows are reported, and the import continues with the next chunk.
+     * <p>
+     * An {@link IllegalArgumentException} thrown by the iterator rejects the row that could not be read.
+     * The rows are reported by their line numbers if the iterator is {@link FlightImportRows},
+     * otherwise they are counted from 1.
+     *
+     * @param flights rows to import
+     * @return report of the import
+     */
+    FlightImportReportDTO importFlights(Iterator<FlightCreateDTO> flights);
+
     /**
      * Returns a flight specified by id.
      *
@@ -45,6 +63,25 @@ public interface FlightFacade {
      */
     List<FlightDTO> getAllFlights();
 
+    /**
+     * Returns a page of flights ordered by departure time. The page follows the flight <b>afterId</b>,
+     * or precedes the flight <b>beforeId</b> if given, or is the first page if neither is given.
+     *
+     * @param afterId  id of the last flight of the previous page, may be null
+     * @param beforeId id of the first flight of the next page, may be null
+     * @param limit    maximal number of returned flights
+     * @return the list of FlightDTO objects
+     */
+    List<FlightDTO> getFlightsPage(Long afterId, Long beforeId, int limit);
+
+    /**
+     * Passes all flights ordered by departure time to the consumer one by one,
+     * without holding the whole list in memory.
+     *
+     * @param consumer consumer of the FlightDTO objects
+     */
+    void exportFlights(Consumer<FlightDTO> consumer);
+
     /**
      * Returns the list of flights since the specific date.
      *
@@ -0,0 +1,19 @@
+package cz.fi.muni.pa165.facade;
+
+import cz.fi.muni.pa165.dto.FlightCreateDTO;
+
+import java.util.Iterator;
+
+/**
+ * Rows of a flight import read from a file, which may contain a header and blank lines.
+ * The import reports the rows by the lines they were read from.
+ *
+ * @author Robert Duriancik
+ */
+public interface FlightImportRows extends Iterator<FlightCreateDTO> {
+
+    /**
+     * @return number of the line of the row last returned or rejected by {@link #next()}, counted from 1
+     */
+    long getLineNumber();
+}
@@ -0,0 +1,29 @@
+package cz.fi.muni.pa165.facade;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * An interface that defines the facade layer above the metrics of the facade, service and DAO calls,
+ * of the database connection pool and of the second-level cache.
+ *
+ * @author Robert Duriancik
+ */
+public interface MetricsFacade {
+
+    /**
+     * Content type of the metrics, the Prometheus text exposition format.
+     */
+    String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * Writes the latency histograms, call counts, error counts and result sizes of the calls.
+     * There are none unless the metrics are enabled by the property <b>airport.metrics.enabled</b>.
+     * Then writes the connection counts, acquisition and usage times and timeouts of the connection pool
+     * and the hits, misses, puts and evictions of the second-level cache regions, which are always recorded.
+     *
+     * @param writer writer of the metrics, not closed
+     * @throws IOException if the writer fails
+     */
+    void writeMetrics(Writer writer) throws IOException;
+}
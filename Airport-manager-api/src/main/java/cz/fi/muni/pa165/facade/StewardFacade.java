@@ -26,6 +26,17 @@ public interface StewardFacade {
      */
     List<StewardDTO> listAllStewards();
 
+    /**
+     * Get a page of stewards ordered by surname and first name. The page follows the steward <b>afterId</b>,
+     * or precedes the steward <b>beforeId</b> if given, or is the first page if neither is given.
+     *
+     * @param afterId  Id of the last steward of the previous page, may be null.
+     * @param beforeId Id of the first steward of the next page, may be null.
+     * @param limit    Maximal number of returned stewards.
+     * @return List of stewards DTO.
+     */
+    List<StewardDTO> listStewardsPage(Long afterId, Long beforeId, int limit);
+
     /**
      * Delete steward.
      *
@@ -0,0 +1,69 @@
+package cz.fi.muni.pa165.benchmarks;
+
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.service.AirplaneService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Free airplane searches of {@link AirplaneService}.
+ *
+ * @author Robert Duriancik
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AirplaneServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int flights;
+
+    private BenchmarkContext context;
+    private AirplaneService airplaneService;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext(Collections.emptyMap());
+        context.store(BenchmarkData.generator(flights));
+        airplaneService = context.getBean(AirplaneService.class);
+        random = new Random(BenchmarkData.SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Airplane> freeAirplanesInTimeRange() {
+        LocalDateTime start = BenchmarkData.randomTime(random);
+        return context.read(() -> airplaneService.findFreeAirplanesInTimeRange(start, start.plusHours(6)));
+    }
+
+    @Benchmark
+    public List<Airplane> freeAirplanesAfter() {
+        LocalDateTime since = BenchmarkData.START.plusDays(BenchmarkData.DAYS - 7);
+        return context.read(() -> airplaneService.findByFreeAfterDateTime(since));
+    }
+}
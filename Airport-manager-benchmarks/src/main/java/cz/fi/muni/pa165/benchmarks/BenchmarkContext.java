@@ -0,0 +1,72 @@
+package cz.fi.muni.pa165.benchmarks;
+
+import cz.fi.muni.pa165.ServiceConfig;
+import cz.muni.fi.pa165.sampledata.SampleDataLoadingFacade;
+import cz.muni.fi.pa165.sampledata.SampleDataLoadingFacadeImpl;
+import cz.muni.fi.pa165.sampledata.SyntheticDataGenerator;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Application context of the service layer with its embedded database, started for a single benchmark trial.
+ *
+ * @author Robert Duriancik
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+    private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+    private final TransactionTemplate writeTemplate;
+
+    private final TransactionTemplate readOnlyTemplate;
+
+    /**
+     * Starts the context.
+     *
+     * @param properties properties of the context, such as <b>airport.mapping</b>
+     */
+    BenchmarkContext(Map<String, Object> properties) {
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.register(ServiceConfig.class, SampleDataLoadingFacadeImpl.class);
+        context.refresh();
+
+        writeTemplate = new TransactionTemplate(getBean(PlatformTransactionManager.class));
+        readOnlyTemplate = new TransactionTemplate(getBean(PlatformTransactionManager.class));
+        readOnlyTemplate.setReadOnly(true);
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Stores the network of the generator through the batched inserts of the services.
+     */
+    void store(SyntheticDataGenerator generator) {
+        getBean(SampleDataLoadingFacade.class).loadSyntheticData(generator);
+    }
+
+    /**
+     * Runs the action in a read-write transaction.
+     */
+    <T> T write(Supplier<T> action) {
+        return writeTemplate.execute(status -> action.get());
+    }
+
+    /**
+     * Runs the action in a read-only transaction, as the facades run their queries.
+     */
+    <T> T read(Supplier<T> action) {
+        return readOnlyTemplate.execute(status -> action.get());
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
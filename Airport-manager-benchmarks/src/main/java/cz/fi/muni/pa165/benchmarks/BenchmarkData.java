@@ -0,0 +1,89 @@
+package cz.fi.muni.pa165.benchmarks;
+
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
+import cz.muni.fi.pa165.sampledata.SyntheticDataGenerator;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic airport networks of the benchmarks, generated deterministically from a seed so that
+ * runs of the same benchmark work with the same data. Flights are spread over {@link #DAYS} days from
+ * {@link #START}, each flight has two stewards.
+ *
+ * @author Robert Duriancik
+ */
+final class BenchmarkData {
+
+    /**
+     * Seed of the generated data and of the query arguments.
+     */
+    static final long SEED = SyntheticDataGenerator.DEFAULT_SEED;
+
+    /**
+     * Departure time of the earliest flight.
+     */
+    static final LocalDateTime START = SyntheticDataGenerator.DEFAULT_START;
+
+    /**
+     * Number of days the flights are spread over.
+     */
+    static final int DAYS = SyntheticDataGenerator.DEFAULT_DAYS;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Returns the generator of a network with the given number of flights. There is a destination
+     * per 100 flights, an airplane per 50 flights and a steward per 20 flights, and at least ten of each.
+     *
+     * @param flightCount number of flights
+     */
+    static SyntheticDataGenerator generator(int flightCount) {
+        return new SyntheticDataGenerator()
+                .setSeed(SEED)
+                .setDestinationCount(Math.max(10, flightCount / 100))
+                .setAirplaneCount(Math.max(10, flightCount / 50))
+                .setStewardCount(Math.max(10, flightCount / 20))
+                .setFlightCount(flightCount)
+                .setCrewSize(2);
+    }
+
+    /**
+     * Generates the flights of the network with sequential ids, for benchmarks which do not store them.
+     *
+     * @param flightCount number of flights
+     */
+    static List<Flight> flightsWithIds(int flightCount) {
+        SyntheticDataGenerator generator = generator(flightCount);
+        List<Destination> destinations = generator.generateDestinations();
+        List<Airplane> airplanes = generator.generateAirplanes();
+        List<Steward> stewards = generator.generateStewards();
+        for (int i = 0; i < destinations.size(); i++) {
+            destinations.get(i).setId((long) i + 1);
+        }
+        for (int i = 0; i < airplanes.size(); i++) {
+            airplanes.get(i).setId((long) i + 1);
+        }
+        for (int i = 0; i < stewards.size(); i++) {
+            stewards.get(i).setId((long) i + 1);
+        }
+
+        List<Flight> flights = generator.generateFlights(destinations, airplanes, stewards);
+        for (int i = 0; i < flights.size(); i++) {
+            flights.get(i).setId((long) i + 1);
+        }
+        return flights;
+    }
+
+    /**
+     * Returns a random time within the generated period.
+     */
+    static LocalDateTime randomTime(Random random) {
+        return START.plusMinutes(random.nextInt(DAYS * 24 * 60));
+    }
+}
@@ -0,0 +1,85 @@
+package cz.fi.muni.pa165.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import cz.fi.muni.pa165.facade.FlightFacade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes on the wire of a flight listing as JSON, sent as it is (<b>identity</b>) and compressed with gzip
+ * at the levels 1, 6 and 9, as by the compression filter of the web application. The sizes are printed
+ * at the start of each trial, the benchmark measures the time of the compression. The listing is serialized
+ * from the DTOs of the facade, without the HAL links of the REST API, which compress even better.
+ *
+ * @author Robert Duriancik
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"10000"})
+    private int flights;
+
+    @Param({"identity", "1", "6", "9"})
+    private String encoding;
+
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (BenchmarkContext context = new BenchmarkContext(Collections.emptyMap())) {
+            context.store(BenchmarkData.generator(flights));
+            FlightFacade flightFacade = context.getBean(FlightFacade.class);
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            objectMapper.registerModule(new JavaTimeModule());
+            objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+            json = objectMapper.writeValueAsBytes(context.read(flightFacade::getAllFlights));
+        }
+
+        long wireBytes = encode().length;
+        System.out.printf("%n%d flights, %s: %d bytes of JSON, %d bytes on the wire (%.1f %%)%n",
+                flights, encoding, json.length, wireBytes, 100.0 * wireBytes / json.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if ("identity".equals(encoding)) {
+            return json;
+        }
+
+        int level = Integer.parseInt(encoding);
+        ByteArrayOutputStream wire = new ByteArrayOutputStream(json.length / 4);
+        try (OutputStream gzip = new GZIPOutputStream(wire, 8192) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(json);
+        }
+        return wire.toByteArray();
+    }
+}
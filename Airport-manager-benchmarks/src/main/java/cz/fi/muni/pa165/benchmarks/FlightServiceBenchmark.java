@@ -0,0 +1,76 @@
+package cz.fi.muni.pa165.benchmarks;
+
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.service.FlightService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time window queries of {@link FlightService}: flights in a one day range, flights in the air and
+ * flights since a time in the last week of the generated period.
+ *
+ * @author Robert Duriancik
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int flights;
+
+    private BenchmarkContext context;
+    private FlightService flightService;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext(Collections.emptyMap());
+        context.store(BenchmarkData.generator(flights));
+        flightService = context.getBean(FlightService.class);
+        random = new Random(BenchmarkData.SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Flight> flightsInTimeRange() {
+        LocalDateTime start = BenchmarkData.randomTime(random);
+        return context.read(() -> flightService.getFlightsInTimeRange(start, start.plusDays(1)));
+    }
+
+    @Benchmark
+    public List<Flight> currentFlights() {
+        LocalDateTime now = BenchmarkData.randomTime(random);
+        return context.read(() -> flightService.getCurrentFlights(now));
+    }
+
+    @Benchmark
+    public List<Flight> flightsSince() {
+        LocalDateTime since = BenchmarkData.START.plusDays(BenchmarkData.DAYS - 7);
+        return context.read(() -> flightService.getFlightsSince(since));
+    }
+}
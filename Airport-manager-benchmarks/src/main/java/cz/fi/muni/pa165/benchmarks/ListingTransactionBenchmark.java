@@ -0,0 +1,67 @@
+package cz.fi.muni.pa165.benchmarks;
+
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.service.FlightService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing of all flights in a read-write transaction (<b>read-write</b>), which snapshots the loaded entities
+ * and dirty checks them at the flush, and in a read-only transaction (<b>read-only</b>), which does neither.
+ * The flights are not mapped to DTOs, as the mapping is the same in both. Run with <b>-prof gc</b>
+ * to compare the allocations.
+ *
+ * @author Robert Duriancik
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingTransactionBenchmark {
+
+    @Param({"1000", "10000"})
+    private int flights;
+
+    @Param({"read-write", "read-only"})
+    private String transaction;
+
+    private BenchmarkContext context;
+    private FlightService flightService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext(Collections.emptyMap());
+        context.store(BenchmarkData.generator(flights));
+        flightService = context.getBean(FlightService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Flight> allFlights() {
+        if ("read-only".equals(transaction)) {
+            return context.read(flightService::getAllFlights);
+        }
+        return context.write(flightService::getAllFlights);
+    }
+}
@@ -0,0 +1,64 @@
+package cz.fi.muni.pa165.benchmarks;
+
+import cz.fi.muni.pa165.dto.FlightDTO;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.service.MappingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of flight lists to DTOs by {@link MappingService}, with the hand-written mappers
+ * (<b>specialized</b>) and with Dozer only (<b>dozer</b>). The flights are not stored.
+ *
+ * @author Robert Duriancik
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingServiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int flights;
+
+    @Param({"specialized", "dozer"})
+    private String mapping;
+
+    private BenchmarkContext context;
+    private MappingService mappingService;
+    private List<Flight> flightList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext(Collections.singletonMap("airport.mapping", mapping));
+        mappingService = context.getBean(MappingService.class);
+        flightList = BenchmarkData.flightsWithIds(flights);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<FlightDTO> mapFlights() {
+        return mappingService.mapTo(flightList, FlightDTO.class);
+    }
+}
@@ -0,0 +1,85 @@
+package cz.fi.muni.pa165.benchmarks;
+
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
+import cz.fi.muni.pa165.service.StewardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Roster lookups of {@link StewardService} for stewards picked at random.
+ *
+ * @author Robert Duriancik
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StewardServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int flights;
+
+    private BenchmarkContext context;
+    private StewardService stewardService;
+    private long[] stewardIds;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext(Collections.emptyMap());
+        context.store(BenchmarkData.generator(flights));
+        stewardService = context.getBean(StewardService.class);
+        stewardIds = context.read(() -> stewardService.getAllStewardsNameOrdered()).stream()
+                .mapToLong(Steward::getId)
+                .toArray();
+        random = new Random(BenchmarkData.SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Flight stewardLastFlight() {
+        long id = nextStewardId();
+        return context.read(() -> stewardService.getStewardLastFlight(id));
+    }
+
+    @Benchmark
+    public Flight stewardCurrentFlight() {
+        long id = nextStewardId();
+        return context.read(() -> stewardService.getStewardCurrentFlight(id));
+    }
+
+    @Benchmark
+    public List<Flight> stewardFlightsInTimeRange() {
+        long id = nextStewardId();
+        LocalDateTime start = BenchmarkData.randomTime(random);
+        return context.read(() -> stewardService.getAllStewardFlightsInTimeRange(id, start, start.plusDays(30)));
+    }
+
+    private long nextStewardId() {
+        return stewardIds[random.nextInt(stewardIds.length)];
+    }
+}
@@ -0,0 +1,70 @@
+package cz.fi.muni.pa165.benchmarks;
+
+import cz.fi.muni.pa165.entities.User;
+import cz.fi.muni.pa165.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password hashing of {@link UserService}, measured through the authentication of a stored user.
+ *
+ * @author Robert Duriancik
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private BenchmarkContext context;
+    private UserService userService;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext(Collections.emptyMap());
+        userService = context.getBean(UserService.class);
+
+        user = new User();
+        user.setEmail("benchmark@example.com");
+        user.setName("Bench");
+        user.setSurname("Mark");
+        user.setRegistered(BenchmarkData.START);
+        context.write(() -> {
+            userService.addUser(user, PASSWORD);
+            return null;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean authenticate() {
+        return userService.authenticate(user, PASSWORD);
+    }
+
+    @Benchmark
+    public boolean authenticateWrongPassword() {
+        return userService.authenticate(user, "wrong password");
+    }
+}
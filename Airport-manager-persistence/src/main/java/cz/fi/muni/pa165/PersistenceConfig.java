@@ -1,24 +1,78 @@
 package cz.fi.muni.pa165;
 
+import com.zaxxer.hikari.HikariConfig;
+import cz.fi.muni.pa165.cache.CacheMetrics;
+import cz.fi.muni.pa165.cache.SizedCacheRegionFactory;
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.entities.Steward;
+import cz.fi.muni.pa165.jdbc.ConnectionPoolMetrics;
+import cz.fi.muni.pa165.jdbc.DerbyDataSource;
+import cz.fi.muni.pa165.jdbc.RecordingDataSource;
+import cz.fi.muni.pa165.jdbc.SqlRecorder;
+import org.hibernate.cache.jcache.JCacheRegionFactory;
+import org.hibernate.Session;
+import org.hibernate.cache.internal.StandardQueryCache;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
-import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.embedded.OutputStreamFactory;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import javax.persistence.EntityManager;
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Configures the persistence layer. The connection pool is configured by the properties <b>airport.datasource.*</b>
+ * of the environment, by default it connects to an in-memory Derby database. A file-backed database is used through
+ * a Derby network server, e.g. <b>airport.datasource.url=jdbc:derby://localhost:1527/airport;create=true</b>,
+ * together with <b>airport.jpa.schema-generation=update</b> to keep its data. The heap sizes of the second-level cache
+ * regions configured in ehcache.xml are replaced by the properties <b>airport.cache.*.heap-entries</b>.
+ */
 @Configuration
 @EnableTransactionManagement
 @EnableJpaRepositories
 @ComponentScan("cz.fi.muni.pa165")
 public class PersistenceConfig {
 
+    /**
+     * Ehcache configuration of the second-level cache regions.
+     */
+    private static final String CACHE_CONFIG = "ehcache.xml";
+
+    private static final String DEFAULT_URL = "jdbc:derby:memory:testdb;create=true";
+
+    /**
+     * Size of the statement cache of the embedded Derby engine, read by the engine when it boots.
+     * The pool does not cache statements itself, the database caches their compiled plans.
+     */
+    private static final String DERBY_STATEMENT_CACHE_SIZE = "derby.language.statementCacheSize";
+
+    /**
+     * Error stream of the embedded Derby engine, which writes derby.log to the working directory by default.
+     */
+    private static final String DERBY_ERROR_STREAM = "derby.stream.error.method";
+
+    @Autowired
+    private Environment environment;
+
     @Bean
     public JpaTransactionManager transactionManager() {
         return new JpaTransactionManager(entityManagerFactory().getObject());
@@ -29,15 +83,123 @@ public class PersistenceConfig {
         LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
         factoryBean.setDataSource(dataSource());
         factoryBean.setPersistenceProviderClass(HibernatePersistenceProvider.class);
+        factoryBean.setJpaDialect(new ReadOnlyAwareJpaDialect());
+        // the connection prepared for a read-only transaction must be the one reset after it
+        factoryBean.getJpaPropertyMap().put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_HOLD);
+        factoryBean.getJpaPropertyMap().put(JCacheRegionFactory.CONFIG_URI, cacheConfigUri());
+        factoryBean.getJpaPropertyMap().put(AvailableSettings.CACHE_REGION_FACTORY,
+                new SizedCacheRegionFactory(cacheHeapEntries(), cacheMetrics()));
+        String schemaGeneration = environment.getProperty("airport.jpa.schema-generation");
+        if (schemaGeneration != null) {
+            factoryBean.getJpaPropertyMap().put(AvailableSettings.HBM2DDL_AUTO, schemaGeneration);
+        }
 
         return factoryBean;
     }
 
+    /**
+     * Data source of the application, recording the executed statements while a recording
+     * of {@link SqlRecorder} is active on the current thread.
+     */
     @Bean
+    @Primary
     public DataSource dataSource() {
-        return new EmbeddedDatabaseBuilder()
-                .setType(EmbeddedDatabaseType.DERBY)
-                .build();
+        return new RecordingDataSource(pooledDataSource());
+    }
+
+    @Bean(destroyMethod = "close")
+    public DerbyDataSource pooledDataSource() {
+        String url = environment.getProperty("airport.datasource.url", DEFAULT_URL);
+        if (DerbyDataSource.isEmbedded(url)) {
+            if (System.getProperty(DERBY_STATEMENT_CACHE_SIZE) == null) {
+                System.setProperty(DERBY_STATEMENT_CACHE_SIZE,
+                        environment.getProperty("airport.datasource.statement-cache-size", "100"));
+            }
+            if (System.getProperty(DERBY_ERROR_STREAM) == null) {
+                System.setProperty(DERBY_ERROR_STREAM, OutputStreamFactory.class.getName() + ".getNoopOutputStream");
+            }
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(environment.getProperty("airport.datasource.pool.name", "airport"));
+        config.setJdbcUrl(url);
+        config.setDriverClassName(environment.getProperty("airport.datasource.driver-class-name",
+                DerbyDataSource.driverClassName(url)));
+        config.setUsername(environment.getProperty("airport.datasource.username"));
+        config.setPassword(environment.getProperty("airport.datasource.password"));
+        config.setMaximumPoolSize(environment.getProperty("airport.datasource.pool.maximum-size", Integer.class, 10));
+        config.setMinimumIdle(environment.getProperty("airport.datasource.pool.minimum-idle", Integer.class, 2));
+        config.setConnectionTimeout(
+                environment.getProperty("airport.datasource.pool.connection-timeout-millis", Long.class, 30_000L));
+        config.setIdleTimeout(
+                environment.getProperty("airport.datasource.pool.idle-timeout-millis", Long.class, 600_000L));
+        config.setMaxLifetime(
+                environment.getProperty("airport.datasource.pool.max-lifetime-millis", Long.class, 1_800_000L));
+        config.setLeakDetectionThreshold(
+                environment.getProperty("airport.datasource.pool.leak-detection-millis", Long.class, 0L));
+        config.setRegisterMbeans(
+                environment.getProperty("airport.datasource.pool.register-mbeans", Boolean.class, false));
+        config.setMetricsTrackerFactory(connectionPoolMetrics());
+        return new DerbyDataSource(config);
+    }
+
+    @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
     }
 
+    @Bean
+    public CacheMetrics cacheMetrics() {
+        return new CacheMetrics();
+    }
+
+    /**
+     * Heap sizes of the cache regions set by the environment, by the alias of the region.
+     */
+    private Map<String, Long> cacheHeapEntries() {
+        Map<String, Long> heapEntries = new HashMap<>();
+        putHeapEntries(heapEntries, "airplane", Airplane.class.getName());
+        putHeapEntries(heapEntries, "destination", Destination.class.getName());
+        putHeapEntries(heapEntries, "steward", Steward.class.getName());
+        putHeapEntries(heapEntries, "query", StandardQueryCache.class.getName());
+        return heapEntries;
+    }
+
+    private void putHeapEntries(Map<String, Long> heapEntries, String region, String alias) {
+        Long entries = environment.getProperty("airport.cache." + region + ".heap-entries", Long.class);
+        if (entries != null) {
+            heapEntries.put(alias, entries);
+        }
+    }
+
+    /**
+     * The JCache provider resolves its configuration from an absolute URI only,
+     * so the classpath resource is resolved here.
+     */
+    private static String cacheConfigUri() {
+        try {
+            return new ClassPathResource(CACHE_CONFIG).getURI().toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cache configuration " + CACHE_CONFIG + " not found.", e);
+        }
+    }
+
+    /**
+     * Applies the read-only transactions to the Hibernate session. The session is not flushed and loads
+     * the entities read-only, without the snapshots for dirty checking, and the connection is read-only.
+     * The Hibernate dialect of Spring sets the manual flush mode and the read-only connection only.
+     */
+    private static class ReadOnlyAwareJpaDialect extends HibernateJpaDialect {
+
+        @Override
+        public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+                throws SQLException {
+            Object transactionData = super.beginTransaction(entityManager, definition);
+            if (definition.isReadOnly()) {
+                entityManager.unwrap(Session.class).setDefaultReadOnly(true);
+            }
+            return transactionData;
+        }
+    }
 }
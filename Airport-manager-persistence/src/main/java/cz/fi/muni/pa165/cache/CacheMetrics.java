@@ -0,0 +1,106 @@
+package cz.fi.muni.pa165.cache;
+
+import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Metrics of the second-level cache regions, exported in the Prometheus text format. The hits, misses,
+ * puts and evictions are read at the export from the JCache statistics of the regions, which the cache
+ * configuration enables and publishes over JMX.
+ *
+ * @author Robert Duriancik
+ */
+public class CacheMetrics {
+
+    private volatile CacheManager cacheManager;
+
+    /**
+     * Sets the cache manager of the regions, called by {@link SizedCacheRegionFactory} when it starts.
+     *
+     * @param cacheManager cache manager of the second-level cache
+     */
+    void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Writes the metrics of the regions in the Prometheus text format. There are none
+     * before the second-level cache is started or when its statistics are disabled.
+     *
+     * @param writer writer of the export
+     * @throws IOException when the writer fails
+     */
+    public void writePrometheus(Writer writer) throws IOException {
+        Map<String, CacheStatisticsMXBean> regions = regionStatistics();
+
+        writer.write("# HELP airport_cache_hits_total Reads of the second-level cache regions which hit.\n");
+        writer.write("# TYPE airport_cache_hits_total counter\n");
+        writeCounters(writer, "airport_cache_hits_total", regions, CacheStatisticsMXBean::getCacheHits);
+
+        writer.write("# HELP airport_cache_misses_total Reads of the second-level cache regions which missed.\n");
+        writer.write("# TYPE airport_cache_misses_total counter\n");
+        writeCounters(writer, "airport_cache_misses_total", regions, CacheStatisticsMXBean::getCacheMisses);
+
+        writer.write("# HELP airport_cache_puts_total Entries stored in the second-level cache regions.\n");
+        writer.write("# TYPE airport_cache_puts_total counter\n");
+        writeCounters(writer, "airport_cache_puts_total", regions, CacheStatisticsMXBean::getCachePuts);
+
+        writer.write("# HELP airport_cache_evictions_total Entries evicted from the second-level cache regions.\n");
+        writer.write("# TYPE airport_cache_evictions_total counter\n");
+        writeCounters(writer, "airport_cache_evictions_total", regions, CacheStatisticsMXBean::getCacheEvictions);
+        writer.flush();
+    }
+
+    private static void writeCounters(Writer writer, String name, Map<String, CacheStatisticsMXBean> regions,
+                                      ToLongFunction<CacheStatisticsMXBean> counter) throws IOException {
+        for (Map.Entry<String, CacheStatisticsMXBean> region : regions.entrySet()) {
+            writer.write(name + "{region=\"" + region.getKey() + "\"} "
+                    + counter.applyAsLong(region.getValue()) + '\n');
+        }
+    }
+
+    /**
+     * Returns the statistics beans of the regions, which are registered under the JCache object names.
+     */
+    private Map<String, CacheStatisticsMXBean> regionStatistics() {
+        Map<String, CacheStatisticsMXBean> regions = new TreeMap<>();
+        CacheManager manager = cacheManager;
+        if (manager == null || manager.isClosed()) {
+            return regions;
+        }
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        for (String cacheName : manager.getCacheNames()) {
+            ObjectName objectName = statisticsName(manager, cacheName);
+            if (mBeanServer.isRegistered(objectName)) {
+                regions.put(cacheName, JMX.newMXBeanProxy(mBeanServer, objectName, CacheStatisticsMXBean.class));
+            }
+        }
+        return regions;
+    }
+
+    private static ObjectName statisticsName(CacheManager manager, String cacheName) {
+        try {
+            return new ObjectName("javax.cache:type=CacheStatistics,CacheManager="
+                    + sanitize(manager.getURI().toString()) + ",Cache=" + sanitize(cacheName));
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException("Invalid statistics name of the cache " + cacheName, e);
+        }
+    }
+
+    /**
+     * Replaces the characters not allowed in an object name value as the JCache providers do.
+     */
+    private static String sanitize(String value) {
+        return value == null ? "" : value.replaceAll(",|:|=|\n", ".");
+    }
+}
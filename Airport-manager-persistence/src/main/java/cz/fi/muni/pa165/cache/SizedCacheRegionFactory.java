@@ -0,0 +1,72 @@
+package cz.fi.muni.pa165.cache;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.spi.service.ServiceCreationConfiguration;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.jcache.JCacheRegionFactory;
+
+import javax.cache.CacheManager;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Region factory of the second-level cache, which reads the regions from the Ehcache XML configuration
+ * and replaces the heap size of the regions configured here. The cache manager it creates is passed to
+ * {@link CacheMetrics} for the export of its statistics.
+ *
+ * @author Robert Duriancik
+ */
+public class SizedCacheRegionFactory extends JCacheRegionFactory {
+
+    private final Map<String, Long> heapEntries;
+
+    private final CacheMetrics cacheMetrics;
+
+    /**
+     * @param heapEntries  number of heap entries by the alias of the region, the other regions keep the configured size
+     * @param cacheMetrics metrics exporting the statistics of the regions
+     */
+    public SizedCacheRegionFactory(Map<String, Long> heapEntries, CacheMetrics cacheMetrics) {
+        this.heapEntries = new HashMap<>(heapEntries);
+        this.cacheMetrics = cacheMetrics;
+    }
+
+    @Override
+    protected CacheManager getCacheManager(Properties properties) {
+        String configUri = properties.getProperty(CONFIG_URI);
+        if (configUri == null) {
+            throw new CacheException("The cache configuration " + CONFIG_URI + " is not set.");
+        }
+        URI uri = URI.create(configUri);
+        XmlConfiguration xmlConfiguration;
+        try {
+            xmlConfiguration = new XmlConfiguration(uri.toURL());
+        } catch (MalformedURLException e) {
+            throw new CacheException("Invalid cache configuration " + configUri, e);
+        }
+
+        Map<String, CacheConfiguration<?, ?>> caches = new HashMap<>();
+        xmlConfiguration.getCacheConfigurations().forEach((alias, cache) -> {
+            Long entries = heapEntries.get(alias);
+            caches.put(alias, entries == null ? cache : CacheConfigurationBuilder.newCacheConfigurationBuilder(cache)
+                    .withResourcePools(ResourcePoolsBuilder.newResourcePoolsBuilder().heap(entries, EntryUnit.ENTRIES))
+                    .build());
+        });
+        DefaultConfiguration configuration = new DefaultConfiguration(caches, xmlConfiguration.getClassLoader(),
+                xmlConfiguration.getServiceCreationConfigurations().toArray(new ServiceCreationConfiguration<?>[0]));
+
+        EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) getCachingProvider(properties);
+        CacheManager cacheManager = cachingProvider.getCacheManager(uri, configuration);
+        cacheMetrics.setCacheManager(cacheManager);
+        return cacheManager;
+    }
+}
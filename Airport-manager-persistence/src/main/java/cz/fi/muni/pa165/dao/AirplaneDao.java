@@ -7,6 +7,8 @@ package cz.fi.muni.pa165.dao;
 
 import cz.fi.muni.pa165.entities.Airplane;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,6 +25,16 @@ public interface AirplaneDao {
      */
     void addAirplane(Airplane airplane);
 
+    /**
+     * Save all given {@link Airplane} entity instances in the persistence storage in JDBC batches.
+     * The persistence context is flushed after each batch and the instances have their ids set when
+     * the method returns. If the context held no other entity, it is also cleared and the instances are detached.
+     *
+     * @param airplanes the {@link Airplane} entity instances
+     * @throws NullPointerException     if the collection or any of its elements is null
+     */
+    void addAll(Collection<Airplane> airplanes);
+
     /**
      * Remove the {@link Airplane} entity instance from the persistence storage.
      *
@@ -84,7 +96,76 @@ public interface AirplaneDao {
      * @return the found {@link Airplane} instance or null if the entity does not exist
      */
     Airplane findById(Long id);
-    
-    
 
+    /**
+     * Find all {@link Airplane} entity instances with the given ids by a single query per thousand ids.
+     * Ids which do not exist in the persistence storage are ignored, the order of the result is not specified.
+     *
+     * @param ids the ids of the {@link Airplane} entities
+     * @return the found {@link Airplane} instances
+     * @throws NullPointerException if ids is null
+     */
+    List<Airplane> findByIds(Collection<Long> ids);
+
+    /**
+     * Returns a reference to the {@link Airplane} with specified <b>id</b> without loading it.
+     * The reference is meant for setting associations, its state is loaded on first access.
+     *
+     * @param id the id of the {@link Airplane} entity
+     * @return reference to the {@link Airplane}
+     * @throws NullPointerException if id is null
+     */
+    Airplane getReference(Long id);
+
+    /**
+     * Find airplanes assigned to a flight which departs or arrives after <b>sinceDateTime</b>.
+     *
+     * @param sinceDateTime the date since when to check flights
+     * @return a list of used {@link Airplane} airplanes
+     * @throws NullPointerException if sinceDateTime is null
+     */
+    List<Airplane> findUsedAfter(LocalDateTime sinceDateTime);
+
+    /**
+     * Find airplanes not assigned to any flight which departs or arrives after <b>sinceDateTime</b>.
+     *
+     * @param sinceDateTime the date since when to check flights
+     * @return a list of free {@link Airplane} airplanes
+     * @throws NullPointerException if sinceDateTime is null
+     */
+    List<Airplane> findFreeAfter(LocalDateTime sinceDateTime);
+
+    /**
+     * Find airplanes not assigned to any flight which overlaps the given time range (inclusive),
+     * including a flight departing before the range and arriving after it.
+     *
+     * @param start the date since when to check flights
+     * @param end   the date until when to check flights
+     * @return a list of free {@link Airplane} airplanes
+     * @throws NullPointerException if start or end is null
+     */
+    List<Airplane> findFreeInTimeRange(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Find at most <b>limit</b> airplanes ordered by name and id, which follow the airplane
+     * with id <b>afterId</b> in that order.
+     *
+     * @param afterId id of the last airplane of the previous page, or null for the first page
+     * @param limit maximal number of returned airplanes
+     * @return a list of {@link Airplane} airplanes
+     * @throws IllegalArgumentException if limit is not positive or no airplane with afterId exists
+     */
+    List<Airplane> findPageAfter(Long afterId, int limit);
+
+    /**
+     * Find at most <b>limit</b> airplanes ordered by name and id, which precede the airplane
+     * with id <b>beforeId</b> in that order.
+     *
+     * @param beforeId id of the first airplane of the next page
+     * @param limit maximal number of returned airplanes
+     * @return a list of {@link Airplane} airplanes
+     * @throws NullPointerException if beforeId is null
+     * @throws IllegalArgumentException if limit is not positive or no airplane with beforeId exists
+     */
+    List<Airplane> findPageBefore(Long beforeId, int limit);
 }
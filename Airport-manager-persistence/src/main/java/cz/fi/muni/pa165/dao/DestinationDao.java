@@ -2,6 +2,7 @@ package cz.fi.muni.pa165.dao;
 
 import cz.fi.muni.pa165.entities.Destination;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,6 +22,17 @@ public interface DestinationDao {
      */
     void addDestination(Destination destination);
 
+    /**
+     * Save all given {@link Destination} entity instances in the persistence storage in JDBC batches.
+     * The persistence context is flushed after each batch and the instances have their ids set when
+     * the method returns. If the context held no other entity, it is also cleared and the instances are detached.
+     *
+     * @param destinations the {@link Destination} entity instances
+     * @throws NullPointerException     if the collection or any of its elements is null
+     * @throws IllegalArgumentException if any of the instances is not valid
+     */
+    void addAll(Collection<Destination> destinations);
+
     /**
      * Remove the {@link Destination} entity instance from the persistence storage.
      *
@@ -56,6 +68,26 @@ public interface DestinationDao {
      */
     Destination getDestination(Long id);
 
+    /**
+     * Find all {@link Destination} entity instances with the given ids by a single query per thousand ids.
+     * Ids which do not exist in the persistence storage are ignored, the order of the result is not specified.
+     *
+     * @param ids the ids of the {@link Destination} entities
+     * @return the found {@link Destination} instances
+     * @throws NullPointerException if ids is null
+     */
+    List<Destination> getDestinationsByIds(Collection<Long> ids);
+
+    /**
+     * Returns a reference to the {@link Destination} with specified <b>id</b> without loading it.
+     * The reference is meant for setting associations, its state is loaded on first access.
+     *
+     * @param id the id of the {@link Destination} entity
+     * @return reference to the {@link Destination}
+     * @throws NullPointerException if id is null
+     */
+    Destination getDestinationReference(Long id);
+
     /**
      * Find a {@link Destination} entity instance by specified <b>city</b>.
      * If the entity instance is contained in the persistence storage, it is returned from there.
@@ -75,4 +107,25 @@ public interface DestinationDao {
      * @throws NullPointerException if country is null.
      */
     List<Destination> getDestinationsByCountry(String country);
+
+    /**
+     * Find at most <b>limit</b> {@link Destination} entities ordered by id, whose id is greater than <b>afterId</b>.
+     *
+     * @param afterId id of the last destination of the previous page, or null for the first page
+     * @param limit   maximal number of returned destinations
+     * @return a list of {@link Destination} entities
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    List<Destination> getDestinationsPageAfter(Long afterId, int limit);
+
+    /**
+     * Find at most <b>limit</b> {@link Destination} entities ordered by id, whose id is less than <b>beforeId</b>.
+     *
+     * @param beforeId id of the first destination of the next page
+     * @param limit    maximal number of returned destinations
+     * @return a list of {@link Destination} entities
+     * @throws NullPointerException     if beforeId is null
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    List<Destination> getDestinationsPageBefore(Long beforeId, int limit);
 }
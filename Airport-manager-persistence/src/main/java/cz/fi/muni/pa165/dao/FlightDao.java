@@ -3,7 +3,10 @@ package cz.fi.muni.pa165.dao;
 
 import cz.fi.muni.pa165.entities.Flight;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object layer for the {@link Flight} entity.
@@ -18,6 +21,16 @@ public interface FlightDao {
      */
     void addFlight(Flight flight);
 
+    /**
+     * Save all given {@link Flight} entity instances in the persistence storage in JDBC batches.
+     * The persistence context is flushed after each batch and the instances have their ids set when
+     * the method returns. If the context held no other entity, it is also cleared and the instances are detached.
+     *
+     * @param flights the {@link Flight} entity instances
+     * @throws NullPointerException     if the collection or any of its elements is null
+     */
+    void addAll(Collection<Flight> flights);
+
     /**
      * Remove a {@link Flight} entity instance from the persistence storage.
      * @param flight the {@link Flight} entity instance
@@ -42,4 +55,109 @@ public interface FlightDao {
      * @return {@link Flight} instance or null if the entity does not exist.
      */
     Flight getFlight(Long id);
+
+    /**
+     * Find a {@link Flight} entity instance with specified <b>id</b>, fetching its locations,
+     * airplane and stewards with a single select.
+     * @param id Id of the {@link Flight} entity
+     * @return {@link Flight} instance or null if the entity does not exist.
+     * @throws NullPointerException if id is null
+     */
+    Flight getFlightWithCrew(Long id);
+
+    /**
+     * Find all {@link Flight} entities whose departure or arrival time is after <b>sinceDateTime</b>.
+     * @param sinceDateTime the date since when to find flights
+     * @return List of {@link Flight} entities
+     * @throws NullPointerException if sinceDateTime is null
+     */
+    List<Flight> getFlightsSince(LocalDateTime sinceDateTime);
+
+    /**
+     * Find all {@link Flight} entities which overlap the given time range (inclusive),
+     * including the flights departing before it and arriving after it.
+     * @param start the date since when to find flights
+     * @param end the date until when to find flights
+     * @return List of {@link Flight} entities
+     * @throws NullPointerException if start or end is null
+     */
+    List<Flight> getFlightsInTimeRange(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Find all {@link Flight} entities which departed before <b>now</b> and arrive after it.
+     * @param now the current date
+     * @return List of {@link Flight} entities in the air at the given time
+     * @throws NullPointerException if now is null
+     */
+    List<Flight> getCurrentFlights(LocalDateTime now);
+
+    /**
+     * Find all {@link Flight} entities with the given ids, ordered by departure time.
+     * Ids which do not exist in the persistence storage are ignored.
+     * @param ids ids of the {@link Flight} entities
+     * @return List of {@link Flight} entities
+     * @throws NullPointerException if ids is null
+     */
+    List<Flight> getFlightsByIds(Collection<Long> ids);
+
+    /**
+     * Find departure and arrival times of all {@link Flight} entities without loading the entities themselves.
+     * @return List of {@link FlightTimeSlot} projections
+     */
+    List<FlightTimeSlot> getAllFlightTimeSlots();
+
+    /**
+     * Find departure and arrival times of all {@link Flight} entities served by the given steward,
+     * ordered by departure time.
+     * @param stewardId id of the {@link cz.fi.muni.pa165.entities.Steward} entity
+     * @return List of {@link FlightTimeSlot} projections
+     * @throws NullPointerException if stewardId is null
+     */
+    List<FlightTimeSlot> getStewardFlightTimeSlots(Long stewardId);
+
+    /**
+     * Find all {@link Flight} entities arriving to the given destination, ordered by departure time.
+     * @param destinationId id of the {@link cz.fi.muni.pa165.entities.Destination} entity
+     * @return List of {@link Flight} entities
+     * @throws NullPointerException if destinationId is null
+     */
+    List<Flight> getIncomingFlights(Long destinationId);
+
+    /**
+     * Find all {@link Flight} entities departing from the given destination, ordered by departure time.
+     * @param destinationId id of the {@link cz.fi.muni.pa165.entities.Destination} entity
+     * @return List of {@link Flight} entities
+     * @throws NullPointerException if destinationId is null
+     */
+    List<Flight> getOutgoingFlights(Long destinationId);
+
+    /**
+     * Find at most <b>limit</b> {@link Flight} entities ordered by departure time and id,
+     * which follow the flight with id <b>afterId</b> in that order.
+     * @param afterId id of the last flight of the previous page, or null for the first page
+     * @param limit maximal number of returned flights
+     * @return List of {@link Flight} entities
+     * @throws IllegalArgumentException if limit is not positive or no flight with afterId exists
+     */
+    List<Flight> getFlightsPageAfter(Long afterId, int limit);
+
+    /**
+     * Find at most <b>limit</b> {@link Flight} entities ordered by departure time and id,
+     * which precede the flight with id <b>beforeId</b> in that order.
+     * @param beforeId id of the first flight of the next page
+     * @param limit maximal number of returned flights
+     * @return List of {@link Flight} entities
+     * @throws NullPointerException if beforeId is null
+     * @throws IllegalArgumentException if limit is not positive or no flight with beforeId exists
+     */
+    List<Flight> getFlightsPageBefore(Long beforeId, int limit);
+
+    /**
+     * Pass all {@link Flight} entities ordered by departure time and id to <b>consumer</b> one by one,
+     * reading them through a forward-only cursor instead of loading the whole table.
+     * The persistence context is cleared periodically, so the consumer must not keep the passed entities.
+     * @param consumer consumer of the {@link Flight} entities
+     * @throws NullPointerException if consumer is null
+     */
+    void scrollAllFlights(Consumer<Flight> consumer);
 }
@@ -0,0 +1,65 @@
+package cz.fi.muni.pa165.dao;
+
+import cz.fi.muni.pa165.entities.Flight;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the scheduling attributes of a {@link Flight} entity.
+ *
+ * @author Robert Duriancik
+ */
+public class FlightTimeSlot {
+
+    private final Long flightId;
+    private final LocalDateTime departureTime;
+    private final LocalDateTime arrivalTime;
+
+    public FlightTimeSlot(Long flightId, LocalDateTime departureTime, LocalDateTime arrivalTime) {
+        this.flightId = flightId;
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+    }
+
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public LocalDateTime getArrivalTime() {
+        return arrivalTime;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FlightTimeSlot)) return false;
+
+        FlightTimeSlot that = (FlightTimeSlot) o;
+
+        if (flightId != null ? !flightId.equals(that.flightId) : that.flightId != null) return false;
+        if (departureTime != null ? !departureTime.equals(that.departureTime) : that.departureTime != null)
+            return false;
+        return arrivalTime != null ? arrivalTime.equals(that.arrivalTime) : that.arrivalTime == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = flightId != null ? flightId.hashCode() : 0;
+        result = 31 * result + (departureTime != null ? departureTime.hashCode() : 0);
+        result = 31 * result + (arrivalTime != null ? arrivalTime.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "FlightTimeSlot{" +
+                "flightId=" + flightId +
+                ", departureTime=" + departureTime +
+                ", arrivalTime=" + arrivalTime +
+                '}';
+    }
+}
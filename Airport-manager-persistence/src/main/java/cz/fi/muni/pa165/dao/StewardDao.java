@@ -3,6 +3,8 @@ package cz.fi.muni.pa165.dao;
 
 import cz.fi.muni.pa165.entities.Steward;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,6 +23,17 @@ public interface StewardDao {
      */
     void createSteward(Steward steward);
 
+    /**
+     * Save all given {@link Steward} entity instances in the persistence storage in JDBC batches.
+     * The persistence context is flushed after each batch and the instances have their ids set when
+     * the method returns. If the context held no other entity, it is also cleared and the instances are detached.
+     *
+     * @param stewards the {@link Steward} entity instances
+     * @throws NullPointerException     if the collection or any of its elements is null
+     * @throws IllegalArgumentException if any of the instances is not valid
+     */
+    void addAll(Collection<Steward> stewards);
+
     /**
      * Method which removes steward from the database.
      *
@@ -47,10 +60,54 @@ public interface StewardDao {
      */
     Steward getSteward(Long id);
 
+    /**
+     * This method returns stewards with the given IDs by a single query per thousand IDs.
+     * IDs which are not in the database are ignored, the order of the result is not specified.
+     *
+     * @param ids identifiers of stewards.
+     * @throws NullPointerException ids is null
+     * @return List of the found stewards.
+     */
+    List<Steward> getStewardsByIds(Collection<Long> ids);
+
     /**
      * This method returns all stewards stored in the database.
      *
      * @return List of all stewards currently stored in database.
      */
     List<Steward> listAllStewards();
+
+    /**
+     * This method returns all stewards not assigned to any flight which overlaps
+     * the given time range (inclusive), including a flight departing before the range and arriving after it.
+     *
+     * @param start the date since when to check flights
+     * @param end the date until when to check flights
+     * @throws NullPointerException when start or end is null
+     * @return List of free stewards.
+     */
+    List<Steward> findFreeInTimeRange(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * This method returns at most <b>limit</b> stewards ordered by surname, first name and id,
+     * which follow the steward with id <b>afterId</b> in that order.
+     *
+     * @param afterId id of the last steward of the previous page, or null for the first page
+     * @param limit maximal number of returned stewards
+     * @throws IllegalArgumentException when limit is not positive or no steward with afterId exists
+     * @return List of stewards.
+     */
+    List<Steward> listStewardsPageAfter(Long afterId, int limit);
+
+    /**
+     * This method returns at most <b>limit</b> stewards ordered by surname, first name and id,
+     * which precede the steward with id <b>beforeId</b> in that order.
+     *
+     * @param beforeId id of the first steward of the next page
+     * @param limit maximal number of returned stewards
+     * @throws NullPointerException when beforeId is null
+     * @throws IllegalArgumentException when limit is not positive or no steward with beforeId exists
+     * @return List of stewards.
+     */
+    List<Steward> listStewardsPageBefore(Long beforeId, int limit);
 }
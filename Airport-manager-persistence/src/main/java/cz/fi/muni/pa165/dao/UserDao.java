@@ -2,6 +2,7 @@ package cz.fi.muni.pa165.dao;
 
 import cz.fi.muni.pa165.entities.User;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +21,17 @@ public interface UserDao {
      */
     void addUser(User user);
 
+    /**
+     * Save all given {@link User} entity instances in the persistence storage in JDBC batches.
+     * The persistence context is flushed after each batch and the instances have their ids set when
+     * the method returns. If the context held no other entity, it is also cleared and the instances are detached.
+     *
+     * @param users the {@link User} entity instances
+     * @throws NullPointerException     if the collection or any of its elements is null
+     * @throws IllegalArgumentException if any of the instances is not valid
+     */
+    void addAll(Collection<User> users);
+
     /**
      * Remove the {@link User} entity instance from the persistence storage.
      *
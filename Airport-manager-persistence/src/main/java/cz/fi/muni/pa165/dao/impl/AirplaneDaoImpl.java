@@ -2,10 +2,14 @@ package cz.fi.muni.pa165.dao.impl;
 
 import cz.fi.muni.pa165.dao.AirplaneDao;
 import cz.fi.muni.pa165.entities.Airplane;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -22,6 +26,16 @@ public class AirplaneDaoImpl implements AirplaneDao {
     @Override
     public void addAirplane(Airplane airplane) {
         em.persist(airplane);
+        em.flush();
+    }
+
+    @Override
+    public void addAll(Collection<Airplane> airplanes) {
+        BatchInserts.persistAll(em, airplanes, airplane -> {
+            if (airplane == null) {
+                throw new NullPointerException("Airplane is null");
+            }
+        });
     }
 
     @Override
@@ -42,7 +56,8 @@ public class AirplaneDaoImpl implements AirplaneDao {
 
     @Override
     public List<Airplane> findAll() {
-        return em.createQuery("select a from Airplane a", Airplane.class).getResultList();
+        return em.createQuery("select a from Airplane a", Airplane.class)
+                .setHint(QueryHints.CACHEABLE, true).getResultList();
     }
 
     @Override
@@ -50,6 +65,22 @@ public class AirplaneDaoImpl implements AirplaneDao {
         return em.find(Airplane.class, id);
     }
 
+    @Override
+    public List<Airplane> findByIds(Collection<Long> ids) {
+        return IdQueries.findByIds(ids, chunk ->
+                em.createQuery("select a from Airplane a where a.id in :ids", Airplane.class)
+                        .setParameter("ids", chunk)
+                        .getResultList());
+    }
+
+    @Override
+    public Airplane getReference(Long id) {
+        if (id == null) {
+            throw new NullPointerException("Id is null");
+        }
+        return em.getReference(Airplane.class, id);
+    }
+
     @Override
     public List<Airplane> findByName(String name) {
         return em.createQuery("select a FROM Airplane a WHERE a.name like :name ", Airplane.class).setParameter("name", name).getResultList();
@@ -70,4 +101,93 @@ public class AirplaneDaoImpl implements AirplaneDao {
         return em.createQuery("select a FROM Airplane a WHERE a.capacity <= :capacity", Airplane.class).setParameter("capacity", capacity).getResultList();
     }
 
+    @Override
+    public List<Airplane> findUsedAfter(LocalDateTime sinceDateTime) {
+        if (sinceDateTime == null) {
+            throw new NullPointerException("sinceDateTime is null");
+        }
+
+        return em.createQuery("select a from Airplane a where exists (" +
+                "select f.id from Flight f where f.airplane = a " +
+                "and (f.departureTime > :since or f.arrivalTime > :since))", Airplane.class)
+                .setParameter("since", sinceDateTime)
+                .getResultList();
+    }
+
+    @Override
+    public List<Airplane> findFreeAfter(LocalDateTime sinceDateTime) {
+        if (sinceDateTime == null) {
+            throw new NullPointerException("sinceDateTime is null");
+        }
+
+        return em.createQuery("select a from Airplane a where not exists (" +
+                "select f.id from Flight f where f.airplane = a " +
+                "and (f.departureTime > :since or f.arrivalTime > :since))", Airplane.class)
+                .setParameter("since", sinceDateTime)
+                .getResultList();
+    }
+
+    @Override
+    public List<Airplane> findFreeInTimeRange(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            throw new NullPointerException("start or end is null");
+        }
+
+        return em.createQuery("select a from Airplane a where not exists (" +
+                "select f.id from Flight f where f.airplane = a " +
+                "and f.departureTime <= :end and f.arrivalTime >= :start)", Airplane.class)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getResultList();
+    }
+
+    @Override
+    public List<Airplane> findPageAfter(Long afterId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+        if (afterId == null) {
+            return em.createQuery("select a from Airplane a order by a.name, a.id", Airplane.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        Airplane cursor = findPageCursor(afterId);
+        return em.createQuery("select a from Airplane a " +
+                "where a.name > :name or (a.name = :name and a.id > :id) " +
+                "order by a.name, a.id", Airplane.class)
+                .setParameter("name", cursor.getName())
+                .setParameter("id", cursor.getId())
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Airplane> findPageBefore(Long beforeId, int limit) {
+        if (beforeId == null) {
+            throw new NullPointerException("beforeId is null");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+
+        Airplane cursor = findPageCursor(beforeId);
+        List<Airplane> airplanes = em.createQuery("select a from Airplane a " +
+                "where a.name < :name or (a.name = :name and a.id < :id) " +
+                "order by a.name desc, a.id desc", Airplane.class)
+                .setParameter("name", cursor.getName())
+                .setParameter("id", cursor.getId())
+                .setMaxResults(limit)
+                .getResultList();
+        Collections.reverse(airplanes);
+        return airplanes;
+    }
+
+    private Airplane findPageCursor(Long id) {
+        Airplane cursor = em.find(Airplane.class, id);
+        if (cursor == null) {
+            throw new IllegalArgumentException("Airplane with id " + id + " not in the persistence storage.");
+        }
+        return cursor;
+    }
 }
@@ -0,0 +1,60 @@
+package cz.fi.muni.pa165.dao.impl;
+
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Persists collections of entities in JDBC batches.
+ *
+ * @author Robert Duriancik
+ */
+final class BatchInserts {
+
+    /**
+     * Number of entities flushed at once, matching <b>hibernate.jdbc.batch_size</b> in persistence.xml
+     * and the allocation size of the id sequences.
+     */
+    static final int BATCH_SIZE = 50;
+
+    private BatchInserts() {
+    }
+
+    /**
+     * Validates all entities first, then persists them, flushing the persistence context after every
+     * {@link #BATCH_SIZE} entities. A context which held no entity before the call is also cleared after
+     * every batch so that its size stays bounded, and the entities are detached when the method returns.
+     * The entities managed by the caller are never detached, as a detached flight would detach its
+     * locations, airplane and stewards too.
+     *
+     * @param em        entity manager to persist with
+     * @param entities  entities to persist
+     * @param validator check of a single entity, throws for an invalid one
+     * @param <T>       entity type
+     */
+    static <T> void persistAll(EntityManager em, Collection<T> entities, Consumer<T> validator) {
+        if (entities == null) {
+            throw new NullPointerException("Entities are null.");
+        }
+        entities.forEach(validator);
+
+        boolean clear = em.unwrap(Session.class).getStatistics().getEntityCount() == 0;
+        int count = 0;
+        for (T entity : entities) {
+            em.persist(entity);
+            if (++count % BATCH_SIZE == 0) {
+                flush(em, clear);
+            }
+        }
+        flush(em, clear);
+    }
+
+    private static void flush(EntityManager em, boolean clear) {
+        em.flush();
+        if (clear) {
+            em.clear();
+        }
+    }
+}
@@ -2,10 +2,13 @@ package cz.fi.muni.pa165.dao.impl;
 
 import cz.fi.muni.pa165.dao.DestinationDao;
 import cz.fi.muni.pa165.entities.Destination;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -22,16 +25,14 @@ public class DestinationDaoImpl implements DestinationDao {
 
     @Override
     public void addDestination(Destination destination) {
-        if (destination == null) {
-            throw new NullPointerException("Destination is null");
-        }
-
-        if (destination.getCountry() == null ||
-                destination.getCity() == null) {
-            throw new IllegalArgumentException("Destination's city or country is not set");
-        }
-
+        checkNewDestination(destination);
         em.persist(destination);
+        em.flush();
+    }
+
+    @Override
+    public void addAll(Collection<Destination> destinations) {
+        BatchInserts.persistAll(em, destinations, DestinationDaoImpl::checkNewDestination);
     }
 
     @Override
@@ -66,7 +67,8 @@ public class DestinationDaoImpl implements DestinationDao {
 
     @Override
     public List<Destination> getAllDestinations() {
-        return em.createQuery("select d from Destination d", Destination.class).getResultList();
+        return em.createQuery("select d from Destination d", Destination.class)
+                .setHint(QueryHints.CACHEABLE, true).getResultList();
     }
 
     @Override
@@ -77,13 +79,29 @@ public class DestinationDaoImpl implements DestinationDao {
         return em.find(Destination.class, id);
     }
 
+    @Override
+    public List<Destination> getDestinationsByIds(Collection<Long> ids) {
+        return IdQueries.findByIds(ids, chunk ->
+                em.createQuery("select d from Destination d where d.id in :ids", Destination.class)
+                        .setParameter("ids", chunk)
+                        .getResultList());
+    }
+
+    @Override
+    public Destination getDestinationReference(Long id) {
+        if (id == null) {
+            throw new NullPointerException("Id is null");
+        }
+        return em.getReference(Destination.class, id);
+    }
+
     @Override
     public List<Destination> getDestinationsByCity(String city) {
         if (city == null) {
             throw new NullPointerException("City is null.");
         }
         return em.createQuery("SELECT d FROM Destination d WHERE d.city = :city", Destination.class)
-                .setParameter("city", city).getResultList();
+                .setParameter("city", city).setHint(QueryHints.CACHEABLE, true).getResultList();
     }
 
     @Override
@@ -92,6 +110,51 @@ public class DestinationDaoImpl implements DestinationDao {
             throw new NullPointerException("Country is null.");
         }
         return em.createQuery("SELECT d FROM Destination d WHERE d.country = :country", Destination.class)
-                .setParameter("country", country).getResultList();
+                .setParameter("country", country).setHint(QueryHints.CACHEABLE, true).getResultList();
+    }
+
+    @Override
+    public List<Destination> getDestinationsPageAfter(Long afterId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+        if (afterId == null) {
+            return em.createQuery("select d from Destination d order by d.id", Destination.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return em.createQuery("select d from Destination d where d.id > :id order by d.id", Destination.class)
+                .setParameter("id", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Destination> getDestinationsPageBefore(Long beforeId, int limit) {
+        if (beforeId == null) {
+            throw new NullPointerException("beforeId is null");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+
+        List<Destination> destinations = em.createQuery("select d from Destination d where d.id < :id " +
+                "order by d.id desc", Destination.class)
+                .setParameter("id", beforeId)
+                .setMaxResults(limit)
+                .getResultList();
+        Collections.reverse(destinations);
+        return destinations;
+    }
+
+    private static void checkNewDestination(Destination destination) {
+        if (destination == null) {
+            throw new NullPointerException("Destination is null");
+        }
+
+        if (destination.getCountry() == null ||
+                destination.getCity() == null) {
+            throw new IllegalArgumentException("Destination's city or country is not set");
+        }
     }
 }
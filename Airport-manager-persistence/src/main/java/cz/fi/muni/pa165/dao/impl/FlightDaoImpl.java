@@ -1,7 +1,11 @@
 package cz.fi.muni.pa165.dao.impl;
 
 import cz.fi.muni.pa165.dao.FlightDao;
+import cz.fi.muni.pa165.dao.FlightTimeSlot;
 import cz.fi.muni.pa165.entities.Flight;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Repository;
 
@@ -9,7 +13,13 @@ import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.PersistenceException;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Implementation of the {@link FlightDao} interface.
@@ -19,6 +29,21 @@ import java.util.List;
 @Repository
 public class FlightDaoImpl implements FlightDao {
 
+    /**
+     * Number of rows fetched from the database per round trip while scrolling.
+     */
+    private static final int SCROLL_FETCH_SIZE = 500;
+
+    /**
+     * Number of scrolled flights after which the persistence context is cleared.
+     */
+    private static final int SCROLL_CLEAR_INTERVAL = 500;
+
+    /**
+     * JPA query hint applying an entity graph as a fetch graph.
+     */
+    private static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+
     @PersistenceContext
     private EntityManager em;
 
@@ -29,11 +54,25 @@ public class FlightDaoImpl implements FlightDao {
         }
         try {
             em.persist(flight);
+            em.flush();
         } catch (PersistenceException e) {
             throw new DataIntegrityViolationException("Error while persisting flight.");
         }
     }
 
+    @Override
+    public void addAll(Collection<Flight> flights) {
+        try {
+            BatchInserts.persistAll(em, flights, flight -> {
+                if (flight == null) {
+                    throw new NullPointerException("Cannot create null flight");
+                }
+            });
+        } catch (PersistenceException e) {
+            throw new DataIntegrityViolationException("Error while persisting flights.", e);
+        }
+    }
+
     @Override
     public void deleteFlight(Flight flight) {
         if (flight == null) {
@@ -74,7 +113,7 @@ public class FlightDaoImpl implements FlightDao {
 
     @Override
     public List<Flight> getAllFlights() {
-        return em.createQuery("select f from Flight f", Flight.class).getResultList();
+        return createSummaryQuery("select f from Flight f").getResultList();
     }
 
     @Override
@@ -86,5 +125,181 @@ public class FlightDaoImpl implements FlightDao {
         }
     }
 
+    @Override
+    public List<Flight> getFlightsSince(LocalDateTime sinceDateTime) {
+        if (sinceDateTime == null) {
+            throw new NullPointerException("sinceDateTime is null");
+        }
+        return createSummaryQuery("select f from Flight f " +
+                "where f.departureTime > :since or f.arrivalTime > :since")
+                .setParameter("since", sinceDateTime)
+                .getResultList();
+    }
+
+    @Override
+    public List<Flight> getFlightsInTimeRange(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            throw new NullPointerException("Start or end date is null");
+        }
+        return createSummaryQuery("select f from Flight f " +
+                "where f.departureTime <= :end and f.arrivalTime >= :start")
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getResultList();
+    }
+
+    @Override
+    public List<Flight> getCurrentFlights(LocalDateTime now) {
+        if (now == null) {
+            throw new NullPointerException("now is null");
+        }
+        return createSummaryQuery("select f from Flight f " +
+                "where f.departureTime < :now and f.arrivalTime > :now")
+                .setParameter("now", now)
+                .getResultList();
+    }
+
+    @Override
+    public List<Flight> getFlightsByIds(Collection<Long> ids) {
+        List<Flight> flights = IdQueries.findByIds(ids, chunk ->
+                createSummaryQuery("select f from Flight f where f.id in :ids")
+                        .setParameter("ids", chunk)
+                        .getResultList());
+        flights.sort(Comparator.comparing(Flight::getDepartureTime).thenComparing(Flight::getId));
+        return flights;
+    }
+
+    @Override
+    public List<FlightTimeSlot> getAllFlightTimeSlots() {
+        return em.createQuery("select new cz.fi.muni.pa165.dao.FlightTimeSlot(f.id, f.departureTime, f.arrivalTime) " +
+                "from Flight f", FlightTimeSlot.class).getResultList();
+    }
+
+    @Override
+    public List<FlightTimeSlot> getStewardFlightTimeSlots(Long stewardId) {
+        if (stewardId == null) {
+            throw new NullPointerException("Steward id is null");
+        }
+
+        return em.createQuery("select new cz.fi.muni.pa165.dao.FlightTimeSlot(f.id, f.departureTime, f.arrivalTime) " +
+                "from Flight f join f.stewards s where s.id = :stewardId " +
+                "order by f.departureTime, f.id", FlightTimeSlot.class)
+                .setParameter("stewardId", stewardId)
+                .getResultList();
+    }
+
+    @Override
+    public List<Flight> getIncomingFlights(Long destinationId) {
+        if (destinationId == null) {
+            throw new NullPointerException("Destination id is null");
+        }
+
+        return createSummaryQuery("select f from Flight f where f.arrivalLocation.id = :destinationId " +
+                "order by f.departureTime, f.id")
+                .setParameter("destinationId", destinationId)
+                .getResultList();
+    }
+
+    @Override
+    public List<Flight> getOutgoingFlights(Long destinationId) {
+        if (destinationId == null) {
+            throw new NullPointerException("Destination id is null");
+        }
+
+        return createSummaryQuery("select f from Flight f where f.departureLocation.id = :destinationId " +
+                "order by f.departureTime, f.id")
+                .setParameter("destinationId", destinationId)
+                .getResultList();
+    }
+
+    @Override
+    public List<Flight> getFlightsPageAfter(Long afterId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+        if (afterId == null) {
+            return createSummaryQuery("select f from Flight f order by f.departureTime, f.id")
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        Flight cursor = getPageCursor(afterId);
+        return createSummaryQuery("select f from Flight f " +
+                "where f.departureTime > :time or (f.departureTime = :time and f.id > :id) " +
+                "order by f.departureTime, f.id")
+                .setParameter("time", cursor.getDepartureTime())
+                .setParameter("id", cursor.getId())
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Flight> getFlightsPageBefore(Long beforeId, int limit) {
+        if (beforeId == null) {
+            throw new NullPointerException("beforeId is null");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+
+        Flight cursor = getPageCursor(beforeId);
+        List<Flight> flights = createSummaryQuery("select f from Flight f " +
+                "where f.departureTime < :time or (f.departureTime = :time and f.id < :id) " +
+                "order by f.departureTime desc, f.id desc")
+                .setParameter("time", cursor.getDepartureTime())
+                .setParameter("id", cursor.getId())
+                .setMaxResults(limit)
+                .getResultList();
+        Collections.reverse(flights);
+        return flights;
+    }
+
+    @Override
+    public void scrollAllFlights(Consumer<Flight> consumer) {
+        if (consumer == null) {
+            throw new NullPointerException("Consumer is null");
+        }
+
+        Session session = em.unwrap(Session.class);
+        try (ScrollableResults results = session.createQuery("select f from Flight f " +
+                "join fetch f.departureLocation join fetch f.arrivalLocation join fetch f.airplane " +
+                "order by f.departureTime, f.id", Flight.class)
+                .setFetchSize(SCROLL_FETCH_SIZE)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            int count = 0;
+            while (results.next()) {
+                consumer.accept((Flight) results.get(0));
+                if (++count % SCROLL_CLEAR_INTERVAL == 0) {
+                    em.clear();
+                }
+            }
+        }
+    }
 
+    @Override
+    public Flight getFlightWithCrew(Long id) {
+        if (id == null) {
+            throw new NullPointerException("Id is null");
+        }
+        return em.find(Flight.class, id,
+                Collections.singletonMap(FETCH_GRAPH_HINT, em.getEntityGraph(Flight.CREW_GRAPH)));
+    }
+
+    /**
+     * Creates a query for flight lists, which fetches the locations and the airplane of the flights
+     * with the query itself. Stewards are loaded lazily in batches of {@link Flight#STEWARDS_BATCH_SIZE}.
+     */
+    private TypedQuery<Flight> createSummaryQuery(String jpql) {
+        return em.createQuery(jpql, Flight.class)
+                .setHint(FETCH_GRAPH_HINT, em.getEntityGraph(Flight.SUMMARY_GRAPH));
+    }
+
+    private Flight getPageCursor(Long id) {
+        Flight cursor = em.find(Flight.class, id);
+        if (cursor == null) {
+            throw new IllegalArgumentException("Flight with id " + id + " not in the persistence storage.");
+        }
+        return cursor;
+    }
 }
@@ -0,0 +1,45 @@
+package cz.fi.muni.pa165.dao.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Runs queries restricted to a collection of ids, splitting large collections into several IN predicates.
+ *
+ * @author Robert Duriancik
+ */
+final class IdQueries {
+
+    /**
+     * Maximal number of ids bound to a single IN predicate.
+     */
+    static final int MAX_IN_LIST_SIZE = 1000;
+
+    private IdQueries() {
+    }
+
+    /**
+     * Runs the query once per at most {@link #MAX_IN_LIST_SIZE} distinct ids and returns all found entities.
+     * Ids without an entity are skipped, the order of the result is not specified.
+     *
+     * @param ids   ids to look up
+     * @param query query of the entities with ids from the given list
+     * @param <T>   entity type
+     * @return the found entities
+     */
+    static <T> List<T> findByIds(Collection<Long> ids, Function<List<Long>, List<T>> query) {
+        if (ids == null) {
+            throw new NullPointerException("Ids are null");
+        }
+
+        List<Long> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<T> entities = new ArrayList<>(idList.size());
+        for (int from = 0; from < idList.size(); from += MAX_IN_LIST_SIZE) {
+            entities.addAll(query.apply(idList.subList(from, Math.min(from + MAX_IN_LIST_SIZE, idList.size()))));
+        }
+        return entities;
+    }
+}
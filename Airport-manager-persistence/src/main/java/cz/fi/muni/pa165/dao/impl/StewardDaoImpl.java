@@ -2,10 +2,14 @@ package cz.fi.muni.pa165.dao.impl;
 
 import cz.fi.muni.pa165.dao.StewardDao;
 import cz.fi.muni.pa165.entities.Steward;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -20,15 +24,13 @@ public class StewardDaoImpl implements StewardDao {
     private EntityManager em;
 
     public void createSteward(Steward steward) {
-        if(steward == null) {
-            throw new NullPointerException("Steward is null.");
-        }
-
-        if(steward.getFirstName() == null || steward.getSurname() == null) {
-            throw new IllegalArgumentException("Steward's firstname or surname is null.");
-        }
-
+        checkNewSteward(steward);
         em.persist(steward);
+        em.flush();
+    }
+
+    public void addAll(Collection<Steward> stewards) {
+        BatchInserts.persistAll(em, stewards, StewardDaoImpl::checkNewSteward);
     }
 
     public void deleteSteward(Steward steward) {
@@ -62,7 +64,94 @@ public class StewardDaoImpl implements StewardDao {
         return em.find(Steward.class, id);
     }
 
+    @Override
+    public List<Steward> getStewardsByIds(Collection<Long> ids) {
+        return IdQueries.findByIds(ids, chunk ->
+                em.createQuery("SELECT s FROM Steward s WHERE s.id IN :ids", Steward.class)
+                        .setParameter("ids", chunk)
+                        .getResultList());
+    }
+
     public List<Steward> listAllStewards() {
-        return em.createQuery("SELECT c FROM Steward c", Steward.class).getResultList();
+        return em.createQuery("SELECT c FROM Steward c", Steward.class)
+                .setHint(QueryHints.CACHEABLE, true).getResultList();
+    }
+
+    @Override
+    public List<Steward> findFreeInTimeRange(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            throw new NullPointerException("Start or end is null");
+        }
+
+        return em.createQuery("SELECT c FROM Steward c WHERE NOT EXISTS (" +
+                "SELECT f.id FROM Flight f JOIN f.stewards s WHERE s = c " +
+                "AND f.departureTime <= :end AND f.arrivalTime >= :start)", Steward.class)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getResultList();
+    }
+
+    @Override
+    public List<Steward> listStewardsPageAfter(Long afterId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive.");
+        }
+        if (afterId == null) {
+            return em.createQuery("SELECT c FROM Steward c ORDER BY c.surname, c.firstName, c.id", Steward.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        Steward cursor = getPageCursor(afterId);
+        return em.createQuery("SELECT c FROM Steward c WHERE c.surname > :surname " +
+                "OR (c.surname = :surname AND (c.firstName > :firstName " +
+                "OR (c.firstName = :firstName AND c.id > :id))) " +
+                "ORDER BY c.surname, c.firstName, c.id", Steward.class)
+                .setParameter("surname", cursor.getSurname())
+                .setParameter("firstName", cursor.getFirstName())
+                .setParameter("id", cursor.getId())
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Steward> listStewardsPageBefore(Long beforeId, int limit) {
+        if (beforeId == null) {
+            throw new NullPointerException("beforeId is null.");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive.");
+        }
+
+        Steward cursor = getPageCursor(beforeId);
+        List<Steward> stewards = em.createQuery("SELECT c FROM Steward c WHERE c.surname < :surname " +
+                "OR (c.surname = :surname AND (c.firstName < :firstName " +
+                "OR (c.firstName = :firstName AND c.id < :id))) " +
+                "ORDER BY c.surname DESC, c.firstName DESC, c.id DESC", Steward.class)
+                .setParameter("surname", cursor.getSurname())
+                .setParameter("firstName", cursor.getFirstName())
+                .setParameter("id", cursor.getId())
+                .setMaxResults(limit)
+                .getResultList();
+        Collections.reverse(stewards);
+        return stewards;
+    }
+
+    private Steward getPageCursor(Long id) {
+        Steward cursor = em.find(Steward.class, id);
+        if (cursor == null) {
+            throw new IllegalArgumentException("Steward with id " + id + " not in the persistence storage.");
+        }
+        return cursor;
+    }
+
+    private static void checkNewSteward(Steward steward) {
+        if(steward == null) {
+            throw new NullPointerException("Steward is null.");
+        }
+
+        if(steward.getFirstName() == null || steward.getSurname() == null) {
+            throw new IllegalArgumentException("Steward's firstname or surname is null.");
+        }
     }
 }
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -22,18 +23,14 @@ public class UserDaoImpl implements UserDao {
 
     @Override
     public void addUser(User user) {
-        if (user == null) {
-            throw new NullPointerException("User is null");
-        }
-
-        if (user.getName() == null ||
-                user.getSurname() == null ||
-                user.getEmail() == null ||
-                user.getRegistered() == null) {
-            throw new IllegalArgumentException("Mandatory user's fields are not all set");
-        }
-
+        checkNewUser(user);
         em.persist(user);
+        em.flush();
+    }
+
+    @Override
+    public void addAll(Collection<User> users) {
+        BatchInserts.persistAll(em, users, UserDaoImpl::checkNewUser);
     }
 
     @Override
@@ -93,4 +90,17 @@ public class UserDaoImpl implements UserDao {
             return null;
         }
     }
+
+    private static void checkNewUser(User user) {
+        if (user == null) {
+            throw new NullPointerException("User is null");
+        }
+
+        if (user.getName() == null ||
+                user.getSurname() == null ||
+                user.getEmail() == null ||
+                user.getRegistered() == null) {
+            throw new IllegalArgumentException("Mandatory user's fields are not all set");
+        }
+    }
 }
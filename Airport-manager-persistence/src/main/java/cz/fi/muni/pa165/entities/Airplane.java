@@ -1,5 +1,7 @@
 package cz.fi.muni.pa165.entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Check;
 
 import javax.persistence.*;
@@ -14,11 +16,18 @@ import java.util.Objects;
  */
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Check(constraints = "capacity > 0")
+@Table(indexes = {
+        @Index(name = "IDX_AIRPLANE_NAME", columnList = "name"),
+        @Index(name = "IDX_AIRPLANE_TYPE", columnList = "type")
+})
 public class Airplane implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "airplaneSequence")
+    @SequenceGenerator(name = "airplaneSequence", sequenceName = "AIRPLANE_SEQ", allocationSize = 50)
     private Long id;
     
     @NotNull
@@ -1,10 +1,17 @@
 package cz.fi.muni.pa165.entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 
 /**
@@ -14,9 +21,16 @@ import javax.validation.constraints.NotNull;
  */
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+        @Index(name = "IDX_DESTINATION_COUNTRY_CITY", columnList = "country, city", unique = true),
+        @Index(name = "IDX_DESTINATION_CITY", columnList = "city")
+})
 public class Destination {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "destinationSequence")
+    @SequenceGenerator(name = "destinationSequence", sequenceName = "DESTINATION_SEQ", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -1,5 +1,6 @@
 package cz.fi.muni.pa165.entities;
 
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -13,9 +14,46 @@ import java.util.List;
  * @author Karel Jiranek
  */
 @Entity
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = Flight.SUMMARY_GRAPH, attributeNodes = {
+                @NamedAttributeNode("departureLocation"),
+                @NamedAttributeNode("arrivalLocation"),
+                @NamedAttributeNode("airplane")
+        }),
+        @NamedEntityGraph(name = Flight.CREW_GRAPH, attributeNodes = {
+                @NamedAttributeNode("departureLocation"),
+                @NamedAttributeNode("arrivalLocation"),
+                @NamedAttributeNode("airplane"),
+                @NamedAttributeNode("stewards")
+        })
+})
+@Table(indexes = {
+        @Index(name = "IDX_FLIGHT_TIMES", columnList = "departureTime, arrivalTime"),
+        @Index(name = "IDX_FLIGHT_ARRIVAL_TIME", columnList = "arrivalTime, departureTime, airplane_id, id"),
+        @Index(name = "IDX_FLIGHT_DEPARTURE_LOCATION", columnList = "departureLocation_id, departureTime"),
+        @Index(name = "IDX_FLIGHT_ARRIVAL_LOCATION", columnList = "arrivalLocation_id, departureTime"),
+        @Index(name = "IDX_FLIGHT_AIRPLANE", columnList = "airplane_id")
+})
 public class Flight {
+
+    /**
+     * Entity graph fetching the locations and the airplane, used for flight lists.
+     */
+    public static final String SUMMARY_GRAPH = "Flight.summary";
+
+    /**
+     * Entity graph fetching the locations, the airplane and the stewards, used for a single flight.
+     */
+    public static final String CREW_GRAPH = "Flight.crew";
+
+    /**
+     * Number of flights whose stewards are loaded by a single select.
+     */
+    public static final int STEWARDS_BATCH_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flightSequence")
+    @SequenceGenerator(name = "flightSequence", sequenceName = "FLIGHT_SEQ", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.DETACH)
@@ -33,6 +71,7 @@ public class Flight {
     private LocalDateTime departureTime;
 
     @ManyToMany(fetch = FetchType.LAZY, cascade = CascadeType.DETACH)
+    @BatchSize(size = STEWARDS_BATCH_SIZE)
     private List<Steward> stewards = new ArrayList<>();
 
     @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.DETACH)
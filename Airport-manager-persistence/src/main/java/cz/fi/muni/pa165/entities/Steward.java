@@ -1,10 +1,15 @@
 package cz.fi.muni.pa165.entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
 
@@ -14,10 +19,13 @@ import java.io.Serializable;
  * @author Ondrej Prikryl
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Steward implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stewardSequence")
+    @SequenceGenerator(name = "stewardSequence", sequenceName = "STEWARD_SEQ", allocationSize = 50)
     private Long id;
 
     @NotNull
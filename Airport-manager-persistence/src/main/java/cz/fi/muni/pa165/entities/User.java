@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "userSequence")
+    @SequenceGenerator(name = "userSequence", sequenceName = "USERS_SEQ", allocationSize = 50)
     private Long id;
 
     private String passwordHash;
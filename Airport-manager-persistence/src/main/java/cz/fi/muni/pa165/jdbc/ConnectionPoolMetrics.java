@@ -0,0 +1,134 @@
+package cz.fi.muni.pa165.jdbc;
+
+import com.zaxxer.hikari.metrics.MetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the connection pools, exported in the Prometheus text format. The pool reports
+ * the connection acquisitions, usages and timeouts to the tracker created for it, the connection counts
+ * are read from its statistics at the export.
+ *
+ * @author Robert Duriancik
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private static final double MILLIS_PER_SECOND = 1_000.0;
+
+    private final Map<String, PoolMetrics> pools = new ConcurrentSkipListMap<>();
+
+    @Override
+    public MetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolMetrics metrics = new PoolMetrics(poolStats);
+        pools.put(poolName, metrics);
+        return new PoolMetricsTracker(poolName, metrics);
+    }
+
+    /**
+     * Writes the metrics of the pools in the Prometheus text format.
+     *
+     * @param writer writer of the export
+     * @throws IOException when the writer fails
+     */
+    public void writePrometheus(Writer writer) throws IOException {
+        writer.write("# HELP airport_db_pool_connections Connections of the database connection pool.\n");
+        writer.write("# TYPE airport_db_pool_connections gauge\n");
+        for (Map.Entry<String, PoolMetrics> pool : pools.entrySet()) {
+            PoolStats stats = pool.getValue().stats;
+            writer.write("airport_db_pool_connections{pool=\"" + pool.getKey() + "\",state=\"active\"} "
+                    + stats.getActiveConnections() + '\n');
+            writer.write("airport_db_pool_connections{pool=\"" + pool.getKey() + "\",state=\"idle\"} "
+                    + stats.getIdleConnections() + '\n');
+        }
+
+        writer.write("# HELP airport_db_pool_pending_threads Threads waiting for a connection of the pool.\n");
+        writer.write("# TYPE airport_db_pool_pending_threads gauge\n");
+        for (Map.Entry<String, PoolMetrics> pool : pools.entrySet()) {
+            writer.write("airport_db_pool_pending_threads{pool=\"" + pool.getKey() + "\"} "
+                    + pool.getValue().stats.getPendingThreads() + '\n');
+        }
+
+        writer.write("# HELP airport_db_pool_acquire_seconds Time of acquiring a connection from the pool.\n");
+        writer.write("# TYPE airport_db_pool_acquire_seconds summary\n");
+        for (Map.Entry<String, PoolMetrics> pool : pools.entrySet()) {
+            PoolMetrics metrics = pool.getValue();
+            writer.write("airport_db_pool_acquire_seconds_sum{pool=\"" + pool.getKey() + "\"} "
+                    + metrics.acquireNanos.sum() / NANOS_PER_SECOND + '\n');
+            writer.write("airport_db_pool_acquire_seconds_count{pool=\"" + pool.getKey() + "\"} "
+                    + metrics.acquires.sum() + '\n');
+        }
+
+        writer.write("# HELP airport_db_pool_usage_seconds Time for which a connection was borrowed from the pool.\n");
+        writer.write("# TYPE airport_db_pool_usage_seconds summary\n");
+        for (Map.Entry<String, PoolMetrics> pool : pools.entrySet()) {
+            PoolMetrics metrics = pool.getValue();
+            writer.write("airport_db_pool_usage_seconds_sum{pool=\"" + pool.getKey() + "\"} "
+                    + metrics.usageMillis.sum() / MILLIS_PER_SECOND + '\n');
+            writer.write("airport_db_pool_usage_seconds_count{pool=\"" + pool.getKey() + "\"} "
+                    + metrics.usages.sum() + '\n');
+        }
+
+        writer.write("# HELP airport_db_pool_timeouts_total Connection requests which timed out waiting for the pool.\n");
+        writer.write("# TYPE airport_db_pool_timeouts_total counter\n");
+        for (Map.Entry<String, PoolMetrics> pool : pools.entrySet()) {
+            writer.write("airport_db_pool_timeouts_total{pool=\"" + pool.getKey() + "\"} "
+                    + pool.getValue().timeouts.sum() + '\n');
+        }
+        writer.flush();
+    }
+
+    private static final class PoolMetrics {
+
+        private final PoolStats stats;
+        private final LongAdder acquires = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final LongAdder usages = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+
+        PoolMetrics(PoolStats stats) {
+            this.stats = stats;
+        }
+    }
+
+    private final class PoolMetricsTracker extends MetricsTracker {
+
+        private final String poolName;
+        private final PoolMetrics metrics;
+
+        PoolMetricsTracker(String poolName, PoolMetrics metrics) {
+            this.poolName = poolName;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            metrics.acquires.increment();
+            metrics.acquireNanos.add(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            metrics.usages.increment();
+            metrics.usageMillis.add(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            metrics.timeouts.increment();
+        }
+
+        @Override
+        public void close() {
+            pools.remove(poolName, metrics);
+        }
+    }
+}
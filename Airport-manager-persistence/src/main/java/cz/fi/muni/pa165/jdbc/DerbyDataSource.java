@@ -0,0 +1,73 @@
+package cz.fi.muni.pa165.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Connection pool of an embedded in-memory or a network server Derby database. Closing the pool
+ * of an in-memory database also drops the database, as the embedded database of Spring did.
+ *
+ * @author Robert Duriancik
+ */
+public class DerbyDataSource extends HikariDataSource {
+
+    public static final String EMBEDDED_DRIVER = "org.apache.derby.jdbc.EmbeddedDriver";
+
+    public static final String CLIENT_DRIVER = "org.apache.derby.jdbc.ClientDriver";
+
+    private static final String MEMORY_URL_PREFIX = "jdbc:derby:memory:";
+
+    private static final String NETWORK_URL_PREFIX = "jdbc:derby://";
+
+    /**
+     * SQL state of the successful shutdown of a single database.
+     */
+    private static final String DATABASE_SHUTDOWN_STATE = "08006";
+
+    public DerbyDataSource(HikariConfig configuration) {
+        super(configuration);
+    }
+
+    /**
+     * Returns the driver of the URL, the client driver for the network server and the embedded one otherwise.
+     *
+     * @param url JDBC URL of the database
+     * @return class name of the driver
+     */
+    public static String driverClassName(String url) {
+        return url.startsWith(NETWORK_URL_PREFIX) ? CLIENT_DRIVER : EMBEDDED_DRIVER;
+    }
+
+    /**
+     * Returns whether the URL is of an embedded database, whose engine runs in this JVM.
+     *
+     * @param url JDBC URL of the database
+     * @return true if the database is embedded
+     */
+    public static boolean isEmbedded(String url) {
+        return !url.startsWith(NETWORK_URL_PREFIX);
+    }
+
+    @Override
+    public void close() {
+        if (isClosed()) {
+            return;
+        }
+        super.close();
+        String url = getJdbcUrl();
+        if (url.startsWith(MEMORY_URL_PREFIX)) {
+            int attributes = url.indexOf(';');
+            try {
+                DriverManager.getConnection((attributes < 0 ? url : url.substring(0, attributes)) + ";drop=true")
+                        .close();
+            } catch (SQLException e) {
+                if (!DATABASE_SHUTDOWN_STATE.equals(e.getSQLState())) {
+                    throw new IllegalStateException("Could not drop the in-memory database " + url, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package cz.fi.muni.pa165.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Data source recording the executed statements into the active recording of {@link SqlRecorder}.
+ * Connections obtained without an active recording are returned as they are, so that the data source
+ * adds no overhead then.
+ *
+ * @author Robert Duriancik
+ */
+public class RecordingDataSource extends DelegatingDataSource {
+
+    public RecordingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return record(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return record(super.getConnection(username, password));
+    }
+
+    private static Connection record(Connection connection) {
+        SqlStatistics statistics = SqlRecorder.current();
+        if (statistics == null) {
+            return connection;
+        }
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement && method.getName().startsWith("prepare")) {
+                return proxy(result instanceof CallableStatement ? CallableStatement.class : PreparedStatement.class,
+                        (Statement) result, new StatementHandler(statistics, (String) args[0]));
+            }
+            if (result instanceof Statement) {
+                return proxy(Statement.class, (Statement) result, new StatementHandler(statistics, null));
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<? extends T> type, T target, TargetHandler<T> handler) {
+        return (T) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.invoke(target, method, args));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface TargetHandler<T> {
+
+        Object invoke(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    /**
+     * Times the executions of a statement, whose SQL is either prepared or passed to the execution.
+     */
+    private static final class StatementHandler implements TargetHandler<Statement> {
+
+        private final SqlStatistics statistics;
+        private final String preparedSql;
+
+        StatementHandler(SqlStatistics statistics, String preparedSql) {
+            this.statistics = statistics;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Statement target, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return RecordingDataSource.invoke(target, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return RecordingDataSource.invoke(target, method, args);
+            } finally {
+                statistics.record(sql, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package cz.fi.muni.pa165.jdbc;
+
+import java.util.Objects;
+
+/**
+ * Records the statements executed by the current thread through {@link RecordingDataSource}.
+ * The recording covers the connections obtained while it is active, such as the connections
+ * of the transactions of an HTTP request.
+ *
+ * @author Robert Duriancik
+ */
+public final class SqlRecorder {
+
+    private static final ThreadLocal<SqlStatistics> RECORDING = new ThreadLocal<>();
+
+    private SqlRecorder() {
+    }
+
+    /**
+     * Starts a new recording on the current thread, replacing the active one.
+     *
+     * @return statistics filled by the recording
+     */
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        RECORDING.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Continues a recording on the current thread, replacing the active one. A request processed
+     * by several threads is recorded into the same statistics this way.
+     *
+     * @param statistics statistics of the continued recording
+     */
+    public static void resume(SqlStatistics statistics) {
+        RECORDING.set(Objects.requireNonNull(statistics, "statistics is null"));
+    }
+
+    /**
+     * Returns the statistics of the active recording of the current thread, null if there is none.
+     */
+    public static SqlStatistics current() {
+        return RECORDING.get();
+    }
+
+    /**
+     * Stops the recording of the current thread.
+     *
+     * @return statistics of the stopped recording, null if there was none
+     */
+    public static SqlStatistics stop() {
+        SqlStatistics statistics = RECORDING.get();
+        RECORDING.remove();
+        return statistics;
+    }
+}
@@ -0,0 +1,100 @@
+package cz.fi.muni.pa165.jdbc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statements executed during a recording of {@link SqlRecorder}, with their count and JDBC time.
+ * A batch is counted as a single statement, as it is a single round trip to the database.
+ * The statements are also aggregated by their SQL, so that the same statement executed many times,
+ * such as a lazy load in a loop, stands out.
+ *
+ * @author Robert Duriancik
+ */
+public class SqlStatistics {
+
+    /**
+     * Maximal number of distinct SQL strings kept, later ones are only counted.
+     */
+    static final int MAX_DISTINCT_SQL = 200;
+
+    private long statementCount;
+    private long totalNanos;
+    private final Map<String, Statement> statements = new LinkedHashMap<>();
+
+    /**
+     * Records an executed statement.
+     *
+     * @param sql   SQL of the statement, null if unknown
+     * @param nanos time of the execution
+     */
+    public synchronized void record(String sql, long nanos) {
+        statementCount++;
+        totalNanos += nanos;
+        String key = sql == null ? "?" : sql;
+        Statement statement = statements.get(key);
+        if (statement == null && statements.size() < MAX_DISTINCT_SQL) {
+            statement = new Statement(key);
+            statements.put(key, statement);
+        }
+        if (statement != null) {
+            statement.count++;
+            statement.totalNanos += nanos;
+        }
+    }
+
+    public synchronized long getStatementCount() {
+        return statementCount;
+    }
+
+    public synchronized long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns the distinct statements, the ones of the longest total time first.
+     */
+    public synchronized List<Statement> getStatements() {
+        List<Statement> result = new ArrayList<>();
+        for (Statement statement : statements.values()) {
+            result.add(new Statement(statement.sql, statement.count, statement.totalNanos));
+        }
+        result.sort(Comparator.comparingLong(Statement::getTotalNanos).reversed());
+        return result;
+    }
+
+    /**
+     * Executions of a single SQL string.
+     */
+    public static final class Statement {
+
+        private final String sql;
+        private long count;
+        private long totalNanos;
+
+        private Statement(String sql) {
+            this.sql = sql;
+        }
+
+        private Statement(String sql, long count, long totalNanos) {
+            this.sql = sql;
+            this.count = count;
+            this.totalNanos = totalNanos;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+    }
+}
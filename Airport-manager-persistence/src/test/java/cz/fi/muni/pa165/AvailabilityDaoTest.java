@@ -0,0 +1,225 @@
+package cz.fi.muni.pa165;
+
+import cz.fi.muni.pa165.dao.AirplaneDao;
+import cz.fi.muni.pa165.dao.FlightDao;
+import cz.fi.muni.pa165.dao.StewardDao;
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Tests the free and used airplane and steward queries against a full scan of all flights.
+ *
+ * @author Robert Duriancik
+ */
+public class AvailabilityDaoTest extends BaseDaoTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, Month.DECEMBER, 1, 0, 0);
+
+    @Autowired
+    private AirplaneDao airplaneDao;
+
+    @Autowired
+    private StewardDao stewardDao;
+
+    @Autowired
+    private FlightDao flightDao;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Test
+    @Transactional
+    public void testAirplaneQueriesMatchFullScan() {
+        Random random = createFlights();
+        List<Flight> flights = flightDao.getAllFlights();
+        List<Airplane> airplanes = airplaneDao.findAll();
+
+        for (int i = 0; i < 20; i++) {
+            LocalDateTime since = randomTime(random);
+            LocalDateTime end = since.plusHours(random.nextInt(48));
+
+            Set<Airplane> usedSince = flights.stream()
+                    .filter(f -> f.getDepartureTime().isAfter(since) || f.getArrivalTime().isAfter(since))
+                    .map(Flight::getAirplane)
+                    .collect(Collectors.toSet());
+            Set<Airplane> usedInRange = flights.stream()
+                    .filter(f -> overlaps(f, since, end))
+                    .map(Flight::getAirplane)
+                    .collect(Collectors.toSet());
+
+            Assert.assertEquals(ids(airplaneDao.findUsedAfter(since)), ids(usedSince));
+            Assert.assertEquals(ids(airplaneDao.findFreeAfter(since)), ids(without(airplanes, usedSince)));
+            Assert.assertEquals(ids(airplaneDao.findFreeInTimeRange(since, end)), ids(without(airplanes, usedInRange)));
+        }
+    }
+
+    @Test
+    @Transactional
+    public void testStewardQueryMatchesFullScan() {
+        Random random = createFlights();
+        List<Flight> flights = flightDao.getAllFlights();
+        List<Steward> stewards = stewardDao.listAllStewards();
+
+        for (int i = 0; i < 20; i++) {
+            LocalDateTime start = randomTime(random);
+            LocalDateTime end = start.plusHours(random.nextInt(48));
+
+            Set<Steward> assigned = flights.stream()
+                    .filter(f -> overlaps(f, start, end))
+                    .flatMap(f -> f.getStewards().stream())
+                    .collect(Collectors.toSet());
+
+            Assert.assertEquals(ids(stewardDao.findFreeInTimeRange(start, end)), ids(without(stewards, assigned)));
+        }
+    }
+
+    @Test
+    @Transactional
+    public void testNoFlights() {
+        Airplane airplane = new AirplaneBuilder().setName("Boeing").setType("777").setCapacity(100).build();
+        em.persist(airplane);
+        Steward steward = new Steward();
+        steward.setFirstName("John");
+        steward.setSurname("Dail");
+        em.persist(steward);
+
+        Assert.assertTrue(airplaneDao.findUsedAfter(START).isEmpty());
+        Assert.assertEquals(airplaneDao.findFreeAfter(START).size(), 1);
+        Assert.assertEquals(airplaneDao.findFreeInTimeRange(START, START.plusDays(1)).size(), 1);
+        Assert.assertEquals(stewardDao.findFreeInTimeRange(START, START.plusDays(1)).size(), 1);
+    }
+
+    @Test
+    @Transactional
+    public void testFlightSpanningWholeRange() {
+        Destination brno = new Destination("Czech Republic", "Brno");
+        Destination london = new Destination("United Kingdom", "London");
+        em.persist(brno);
+        em.persist(london);
+        Airplane airplane = new AirplaneBuilder().setName("Boeing").setType("777").setCapacity(100).build();
+        em.persist(airplane);
+        Steward steward = new Steward();
+        steward.setFirstName("John");
+        steward.setSurname("Dail");
+        em.persist(steward);
+
+        Flight flight = new Flight();
+        flight.setDepartureLocation(brno);
+        flight.setArrivalLocation(london);
+        flight.setDepartureTime(START);
+        flight.setArrivalTime(START.plusHours(10));
+        flight.setAirplane(airplane);
+        flight.addSteward(steward);
+        flightDao.addFlight(flight);
+        em.flush();
+
+        Assert.assertTrue(airplaneDao.findFreeInTimeRange(START.plusHours(2), START.plusHours(4)).isEmpty());
+        Assert.assertTrue(stewardDao.findFreeInTimeRange(START.plusHours(2), START.plusHours(4)).isEmpty());
+        Assert.assertEquals(airplaneDao.findFreeInTimeRange(START.plusHours(11), START.plusHours(12)).size(), 1);
+        Assert.assertEquals(stewardDao.findFreeInTimeRange(START.minusHours(2), START.minusHours(1)).size(), 1);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testFindUsedAfterNull() {
+        airplaneDao.findUsedAfter(null);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testFindFreeAfterNull() {
+        airplaneDao.findFreeAfter(null);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testAirplaneFindFreeInTimeRangeNull() {
+        airplaneDao.findFreeInTimeRange(START, null);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testStewardFindFreeInTimeRangeNull() {
+        stewardDao.findFreeInTimeRange(null, START);
+    }
+
+    private Random createFlights() {
+        Random random = new Random(7);
+
+        Destination brno = new Destination("Czech Republic", "Brno");
+        Destination london = new Destination("United Kingdom", "London");
+        em.persist(brno);
+        em.persist(london);
+
+        List<Airplane> airplanes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Airplane airplane = new AirplaneBuilder().setName("Airplane" + i).setType("A320").setCapacity(150).build();
+            em.persist(airplane);
+            airplanes.add(airplane);
+        }
+
+        List<Steward> stewards = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Steward steward = new Steward();
+            steward.setFirstName("Name" + i);
+            steward.setSurname("Surname" + i);
+            em.persist(steward);
+            stewards.add(steward);
+        }
+
+        for (int i = 0; i < 60; i++) {
+            LocalDateTime departure = randomTime(random);
+            Flight flight = new Flight();
+            flight.setDepartureLocation(i % 2 == 0 ? brno : london);
+            flight.setArrivalLocation(i % 2 == 0 ? london : brno);
+            flight.setDepartureTime(departure);
+            flight.setArrivalTime(departure.plusHours(1 + random.nextInt(12)));
+            flight.setAirplane(airplanes.get(random.nextInt(airplanes.size())));
+            for (int j = random.nextInt(4); j > 0; j--) {
+                Steward steward = stewards.get(random.nextInt(stewards.size()));
+                if (!flight.getStewards().contains(steward)) {
+                    flight.addSteward(steward);
+                }
+            }
+            flightDao.addFlight(flight);
+        }
+
+        em.flush();
+        return random;
+    }
+
+    private static LocalDateTime randomTime(Random random) {
+        return START.plusMinutes(random.nextInt(60 * 24 * 30));
+    }
+
+    private static boolean overlaps(Flight flight, LocalDateTime start, LocalDateTime end) {
+        return !flight.getDepartureTime().isAfter(end) && !flight.getArrivalTime().isBefore(start);
+    }
+
+    private static <T> List<T> without(List<T> all, Set<T> excluded) {
+        List<T> result = new ArrayList<>(all);
+        result.removeAll(excluded);
+        return result;
+    }
+
+    private static Set<Long> ids(Collection<?> entities) {
+        return entities.stream().map(AvailabilityDaoTest::id).collect(Collectors.toSet());
+    }
+
+    private static Long id(Object entity) {
+        return entity instanceof Airplane ? ((Airplane) entity).getId() : ((Steward) entity).getId();
+    }
+}
@@ -0,0 +1,219 @@
+package cz.fi.muni.pa165;
+
+import cz.fi.muni.pa165.dao.AirplaneDao;
+import cz.fi.muni.pa165.dao.DestinationDao;
+import cz.fi.muni.pa165.dao.FlightDao;
+import cz.fi.muni.pa165.dao.StewardDao;
+import cz.fi.muni.pa165.dao.UserDao;
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
+import cz.fi.muni.pa165.entities.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests the batch inserts of the DAOs.
+ *
+ * @author Robert Duriancik
+ */
+public class BatchInsertDaoTest extends BaseDaoTest {
+
+    private static final int FLIGHT_COUNT = 1000;
+
+    private static final int BATCH_SIZE = 50;
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, Month.DECEMBER, 1, 0, 0);
+
+    @Autowired
+    private DestinationDao destinationDao;
+
+    @Autowired
+    private AirplaneDao airplaneDao;
+
+    @Autowired
+    private StewardDao stewardDao;
+
+    @Autowired
+    private FlightDao flightDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Test
+    @Transactional
+    public void testAddAllFlights() {
+        List<Destination> destinations = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            destinations.add(new Destination("Country" + i, "City" + i));
+        }
+        destinationDao.addAll(destinations);
+
+        List<Airplane> airplanes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            airplanes.add(new AirplaneBuilder().setName("Airplane" + i).setType("A320").setCapacity(150).build());
+        }
+        airplaneDao.addAll(airplanes);
+
+        List<Steward> stewards = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Steward steward = new Steward();
+            steward.setFirstName("Name" + i);
+            steward.setSurname("Surname" + i);
+            stewards.add(steward);
+        }
+        stewardDao.addAll(stewards);
+
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < FLIGHT_COUNT; i++) {
+            Flight flight = new Flight();
+            flight.setDepartureLocation(destinations.get(i % destinations.size()));
+            flight.setArrivalLocation(destinations.get((i + 1) % destinations.size()));
+            flight.setDepartureTime(START.plusHours(i));
+            flight.setArrivalTime(START.plusHours(i + 2));
+            flight.setAirplane(airplanes.get(i % airplanes.size()));
+            flight.addSteward(stewards.get(i % stewards.size()));
+            flights.add(flight);
+        }
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            flightDao.addAll(flights);
+
+            // one sequence call and one insert batch into each of the two tables per 50 flights
+            Assert.assertTrue(statistics.getPrepareStatementCount() <= 3 * FLIGHT_COUNT / BATCH_SIZE + 3,
+                    "Statements: " + statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        Set<Long> ids = new HashSet<>();
+        flights.forEach(flight -> ids.add(flight.getId()));
+        Assert.assertEquals(ids.size(), FLIGHT_COUNT);
+        Assert.assertFalse(em.contains(flights.get(0)));
+
+        List<Flight> stored = flightDao.getAllFlights();
+        Assert.assertEquals(stored.size(), FLIGHT_COUNT);
+        Flight last = flightDao.getFlightWithCrew(flights.get(FLIGHT_COUNT - 1).getId());
+        Assert.assertEquals(last.getStewards(), Collections.singletonList(stewards.get((FLIGHT_COUNT - 1) % 10)));
+        Assert.assertEquals(last.getArrivalLocation(), destinations.get(0));
+    }
+
+    @Test
+    @Transactional
+    public void testAddAllKeepsManagedEntities() {
+        Destination brno = new Destination("Czech Republic", "Brno");
+        Destination prague = new Destination("Czech Republic", "Prague");
+        Steward crew = new Steward();
+        crew.setFirstName("Jan");
+        crew.setSurname("Novak");
+        Flight flight = new Flight();
+        flight.setDepartureLocation(brno);
+        flight.setArrivalLocation(prague);
+        flight.setDepartureTime(START);
+        flight.setArrivalTime(START.plusHours(1));
+        flight.setAirplane(new AirplaneBuilder().setName("Airplane").setType("A320").setCapacity(150).build());
+        flight.addSteward(crew);
+        em.persist(brno);
+        em.persist(prague);
+        em.persist(crew);
+        em.persist(flight.getAirplane());
+        em.persist(flight);
+        em.flush();
+        em.clear();
+
+        Flight managed = flightDao.getFlight(flight.getId());
+        List<Steward> stewards = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE + 10; i++) {
+            Steward steward = new Steward();
+            steward.setFirstName("Name" + i);
+            steward.setSurname("Surname" + i);
+            stewards.add(steward);
+        }
+        stewardDao.addAll(stewards);
+
+        Assert.assertTrue(em.contains(managed));
+        Assert.assertEquals(managed.getStewards().size(), 1);
+        managed.getDepartureLocation().setCity("Olomouc");
+        Assert.assertEquals(destinationDao.getDestinationsByCity("Olomouc").size(), 1);
+        Assert.assertNotNull(stewards.get(BATCH_SIZE + 9).getId());
+    }
+
+    @Test
+    @Transactional
+    public void testAddAllUsers() {
+        User first = createUser("first@example.com");
+        User second = createUser("second@example.com");
+
+        userDao.addAll(Arrays.asList(first, second));
+
+        Assert.assertEquals(userDao.getUserByEmail("second@example.com").getId(), second.getId());
+        Assert.assertNotEquals(first.getId(), second.getId());
+    }
+
+    @Test
+    @Transactional
+    public void testAddAllEmpty() {
+        destinationDao.addAll(Collections.emptyList());
+
+        Assert.assertTrue(destinationDao.getAllDestinations().isEmpty());
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testAddAllNull() {
+        flightDao.addAll(null);
+    }
+
+    @Test
+    @Transactional
+    public void testAddAllInvalidPersistsNothing() {
+        Destination valid = new Destination("Czech Republic", "Brno");
+        Destination invalid = new Destination();
+        invalid.setCountry("Czech Republic");
+
+        try {
+            destinationDao.addAll(Arrays.asList(valid, invalid));
+            Assert.fail("Invalid destination was accepted.");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        Assert.assertNull(valid.getId());
+        Assert.assertTrue(destinationDao.getAllDestinations().isEmpty());
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    @Transactional
+    public void testAddAllNullSteward() {
+        stewardDao.addAll(Collections.singletonList(null));
+    }
+
+    private static User createUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName("John");
+        user.setSurname("Dail");
+        user.setRegistered(START);
+        return user;
+    }
+}
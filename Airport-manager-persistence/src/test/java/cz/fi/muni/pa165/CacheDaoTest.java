@@ -0,0 +1,200 @@
+package cz.fi.muni.pa165;
+
+import cz.fi.muni.pa165.cache.CacheMetrics;
+import cz.fi.muni.pa165.dao.AirplaneDao;
+import cz.fi.muni.pa165.dao.DestinationDao;
+import cz.fi.muni.pa165.dao.StewardDao;
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.entities.Steward;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.function.Supplier;
+
+/**
+ * Tests the second-level cache of the reference entities and its invalidation on the DAO write paths.
+ * The cache is only filled by committed transactions, so every step runs in its own transaction
+ * and the created data are removed after each test.
+ *
+ * @author Robert Duriancik
+ */
+public class CacheDaoTest extends BaseDaoTest {
+
+    @Autowired
+    private AirplaneDao airplaneDao;
+
+    @Autowired
+    private DestinationDao destinationDao;
+
+    @Autowired
+    private StewardDao stewardDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheMetrics cacheMetrics;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    @BeforeMethod
+    public void enableStatistics() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+        statistics.setStatisticsEnabled(false);
+        inTransaction(() -> {
+            em.createQuery("delete from Destination").executeUpdate();
+            em.createQuery("delete from Airplane").executeUpdate();
+            return em.createQuery("delete from Steward").executeUpdate();
+        });
+    }
+
+    @Test
+    public void testDestinationCached() {
+        Destination destination = inTransaction(() -> {
+            Destination brno = new Destination("Czech Republic", "Brno");
+            destinationDao.addDestination(brno);
+            return brno;
+        });
+        inTransaction(() -> destinationDao.getDestination(destination.getId()));
+
+        statistics.clear();
+        Destination cached = inTransaction(() -> destinationDao.getDestination(destination.getId()));
+
+        Assert.assertEquals(cached.getCity(), "Brno");
+        Assert.assertEquals(statistics.getSecondLevelCacheHitCount(), 1);
+        Assert.assertEquals(statistics.getPrepareStatementCount(), 0);
+    }
+
+    @Test
+    public void testAirplaneCached() {
+        Airplane airplane = inTransaction(() -> {
+            Airplane boeing = new AirplaneBuilder().setName("Boeing").setType("737").setCapacity(180).build();
+            airplaneDao.addAirplane(boeing);
+            return boeing;
+        });
+        inTransaction(() -> airplaneDao.findById(airplane.getId()));
+
+        statistics.clear();
+        Airplane cached = inTransaction(() -> airplaneDao.findById(airplane.getId()));
+
+        Assert.assertEquals(cached.getName(), "Boeing");
+        Assert.assertEquals(statistics.getSecondLevelCacheHitCount(), 1);
+        Assert.assertEquals(statistics.getPrepareStatementCount(), 0);
+    }
+
+    @Test
+    public void testStewardUpdateInvalidates() {
+        Steward steward = inTransaction(() -> {
+            Steward john = new Steward();
+            john.setFirstName("John");
+            john.setSurname("Dail");
+            stewardDao.createSteward(john);
+            return john;
+        });
+        inTransaction(() -> stewardDao.getSteward(steward.getId()));
+
+        steward.setFirstName("Jane");
+        inTransaction(() -> {
+            stewardDao.updateSteward(steward);
+            return null;
+        });
+
+        Assert.assertEquals(inTransaction(() -> stewardDao.getSteward(steward.getId())).getFirstName(), "Jane");
+    }
+
+    @Test
+    public void testDestinationRemoveInvalidates() {
+        Destination destination = inTransaction(() -> {
+            Destination london = new Destination("United Kingdom", "London");
+            destinationDao.addDestination(london);
+            return london;
+        });
+        inTransaction(() -> destinationDao.getDestination(destination.getId()));
+
+        inTransaction(() -> {
+            destinationDao.removeDestination(destination);
+            return null;
+        });
+
+        Assert.assertNull(inTransaction(() -> destinationDao.getDestination(destination.getId())));
+    }
+
+    @Test
+    public void testQueryCacheInvalidatedByInsert() {
+        inTransaction(() -> {
+            destinationDao.addDestination(new Destination("Czech Republic", "Brno"));
+            return null;
+        });
+        Assert.assertEquals(inTransaction(() -> destinationDao.getDestinationsByCountry("Czech Republic")).size(), 1);
+
+        statistics.clear();
+        Assert.assertEquals(inTransaction(() -> destinationDao.getDestinationsByCountry("Czech Republic")).size(), 1);
+        Assert.assertEquals(statistics.getQueryCacheHitCount(), 1);
+
+        inTransaction(() -> {
+            destinationDao.addDestination(new Destination("Czech Republic", "Prague"));
+            return null;
+        });
+        Assert.assertEquals(inTransaction(() -> destinationDao.getDestinationsByCountry("Czech Republic")).size(), 2);
+    }
+
+    @Test
+    public void testCacheMetricsExported() throws IOException {
+        Destination destination = inTransaction(() -> {
+            Destination brno = new Destination("Czech Republic", "Brno");
+            destinationDao.addDestination(brno);
+            return brno;
+        });
+        inTransaction(() -> destinationDao.getDestination(destination.getId()));
+
+        String region = "{region=\"" + Destination.class.getName() + "\"}";
+        String before = exportMetrics();
+        inTransaction(() -> destinationDao.getDestination(destination.getId()));
+        String after = exportMetrics();
+
+        Assert.assertEquals(metricValue(after, "airport_cache_hits_total" + region),
+                metricValue(before, "airport_cache_hits_total" + region) + 1);
+        Assert.assertEquals(metricValue(after, "airport_cache_misses_total" + region),
+                metricValue(before, "airport_cache_misses_total" + region));
+        Assert.assertTrue(metricValue(after, "airport_cache_puts_total" + region) >= 1);
+        Assert.assertEquals(metricValue(after, "airport_cache_evictions_total" + region), 0);
+    }
+
+    private String exportMetrics() throws IOException {
+        StringWriter writer = new StringWriter();
+        cacheMetrics.writePrometheus(writer);
+        return writer.toString();
+    }
+
+    private static long metricValue(String metrics, String series) {
+        int start = metrics.indexOf(series + ' ');
+        Assert.assertTrue(start >= 0, series + " not exported:\n" + metrics);
+        int end = metrics.indexOf('\n', start);
+        return Long.parseLong(metrics.substring(start + series.length() + 1, end));
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+}
@@ -0,0 +1,90 @@
+package cz.fi.muni.pa165;
+
+import com.zaxxer.hikari.HikariConfig;
+import cz.fi.muni.pa165.dao.DestinationDao;
+import cz.fi.muni.pa165.jdbc.ConnectionPoolMetrics;
+import cz.fi.muni.pa165.jdbc.DerbyDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Tests the connection pool of the persistence layer.
+ *
+ * @author Robert Duriancik
+ */
+public class ConnectionPoolDaoTest extends BaseDaoTest {
+
+    @Autowired
+    private DerbyDataSource pooledDataSource;
+
+    @Autowired
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
+    @Autowired
+    private DestinationDao destinationDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testReusesConnections() throws IOException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < 20; i++) {
+            transaction.execute(status -> destinationDao.getAllDestinations());
+        }
+
+        String metrics = exportMetrics();
+        Assert.assertTrue(metrics.contains("airport_db_pool_connections{pool=\"airport\",state=\"active\"} 0\n"));
+        int idle = Integer.parseInt(metricValue(metrics, "airport_db_pool_connections{pool=\"airport\",state=\"idle\"}"));
+        Assert.assertTrue(idle >= 1 && idle <= pooledDataSource.getMaximumPoolSize(), "Idle connections: " + idle);
+        Assert.assertTrue(Long.parseLong(metricValue(metrics, "airport_db_pool_acquire_seconds_count{pool=\"airport\"}")) >= 20);
+        Assert.assertTrue(metrics.contains("airport_db_pool_pending_threads{pool=\"airport\"} 0\n"));
+        Assert.assertTrue(metrics.contains("airport_db_pool_timeouts_total{pool=\"airport\"} 0\n"));
+    }
+
+    @Test
+    public void testClosingDropsInMemoryDatabase() throws SQLException {
+        String url = "jdbc:derby:memory:pooltest;create=true";
+        try (DerbyDataSource dataSource = createDataSource(url);
+             Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE pooltest (id INT)");
+        }
+
+        try (DerbyDataSource dataSource = createDataSource(url);
+             Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE pooltest (id INT)");
+        }
+    }
+
+    private String exportMetrics() throws IOException {
+        StringWriter writer = new StringWriter();
+        connectionPoolMetrics.writePrometheus(writer);
+        return writer.toString();
+    }
+
+    private static String metricValue(String metrics, String series) {
+        int start = metrics.indexOf(series + ' ');
+        Assert.assertTrue(start >= 0, "Missing " + series);
+        start += series.length() + 1;
+        return metrics.substring(start, metrics.indexOf('\n', start));
+    }
+
+    private static DerbyDataSource createDataSource(String url) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setDriverClassName(DerbyDataSource.driverClassName(url));
+        config.setMaximumPoolSize(1);
+        return new DerbyDataSource(config);
+    }
+}
@@ -1,6 +1,7 @@
 package cz.fi.muni.pa165;
 
 import cz.fi.muni.pa165.dao.FlightDao;
+import cz.fi.muni.pa165.dao.FlightTimeSlot;
 import cz.fi.muni.pa165.entities.Airplane;
 import cz.fi.muni.pa165.entities.Destination;
 import cz.fi.muni.pa165.entities.Flight;
@@ -14,6 +15,9 @@ import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.time.LocalDateTime;
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -173,6 +177,188 @@ public class FlightDaoTest extends BaseDaoTest {
         Assert.assertTrue(createdFlight1.equals(createdFlight2));
     }
 
+    @Test
+    @Transactional
+    public void testGetFlightsSince() {
+        Flight past = createFlight("USA", "Czech Republic",
+                LocalDateTime.of(2017, Month.JANUARY, 1, 8, 0), LocalDateTime.of(2017, Month.JANUARY, 1, 12, 0));
+        Flight overlapping = createFlight("USA", "Zimbabwe",
+                LocalDateTime.of(2017, Month.JANUARY, 2, 8, 0), LocalDateTime.of(2017, Month.JANUARY, 2, 12, 0));
+        Flight future = createFlight("China", "Czech Republic",
+                LocalDateTime.of(2017, Month.JANUARY, 3, 8, 0), LocalDateTime.of(2017, Month.JANUARY, 3, 12, 0));
+        flightDao.addFlight(past);
+        flightDao.addFlight(overlapping);
+        flightDao.addFlight(future);
+
+        List<Flight> flights = flightDao.getFlightsSince(LocalDateTime.of(2017, Month.JANUARY, 2, 10, 0));
+
+        Assert.assertEquals(2, flights.size());
+        Assert.assertTrue(flights.contains(overlapping) && flights.contains(future));
+    }
+
+    @Test
+    @Transactional
+    public void testGetFlightsInTimeRange() {
+        Flight departsInRange = createFlight("USA", "Czech Republic",
+                LocalDateTime.of(2017, Month.JANUARY, 1, 10, 0), LocalDateTime.of(2017, Month.JANUARY, 1, 20, 0));
+        Flight arrivesInRange = createFlight("USA", "Zimbabwe",
+                LocalDateTime.of(2017, Month.JANUARY, 1, 2, 0), LocalDateTime.of(2017, Month.JANUARY, 1, 8, 0));
+        Flight spansRange = createFlight("Czech Republic", "China",
+                LocalDateTime.of(2017, Month.JANUARY, 1, 7, 0), LocalDateTime.of(2017, Month.JANUARY, 1, 13, 0));
+        Flight outOfRange = createFlight("China", "Czech Republic",
+                LocalDateTime.of(2017, Month.JANUARY, 2, 8, 0), LocalDateTime.of(2017, Month.JANUARY, 2, 12, 0));
+        flightDao.addFlight(departsInRange);
+        flightDao.addFlight(arrivesInRange);
+        flightDao.addFlight(spansRange);
+        flightDao.addFlight(outOfRange);
+
+        List<Flight> flights = flightDao.getFlightsInTimeRange(
+                LocalDateTime.of(2017, Month.JANUARY, 1, 8, 0), LocalDateTime.of(2017, Month.JANUARY, 1, 12, 0));
+
+        Assert.assertEquals(3, flights.size());
+        Assert.assertTrue(flights.contains(departsInRange) && flights.contains(arrivesInRange));
+        Assert.assertTrue(flights.contains(spansRange));
+    }
+
+    @Test
+    @Transactional
+    public void testGetCurrentFlights() {
+        Flight inTheAir = createFlight("USA", "Czech Republic",
+                LocalDateTime.of(2017, Month.JANUARY, 1, 8, 0), LocalDateTime.of(2017, Month.JANUARY, 1, 20, 0));
+        Flight landed = createFlight("USA", "Zimbabwe",
+                LocalDateTime.of(2017, Month.JANUARY, 1, 2, 0), LocalDateTime.of(2017, Month.JANUARY, 1, 6, 0));
+        flightDao.addFlight(inTheAir);
+        flightDao.addFlight(landed);
+
+        List<Flight> flights = flightDao.getCurrentFlights(LocalDateTime.of(2017, Month.JANUARY, 1, 12, 0));
+
+        Assert.assertEquals(1, flights.size());
+        Assert.assertEquals(inTheAir, flights.get(0));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testGetCurrentFlightsNull() {
+        flightDao.getCurrentFlights(null);
+    }
+
+    @Test
+    @Transactional
+    public void testGetFlightsByIds() {
+        Flight later = createFlight("USA", "Czech Republic",
+                LocalDateTime.of(2017, Month.JANUARY, 2, 8, 0), LocalDateTime.of(2017, Month.JANUARY, 2, 20, 0));
+        Flight earlier = createFlight("USA", "Zimbabwe",
+                LocalDateTime.of(2017, Month.JANUARY, 1, 2, 0), LocalDateTime.of(2017, Month.JANUARY, 1, 6, 0));
+        Flight other = createFlight("USA", "Slovakia");
+        flightDao.addFlight(later);
+        flightDao.addFlight(earlier);
+        flightDao.addFlight(other);
+
+        List<Flight> flights = flightDao.getFlightsByIds(Arrays.asList(later.getId(), earlier.getId(), -1L));
+
+        Assert.assertEquals(flights, Arrays.asList(earlier, later));
+        Assert.assertTrue(flightDao.getFlightsByIds(Collections.emptyList()).isEmpty());
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    @Transactional
+    public void testGetFlightsByIdsNull() {
+        flightDao.getFlightsByIds(null);
+    }
+
+    @Test
+    @Transactional
+    public void testGetStewardFlightTimeSlots() {
+        Flight later = createFlight("USA", "Czech Republic",
+                LocalDateTime.of(2017, Month.JANUARY, 2, 8, 0), LocalDateTime.of(2017, Month.JANUARY, 2, 20, 0));
+        Flight earlier = createFlight("USA", "Zimbabwe",
+                LocalDateTime.of(2017, Month.JANUARY, 1, 2, 0), LocalDateTime.of(2017, Month.JANUARY, 1, 6, 0));
+        Flight other = createFlight("USA", "Slovakia");
+        Steward steward = earlier.getStewards().get(0);
+        later.addSteward(steward);
+        flightDao.addFlight(later);
+        flightDao.addFlight(earlier);
+        flightDao.addFlight(other);
+
+        List<FlightTimeSlot> slots = flightDao.getStewardFlightTimeSlots(steward.getId());
+
+        Assert.assertEquals(slots, Arrays.asList(
+                new FlightTimeSlot(earlier.getId(), earlier.getDepartureTime(), earlier.getArrivalTime()),
+                new FlightTimeSlot(later.getId(), later.getDepartureTime(), later.getArrivalTime())));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testGetStewardFlightTimeSlotsNull() {
+        flightDao.getStewardFlightTimeSlots(null);
+    }
+
+    @Test
+    @Transactional
+    public void testGetIncomingAndOutgoingFlights() {
+        Flight later = createFlight("USA", "Czech Republic",
+                LocalDateTime.of(2017, Month.JANUARY, 2, 8, 0), LocalDateTime.of(2017, Month.JANUARY, 2, 20, 0));
+        Flight earlier = createFlight("Germany", "Zimbabwe",
+                LocalDateTime.of(2017, Month.JANUARY, 1, 2, 0), LocalDateTime.of(2017, Month.JANUARY, 1, 6, 0));
+        Destination hub = later.getArrivalLocation();
+        earlier.setArrivalLocation(hub);
+        Flight returning = createFlight("Slovakia", "Austria");
+        returning.setDepartureLocation(hub);
+        flightDao.addFlight(later);
+        flightDao.addFlight(earlier);
+        flightDao.addFlight(returning);
+
+        Assert.assertEquals(flightDao.getIncomingFlights(hub.getId()), Arrays.asList(earlier, later));
+        Assert.assertEquals(flightDao.getOutgoingFlights(hub.getId()), Collections.singletonList(returning));
+        Assert.assertTrue(flightDao.getIncomingFlights(returning.getArrivalLocation().getId()).contains(returning));
+        Assert.assertTrue(flightDao.getOutgoingFlights(-1L).isEmpty());
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testGetIncomingFlightsNull() {
+        flightDao.getIncomingFlights(null);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testGetOutgoingFlightsNull() {
+        flightDao.getOutgoingFlights(null);
+    }
+
+    @Test
+    @Transactional
+    public void testGetAllFlightTimeSlots() {
+        Flight flight = createFlight("USA", "Czech Republic");
+        flightDao.addFlight(flight);
+
+        List<FlightTimeSlot> slots = flightDao.getAllFlightTimeSlots();
+
+        Assert.assertEquals(slots, Collections.singletonList(
+                new FlightTimeSlot(flight.getId(), flight.getDepartureTime(), flight.getArrivalTime())));
+    }
+
+    @Test
+    @Transactional
+    public void testScrollAllFlights() {
+        Flight later = createFlight("USA", "Czech Republic",
+                LocalDateTime.of(2017, Month.JANUARY, 2, 8, 0), LocalDateTime.of(2017, Month.JANUARY, 2, 20, 0));
+        Flight earlier = createFlight("USA", "Zimbabwe",
+                LocalDateTime.of(2017, Month.JANUARY, 1, 2, 0), LocalDateTime.of(2017, Month.JANUARY, 1, 6, 0));
+        flightDao.addFlight(later);
+        flightDao.addFlight(earlier);
+        em.flush();
+
+        List<Long> scrolled = new ArrayList<>();
+        flightDao.scrollAllFlights(flight -> {
+            Assert.assertNotNull(flight.getAirplane().getName());
+            scrolled.add(flight.getId());
+        });
+
+        Assert.assertEquals(scrolled, Arrays.asList(earlier.getId(), later.getId()));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testScrollAllFlightsNull() {
+        flightDao.scrollAllFlights(null);
+    }
+
     @Test(expectedExceptions = NullPointerException.class)
     public void testCreateNullFlight(){
         flightDao.addFlight(null);
@@ -189,19 +375,19 @@ public class FlightDaoTest extends BaseDaoTest {
     }
 
     private Flight createFlight(String arrivalState, String departureState) {
+        return createFlight(arrivalState, departureState,
+                LocalDateTime.of(2017, Month.DECEMBER, 24, 8, 30),
+                LocalDateTime.of(2017, Month.DECEMBER, 24, 20, 30));
+    }
+
+    private Flight createFlight(String arrivalState, String departureState,
+                                LocalDateTime departureTime, LocalDateTime arrivalTime) {
         // Create destinations
         String arrivalCityName = "UNKOWN";
         String departureCityName = "UNKOWN";
 
-        Destination arrivalDestination = new Destination();
-        arrivalDestination.setCity(arrivalCityName);
-        arrivalDestination.setCountry(arrivalState);
-        em.persist(arrivalDestination);
-
-        Destination departureDestination = new Destination();
-        departureDestination.setCity(departureCityName);
-        departureDestination.setCountry(departureState);
-        em.persist(departureDestination);
+        Destination arrivalDestination = getOrCreateDestination(arrivalState, arrivalCityName);
+        Destination departureDestination = getOrCreateDestination(departureState, departureCityName);
 
         // Create stewards
         Steward steward = new Steward();
@@ -212,10 +398,6 @@ public class FlightDaoTest extends BaseDaoTest {
         stewards.add(steward);
 
 
-        // Create times
-        LocalDateTime departureTime = LocalDateTime.of(2017, Month.DECEMBER, 24, 8, 30);
-        LocalDateTime arrivalTime = LocalDateTime.of(2017, Month.DECEMBER, 24, 20, 30);
-
         // Create airplane
         Airplane airPlane = new Airplane();
         airPlane.setCapacity(100);
@@ -233,5 +415,23 @@ public class FlightDaoTest extends BaseDaoTest {
         return flight;
     }
 
+    /**
+     * Destinations are unique by country and city, so flights of one test share them.
+     */
+    private Destination getOrCreateDestination(String country, String city) {
+        List<Destination> existing = em.createQuery("select d from Destination d " +
+                "where d.country = :country and d.city = :city", Destination.class)
+                .setParameter("country", country)
+                .setParameter("city", city)
+                .getResultList();
+        if (!existing.isEmpty()) {
+            return existing.get(0);
+        }
+
+        Destination destination = new Destination();
+        destination.setCity(city);
+        destination.setCountry(country);
+        em.persist(destination);
+        return destination;
+    }
 }
-
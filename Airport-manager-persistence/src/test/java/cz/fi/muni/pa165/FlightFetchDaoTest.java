@@ -0,0 +1,151 @@
+package cz.fi.muni.pa165;
+
+import cz.fi.muni.pa165.dao.FlightDao;
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests the number of statements needed to load flights with all their associations.
+ *
+ * @author Karel Jiranek
+ */
+public class FlightFetchDaoTest extends BaseDaoTest {
+
+    private static final int FLIGHT_COUNT = 1000;
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, Month.DECEMBER, 1, 0, 0);
+
+    @Autowired
+    private FlightDao flightDao;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Test
+    @Transactional
+    public void testFlightListingStatementCount() {
+        createFlights();
+        Statistics statistics = startStatistics();
+
+        List<Flight> flights = flightDao.getAllFlights();
+        int stewards = touchAssociations(flights);
+
+        Assert.assertEquals(flights.size(), FLIGHT_COUNT);
+        Assert.assertEquals(stewards, FLIGHT_COUNT * 2);
+        long batches = (FLIGHT_COUNT + Flight.STEWARDS_BATCH_SIZE - 1) / Flight.STEWARDS_BATCH_SIZE;
+        Assert.assertTrue(statistics.getPrepareStatementCount() <= 1 + batches,
+                "Statements: " + statistics.getPrepareStatementCount());
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @Transactional
+    public void testFlightPageStatementCount() {
+        createFlights();
+        Statistics statistics = startStatistics();
+
+        List<Flight> flights = flightDao.getFlightsPageAfter(null, 100);
+        touchAssociations(flights);
+
+        Assert.assertEquals(flights.size(), 100);
+        Assert.assertTrue(statistics.getPrepareStatementCount() <= 1 + 100 / Flight.STEWARDS_BATCH_SIZE,
+                "Statements: " + statistics.getPrepareStatementCount());
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @Transactional
+    public void testFlightWithCrewStatementCount() {
+        Long id = createFlights().getId();
+        Statistics statistics = startStatistics();
+
+        Flight flight = flightDao.getFlightWithCrew(id);
+        touchAssociations(Collections.singletonList(flight));
+
+        Assert.assertEquals(statistics.getPrepareStatementCount(), 1);
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testFlightWithCrewNull() {
+        flightDao.getFlightWithCrew(null);
+    }
+
+    private Statistics startStatistics() {
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        return statistics;
+    }
+
+    private static int touchAssociations(List<Flight> flights) {
+        int stewards = 0;
+        for (Flight flight : flights) {
+            Assert.assertNotNull(flight.getDepartureLocation().getCity());
+            Assert.assertNotNull(flight.getArrivalLocation().getCity());
+            Assert.assertNotNull(flight.getAirplane().getName());
+            for (Steward steward : flight.getStewards()) {
+                Assert.assertNotNull(steward.getSurname());
+                stewards++;
+            }
+        }
+        return stewards;
+    }
+
+    private Flight createFlights() {
+        List<Destination> destinations = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Destination destination = new Destination("Country" + i, "City" + i);
+            em.persist(destination);
+            destinations.add(destination);
+        }
+
+        List<Airplane> airplanes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Airplane airplane = new AirplaneBuilder().setName("Airplane" + i).setType("A320").setCapacity(150).build();
+            em.persist(airplane);
+            airplanes.add(airplane);
+        }
+
+        List<Steward> stewards = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Steward steward = new Steward();
+            steward.setFirstName("Name" + i);
+            steward.setSurname("Surname" + i);
+            em.persist(steward);
+            stewards.add(steward);
+        }
+
+        Flight flight = null;
+        for (int i = 0; i < FLIGHT_COUNT; i++) {
+            flight = new Flight();
+            flight.setDepartureLocation(destinations.get(i % destinations.size()));
+            flight.setArrivalLocation(destinations.get((i + 1) % destinations.size()));
+            flight.setDepartureTime(START.plusHours(i));
+            flight.setArrivalTime(START.plusHours(i + 2));
+            flight.setAirplane(airplanes.get(i % airplanes.size()));
+            flight.addSteward(stewards.get(i % stewards.size()));
+            flight.addSteward(stewards.get((i + 1) % stewards.size()));
+            em.persist(flight);
+        }
+        return flight;
+    }
+}
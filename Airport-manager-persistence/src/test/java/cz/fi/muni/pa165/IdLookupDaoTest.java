@@ -0,0 +1,186 @@
+package cz.fi.muni.pa165;
+
+import cz.fi.muni.pa165.dao.AirplaneDao;
+import cz.fi.muni.pa165.dao.DestinationDao;
+import cz.fi.muni.pa165.dao.FlightDao;
+import cz.fi.muni.pa165.dao.StewardDao;
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tests the lookups by a collection of ids and the references, and the number of statements
+ * needed to store a flight with its crew through them.
+ *
+ * @author Robert Duriancik
+ */
+public class IdLookupDaoTest extends BaseDaoTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, Month.DECEMBER, 1, 10, 0);
+
+    @Autowired
+    private DestinationDao destinationDao;
+
+    @Autowired
+    private AirplaneDao airplaneDao;
+
+    @Autowired
+    private StewardDao stewardDao;
+
+    @Autowired
+    private FlightDao flightDao;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @AfterMethod
+    public void disableStatistics() {
+        statistics().setStatisticsEnabled(false);
+    }
+
+    @Test
+    @Transactional
+    public void testGetStewardsByIds() {
+        List<Steward> stewards = createStewards(3);
+
+        List<Steward> found = stewardDao.getStewardsByIds(
+                Arrays.asList(stewards.get(0).getId(), stewards.get(2).getId(), stewards.get(0).getId(), -1L));
+
+        Assert.assertEquals(new HashSet<>(found), new HashSet<>(Arrays.asList(stewards.get(0), stewards.get(2))));
+        Assert.assertEquals(found.size(), 2);
+    }
+
+    @Test
+    @Transactional
+    public void testGetDestinationsAndAirplanesByIds() {
+        Destination brno = new Destination("Czech Republic", "Brno");
+        destinationDao.addDestination(brno);
+        Airplane boeing = new AirplaneBuilder().setName("Boeing").setType("737").setCapacity(180).build();
+        airplaneDao.addAirplane(boeing);
+
+        Assert.assertEquals(destinationDao.getDestinationsByIds(Arrays.asList(brno.getId(), -1L)), Arrays.asList(brno));
+        Assert.assertEquals(airplaneDao.findByIds(Arrays.asList(boeing.getId(), -1L)), Arrays.asList(boeing));
+        Assert.assertTrue(airplaneDao.findByIds(new ArrayList<>()).isEmpty());
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testGetStewardsByIdsNull() {
+        stewardDao.getStewardsByIds(null);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testGetDestinationReferenceNull() {
+        destinationDao.getDestinationReference(null);
+    }
+
+    @Test
+    @Transactional
+    public void testReferenceNotLoaded() {
+        Destination brno = new Destination("Czech Republic", "Brno");
+        destinationDao.addDestination(brno);
+        em.clear();
+        Statistics statistics = startStatistics();
+
+        Destination reference = destinationDao.getDestinationReference(brno.getId());
+
+        Assert.assertEquals(reference.getId(), brno.getId());
+        Assert.assertEquals(statistics.getPrepareStatementCount(), 0);
+    }
+
+    @Test
+    @Transactional
+    public void testCreateAndUpdateFlightConstantStatements() {
+        long[] smallCrew = storeFlight(2);
+        long[] largeCrew = storeFlight(12);
+
+        // either store may additionally fetch the next block of flight ids from the sequence
+        Assert.assertTrue(largeCrew[0] <= smallCrew[0] + 1,
+                "Statements of create: " + smallCrew[0] + " and " + largeCrew[0]);
+        Assert.assertTrue(largeCrew[1] <= smallCrew[1] + 1,
+                "Statements of update: " + smallCrew[1] + " and " + largeCrew[1]);
+    }
+
+    /**
+     * Creates and then updates a flight with the crew of the given size the way the flight facade does.
+     *
+     * @return statement counts of the create and of the update
+     */
+    private long[] storeFlight(int crewSize) {
+        Destination departure = new Destination("Country" + crewSize, "Departure");
+        Destination arrival = new Destination("Country" + crewSize, "Arrival");
+        destinationDao.addDestination(departure);
+        destinationDao.addDestination(arrival);
+        Airplane airplane = new AirplaneBuilder().setName("Airplane" + crewSize).setType("A320").setCapacity(150).build();
+        airplaneDao.addAirplane(airplane);
+        List<Long> crew = createStewards(crewSize).stream().map(Steward::getId).collect(Collectors.toList());
+        em.clear();
+
+        Statistics statistics = startStatistics();
+        Flight flight = createFlight(departure.getId(), arrival.getId(), airplane.getId(), crew);
+        flightDao.addFlight(flight);
+        long create = statistics.getPrepareStatementCount();
+        em.clear();
+
+        statistics.clear();
+        Flight update = createFlight(arrival.getId(), departure.getId(), airplane.getId(), crew.subList(1, crewSize));
+        update.setId(flight.getId());
+        flightDao.updateFlight(update);
+        em.flush();
+        long updated = statistics.getPrepareStatementCount();
+        em.clear();
+
+        return new long[]{create, updated};
+    }
+
+    private Flight createFlight(Long departureId, Long arrivalId, Long airplaneId, List<Long> stewardIds) {
+        Flight flight = new Flight();
+        flight.setDepartureTime(START);
+        flight.setArrivalTime(START.plusHours(2));
+        flight.setDepartureLocation(destinationDao.getDestinationReference(departureId));
+        flight.setArrivalLocation(destinationDao.getDestinationReference(arrivalId));
+        flight.setAirplane(airplaneDao.getReference(airplaneId));
+        stewardDao.getStewardsByIds(stewardIds).forEach(flight::addSteward);
+        return flight;
+    }
+
+    private List<Steward> createStewards(int count) {
+        List<Steward> stewards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Steward steward = new Steward();
+            steward.setFirstName("Name" + i);
+            steward.setSurname("Surname" + count);
+            stewards.add(steward);
+        }
+        stewardDao.addAll(stewards);
+        return stewards;
+    }
+
+    private Statistics startStatistics() {
+        Statistics statistics = statistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        return statistics;
+    }
+
+    private Statistics statistics() {
+        return em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,215 @@
+package cz.fi.muni.pa165;
+
+import cz.fi.muni.pa165.dao.AirplaneDao;
+import cz.fi.muni.pa165.dao.DestinationDao;
+import cz.fi.muni.pa165.dao.FlightDao;
+import cz.fi.muni.pa165.dao.StewardDao;
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Tests the keyset pagination queries by walking all pages in both directions.
+ *
+ * @author Robert Duriancik
+ */
+public class PaginationDaoTest extends BaseDaoTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, Month.DECEMBER, 1, 0, 0);
+
+    @Autowired
+    private AirplaneDao airplaneDao;
+
+    @Autowired
+    private StewardDao stewardDao;
+
+    @Autowired
+    private DestinationDao destinationDao;
+
+    @Autowired
+    private FlightDao flightDao;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Test
+    @Transactional
+    public void testFlightPages() {
+        createData();
+        List<Flight> expected = flightDao.getAllFlights();
+        expected.sort(Comparator.comparing(Flight::getDepartureTime).thenComparing(Flight::getId));
+
+        for (int limit : new int[]{1, 4, 7, 100}) {
+            assertPages(expected, Flight::getId, flightDao::getFlightsPageAfter, flightDao::getFlightsPageBefore, limit);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void testAirplanePages() {
+        createData();
+        List<Airplane> expected = airplaneDao.findAll();
+        expected.sort(Comparator.comparing(Airplane::getName).thenComparing(Airplane::getId));
+
+        for (int limit : new int[]{1, 3, 100}) {
+            assertPages(expected, Airplane::getId, airplaneDao::findPageAfter, airplaneDao::findPageBefore, limit);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void testStewardPages() {
+        createData();
+        List<Steward> expected = stewardDao.listAllStewards();
+        expected.sort(Comparator.comparing(Steward::getSurname)
+                .thenComparing(Steward::getFirstName)
+                .thenComparing(Steward::getId));
+
+        for (int limit : new int[]{1, 3, 100}) {
+            assertPages(expected, Steward::getId, stewardDao::listStewardsPageAfter,
+                    stewardDao::listStewardsPageBefore, limit);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void testDestinationPages() {
+        createData();
+        List<Destination> expected = destinationDao.getAllDestinations();
+        expected.sort(Comparator.comparing(Destination::getId));
+
+        for (int limit : new int[]{1, 2, 100}) {
+            assertPages(expected, Destination::getId, destinationDao::getDestinationsPageAfter,
+                    destinationDao::getDestinationsPageBefore, limit);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void testEmptyTable() {
+        Assert.assertTrue(flightDao.getFlightsPageAfter(null, 10).isEmpty());
+        Assert.assertTrue(airplaneDao.findPageAfter(null, 10).isEmpty());
+        Assert.assertTrue(stewardDao.listStewardsPageAfter(null, 10).isEmpty());
+        Assert.assertTrue(destinationDao.getDestinationsPageAfter(null, 10).isEmpty());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    @Transactional
+    public void testFlightPageUnknownCursor() {
+        flightDao.getFlightsPageAfter(Long.MAX_VALUE, 10);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    @Transactional
+    public void testAirplanePageUnknownCursor() {
+        airplaneDao.findPageBefore(Long.MAX_VALUE, 10);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    @Transactional
+    public void testStewardPageUnknownCursor() {
+        stewardDao.listStewardsPageAfter(Long.MAX_VALUE, 10);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testFlightPageZeroLimit() {
+        flightDao.getFlightsPageAfter(null, 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testDestinationPageZeroLimit() {
+        destinationDao.getDestinationsPageAfter(null, 0);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testFlightPageBeforeNull() {
+        flightDao.getFlightsPageBefore(null, 10);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testStewardPageBeforeNull() {
+        stewardDao.listStewardsPageBefore(null, 10);
+    }
+
+    /**
+     * Walks all pages forward and checks that they cover the expected order,
+     * and that each page is preceded by the page returned before it.
+     */
+    private static <T> void assertPages(List<T> expected, Function<T, Long> id,
+                                        BiFunction<Long, Integer, List<T>> after,
+                                        BiFunction<Long, Integer, List<T>> before, int limit) {
+        List<T> walked = new ArrayList<>();
+        List<T> previous = null;
+        Long cursor = null;
+        while (true) {
+            List<T> page = after.apply(cursor, limit);
+            Assert.assertTrue(page.size() <= limit);
+            if (page.isEmpty()) {
+                break;
+            }
+            if (previous != null) {
+                Assert.assertEquals(before.apply(id.apply(page.get(0)), limit), previous);
+            } else {
+                Assert.assertTrue(before.apply(id.apply(page.get(0)), limit).isEmpty());
+            }
+            walked.addAll(page);
+            previous = page;
+            cursor = id.apply(page.get(page.size() - 1));
+        }
+        Assert.assertEquals(walked, expected);
+    }
+
+    private void createData() {
+        Random random = new Random(11);
+
+        List<Destination> destinations = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Destination destination = new Destination("Country" + i, "City" + i);
+            em.persist(destination);
+            destinations.add(destination);
+        }
+
+        List<Airplane> airplanes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Airplane airplane = new AirplaneBuilder().setName("Airplane" + (i % 3)).setType("A320").setCapacity(150).build();
+            em.persist(airplane);
+            airplanes.add(airplane);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            Steward steward = new Steward();
+            steward.setFirstName("Name" + (i % 2));
+            steward.setSurname("Surname" + (i % 4));
+            em.persist(steward);
+        }
+
+        for (int i = 0; i < 30; i++) {
+            LocalDateTime departure = START.plusHours(random.nextInt(10));
+            Flight flight = new Flight();
+            flight.setDepartureLocation(destinations.get(i % destinations.size()));
+            flight.setArrivalLocation(destinations.get((i + 1) % destinations.size()));
+            flight.setDepartureTime(departure);
+            flight.setArrivalTime(departure.plusHours(2));
+            flight.setAirplane(airplanes.get(random.nextInt(airplanes.size())));
+            flightDao.addFlight(flight);
+        }
+
+        em.flush();
+    }
+}
@@ -0,0 +1,205 @@
+package cz.fi.muni.pa165;
+
+import cz.fi.muni.pa165.dao.AirplaneDao;
+import cz.fi.muni.pa165.dao.DestinationDao;
+import cz.fi.muni.pa165.dao.FlightDao;
+import cz.fi.muni.pa165.dao.StewardDao;
+import cz.fi.muni.pa165.dao.UserDao;
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
+import cz.fi.muni.pa165.entities.User;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.CallableStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query plan regression test of the hot lookups. Each query is run on a populated Derby database
+ * with runtime statistics enabled, and its plan must not fall back to a table scan of the queried table.
+ *
+ * @author Robert Duriancik
+ */
+public class QueryPlanDaoTest extends BaseDaoTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2017, Month.DECEMBER, 1, 0, 0);
+
+    private static final String[] TABLES = {"DESTINATION", "AIRPLANE", "FLIGHT", "STEWARD", "FLIGHT_STEWARD", "USERS"};
+
+    @Autowired
+    private DestinationDao destinationDao;
+
+    @Autowired
+    private AirplaneDao airplaneDao;
+
+    @Autowired
+    private FlightDao flightDao;
+
+    @Autowired
+    private StewardDao stewardDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Test
+    @Transactional
+    public void testDestinationLookups() {
+        createData();
+
+        assertNoTableScan("DESTINATION", () -> destinationDao.getDestinationsByCity("City7"));
+        assertNoTableScan("DESTINATION", () -> destinationDao.getDestinationsByCountry("Country7"));
+    }
+
+    @Test
+    @Transactional
+    public void testAirplaneLookups() {
+        createData();
+
+        assertNoTableScan("AIRPLANE", () -> airplaneDao.findByType("Type7"));
+        assertNoTableScan("AIRPLANE", () -> airplaneDao.findByName("Airplane7"));
+    }
+
+    @Test
+    @Transactional
+    public void testFlightLookups() {
+        Destination destination = createData();
+
+        assertNoTableScan("FLIGHT", () -> flightDao.getIncomingFlights(destination.getId()));
+        assertNoTableScan("FLIGHT", () -> flightDao.getOutgoingFlights(destination.getId()));
+    }
+
+    @Test
+    @Transactional
+    public void testFlightTimeWindowLookups() {
+        createData();
+        LocalDateTime start = START.plusHours(1000);
+
+        assertNoTableScan("FLIGHT", () -> flightDao.getFlightsInTimeRange(start, start.plusHours(3)));
+        assertNoTableScan("FLIGHT", () -> flightDao.getCurrentFlights(start));
+    }
+
+    @Test
+    @Transactional
+    public void testFreeInTimeWindowLookups() {
+        createData();
+        LocalDateTime start = START.plusHours(1000);
+
+        assertNoTableScan("FLIGHT", () -> airplaneDao.findFreeInTimeRange(start, start.plusHours(3)));
+        assertNoTableScan("FLIGHT", () -> stewardDao.findFreeInTimeRange(start, start.plusHours(3)));
+    }
+
+    @Test
+    @Transactional
+    public void testUserByEmail() {
+        createData();
+
+        assertNoTableScan("USERS", () -> userDao.getUserByEmail("user7@example.com"));
+    }
+
+    /**
+     * Runs the query with runtime statistics enabled and checks the plan of its statement.
+     */
+    private void assertNoTableScan(String table, Runnable query) {
+        Session session = em.unwrap(Session.class);
+        session.doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(1)");
+            }
+        });
+        query.run();
+        session.doWork(connection -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet plan = statement.executeQuery("VALUES SYSCS_UTIL.SYSCS_GET_RUNTIMESTATISTICS()")) {
+                Assert.assertTrue(plan.next());
+                String text = plan.getString(1);
+                Assert.assertFalse(text.contains("Table Scan ResultSet for " + table + " "), text);
+                // a hash join reads its inner table by a hash scan, which is a table scan unless it uses an index
+                Assert.assertFalse(text.contains("Hash Scan ResultSet for " + table + " at "), text);
+                Assert.assertTrue(text.contains("Scan ResultSet for " + table + " using "), text);
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(0)");
+                }
+            }
+        });
+    }
+
+    /**
+     * Fills the tables with enough rows for the optimizer to prefer the indexes,
+     * and refreshes the index statistics.
+     *
+     * @return a destination with incoming and outgoing flights
+     */
+    private Destination createData() {
+        List<Destination> destinations = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Destination destination = new Destination("Country" + i, "City" + i);
+            em.persist(destination);
+            destinations.add(destination);
+        }
+
+        List<Airplane> airplanes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Airplane airplane = new AirplaneBuilder().setName("Airplane" + i).setType("Type" + (i % 50))
+                    .setCapacity(50 + i).build();
+            em.persist(airplane);
+            airplanes.add(airplane);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            User user = new User();
+            user.setEmail("user" + i + "@example.com");
+            user.setName("Name" + i);
+            user.setSurname("Surname" + i);
+            user.setRegistered(START);
+            em.persist(user);
+        }
+
+        List<Steward> stewards = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Steward steward = new Steward();
+            steward.setFirstName("FirstName" + i);
+            steward.setSurname("Surname" + i);
+            em.persist(steward);
+            stewards.add(steward);
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            Flight flight = new Flight();
+            flight.setDepartureLocation(destinations.get(i % destinations.size()));
+            flight.setArrivalLocation(destinations.get((i + 1) % destinations.size()));
+            flight.setDepartureTime(START.plusHours(i));
+            flight.setArrivalTime(START.plusHours(i + 2));
+            flight.setAirplane(airplanes.get(i % airplanes.size()));
+            flight.addSteward(stewards.get(i % stewards.size()));
+            em.persist(flight);
+        }
+        em.flush();
+
+        em.unwrap(Session.class).doWork(connection -> {
+            for (String table : TABLES) {
+                try (CallableStatement statement = connection.prepareCall(
+                        "CALL SYSCS_UTIL.SYSCS_UPDATE_STATISTICS(CURRENT SCHEMA, ?, NULL)")) {
+                    statement.setString(1, table);
+                    statement.execute();
+                }
+            }
+        });
+        return destinations.get(1);
+    }
+}
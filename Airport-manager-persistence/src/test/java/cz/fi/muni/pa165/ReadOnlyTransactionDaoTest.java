@@ -0,0 +1,89 @@
+package cz.fi.muni.pa165;
+
+import cz.fi.muni.pa165.dao.DestinationDao;
+import cz.fi.muni.pa165.entities.Destination;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Tests that the read-only transactions are applied to the Hibernate session, as the facades run their queries in them.
+ *
+ * @author Robert Duriancik
+ */
+public class ReadOnlyTransactionDaoTest extends BaseDaoTest {
+
+    @Autowired
+    private DestinationDao destinationDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private TransactionTemplate writeTemplate;
+
+    private TransactionTemplate readOnlyTemplate;
+
+    private Destination destination;
+
+    @BeforeMethod
+    public void createDestination() {
+        writeTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+
+        destination = new Destination("Czech Republic", "Brno");
+        writeTemplate.execute(status -> {
+            destinationDao.addDestination(destination);
+            return null;
+        });
+    }
+
+    @AfterMethod
+    public void removeDestination() {
+        writeTemplate.execute(status -> {
+            destinationDao.removeDestination(destinationDao.getDestination(destination.getId()));
+            return null;
+        });
+    }
+
+    @Test
+    public void testReadOnlySession() {
+        readOnlyTemplate.execute(status -> {
+            Session session = em.unwrap(Session.class);
+            Assert.assertEquals(session.getHibernateFlushMode(), FlushMode.MANUAL);
+            Assert.assertTrue(session.isDefaultReadOnly());
+            Assert.assertTrue(session.isReadOnly(destinationDao.getDestination(destination.getId())));
+            return null;
+        });
+
+        writeTemplate.execute(status -> {
+            Session session = em.unwrap(Session.class);
+            Assert.assertEquals(session.getHibernateFlushMode(), FlushMode.AUTO);
+            Assert.assertFalse(session.isDefaultReadOnly());
+            return null;
+        });
+    }
+
+    @Test
+    public void testReadOnlyTransactionDoesNotFlush() {
+        readOnlyTemplate.execute(status -> {
+            destinationDao.getDestination(destination.getId()).setCity("Olomouc");
+            return null;
+        });
+
+        Destination stored = writeTemplate.execute(status -> destinationDao.getDestination(destination.getId()));
+        Assert.assertEquals(stored.getCity(), "Brno");
+    }
+}
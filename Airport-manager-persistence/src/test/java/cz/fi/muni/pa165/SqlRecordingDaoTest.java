@@ -0,0 +1,154 @@
+package cz.fi.muni.pa165;
+
+import cz.fi.muni.pa165.dao.DestinationDao;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.jdbc.SqlRecorder;
+import cz.fi.muni.pa165.jdbc.SqlStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the recording of the executed statements. The transactions are started inside the recording,
+ * as the recording covers the connections obtained while it is active.
+ *
+ * @author Robert Duriancik
+ */
+public class SqlRecordingDaoTest extends BaseDaoTest {
+
+    @Autowired
+    private DestinationDao destinationDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterMethod
+    public void stopRecording() {
+        SqlRecorder.stop();
+    }
+
+    @Test
+    public void testRecordsStatements() {
+        SqlStatistics statistics = SqlRecorder.start();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Destination destination = new Destination("Slovakia", "Bratislava");
+        transaction.execute(status -> {
+            destinationDao.addDestination(destination);
+            return null;
+        });
+        transaction.execute(status -> destinationDao.getDestinationsByCity("Bratislava"));
+        transaction.execute(status -> destinationDao.getDestinationsByCity("Bratislava"));
+        transaction.execute(status -> {
+            destinationDao.removeDestination(destinationDao.getDestination(destination.getId()));
+            return null;
+        });
+
+        Assert.assertSame(SqlRecorder.stop(), statistics);
+        Assert.assertTrue(statistics.getTotalNanos() > 0);
+
+        // the lookups may be served by the second-level and query caches, the writes always reach the database
+        long sum = 0;
+        long inserts = 0;
+        long deletes = 0;
+        for (SqlStatistics.Statement statement : statistics.getStatements()) {
+            sum += statement.getCount();
+            String sql = statement.getSql().toLowerCase();
+            if (sql.startsWith("insert into destination")) {
+                inserts += statement.getCount();
+            } else if (sql.startsWith("delete from destination")) {
+                deletes += statement.getCount();
+            }
+        }
+        Assert.assertEquals(sum, statistics.getStatementCount());
+        Assert.assertEquals(inserts, 1);
+        Assert.assertEquals(deletes, 1);
+    }
+
+    @Test
+    public void testCountsBatchAsOneStatement() {
+        List<Destination> destinations = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            destinations.add(new Destination("Country" + i, "City" + i));
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        SqlStatistics statistics = SqlRecorder.start();
+        transaction.execute(status -> {
+            destinationDao.addAll(destinations);
+            return null;
+        });
+        SqlRecorder.stop();
+        transaction.execute(status -> {
+            destinations.forEach(destination ->
+                    destinationDao.removeDestination(destinationDao.getDestination(destination.getId())));
+            return null;
+        });
+
+        long inserts = statistics.getStatements().stream()
+                .filter(statement -> statement.getSql().toLowerCase().startsWith("insert into destination"))
+                .mapToLong(SqlStatistics.Statement::getCount)
+                .sum();
+        Assert.assertEquals(inserts, 1);
+    }
+
+    @Test
+    public void testResumesRecordingOnAnotherThread() throws Exception {
+        SqlStatistics statistics = SqlRecorder.start();
+        SqlRecorder.stop();
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Destination destination = new Destination("Austria", "Graz");
+        Thread thread = new Thread(() -> {
+            SqlRecorder.resume(statistics);
+            try {
+                transaction.execute(status -> {
+                    destinationDao.addDestination(destination);
+                    return null;
+                });
+            } finally {
+                SqlRecorder.stop();
+            }
+        });
+        thread.start();
+        thread.join();
+        transaction.execute(status -> {
+            destinationDao.removeDestination(destinationDao.getDestination(destination.getId()));
+            return null;
+        });
+
+        Assert.assertTrue(statistics.getStatements().stream()
+                .anyMatch(statement -> statement.getSql().toLowerCase().startsWith("insert into destination")));
+        Assert.assertFalse(statistics.getStatements().stream()
+                .anyMatch(statement -> statement.getSql().toLowerCase().startsWith("delete from destination")));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testResumeNull() {
+        SqlRecorder.resume(null);
+    }
+
+    @Test
+    public void testNoRecordingWithoutActiveRecording() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            Assert.assertFalse(Proxy.isProxyClass(connection.getClass()));
+        }
+
+        SqlRecorder.start();
+        try (Connection connection = dataSource.getConnection()) {
+            Assert.assertTrue(Proxy.isProxyClass(connection.getClass()));
+        }
+    }
+}
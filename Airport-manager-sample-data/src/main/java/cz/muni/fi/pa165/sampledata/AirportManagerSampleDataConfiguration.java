@@ -5,10 +5,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
 
 import javax.annotation.PostConstruct;
 
 /**
+ * Loads the sample data on startup. With the {@link #SYNTHETIC_DATA_PROFILE} profile active, a synthetic
+ * network sized by the <b>airport.synthetic.*</b> properties is loaded instead, for example
+ * {@code -Dspring.profiles.active=synthetic-data -Dairport.synthetic.flights=1000000}.
+ *
  * @author Karel Jiranek
  */
 @Configuration
@@ -16,11 +21,37 @@ import javax.annotation.PostConstruct;
 @ComponentScan(basePackageClasses = {SampleDataLoadingFacadeImpl.class})
 public class AirportManagerSampleDataConfiguration {
 
+    public static final String SYNTHETIC_DATA_PROFILE = "synthetic-data";
+
     @Autowired
     SampleDataLoadingFacade sampleDataLoadingFacade;
 
+    @Autowired
+    Environment environment;
+
     @PostConstruct
     public void dataLoading(){
-        sampleDataLoadingFacade.loadData();
+        if (environment.acceptsProfiles(SYNTHETIC_DATA_PROFILE)) {
+            sampleDataLoadingFacade.loadSyntheticData(syntheticDataGenerator());
+        } else {
+            sampleDataLoadingFacade.loadData();
+        }
+    }
+
+    private SyntheticDataGenerator syntheticDataGenerator() {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator();
+        return generator
+                .setSeed(environment.getProperty("airport.synthetic.seed", Long.class, generator.getSeed()))
+                .setDays(environment.getProperty("airport.synthetic.days", Integer.class, generator.getDays()))
+                .setDestinationCount(environment.getProperty("airport.synthetic.destinations", Integer.class,
+                        generator.getDestinationCount()))
+                .setAirplaneCount(environment.getProperty("airport.synthetic.airplanes", Integer.class,
+                        generator.getAirplaneCount()))
+                .setStewardCount(environment.getProperty("airport.synthetic.stewards", Integer.class,
+                        generator.getStewardCount()))
+                .setFlightCount(environment.getProperty("airport.synthetic.flights", Integer.class,
+                        generator.getFlightCount()))
+                .setCrewSize(environment.getProperty("airport.synthetic.crew-size", Integer.class,
+                        generator.getCrewSize()));
     }
 }
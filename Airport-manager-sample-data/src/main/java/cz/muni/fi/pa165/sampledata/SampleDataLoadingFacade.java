@@ -6,4 +6,13 @@ package cz.muni.fi.pa165.sampledata;
 public interface SampleDataLoadingFacade {
 
     void loadData();
+
+    /**
+     * Stores the network of the generator. Destinations, airplanes and stewards are stored in one
+     * transaction, the flights in chunks of {@link SampleDataLoadingFacadeImpl#FLIGHT_CHUNK_SIZE},
+     * each in its own transaction.
+     *
+     * @param generator generator of the network
+     */
+    void loadSyntheticData(SyntheticDataGenerator generator);
 }
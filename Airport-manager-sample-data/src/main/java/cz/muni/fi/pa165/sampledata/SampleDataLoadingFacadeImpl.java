@@ -10,7 +10,10 @@ import cz.fi.muni.pa165.service.FlightService;
 import cz.fi.muni.pa165.service.StewardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -24,6 +27,11 @@ import java.util.List;
 @Transactional
 public class SampleDataLoadingFacadeImpl implements SampleDataLoadingFacade {
 
+    /**
+     * Number of flights of the synthetic network stored in a single transaction.
+     */
+    static final int FLIGHT_CHUNK_SIZE = 1000;
+
     @Autowired
     private DestinationService  destinationService;
 
@@ -36,41 +44,48 @@ public class SampleDataLoadingFacadeImpl implements SampleDataLoadingFacade {
     @Autowired
     private FlightService flightService;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Override
     @SuppressWarnings("unused")
     public void loadData() {
-
-        Destination boston = destination("USA", "Boston");
-        Destination berlin = destination("Germany", "Berlin");
-        Destination wroclaw = destination("Poland", "Wroclaw");
-        Destination thimphu = destination("Bhutan", "Thimphu");
-        Destination sucre = destination("Bolivia", "Sucre");
-        Destination brasilia = destination("Brazil", "Brasilia");
-        Destination sofia = destination("Bulgaria", "Sofia");
-        Destination roseau = destination("Dominica", "Roseau");
-        Destination cairo = destination("Egypt", "Cairo");
-        Destination suva = destination("Fiji", "Suva");
-
-        Airplane boeing777 = airplane("Commercial", "Boeing 777", 427);
-        Airplane boeing787 = airplane("Commercial", "Boeing 787", 310);
-        Airplane airbus380 = airplane("Commercial", "Airbus A380", 868);
-        Airplane airbus350 = airplane("Commercial", "Airbus A350", 550);
-        Airplane g650 = airplane("Private", "Gulstream G650", 18);
-        Airplane el1000 = airplane("Private", "Embraer Lineage 1000", 19);
-        Airplane airForceOne = airplane("Air Force One", "Boeing VC-25", 76);
-
-        Steward harry = steward("Harry", "Doe");
-        Steward oliver = steward("Oliver", "Smith");
-        Steward charlie = steward("Charlie", "Bolton");
-        Steward james = steward("James", "Chase");
-        Steward lucas = steward("Lucas", "Dickson");
-        Steward jake = steward("Jake", "Cock");
-        Steward olivia = steward("Olivia", "Eliott");
-        Steward emily = steward("Emily", "Foster");
-        Steward jessica = steward("Jessica", "Green");
-        Steward chloe = steward("Chloe", "Fletcher");
-        Steward sara = steward("Sara", "Jenkins");
-        Steward deleteTest = steward("Delete", "Test");
+        List<Destination> destinations = new ArrayList<>();
+        List<Airplane> airplanes = new ArrayList<>();
+        List<Steward> stewards = new ArrayList<>();
+        List<Flight> flights = new ArrayList<>();
+
+        Destination boston = destination(destinations, "USA", "Boston");
+        Destination berlin = destination(destinations, "Germany", "Berlin");
+        Destination wroclaw = destination(destinations, "Poland", "Wroclaw");
+        Destination thimphu = destination(destinations, "Bhutan", "Thimphu");
+        Destination sucre = destination(destinations, "Bolivia", "Sucre");
+        Destination brasilia = destination(destinations, "Brazil", "Brasilia");
+        Destination sofia = destination(destinations, "Bulgaria", "Sofia");
+        Destination roseau = destination(destinations, "Dominica", "Roseau");
+        Destination cairo = destination(destinations, "Egypt", "Cairo");
+        Destination suva = destination(destinations, "Fiji", "Suva");
+
+        Airplane boeing777 = airplane(airplanes, "Commercial", "Boeing 777", 427);
+        Airplane boeing787 = airplane(airplanes, "Commercial", "Boeing 787", 310);
+        Airplane airbus380 = airplane(airplanes, "Commercial", "Airbus A380", 868);
+        Airplane airbus350 = airplane(airplanes, "Commercial", "Airbus A350", 550);
+        Airplane g650 = airplane(airplanes, "Private", "Gulstream G650", 18);
+        Airplane el1000 = airplane(airplanes, "Private", "Embraer Lineage 1000", 19);
+        Airplane airForceOne = airplane(airplanes, "Air Force One", "Boeing VC-25", 76);
+
+        Steward harry = steward(stewards, "Harry", "Doe");
+        Steward oliver = steward(stewards, "Oliver", "Smith");
+        Steward charlie = steward(stewards, "Charlie", "Bolton");
+        Steward james = steward(stewards, "James", "Chase");
+        Steward lucas = steward(stewards, "Lucas", "Dickson");
+        Steward jake = steward(stewards, "Jake", "Cock");
+        Steward olivia = steward(stewards, "Olivia", "Eliott");
+        Steward emily = steward(stewards, "Emily", "Foster");
+        Steward jessica = steward(stewards, "Jessica", "Green");
+        Steward chloe = steward(stewards, "Chloe", "Fletcher");
+        Steward sara = steward(stewards, "Sara", "Jenkins");
+        Steward deleteTest = steward(stewards, "Delete", "Test");
 
         List<Steward> stewards1 = new ArrayList<>();
         List<Steward> stewards2 = new ArrayList<>();
@@ -96,40 +111,74 @@ public class SampleDataLoadingFacadeImpl implements SampleDataLoadingFacade {
         stewards4.add(emily);
         stewards4.add(chloe);
 
-        Flight presentFlight1 = flight(boeing777, stewards1, boston, berlin, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(10));
-        Flight presentFlight2 = flight(airForceOne, stewards2, boston, brasilia, LocalDateTime.now().minusHours(5), LocalDateTime.now().plusHours(2));
-        Flight presentFlight3 = flight(g650, stewards3, wroclaw, thimphu, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(10));
+        Flight presentFlight1 = flight(flights, boeing777, stewards1, boston, berlin, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(10));
+        Flight presentFlight2 = flight(flights, airForceOne, stewards2, boston, brasilia, LocalDateTime.now().minusHours(5), LocalDateTime.now().plusHours(2));
+        Flight presentFlight3 = flight(flights, g650, stewards3, wroclaw, thimphu, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(10));
 
-        Flight pastFlight1 = flight(airbus350, stewards2, cairo, sofia, LocalDateTime.now().minusDays(10), LocalDateTime.now().minusDays(10).plusHours(5));
-        Flight pastFlight2 = flight(boeing787, stewards4, cairo, sofia, LocalDateTime.now().minusDays(10), LocalDateTime.now().minusDays(10).plusHours(5));
-        Flight pastFlight3 = flight(airbus380, stewards1, cairo, sofia, LocalDateTime.now().minusDays(10), LocalDateTime.now().minusDays(10).plusHours(5));
+        Flight pastFlight1 = flight(flights, airbus350, stewards2, cairo, sofia, LocalDateTime.now().minusDays(10), LocalDateTime.now().minusDays(10).plusHours(5));
+        Flight pastFlight2 = flight(flights, boeing787, stewards4, cairo, sofia, LocalDateTime.now().minusDays(10), LocalDateTime.now().minusDays(10).plusHours(5));
+        Flight pastFlight3 = flight(flights, airbus380, stewards1, cairo, sofia, LocalDateTime.now().minusDays(10), LocalDateTime.now().minusDays(10).plusHours(5));
 
-        Flight futureFlight1 = flight(el1000, stewards3, thimphu, roseau, LocalDateTime.now().plusDays(10), LocalDateTime.now().plusDays(10).plusHours(10));
-        Flight futureFlight2 = flight(el1000, stewards1, wroclaw, sofia, LocalDateTime.now().plusDays(9), LocalDateTime.now().plusDays(9).plusHours(2));
-        Flight futureFlight3 = flight(g650, stewards4, sucre, brasilia, LocalDateTime.now().plusDays(10).minusHours(2), LocalDateTime.now().plusDays(10).plusHours(1));
+        Flight futureFlight1 = flight(flights, el1000, stewards3, thimphu, roseau, LocalDateTime.now().plusDays(10), LocalDateTime.now().plusDays(10).plusHours(10));
+        Flight futureFlight2 = flight(flights, el1000, stewards1, wroclaw, sofia, LocalDateTime.now().plusDays(9), LocalDateTime.now().plusDays(9).plusHours(2));
+        Flight futureFlight3 = flight(flights, g650, stewards4, sucre, brasilia, LocalDateTime.now().plusDays(10).minusHours(2), LocalDateTime.now().plusDays(10).plusHours(1));
+
+        destinationService.addAll(destinations);
+        airplaneService.addAll(airplanes);
+        stewardService.addAll(stewards);
+        flightService.addAll(flights);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void loadSyntheticData(SyntheticDataGenerator generator) {
+        if (generator == null) {
+            throw new NullPointerException("Generator is null");
+        }
+
+        List<Destination> networkDestinations = generator.generateDestinations();
+        List<Airplane> networkAirplanes = generator.generateAirplanes();
+        List<Steward> networkStewards = generator.generateStewards();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.execute(status -> {
+            destinationService.addAll(networkDestinations);
+            airplaneService.addAll(networkAirplanes);
+            stewardService.addAll(networkStewards);
+            return null;
+        });
+
+        generator.generateFlights(networkDestinations, networkAirplanes, networkStewards, FLIGHT_CHUNK_SIZE,
+                chunk -> transactionTemplate.execute(status -> {
+                    flightService.addAll(chunk);
+                    return null;
+                }));
     }
 
-    private Destination destination(String country, String city) {
-        Long id = destinationService.createDestination(country, city);
-        return destinationService.getDestinationById(id);
+    private Destination destination(List<Destination> destinations, String country, String city) {
+        Destination destination = new Destination(country, city);
+        destinations.add(destination);
+        return destination;
     }
 
-    private Steward steward(String firstname, String surname) {
-        Long id = stewardService.createSteward(firstname, surname);
-        return stewardService.getSteward(id);
+    private Steward steward(List<Steward> stewards, String firstname, String surname) {
+        Steward steward = new Steward();
+        steward.setFirstName(firstname);
+        steward.setSurname(surname);
+        stewards.add(steward);
+        return steward;
     }
 
-    private Airplane airplane(String type, String name, int capacity) {
+    private Airplane airplane(List<Airplane> airplanes, String type, String name, int capacity) {
         Airplane airplane = new Airplane();
         airplane.setType(type);
         airplane.setName(name);
         airplane.setCapacity(capacity);
 
-        Long id = airplaneService.addAirplane(airplane);
-        return airplaneService.findById(id);
+        airplanes.add(airplane);
+        return airplane;
     }
 
-    private Flight flight(Airplane airplane, List<Steward> stewards, Destination departure,
+    private Flight flight(List<Flight> flights, Airplane airplane, List<Steward> stewards, Destination departure,
                           Destination arrival, LocalDateTime departureTime, LocalDateTime arrivalTime) {
         Flight flight = new Flight();
         flight.setAirplane(airplane);
@@ -139,7 +188,7 @@ public class SampleDataLoadingFacadeImpl implements SampleDataLoadingFacade {
         flight.setDepartureTime(departureTime);
         flight.setArrivalTime(arrivalTime);
 
-        Long id = flightService.addFlight(flight);
-        return flightService.getFlight(id);
+        flights.add(flight);
+        return flight;
     }
 }
@@ -0,0 +1,349 @@
+package cz.muni.fi.pa165.sampledata;
+
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Generates a synthetic airport network of configurable size, deterministically from a seed,
+ * so that tests, benchmarks and load runs always work with the same data.
+ * <p>
+ * Destinations are placed on a map and the flight duration grows with the distance between them.
+ * Flights are spread over the given number of days: every airplane departs from where it landed
+ * and no airplane or steward is ever scheduled on two overlapping flights. Stewards rest between
+ * their flights, but may join the next one at any destination. Destinations of smaller indexes
+ * are hubs, which are the arrival of more flights than the others.
+ * When the fleet or the crew is too small for the number of flights, the schedule runs past the period.
+ * <p>
+ * Flights are generated in chunks, so that millions of them never have to be held in memory at once.
+ *
+ * @author Robert Duriancik
+ */
+public class SyntheticDataGenerator {
+
+    public static final long DEFAULT_SEED = 20171201L;
+
+    public static final LocalDateTime DEFAULT_START = LocalDateTime.of(2018, Month.JANUARY, 1, 0, 0);
+
+    public static final int DEFAULT_DAYS = 365;
+
+    private static final String[][] AIRPLANE_MODELS = {
+            {"Airbus A320", "180"}, {"Airbus A321", "220"}, {"Airbus A350", "325"}, {"Airbus A380", "555"},
+            {"Boeing 737", "189"}, {"Boeing 777", "396"}, {"Boeing 787", "296"},
+            {"Embraer E190", "100"}, {"ATR 72", "70"}, {"Gulfstream G650", "18"}};
+
+    private static final String[] FIRST_NAMES = {
+            "Harry", "Oliver", "Charlie", "James", "Lucas", "Jake", "Olivia", "Emily", "Jessica", "Chloe",
+            "Sara", "Jan", "Petra", "Tomas", "Eva", "Martin", "Lucie", "Jakub", "Tereza", "Pavel"};
+
+    private static final String[] SURNAMES = {
+            "Doe", "Smith", "Bolton", "Chase", "Dickson", "Eliott", "Foster", "Green", "Fletcher", "Jenkins",
+            "Novak", "Svoboda", "Dvorak", "Cerny", "Prochazka", "Kucera", "Vesely", "Horak", "Nemec", "Marek"};
+
+    private static final int MIN_FLIGHT_MINUTES = 45;
+
+    /**
+     * Minutes of flight per unit of distance on the map, which has the side of one.
+     */
+    private static final int MINUTES_PER_DISTANCE = 600;
+
+    private static final int MIN_TURNAROUND_MINUTES = 45;
+
+    private static final int MIN_REST_MINUTES = 60;
+
+    private long seed = DEFAULT_SEED;
+    private LocalDateTime start = DEFAULT_START;
+    private int days = DEFAULT_DAYS;
+    private int destinationCount = 100;
+    private int airplaneCount = 100;
+    private int stewardCount = 600;
+    private int flightCount = 10000;
+    private int crewSize = 4;
+
+    public SyntheticDataGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public SyntheticDataGenerator setStart(LocalDateTime start) {
+        if (start == null) {
+            throw new NullPointerException("Start is null");
+        }
+        this.start = start;
+        return this;
+    }
+
+    public SyntheticDataGenerator setDays(int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("Period must have at least one day");
+        }
+        this.days = days;
+        return this;
+    }
+
+    public SyntheticDataGenerator setDestinationCount(int destinationCount) {
+        if (destinationCount < 2) {
+            throw new IllegalArgumentException("At least two destinations are needed");
+        }
+        this.destinationCount = destinationCount;
+        return this;
+    }
+
+    public SyntheticDataGenerator setAirplaneCount(int airplaneCount) {
+        if (airplaneCount < 1) {
+            throw new IllegalArgumentException("At least one airplane is needed");
+        }
+        this.airplaneCount = airplaneCount;
+        return this;
+    }
+
+    public SyntheticDataGenerator setStewardCount(int stewardCount) {
+        if (stewardCount < 1) {
+            throw new IllegalArgumentException("At least one steward is needed");
+        }
+        this.stewardCount = stewardCount;
+        return this;
+    }
+
+    public SyntheticDataGenerator setFlightCount(int flightCount) {
+        if (flightCount < 0) {
+            throw new IllegalArgumentException("Flight count is negative");
+        }
+        this.flightCount = flightCount;
+        return this;
+    }
+
+    public SyntheticDataGenerator setCrewSize(int crewSize) {
+        if (crewSize < 1) {
+            throw new IllegalArgumentException("Crew must have at least one steward");
+        }
+        this.crewSize = crewSize;
+        return this;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getDestinationCount() {
+        return destinationCount;
+    }
+
+    public int getAirplaneCount() {
+        return airplaneCount;
+    }
+
+    public int getStewardCount() {
+        return stewardCount;
+    }
+
+    public int getFlightCount() {
+        return flightCount;
+    }
+
+    public int getCrewSize() {
+        return crewSize;
+    }
+
+    /**
+     * Generates the destinations, twenty cities in every country.
+     *
+     * @return destinations without ids
+     */
+    public List<Destination> generateDestinations() {
+        List<Destination> destinations = new ArrayList<>(destinationCount);
+        for (int i = 0; i < destinationCount; i++) {
+            destinations.add(new Destination("Country" + i / 20, "City" + i));
+        }
+        return destinations;
+    }
+
+    /**
+     * Generates the airplanes of randomly chosen models.
+     *
+     * @return airplanes without ids
+     */
+    public List<Airplane> generateAirplanes() {
+        Random random = new Random(seed + 1);
+        List<Airplane> airplanes = new ArrayList<>(airplaneCount);
+        for (int i = 0; i < airplaneCount; i++) {
+            String[] model = AIRPLANE_MODELS[random.nextInt(AIRPLANE_MODELS.length)];
+            Airplane airplane = new Airplane();
+            airplane.setName("OK-" + Integer.toString(i, 36).toUpperCase());
+            airplane.setType(model[0]);
+            airplane.setCapacity(Integer.parseInt(model[1]));
+            airplanes.add(airplane);
+        }
+        return airplanes;
+    }
+
+    /**
+     * Generates the stewards with random names.
+     *
+     * @return stewards without ids
+     */
+    public List<Steward> generateStewards() {
+        Random random = new Random(seed + 2);
+        List<Steward> stewards = new ArrayList<>(stewardCount);
+        for (int i = 0; i < stewardCount; i++) {
+            Steward steward = new Steward();
+            steward.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+            steward.setSurname(SURNAMES[random.nextInt(SURNAMES.length)]);
+            stewards.add(steward);
+        }
+        return stewards;
+    }
+
+    /**
+     * Generates all flights at once.
+     *
+     * @see #generateFlights(List, List, List, int, Consumer)
+     */
+    public List<Flight> generateFlights(List<Destination> destinations, List<Airplane> airplanes,
+                                        List<Steward> stewards) {
+        List<Flight> flights = new ArrayList<>(flightCount);
+        generateFlights(destinations, airplanes, stewards, Math.max(1, flightCount), flights::addAll);
+        return flights;
+    }
+
+    /**
+     * Generates the flights between the given destinations, flown by the given airplanes and stewards,
+     * and passes them to the consumer in chunks of the given size. The flights of a chunk are not
+     * referenced by the generator once the consumer returns.
+     *
+     * @param destinations  destinations, as generated by {@link #generateDestinations()}
+     * @param airplanes     airplanes, as generated by {@link #generateAirplanes()}
+     * @param stewards      stewards, as generated by {@link #generateStewards()}
+     * @param chunkSize     maximal number of flights in a chunk
+     * @param chunkConsumer consumer of the chunks
+     * @throws IllegalArgumentException if the lists do not have the configured sizes, or the chunk size is not positive
+     */
+    public void generateFlights(List<Destination> destinations, List<Airplane> airplanes, List<Steward> stewards,
+                                int chunkSize, Consumer<List<Flight>> chunkConsumer) {
+        if (destinations == null || airplanes == null || stewards == null || chunkConsumer == null) {
+            throw new NullPointerException("Arguments cannot be null");
+        }
+        if (destinations.size() != destinationCount || airplanes.size() != airplaneCount
+                || stewards.size() != stewardCount) {
+            throw new IllegalArgumentException("Entities do not match the configured counts");
+        }
+        if (crewSize > stewardCount) {
+            throw new IllegalArgumentException("Crew is larger than the number of stewards");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        Random random = new Random(seed + 3);
+        double[][] positions = new double[destinationCount][];
+        for (int i = 0; i < destinationCount; i++) {
+            positions[i] = new double[]{random.nextDouble(), random.nextDouble()};
+        }
+
+        // the period is split into a slot for every flight of an airplane, the n-th flight departs in the n-th slot
+        int flightsPerAirplane = Math.max(1, (flightCount + airplaneCount - 1) / airplaneCount);
+        int slotMinutes = (int) Math.max(1, days * 24L * 60 / flightsPerAirplane);
+
+        PriorityQueue<Schedule> airplaneSchedules = new PriorityQueue<>(Schedule.ORDER);
+        for (int i = 0; i < airplaneCount; i++) {
+            airplaneSchedules.add(new Schedule(i, random.nextInt(slotMinutes), random.nextInt(destinationCount)));
+        }
+        PriorityQueue<Schedule> stewardSchedules = new PriorityQueue<>(Schedule.ORDER);
+        for (int i = 0; i < stewardCount; i++) {
+            stewardSchedules.add(new Schedule(i, 0, -1));
+        }
+
+        List<Flight> chunk = new ArrayList<>(Math.min(chunkSize, flightCount));
+        Schedule[] crew = new Schedule[crewSize];
+        for (int i = 0; i < flightCount; i++) {
+            Schedule airplane = airplaneSchedules.poll();
+            long departure = airplane.freeAt;
+            for (int j = 0; j < crewSize; j++) {
+                crew[j] = stewardSchedules.poll();
+                departure = Math.max(departure, crew[j].freeAt);
+            }
+
+            int from = airplane.location;
+            int to = hub(random, destinationCount);
+            if (to == from) {
+                to = (to + 1) % destinationCount;
+            }
+            double distance = Math.hypot(positions[from][0] - positions[to][0], positions[from][1] - positions[to][1]);
+            long arrival = departure + MIN_FLIGHT_MINUTES + (long) (distance * MINUTES_PER_DISTANCE);
+
+            Flight flight = new Flight();
+            flight.setDepartureLocation(destinations.get(from));
+            flight.setArrivalLocation(destinations.get(to));
+            flight.setDepartureTime(start.plusMinutes(departure));
+            flight.setArrivalTime(start.plusMinutes(arrival));
+            flight.setAirplane(airplanes.get(airplane.index));
+            for (Schedule steward : crew) {
+                flight.addSteward(stewards.get(steward.index));
+                steward.freeAt = arrival + MIN_REST_MINUTES + random.nextInt(2 * MIN_REST_MINUTES);
+                stewardSchedules.add(steward);
+            }
+
+            airplane.location = to;
+            airplane.flights++;
+            airplane.freeAt = Math.max(arrival + MIN_TURNAROUND_MINUTES,
+                    (long) airplane.flights * slotMinutes + random.nextInt(slotMinutes));
+            airplaneSchedules.add(airplane);
+
+            chunk.add(flight);
+            if (chunk.size() == chunkSize) {
+                chunkConsumer.accept(chunk);
+                chunk = new ArrayList<>(Math.min(chunkSize, flightCount - i - 1));
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunkConsumer.accept(chunk);
+        }
+    }
+
+    /**
+     * Picks a destination index, lower indexes more often.
+     */
+    private static int hub(Random random, int destinationCount) {
+        double value = random.nextDouble();
+        return (int) (value * value * destinationCount);
+    }
+
+    /**
+     * Time in minutes from the start when an airplane or a steward is free, and where an airplane is
+     * and how many flights it has flown.
+     */
+    private static final class Schedule {
+
+        static final Comparator<Schedule> ORDER = Comparator.<Schedule>comparingLong(schedule -> schedule.freeAt)
+                .thenComparingInt(schedule -> schedule.index);
+
+        final int index;
+        long freeAt;
+        int location;
+        int flights;
+
+        Schedule(int index, long freeAt, int location) {
+            this.index = index;
+            this.freeAt = freeAt;
+            this.location = location;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package cz.muni.fi.pa165.sampledata;
+
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Robert Duriancik
+ */
+public class SyntheticDataGeneratorTest {
+
+    private final SyntheticDataGenerator generator = generator();
+
+    private static SyntheticDataGenerator generator() {
+        return new SyntheticDataGenerator()
+                .setDestinationCount(30)
+                .setAirplaneCount(20)
+                .setStewardCount(100)
+                .setFlightCount(2000)
+                .setCrewSize(3)
+                .setDays(30);
+    }
+
+    @Test
+    public void generatesConfiguredCounts() {
+        Assert.assertEquals(generator.generateDestinations().size(), 30);
+        Assert.assertEquals(generator.generateAirplanes().size(), 20);
+        Assert.assertEquals(generator.generateStewards().size(), 100);
+
+        List<Flight> flights = generateFlights(generator);
+        Assert.assertEquals(flights.size(), 2000);
+        for (Flight flight : flights) {
+            Assert.assertEquals(flight.getStewards().size(), 3);
+            Assert.assertNotEquals(flight.getDepartureLocation().getId(), flight.getArrivalLocation().getId());
+            Assert.assertTrue(flight.getDepartureTime().isBefore(flight.getArrivalTime()));
+        }
+    }
+
+    @Test
+    public void isDeterministic() {
+        List<Flight> first = generateFlights(generator);
+        List<Flight> second = generateFlights(generator);
+
+        for (int i = 0; i < first.size(); i++) {
+            Assert.assertEquals(describe(second.get(i)), describe(first.get(i)));
+        }
+        Assert.assertNotEquals(describe(generateFlights(generator().setSeed(1L)).get(0)), describe(first.get(0)));
+    }
+
+    @Test
+    public void schedulesDoNotOverlap() {
+        Map<Long, List<Flight>> airplaneFlights = new HashMap<>();
+        Map<Long, List<Flight>> stewardFlights = new HashMap<>();
+        for (Flight flight : generateFlights(generator)) {
+            airplaneFlights.computeIfAbsent(flight.getAirplane().getId(), id -> new ArrayList<>()).add(flight);
+            for (Steward steward : flight.getStewards()) {
+                stewardFlights.computeIfAbsent(steward.getId(), id -> new ArrayList<>()).add(flight);
+            }
+        }
+
+        for (List<Flight> flights : airplaneFlights.values()) {
+            assertSequential(flights);
+            for (int i = 1; i < flights.size(); i++) {
+                Assert.assertEquals(flights.get(i).getDepartureLocation(), flights.get(i - 1).getArrivalLocation());
+            }
+        }
+        stewardFlights.values().forEach(SyntheticDataGeneratorTest::assertSequential);
+    }
+
+    @Test
+    public void spreadsFlightsOverPeriod() {
+        List<Flight> flights = generateFlights(generator);
+        LocalDateTime end = generator.getStart().plusDays(generator.getDays());
+
+        long inFirstHalf = flights.stream()
+                .filter(flight -> flight.getDepartureTime().isBefore(generator.getStart().plusDays(15)))
+                .count();
+        Assert.assertTrue(inFirstHalf > 600 && inFirstHalf < 1400, "Flights in the first half: " + inFirstHalf);
+        LocalDateTime lastDeparture = flights.stream().map(Flight::getDepartureTime).max(Comparator.naturalOrder()).get();
+        Assert.assertTrue(lastDeparture.isBefore(end.plusDays(2)), "Last departure: " + lastDeparture);
+    }
+
+    @Test
+    public void generatesFlightsInChunks() {
+        List<Integer> chunkSizes = new ArrayList<>();
+        generator.generateFlights(generator.generateDestinations(), generator.generateAirplanes(),
+                generator.generateStewards(), 300, chunk -> chunkSizes.add(chunk.size()));
+
+        Assert.assertEquals(chunkSizes.size(), 7);
+        Assert.assertTrue(chunkSizes.subList(0, 6).stream().allMatch(size -> size == 300));
+        Assert.assertEquals((int) chunkSizes.get(6), 200);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsEntitiesOfOtherCounts() {
+        generator.generateFlights(new ArrayList<>(), generator.generateAirplanes(), generator.generateStewards());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsCrewLargerThanStewards() {
+        SyntheticDataGenerator smallCrew = generator().setStewardCount(2);
+        smallCrew.generateFlights(smallCrew.generateDestinations(), smallCrew.generateAirplanes(),
+                smallCrew.generateStewards());
+    }
+
+    private static void assertSequential(List<Flight> flights) {
+        flights.sort(Comparator.comparing(Flight::getDepartureTime));
+        for (int i = 1; i < flights.size(); i++) {
+            Assert.assertTrue(flights.get(i - 1).getArrivalTime().isBefore(flights.get(i).getDepartureTime()),
+                    "Overlapping flights " + describe(flights.get(i - 1)) + " and " + describe(flights.get(i)));
+        }
+    }
+
+    private static List<Flight> generateFlights(SyntheticDataGenerator generator) {
+        List<Destination> destinations = generator.generateDestinations();
+        List<Airplane> airplanes = generator.generateAirplanes();
+        List<Steward> stewards = generator.generateStewards();
+        for (int i = 0; i < destinations.size(); i++) {
+            destinations.get(i).setId((long) i);
+        }
+        for (int i = 0; i < airplanes.size(); i++) {
+            airplanes.get(i).setId((long) i);
+        }
+        for (int i = 0; i < stewards.size(); i++) {
+            stewards.get(i).setId((long) i);
+        }
+        return generator.generateFlights(destinations, airplanes, stewards);
+    }
+
+    private static String describe(Flight flight) {
+        StringBuilder description = new StringBuilder()
+                .append(flight.getDepartureLocation().getId()).append('-').append(flight.getArrivalLocation().getId())
+                .append(' ').append(flight.getDepartureTime()).append('/').append(flight.getArrivalTime())
+                .append(" airplane ").append(flight.getAirplane().getId()).append(" crew");
+        flight.getStewards().forEach(steward -> description.append(' ').append(steward.getId()));
+        return description.toString();
+    }
+}
@@ -27,6 +27,7 @@ public class AirplaneFacadeImpl implements AirplaneFacade {
     private MappingService mappingService;
     
     @Override
+    @Transactional(readOnly = true)
     public AirplaneDTO findById(Long id) {
         return mappingService.mapTo(airplaneService.findById(id), AirplaneDTO.class);
     }
@@ -38,10 +39,17 @@ public class AirplaneFacadeImpl implements AirplaneFacade {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AirplaneDTO> findAll() {
        return mappingService.mapTo(airplaneService.findAll(),AirplaneDTO.class);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<AirplaneDTO> findPage(Long afterId, Long beforeId, int limit) {
+        return mappingService.mapTo(airplaneService.findPage(afterId, beforeId, limit), AirplaneDTO.class);
+    }
+
     @Override
     public void deleteAirplane(Long id) {
         airplaneService.deleteAirplane(airplaneService.findById(id));
@@ -53,36 +61,43 @@ public class AirplaneFacadeImpl implements AirplaneFacade {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AirplaneDTO> findByName(String name) {
         return mappingService.mapTo(airplaneService.findByName(name),AirplaneDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AirplaneDTO> findByType(String type) {
         return mappingService.mapTo(airplaneService.findByType(type),AirplaneDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AirplaneDTO> findByCapacityMin(int capacity) {
         return mappingService.mapTo(airplaneService.findByCapacityMin(capacity),AirplaneDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AirplaneDTO> findByCapacityMax(int capacity) {
         return mappingService.mapTo(airplaneService.findByCapacityMax(capacity),AirplaneDTO.class);    
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AirplaneDTO> findByUsedAfterDateTime(LocalDateTime sinceDateTime) {
         return mappingService.mapTo(airplaneService.findByUsedAfterDateTime(sinceDateTime),AirplaneDTO.class);  
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AirplaneDTO> findByFreeAfterDateTime(LocalDateTime sinceDateTime) {
         return mappingService.mapTo(airplaneService.findByFreeAfterDateTime(sinceDateTime),AirplaneDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AirplaneDTO> getFreeAirplanesInTimeRange(LocalDateTime start, LocalDateTime end) {
         return mappingService.mapTo(airplaneService.findFreeAirplanesInTimeRange(start, end), AirplaneDTO.class);
     }
@@ -43,30 +43,41 @@ public class DestinationFacadeImpl implements DestinationFacade{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public DestinationDTO getDestinationById(Long id) {
         Destination destinationById = destinationService.getDestinationById(id);
         return (destinationById == null) ? null : mappingService.mapTo(destinationById, DestinationDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<DestinationDTO> getDestinationsByCountry(String country) {
         List<Destination> destinationsByCountry = destinationService.getDestinationsByCountry(country);
         return destinationsByCountry == null ? null : mappingService.mapTo(destinationsByCountry, DestinationDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<DestinationDTO> getDestinationsByCity(String city) {
         List<Destination> destinationsByCity = destinationService.getDestinationsByCity(city);
         return destinationsByCity == null ? null : mappingService.mapTo(destinationsByCity, DestinationDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<DestinationDTO> getAllDestinations() {
         List<Destination> allDestinations = destinationService.getAllDestinations();
         return allDestinations == null ? null : mappingService.mapTo(destinationService.getAllDestinations(), DestinationDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<DestinationDTO> getDestinationsPage(Long afterId, Long beforeId, int limit) {
+        return mappingService.mapTo(destinationService.getDestinationsPage(afterId, beforeId, limit), DestinationDTO.class);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<FlightDTO> getAllIncomingFlights(DestinationDTO destination) {
         List<Flight> allIncomingFlights = destinationService.getAllIncomingFlights(
                 mappingService.mapTo(destination, Destination.class));
@@ -74,6 +85,7 @@ public class DestinationFacadeImpl implements DestinationFacade{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FlightDTO> getAllOutgoingFlights(DestinationDTO destination) {
         List<Flight> allOutgoingFlights = destinationService.getAllOutgoingFlights(
                 mappingService.mapTo(destination, Destination.class));
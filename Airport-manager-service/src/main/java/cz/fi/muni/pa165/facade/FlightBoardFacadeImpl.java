@@ -0,0 +1,130 @@
+package cz.fi.muni.pa165.facade;
+
+import cz.fi.muni.pa165.dto.FlightBoardDTO;
+import cz.fi.muni.pa165.dto.FlightBoardEventDTO;
+import cz.fi.muni.pa165.dto.FlightDTO;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.service.FlightBoard;
+import cz.fi.muni.pa165.service.FlightBoardEvent;
+import cz.fi.muni.pa165.service.FlightService;
+import cz.fi.muni.pa165.service.MappingService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the {@link FlightBoardFacade} interface.
+ * <p>
+ * The flight of an event is loaded with its crew in a read-only transaction on the thread of the board.
+ * An event of a flight deleted in the meantime is not delivered, the event of the deletion follows.
+ * A created or changed flight is loaded only if it is in the air, as the board shows no other flights,
+ * so a changed flight out of the air is delivered as deleted and a created one is not delivered at all.
+ * Its departure is delivered once it takes off.
+ *
+ * @author Robert Duriancik
+ */
+
+@Service
+@Transactional(readOnly = true)
+public class FlightBoardFacadeImpl implements FlightBoardFacade {
+
+    @Inject
+    private FlightBoard flightBoard;
+
+    @Inject
+    private FlightService flightService;
+
+    @Inject
+    private MappingService mappingService;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Consumer<FlightBoardEventDTO>, Consumer<FlightBoardEvent>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public FlightBoardDTO getBoard(LocalDateTime now) {
+        FlightBoardDTO board = new FlightBoardDTO();
+        // read before the flights, so that the following events cover any change the flights miss
+        board.setLastEventId(flightBoard.getSequence());
+        board.setTime(now);
+        board.setFlights(mappingService.mapTo(flightService.getCurrentFlights(now), FlightDTO.class));
+        return board;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void subscribe(Consumer<FlightBoardEventDTO> listener) {
+        Objects.requireNonNull(listener, "listener is null");
+        TransactionTemplate readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+        Consumer<FlightBoardEvent> boardListener = event -> {
+            FlightBoardEventDTO eventDTO = toEventDTO(event, readTemplate);
+            if (eventDTO != null) {
+                listener.accept(eventDTO);
+            }
+        };
+        if (listeners.putIfAbsent(listener, boardListener) == null) {
+            flightBoard.subscribe(boardListener);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void unsubscribe(Consumer<FlightBoardEventDTO> listener) {
+        Consumer<FlightBoardEvent> boardListener = listeners.remove(listener);
+        if (boardListener != null) {
+            flightBoard.unsubscribe(boardListener);
+        }
+    }
+
+    private FlightBoardEventDTO toEventDTO(FlightBoardEvent event, TransactionTemplate readTemplate) {
+        FlightBoardEventDTO eventDTO = new FlightBoardEventDTO();
+        eventDTO.setId(event.getSequence());
+        eventDTO.setType(FlightBoardEventDTO.Type.valueOf(event.getType().name()));
+        eventDTO.setFlightId(event.getFlightId());
+        eventDTO.setTime(event.getTime());
+        if (event.getType() == FlightBoardEvent.Type.DELETED || event.getType() == FlightBoardEvent.Type.RESET) {
+            return eventDTO;
+        }
+        if ((event.getType() == FlightBoardEvent.Type.CREATED || event.getType() == FlightBoardEvent.Type.CHANGED)
+                && !isInAir(event, LocalDateTime.now())) {
+            if (event.getType() == FlightBoardEvent.Type.CREATED) {
+                // not on the board, its departure follows
+                return null;
+            }
+            // the changed flight may have been on the board
+            eventDTO.setType(FlightBoardEventDTO.Type.DELETED);
+            return eventDTO;
+        }
+
+        FlightDTO flightDTO = readTemplate.execute(status -> {
+            Flight flight = flightService.getFlightWithCrew(event.getFlightId());
+            return flight == null ? null : mappingService.mapTo(flight, FlightDTO.class);
+        });
+        if (flightDTO == null) {
+            return null;
+        }
+        eventDTO.setFlight(flightDTO);
+        return eventDTO;
+    }
+
+    /**
+     * Returns whether the created or changed flight of the event is in the air, true if its times are unknown.
+     */
+    private static boolean isInAir(FlightBoardEvent event, LocalDateTime now) {
+        if (event.getDepartureTime() == null || event.getArrivalTime() == null) {
+            return true;
+        }
+        return event.getDepartureTime().isBefore(now) && event.getArrivalTime().isAfter(now);
+    }
+}
@@ -2,19 +2,38 @@ package cz.fi.muni.pa165.facade;
 
 import cz.fi.muni.pa165.dto.FlightCreateDTO;
 import cz.fi.muni.pa165.dto.FlightDTO;
+import cz.fi.muni.pa165.dto.FlightImportChunkDTO;
+import cz.fi.muni.pa165.dto.FlightImportErrorDTO;
+import cz.fi.muni.pa165.dto.FlightImportReportDTO;
 import cz.fi.muni.pa165.dto.FlightUpdateDTO;
 import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
 import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
 import cz.fi.muni.pa165.service.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.inject.Inject;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the {@link FlightFacade} interface.
@@ -26,6 +45,11 @@ import java.util.List;
 @Transactional
 public class FlightFacadeImpl implements FlightFacade {
 
+    /**
+     * Number of imported rows validated and stored in a single transaction.
+     */
+    static final int IMPORT_CHUNK_SIZE = 500;
+
     private Logger logger = LoggerFactory.getLogger(FlightFacadeImpl.class);
 
     @Inject
@@ -40,63 +64,124 @@ public class FlightFacadeImpl implements FlightFacade {
     @Inject
     private MappingService mappingService;
 
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
     @Override
     public Long createFlight(FlightCreateDTO flightCreateDTO) {
         Flight flight = new Flight();
         flight.setArrivalTime(flightCreateDTO.getArrivalTime());
         flight.setDepartureTime(flightCreateDTO.getDepartureTime());
-        flight.setDepartureLocation(destinationService.getDestinationById(flightCreateDTO.getDepartureLocationId()));
-        flight.setArrivalLocation(destinationService.getDestinationById(flightCreateDTO.getArrivalLocationId()));
-        flight.setAirplane(airplaneService.findById(flightCreateDTO.getAirplaneId()));
-        for (Long stewardId : flightCreateDTO.getStewardIds()) {
-            flight.addSteward(stewardService.getSteward(stewardId));
-        }
+        setAssociations(flight, flightCreateDTO.getDepartureLocationId(), flightCreateDTO.getArrivalLocationId(),
+                flightCreateDTO.getAirplaneId(), flightCreateDTO.getStewardIds());
         return flightService.addFlight(flight);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FlightImportReportDTO importFlights(Iterator<FlightCreateDTO> flights) {
+        if (flights == null) {
+            throw new NullPointerException("Flights are null");
+        }
+
+        TransactionTemplate readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+        ImportReferences references = readTemplate.execute(status -> new ImportReferences(
+                destinationService.getAllDestinations(),
+                airplaneService.findAll(),
+                stewardService.getAllStewardsNameOrdered()));
+
+        TransactionTemplate writeTemplate = new TransactionTemplate(transactionManager);
+        FlightImportReportDTO report = new FlightImportReportDTO();
+        long count = 0;
+        while (flights.hasNext()) {
+            List<ImportRow> rows = new ArrayList<>(IMPORT_CHUNK_SIZE);
+            while (rows.size() < IMPORT_CHUNK_SIZE && flights.hasNext()) {
+                FlightCreateDTO source = null;
+                String error = null;
+                try {
+                    source = flights.next();
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+                count++;
+                ImportRow importRow = new ImportRow(flights instanceof FlightImportRows
+                        ? ((FlightImportRows) flights).getLineNumber()
+                        : count);
+                importRow.source = source;
+                importRow.error = error;
+                rows.add(importRow);
+            }
+
+            rows.parallelStream()
+                    .filter(importRow -> importRow.error == null)
+                    .forEach(importRow -> importRow.resolve(references));
+
+            FlightImportChunkDTO chunk = importChunk(rows, writeTemplate);
+            chunk.setIndex(report.getChunks().size());
+            report.getChunks().add(chunk);
+            report.setImported(report.getImported() + chunk.getImported());
+            report.setRejected(report.getRejected() + chunk.getErrors().size());
+        }
+        return report;
+    }
+
     @Override
     public void updateFlight(FlightUpdateDTO flightUpdateDTO) {
         Flight flight = new Flight();
         flight.setId(flightUpdateDTO.getId());
         flight.setDepartureTime(flightUpdateDTO.getDepartureTime());
         flight.setArrivalTime(flightUpdateDTO.getArrivalTime());
-        flight.setDepartureLocation(destinationService.getDestinationById(flightUpdateDTO.getDepartureLocationId()));
-        flight.setArrivalLocation(destinationService.getDestinationById(flightUpdateDTO.getArrivalLocationId()));
-        flight.setAirplane(airplaneService.findById(flightUpdateDTO.getAirplaneId()));
-        for (Long stewardId : flightUpdateDTO.getStewardIds()) {
-            flight.addSteward(stewardService.getSteward(stewardId));
-        }
+        setAssociations(flight, flightUpdateDTO.getDepartureLocationId(), flightUpdateDTO.getArrivalLocationId(),
+                flightUpdateDTO.getAirplaneId(), flightUpdateDTO.getStewardIds());
 
         flightService.updateFlight(flight);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public FlightDTO getFlight(Long id) {
-        Flight flight = flightService.getFlight(id);
+        Flight flight = flightService.getFlightWithCrew(id);
         return flight == null ? null : mappingService.mapTo(flight, FlightDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FlightDTO> getFlightsSince(LocalDateTime sinceDateTime) {
         return mappingService.mapTo(flightService.getFlightsSince(sinceDateTime), FlightDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FlightDTO> getCurrentFlights(LocalDateTime now) {
         return mappingService.mapTo(flightService.getCurrentFlights(now), FlightDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Duration getFlightTime(FlightDTO flightDTO) {
         Flight flight = mappingService.mapTo(flightDTO, Flight.class);
         return flightService.getFlightTime(flight);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FlightDTO> getAllFlights() {
         return mappingService.mapTo(flightService.getAllFlights(), FlightDTO.class);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportFlights(Consumer<FlightDTO> consumer) {
+        flightService.scrollAllFlights(flight -> consumer.accept(mappingService.mapTo(flight, FlightDTO.class)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FlightDTO> getFlightsPage(Long afterId, Long beforeId, int limit) {
+        return mappingService.mapTo(flightService.getFlightsPage(afterId, beforeId, limit), FlightDTO.class);
+    }
+
     @Override
     public void deleteFlight(Long flightId) {
         flightService.deleteFlight(flightService.getFlight(flightId));
@@ -122,6 +207,92 @@ public class FlightFacadeImpl implements FlightFacade {
         );
     }
 
+    /**
+     * Sets the associations of the flight. Only the ids of the locations and the airplane are stored,
+     * so they are set as references without loading them, and the stewards are loaded by a single query.
+     */
+    private void setAssociations(Flight flight, Long departureLocationId, Long arrivalLocationId,
+                                 Long airplaneId, List<Long> stewardIds) {
+        flight.setDepartureLocation(destinationService.getDestinationReference(departureLocationId));
+        flight.setArrivalLocation(destinationService.getDestinationReference(arrivalLocationId));
+        flight.setAirplane(airplaneService.getReference(airplaneId));
+        if (stewardIds == null || stewardIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Steward> stewards = new HashMap<>();
+        for (Steward steward : stewardService.getStewardsByIds(stewardIds)) {
+            stewards.put(steward.getId(), steward);
+        }
+        for (Long stewardId : stewardIds) {
+            Steward steward = stewards.get(stewardId);
+            if (steward == null) {
+                throw new IllegalArgumentException("Steward " + stewardId + " does not exist.");
+            }
+            flight.addSteward(steward);
+        }
+    }
+
+    /**
+     * Stores the resolved flights of the chunk in a single transaction and reports the rejected rows.
+     * If the transaction fails, the flights are stored one by one, so that only the failing rows are rejected.
+     */
+    private FlightImportChunkDTO importChunk(List<ImportRow> rows, TransactionTemplate writeTemplate) {
+        FlightImportChunkDTO chunk = new FlightImportChunkDTO();
+        chunk.setFirstRow(rows.get(0).row);
+        chunk.setLastRow(rows.get(rows.size() - 1).row);
+
+        List<Flight> resolved = rows.stream()
+                .filter(importRow -> importRow.flight != null)
+                .map(importRow -> importRow.flight)
+                .collect(Collectors.toList());
+        if (!resolved.isEmpty()) {
+            try {
+                store(resolved, writeTemplate);
+                chunk.setImported(resolved.size());
+            } catch (RuntimeException e) {
+                // including a failure of the commit, such as a constraint violated on flush
+                logger.warn("Import of rows " + chunk.getFirstRow() + " to " + chunk.getLastRow()
+                        + " failed, retrying them one by one.", e);
+                // the ids generated by the rolled back transaction were not stored
+                resolved.forEach(flight -> flight.setId(null));
+                for (ImportRow importRow : rows) {
+                    if (importRow.flight == null) {
+                        continue;
+                    }
+                    try {
+                        store(Collections.singletonList(importRow.flight), writeTemplate);
+                        chunk.setImported(chunk.getImported() + 1);
+                    } catch (RuntimeException rowException) {
+                        importRow.error = "Rolled back: " + rootCause(rowException).getMessage();
+                    }
+                }
+            }
+        }
+
+        for (ImportRow importRow : rows) {
+            if (importRow.error != null) {
+                chunk.getErrors().add(new FlightImportErrorDTO(importRow.row, importRow.error));
+            }
+        }
+        return chunk;
+    }
+
+    private void store(List<Flight> flights, TransactionTemplate writeTemplate) {
+        writeTemplate.execute(status -> {
+            flightService.addAll(flights);
+            return null;
+        });
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
     @Override
     public void changeAirplane(Long flightId, Long airplaneId) {
         Flight flight = flightService.getFlight(flightId);
@@ -130,4 +301,95 @@ public class FlightFacadeImpl implements FlightFacade {
         flight.setAirplane(airplane);
         flightService.updateFlight(flight);
     }
+
+    /**
+     * Destinations, airplanes and stewards of a flight import by their ids, loaded once for the whole import.
+     * The maps are only read after they are created, so the rows may be resolved in parallel.
+     */
+    private static final class ImportReferences {
+
+        private final Map<Long, Destination> destinations;
+        private final Map<Long, Airplane> airplanes;
+        private final Map<Long, Steward> stewards;
+
+        private ImportReferences(Collection<Destination> destinations, Collection<Airplane> airplanes,
+                                 Collection<Steward> stewards) {
+            this.destinations = byId(destinations, Destination::getId);
+            this.airplanes = byId(airplanes, Airplane::getId);
+            this.stewards = byId(stewards, Steward::getId);
+        }
+
+        private static <T> Map<Long, T> byId(Collection<T> entities, Function<T, Long> id) {
+            Map<Long, T> map = new HashMap<>();
+            for (T entity : entities) {
+                map.put(id.apply(entity), entity);
+            }
+            return map;
+        }
+    }
+
+    /**
+     * A single row of a flight import. The row ends up either with the flight to store or with an error.
+     */
+    private static final class ImportRow {
+
+        private final long row;
+        private FlightCreateDTO source;
+        private Flight flight;
+        private String error;
+
+        private ImportRow(long row) {
+            this.row = row;
+        }
+
+        private void resolve(ImportReferences references) {
+            try {
+                flight = toFlight(references);
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+        }
+
+        private Flight toFlight(ImportReferences references) {
+            if (source == null) {
+                throw new IllegalArgumentException("Flight is missing");
+            }
+            if (source.getDepartureTime() == null || source.getArrivalTime() == null) {
+                throw new IllegalArgumentException("Departure or arrival time is missing");
+            }
+            if (source.getDepartureTime().isAfter(source.getArrivalTime())) {
+                throw new IllegalArgumentException("Arrival time cannot be before departure time.");
+            }
+
+            Flight flight = new Flight();
+            flight.setDepartureTime(source.getDepartureTime());
+            flight.setArrivalTime(source.getArrivalTime());
+            flight.setDepartureLocation(reference(references.destinations, source.getDepartureLocationId(),
+                    "Departure location"));
+            flight.setArrivalLocation(reference(references.destinations, source.getArrivalLocationId(),
+                    "Arrival location"));
+            flight.setAirplane(reference(references.airplanes, source.getAirplaneId(), "Airplane"));
+            if (source.getStewardIds() != null) {
+                Set<Long> stewardIds = new HashSet<>();
+                for (Long stewardId : source.getStewardIds()) {
+                    if (!stewardIds.add(stewardId)) {
+                        throw new IllegalArgumentException("Steward " + stewardId + " is listed twice");
+                    }
+                    flight.addSteward(reference(references.stewards, stewardId, "Steward"));
+                }
+            }
+            return flight;
+        }
+
+        private static <T> T reference(Map<Long, T> entities, Long id, String name) {
+            if (id == null) {
+                throw new IllegalArgumentException(name + " is missing");
+            }
+            T entity = entities.get(id);
+            if (entity == null) {
+                throw new IllegalArgumentException(name + " " + id + " does not exist");
+            }
+            return entity;
+        }
+    }
 }
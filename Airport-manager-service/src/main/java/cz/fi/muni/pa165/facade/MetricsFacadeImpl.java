@@ -0,0 +1,38 @@
+package cz.fi.muni.pa165.facade;
+
+import cz.fi.muni.pa165.cache.CacheMetrics;
+import cz.fi.muni.pa165.jdbc.ConnectionPoolMetrics;
+import cz.fi.muni.pa165.metrics.CallMetrics;
+import cz.fi.muni.pa165.service.DomainEventBus;
+import org.springframework.stereotype.Service;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * @author Robert Duriancik
+ */
+@Service
+public class MetricsFacadeImpl implements MetricsFacade {
+
+    @Inject
+    private CallMetrics callMetrics;
+
+    @Inject
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
+    @Inject
+    private CacheMetrics cacheMetrics;
+
+    @Inject
+    private DomainEventBus domainEventBus;
+
+    @Override
+    public void writeMetrics(Writer writer) throws IOException {
+        callMetrics.writePrometheus(writer);
+        connectionPoolMetrics.writePrometheus(writer);
+        cacheMetrics.writePrometheus(writer);
+        domainEventBus.writePrometheus(writer);
+    }
+}
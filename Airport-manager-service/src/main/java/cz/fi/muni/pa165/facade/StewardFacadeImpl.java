@@ -31,15 +31,23 @@ public class StewardFacadeImpl implements StewardFacade {
     private MappingService mappingService;
 
     @Override
+    @Transactional(readOnly = true)
     public StewardDTO getSteward(Long id) {
         return mappingService.mapTo(stewardService.getSteward(id), StewardDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<StewardDTO> listAllStewards(){
         return mappingService.mapTo(stewardService.getAllStewardsNameOrdered(), StewardDTO.class);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<StewardDTO> listStewardsPage(Long afterId, Long beforeId, int limit) {
+        return mappingService.mapTo(stewardService.getStewardsPage(afterId, beforeId, limit), StewardDTO.class);
+    }
+
     @Override
     public void deleteSteward(long id){
         stewardService.deleteSteward(stewardService.getSteward(id));
@@ -56,12 +64,14 @@ public class StewardFacadeImpl implements StewardFacade {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FlightDTO> getAllStewardsFlightsInTimeRange(long id, LocalDateTime startTime, LocalDateTime stopTime){
         return mappingService.mapTo(stewardService.getAllStewardFlightsInTimeRange(id, startTime, stopTime),
                 FlightDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FlightDTO> getStewardLastAndCurrentAndFutureFlight(long id){
        List<FlightDTO> lastCurrentFutureStewardFlights = new ArrayList<>(3);
        lastCurrentFutureStewardFlights.add(0,
@@ -74,12 +84,14 @@ public class StewardFacadeImpl implements StewardFacade {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FlightDTO> getAllStewardFlights(long id){
         return mappingService.mapTo(stewardService.getAllStewardFlights(id),
                 FlightDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<StewardDTO> getFreeStewardsInTimeRange(LocalDateTime start, LocalDateTime end) {
         return mappingService.mapTo(stewardService.getFreeStewardsInTimeRange(start, end), StewardDTO.class);
     }
@@ -41,23 +41,27 @@ public class UserFacadeImpl implements UserFacade {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDTO getUser(Long userId) {
         User user = userService.getUser(userId);
         return user == null ? null : mappingService.mapTo(user, UserDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
         return mappingService.mapTo(userService.getAllUsers(), UserDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDTO getUserByEmail(String userEmail) {
         User user = userService.getUserByEmail(userEmail);
         return user == null ? null : mappingService.mapTo(user, UserDTO.class);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean authenticate(UserAuthenticateDTO userAuthenticateDTO) {
         return userService.authenticate(
                 userService.getUser(userAuthenticateDTO.getUserId()),
@@ -65,6 +69,7 @@ public class UserFacadeImpl implements UserFacade {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean isAdmin(UserDTO userDTO) {
         return userService.isAdmin(mappingService.mapTo(userDTO, User.class));
     }
@@ -0,0 +1,115 @@
+package cz.fi.muni.pa165.metrics;
+
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the latency, error and result size metrics of facade, service and DAO calls,
+ * recorded by {@link CallMetricsAspect} and exported in the Prometheus text format.
+ *
+ * @author Robert Duriancik
+ */
+@Component
+public class CallMetrics {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    // overloaded methods share the metrics of their labels
+    private final Map<Method, MethodMetrics> metricsByMethod = new ConcurrentHashMap<>();
+    private final Map<String, MethodMetrics> metricsByLabels = new ConcurrentHashMap<>();
+
+    /**
+     * Records a finished call.
+     *
+     * @param method      called method, its declaring type and name are the labels of the metrics
+     * @param targetClass class of the called bean, which determines the <b>layer</b> label
+     * @param nanos       duration of the call
+     * @param error       whether the call ended with an exception
+     * @param resultSize  number of elements of the returned collection, negative if it did not return one
+     */
+    public void record(Method method, Class<?> targetClass, long nanos, boolean error, int resultSize) {
+        MethodMetrics metrics = metricsByMethod.get(method);
+        if (metrics == null) {
+            String layer = layer(targetClass);
+            String className = method.getDeclaringClass().getSimpleName();
+            metrics = metricsByLabels.computeIfAbsent(layer + '.' + className + '.' + method.getName(),
+                    labels -> new MethodMetrics(layer, className, method.getName()));
+            metricsByMethod.put(method, metrics);
+        }
+        metrics.record(nanos, error, resultSize);
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text format: the latency histogram <b>airport_call_duration_seconds</b>,
+     * whose count is the number of calls, the counter <b>airport_call_errors_total</b> and the summary
+     * <b>airport_call_result_size</b>.
+     *
+     * @param writer writer of the output, not closed
+     * @throws IOException if the writer fails
+     */
+    public void writePrometheus(Writer writer) throws IOException {
+        List<MethodMetrics> metrics = metricsByLabels.values().stream()
+                .sorted(Comparator.comparing(MethodMetrics::getLayer)
+                        .thenComparing(MethodMetrics::getClassName)
+                        .thenComparing(MethodMetrics::getMethodName))
+                .collect(Collectors.toList());
+
+        writer.write("# HELP airport_call_duration_seconds Duration of facade, service and DAO calls.\n");
+        writer.write("# TYPE airport_call_duration_seconds histogram\n");
+        for (MethodMetrics method : metrics) {
+            String labels = labels(method);
+            long[] counts = method.getBucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                String bound = i < MethodMetrics.BUCKET_LABELS.length ? MethodMetrics.BUCKET_LABELS[i] : "+Inf";
+                writer.write("airport_call_duration_seconds_bucket{" + labels + ",le=\"" + bound + "\"} "
+                        + cumulative + '\n');
+            }
+            writer.write("airport_call_duration_seconds_sum{" + labels + "} "
+                    + method.getTotalNanos() / NANOS_PER_SECOND + '\n');
+            writer.write("airport_call_duration_seconds_count{" + labels + "} " + cumulative + '\n');
+        }
+
+        writer.write("# HELP airport_call_errors_total Facade, service and DAO calls which ended with an exception.\n");
+        writer.write("# TYPE airport_call_errors_total counter\n");
+        for (MethodMetrics method : metrics) {
+            writer.write("airport_call_errors_total{" + labels(method) + "} " + method.getErrors() + '\n');
+        }
+
+        writer.write("# HELP airport_call_result_size Number of elements of the collections returned by calls.\n");
+        writer.write("# TYPE airport_call_result_size summary\n");
+        for (MethodMetrics method : metrics) {
+            if (method.getResults() > 0) {
+                writer.write("airport_call_result_size_sum{" + labels(method) + "} " + method.getResultElements() + '\n');
+                writer.write("airport_call_result_size_count{" + labels(method) + "} " + method.getResults() + '\n');
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Returns <b>dao</b> for repositories, <b>facade</b> for the facades and <b>service</b> for the other beans.
+     */
+    private static String layer(Class<?> targetClass) {
+        if (AnnotationUtils.findAnnotation(targetClass, Repository.class) != null) {
+            return "dao";
+        }
+        return targetClass.getPackage().getName().endsWith(".facade") ? "facade" : "service";
+    }
+
+    private static String labels(MethodMetrics method) {
+        return "layer=\"" + method.getLayer() + "\",class=\"" + method.getClassName()
+                + "\",method=\"" + method.getMethodName() + '"';
+    }
+}
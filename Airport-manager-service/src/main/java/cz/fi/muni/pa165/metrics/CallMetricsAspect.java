@@ -0,0 +1,56 @@
+package cz.fi.muni.pa165.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Records the duration, the outcome and the result size of every public method call of the services,
+ * facades and DAOs of the application into {@link CallMetrics}. It is the outermost advice, so the
+ * duration of a transactional call includes its commit.
+ *
+ * @author Robert Duriancik
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CallMetricsAspect {
+
+    private final CallMetrics callMetrics;
+
+    public CallMetricsAspect(CallMetrics callMetrics) {
+        this.callMetrics = callMetrics;
+    }
+
+    @Around("execution(public * cz.fi.muni.pa165..*(..)) && (@within(org.springframework.stereotype.Service)"
+            + " || @within(org.springframework.stereotype.Repository))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        boolean error = true;
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            error = false;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            callMetrics.record(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                    joinPoint.getTarget().getClass(), nanos, error, resultSize(result));
+        }
+    }
+
+    private static int resultSize(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Map) {
+            return ((Map<?, ?>) result).size();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,109 @@
+package cz.fi.muni.pa165.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram, error count and result sizes of the calls of a single method.
+ * Recording is lock-free, so that calls of many threads do not contend on the metrics.
+ *
+ * @author Robert Duriancik
+ */
+final class MethodMetrics {
+
+    /**
+     * Upper bounds of the latency buckets in seconds, as written to the <b>le</b> label.
+     */
+    static final String[] BUCKET_LABELS = {
+            "0.0005", "0.001", "0.0025", "0.005", "0.01", "0.025", "0.05", "0.1", "0.25", "0.5", "1", "2.5", "5", "10"};
+
+    private static final long[] BUCKET_NANOS = new long[BUCKET_LABELS.length];
+
+    static {
+        for (int i = 0; i < BUCKET_LABELS.length; i++) {
+            BUCKET_NANOS[i] = (long) (Double.parseDouble(BUCKET_LABELS[i]) * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    private final String layer;
+    private final String className;
+    private final String methodName;
+
+    // calls per bucket, the last one holds the calls slower than every bound
+    private final LongAdder[] buckets = new LongAdder[BUCKET_LABELS.length + 1];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder results = new LongAdder();
+    private final LongAdder resultElements = new LongAdder();
+
+    MethodMetrics(String layer, String className, String methodName) {
+        this.layer = layer;
+        this.className = className;
+        this.methodName = methodName;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a finished call.
+     *
+     * @param nanos      duration of the call
+     * @param error      whether the call ended with an exception
+     * @param resultSize number of elements of the returned collection, negative if it did not return one
+     */
+    void record(long nanos, boolean error, int resultSize) {
+        int bucket = 0;
+        while (bucket < BUCKET_NANOS.length && nanos > BUCKET_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        totalNanos.add(nanos);
+        if (error) {
+            errors.increment();
+        }
+        if (resultSize >= 0) {
+            results.increment();
+            resultElements.add(resultSize);
+        }
+    }
+
+    String getLayer() {
+        return layer;
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * Returns the calls per bucket of {@link #BUCKET_LABELS}, not cumulative, followed by the slower calls.
+     */
+    long[] getBucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    long getResults() {
+        return results.sum();
+    }
+
+    long getResultElements() {
+        return resultElements.sum();
+    }
+}
@@ -0,0 +1,37 @@
+package cz.fi.muni.pa165.metrics;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Records the call metrics when the property <b>airport.metrics.enabled</b> is true.
+ * Otherwise the beans are not proxied for the metrics at all, so that the calls have no overhead,
+ * and {@link CallMetrics} stays empty.
+ *
+ * @author Robert Duriancik
+ */
+@Configuration
+@Conditional(MetricsConfig.MetricsEnabledCondition.class)
+@EnableAspectJAutoProxy
+public class MetricsConfig {
+
+    public static final String METRICS_ENABLED_PROPERTY = "airport.metrics.enabled";
+
+    @Bean
+    public CallMetricsAspect callMetricsAspect(CallMetrics callMetrics) {
+        return new CallMetricsAspect(callMetrics);
+    }
+
+    static class MetricsEnabledCondition implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return context.getEnvironment().getProperty(METRICS_ENABLED_PROPERTY, Boolean.class, false);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import cz.fi.muni.pa165.entities.Airplane;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +21,14 @@ public interface AirplaneService {
      */
     Airplane findById(Long id);
 
+    /**
+     * Get a reference to the airplane with given id without loading it, for setting associations.
+     *
+     * @param id Id identifying airplane.
+     * @return Reference to the airplane.
+     */
+    Airplane getReference(Long id);
+
     /**
      * Delete airplane
      *
@@ -34,6 +43,13 @@ public interface AirplaneService {
      */
     Long addAirplane(Airplane airplane);
 
+    /**
+     * Add all airplanes in JDBC batches.
+     *
+     * @param airplanes Airplanes to add, detached with their ids set afterwards.
+     */
+    void addAll(Collection<Airplane> airplanes);
+
     /**
      * Update airplane.
      *
@@ -48,6 +64,18 @@ public interface AirplaneService {
      */
     List<Airplane> findAll();
 
+    /**
+     * Find a page of planes ordered by name and id. The page follows the plane <b>afterId</b>,
+     * or precedes the plane <b>beforeId</b> if given, or is the first page if neither is given.
+     *
+     * @param afterId  id of the last plane of the previous page, may be null
+     * @param beforeId id of the first plane of the next page, may be null
+     * @param limit    maximal number of returned planes
+     * @return list of planes
+     * @throws IllegalArgumentException if both afterId and beforeId are given
+     */
+    List<Airplane> findPage(Long afterId, Long beforeId, int limit);
+
     /**
      * Find all airplanes with given name
      *
@@ -0,0 +1,51 @@
+package cz.fi.muni.pa165.service;
+
+/**
+ * Version counters of the entity collections, increased by the services on every committed change
+ * of a collection. The versions of the collections a response is built from identify the response,
+ * so that an unchanged response is recognized without loading any data.
+ * <p>
+ * The counters are held in memory and start again with each start of the application. The tags therefore
+ * include an identifier of the start, so that a tag of a previous start never matches.
+ *
+ * @author Robert Duriancik
+ */
+public interface CollectionVersions {
+
+    /**
+     * Records a change of the collection. The version is increased once the current transaction commits,
+     * or immediately if there is none, so that a data read under the new version sees the change.
+     *
+     * @param collection the changed collection
+     * @throws NullPointerException if collection is null
+     */
+    void changed(VersionedCollection collection);
+
+    /**
+     * Returns the current version of the collection.
+     *
+     * @param collection the collection
+     * @return version of the collection, increasing with each change
+     * @throws NullPointerException if collection is null
+     */
+    long getVersion(VersionedCollection collection);
+
+    /**
+     * Returns a tag identifying the current versions of the collections within all starts of the application.
+     *
+     * @param collections the collections
+     * @return tag of the versions, usable as an entity tag value
+     * @throws NullPointerException if collections or any of them is null
+     */
+    String getTag(VersionedCollection... collections);
+
+    /**
+     * Returns the time of the last change of any of the collections, the start of the application
+     * if they have not been changed since.
+     *
+     * @param collections the collections
+     * @return time of the last change in milliseconds since the epoch
+     * @throws NullPointerException if collections or any of them is null
+     */
+    long getLastModified(VersionedCollection... collections);
+}
@@ -4,6 +4,7 @@ import cz.fi.muni.pa165.entities.Destination;
 import cz.fi.muni.pa165.entities.Flight;
 import cz.fi.muni.pa165.exceptions.DestinationDataAccessException;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,6 +24,14 @@ public interface DestinationService {
      */
     Long createDestination(String country, String city);
 
+    /**
+     * Creates all destinations in JDBC batches.
+     *
+     * @param destinations Destinations to be created, detached with their ids set afterwards.
+     * @throws DestinationDataAccessException if fail in DAO occurs.
+     */
+    void addAll(Collection<Destination> destinations);
+
     /**
      * Removes destination from the db.
      *
@@ -48,6 +57,15 @@ public interface DestinationService {
      */
     Destination getDestinationById(Long id);
 
+    /**
+     * Gets a reference to the destination with the given ID without loading it, for setting associations.
+     *
+     * @param id Long containing id of the desired destination.
+     * @throws DestinationDataAccessException if fail in DAO occurs.
+     * @return Reference to the destination.
+     */
+    Destination getDestinationReference(Long id);
+
     /**
      * Filter destinations by country name.
      *
@@ -73,6 +91,19 @@ public interface DestinationService {
      */
     List<Destination> getAllDestinations();
 
+    /**
+     * Gets a page of destinations ordered by id. The page follows the destination <b>afterId</b>,
+     * or precedes the destination <b>beforeId</b> if given, or is the first page if neither is given.
+     *
+     * @param afterId  Id of the last destination of the previous page, may be null.
+     * @param beforeId Id of the first destination of the next page, may be null.
+     * @param limit    Maximal number of returned destinations.
+     * @throws IllegalArgumentException if both afterId and beforeId are given.
+     * @throws DestinationDataAccessException if fail in DAO occurs.
+     * @return List of Destination, may be empty.
+     */
+    List<Destination> getDestinationsPage(Long afterId, Long beforeId, int limit);
+
     /**
      * Gets all incoming flights in given destination.
      *
@@ -0,0 +1,56 @@
+package cz.fi.muni.pa165.service;
+
+import cz.fi.muni.pa165.service.events.DomainEvent;
+import cz.fi.muni.pa165.service.events.DomainEventListener;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * An in-process bus of the {@link DomainEvent} published by the services, for the side effects of the changes
+ * which do not have to be visible once the change returns, such as notifications.
+ * <p>
+ * The events are delivered once the transaction publishing them commits, and dropped if it rolls back.
+ * Every listener has a bounded queue of the events, handled in batches by a bounded pool of threads,
+ * so a publisher never waits for the listeners. The events not fitting into a full queue are dropped
+ * and the listener is told how many.
+ *
+ * @author Robert Duriancik
+ */
+public interface DomainEventBus {
+
+    /**
+     * Publishes an event once the current transaction commits, or immediately if there is no transaction.
+     *
+     * @param event the event
+     * @throws NullPointerException if event is null
+     */
+    void publish(DomainEvent event);
+
+    /**
+     * Registers a listener of the events of a type, including its subtypes.
+     *
+     * @param name      name of the listener in the logs and metrics
+     * @param eventType type of the events
+     * @param listener  the listener
+     * @param <E>       type of the events
+     * @throws NullPointerException if any argument is null
+     */
+    <E extends DomainEvent> void subscribe(String name, Class<E> eventType, DomainEventListener<E> listener);
+
+    /**
+     * Removes a listener, the events already queued for it are dropped. Does nothing if the listener
+     * is not registered.
+     *
+     * @param listener the listener
+     */
+    void unsubscribe(DomainEventListener<?> listener);
+
+    /**
+     * Writes the numbers of the published, delivered and dropped events in the Prometheus text format.
+     *
+     * @param writer writer of the metrics
+     * @throws IOException if the writer fails
+     */
+    void writePrometheus(Writer writer) throws IOException;
+}
@@ -0,0 +1,54 @@
+package cz.fi.muni.pa165.service;
+
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.service.events.FlightEvent;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * A live departure and arrival board, publishing a {@link FlightBoardEvent} whenever a {@link Flight} entity
+ * is created, changed or deleted, and whenever a flight departs or arrives.
+ * <p>
+ * The changes are received as the {@link FlightEvent}s of the {@link DomainEventBus}, the departures and arrivals
+ * are found in the {@link FlightTimeIndex} as the time goes. All events are delivered one by one in the order
+ * of their sequence numbers by a single thread of the board, so the listeners should pass any slow work on.
+ * The board does no work while it has no listeners.
+ * <p>
+ * If the board misses some changes of the flights, it publishes a reset, after which the listeners should read
+ * the board again.
+ *
+ * @author Robert Duriancik
+ */
+public interface FlightBoard {
+
+    /**
+     * Publishes the departures and arrivals since the previous call, up to the given time.
+     * Called periodically by the board itself.
+     *
+     * @param now the current time
+     * @throws NullPointerException if now is null
+     */
+    void advanceTo(LocalDateTime now);
+
+    /**
+     * Returns the sequence number of the last published event, 0 if there is none yet.
+     * A state of the board read after this call reflects at least the events up to the number.
+     */
+    long getSequence();
+
+    /**
+     * Registers a listener of the events published from now on.
+     *
+     * @param listener the listener
+     * @throws NullPointerException if listener is null
+     */
+    void subscribe(Consumer<FlightBoardEvent> listener);
+
+    /**
+     * Removes a listener. Does nothing if the listener is not registered.
+     *
+     * @param listener the listener
+     */
+    void unsubscribe(Consumer<FlightBoardEvent> listener);
+}
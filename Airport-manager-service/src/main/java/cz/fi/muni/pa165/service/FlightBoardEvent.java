@@ -0,0 +1,103 @@
+package cz.fi.muni.pa165.service;
+
+import cz.fi.muni.pa165.entities.Flight;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change of the {@link FlightBoard}, i.e. a change of a {@link Flight} entity or its departure or arrival.
+ *
+ * @author Robert Duriancik
+ */
+public final class FlightBoardEvent {
+
+    /**
+     * Kinds of the board changes.
+     */
+    public enum Type {
+        CREATED,
+        CHANGED,
+        DELETED,
+        DEPARTED,
+        ARRIVED,
+        /**
+         * Some changes were lost, the board should be read again.
+         */
+        RESET
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final Long flightId;
+    private final LocalDateTime time;
+    private final LocalDateTime departureTime;
+    private final LocalDateTime arrivalTime;
+
+    /**
+     * @param sequence number of the event, growing by one with every event of the board
+     * @param type     kind of the change
+     * @param flightId id of the changed flight, null for a reset
+     * @param time     departure or arrival time of the flight, the time of the change for the other events
+     */
+    public FlightBoardEvent(long sequence, Type type, Long flightId, LocalDateTime time) {
+        this(sequence, type, flightId, time, null, null);
+    }
+
+    /**
+     * @param sequence      number of the event, growing by one with every event of the board
+     * @param type          kind of the change
+     * @param flightId      id of the changed flight, null for a reset
+     * @param time          departure or arrival time of the flight, the time of the change for the other events
+     * @param departureTime departure time of a created or changed flight, null for the other events
+     * @param arrivalTime   arrival time of a created or changed flight, null for the other events
+     */
+    public FlightBoardEvent(long sequence, Type type, Long flightId, LocalDateTime time,
+                            LocalDateTime departureTime, LocalDateTime arrivalTime) {
+        this.sequence = sequence;
+        this.type = type;
+        this.flightId = flightId;
+        this.time = time;
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    /**
+     * @return departure time of a created or changed flight, null for the other events
+     */
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+
+    /**
+     * @return arrival time of a created or changed flight, null for the other events
+     */
+    public LocalDateTime getArrivalTime() {
+        return arrivalTime;
+    }
+
+    @Override
+    public String toString() {
+        return "FlightBoardEvent{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", flightId=" + flightId +
+                ", time=" + time +
+                '}';
+    }
+}
@@ -6,7 +6,9 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * An interface that defines a service access to the {@link Flight} entity.
@@ -24,6 +26,15 @@ public interface FlightService {
      */
     Long addFlight(Flight flight);
 
+    /**
+     * Saves all {@link Flight} entity instances in the persistence storage in JDBC batches.
+     * The instances are detached, with their ids set, when the method returns.
+     *
+     * @param flights the {@link Flight} entity instances
+     * @throws cz.fi.muni.pa165.exceptions.FlightDataAccessException in case of any exception on a DAO layer
+     */
+    void addAll(Collection<Flight> flights);
+
     /**
      * Removes a {@link Flight} entity instance from the persistence storage.
      *
@@ -48,6 +59,16 @@ public interface FlightService {
      */
     Flight getFlight(Long id);
 
+    /**
+     * Find a {@link Flight} entity instance with specified <b>id</b> together with its
+     * locations, airplane and stewards, loaded in one statement.
+     *
+     * @param id id of the {@link Flight} entity
+     * @return {@link Flight} instance or null if the entity does not exist.
+     * @throws cz.fi.muni.pa165.exceptions.FlightDataAccessException in case of any exception on a DAO layer
+     */
+    Flight getFlightWithCrew(Long id);
+
     /**
      * Find all instances of the {@link Flight} entity in the persistence storage.
      *
@@ -55,6 +76,41 @@ public interface FlightService {
      */
     List<Flight> getAllFlights();
 
+    /**
+     * Find a page of {@link Flight} entities ordered by departure time and id.
+     * The page follows the flight <b>afterId</b>, or precedes the flight <b>beforeId</b>
+     * if given, or is the first page if neither is given.
+     *
+     * @param afterId  id of the last flight of the previous page, may be null
+     * @param beforeId id of the first flight of the next page, may be null
+     * @param limit    maximal number of returned flights
+     * @return list of {@link Flight} entities
+     * @throws IllegalArgumentException if both afterId and beforeId are given
+     * @throws cz.fi.muni.pa165.exceptions.FlightDataAccessException in case of any exception on a DAO layer
+     */
+    List<Flight> getFlightsPage(Long afterId, Long beforeId, int limit);
+
+    /**
+     * Passes all {@link Flight} entities ordered by departure time to <b>consumer</b> one by one,
+     * without loading the whole table into memory. The consumer must not keep the passed entities.
+     *
+     * @param consumer consumer of the {@link Flight} entities
+     * @throws NullPointerException if consumer is null
+     * @throws java.io.UncheckedIOException if thrown by the consumer
+     * @throws cz.fi.muni.pa165.exceptions.FlightDataAccessException in case of any exception on a DAO layer
+     */
+    void scrollAllFlights(Consumer<Flight> consumer);
+
+    /**
+     * Finds all {@link Flight} entities with the given ids, ordered by departure time.
+     *
+     * @param ids ids of the {@link Flight} entities
+     * @return List of {@link Flight} entities
+     * @throws NullPointerException if ids is null
+     * @throws cz.fi.muni.pa165.exceptions.FlightDataAccessException in case of any exception on a DAO layer
+     */
+    List<Flight> getFlightsByIds(Collection<Long> ids);
+
     /**
      * Returns a duration of the flight.
      *
@@ -77,7 +133,8 @@ public interface FlightService {
 
     /**
      * Find all instances of the {@link Flight} entity in the persistence storage
-     * which flew between the specified time range.
+     * which are in the air at any time of the specified time range (inclusive),
+     * including the flights departing before it and arriving after it.
      *
      * @param start the date since when to find flights
      * @param end   the date until when find flights
@@ -0,0 +1,85 @@
+package cz.fi.muni.pa165.service;
+
+import cz.fi.muni.pa165.dao.FlightTimeSlot;
+import cz.fi.muni.pa165.entities.Flight;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An in-memory index over departure and arrival times of {@link Flight} entities which answers
+ * time window queries without scanning all flights.
+ * <p>
+ * The index holds only ids and times, the entities themselves have to be loaded from the persistence storage.
+ * It is kept in sync by {@link FlightService}, which calls the modifying methods once a transaction commits.
+ *
+ * @author Robert Duriancik
+ */
+public interface FlightTimeIndex {
+
+    /**
+     * Adds a flight to the index or replaces its previously indexed times.
+     *
+     * @param flightId      id of the {@link Flight} entity
+     * @param departureTime departure time of the flight
+     * @param arrivalTime   arrival time of the flight
+     * @throws NullPointerException if any argument is null
+     */
+    void put(Long flightId, LocalDateTime departureTime, LocalDateTime arrivalTime);
+
+    /**
+     * Removes a flight from the index. Does nothing if the flight is not indexed.
+     *
+     * @param flightId id of the {@link Flight} entity
+     * @throws NullPointerException if flightId is null
+     */
+    void remove(Long flightId);
+
+    /**
+     * Drops the content of the index, it is rebuilt from the persistence storage on the next query.
+     */
+    void invalidate();
+
+    /**
+     * Finds ids of flights which departed before <b>time</b> and arrive after it.
+     *
+     * @param time the time
+     * @return ids of flights in the air at the given time
+     * @throws NullPointerException if time is null
+     */
+    Set<Long> findCurrentFlightIds(LocalDateTime time);
+
+    /**
+     * Finds ids of flights which overlap the given time range (inclusive), that is which depart at <b>end</b>
+     * at the latest and arrive at <b>start</b> at the earliest. A flight spanning the whole range is found too.
+     *
+     * @param start start of the time range
+     * @param end   end of the time range
+     * @return ids of flights in the air at any time of the time range
+     * @throws NullPointerException if start or end is null
+     */
+    Set<Long> findFlightIdsInTimeRange(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Finds flights which depart after <b>start</b> and at <b>end</b> at the latest, ordered by departure time.
+     * Consecutive time ranges sharing their bounds find every departure exactly once.
+     *
+     * @param start start of the time range (exclusive)
+     * @param end   end of the time range (inclusive)
+     * @return time slots of the flights departing in the time range
+     * @throws NullPointerException if start or end is null
+     */
+    List<FlightTimeSlot> findDepartures(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Finds flights which arrive after <b>start</b> and at <b>end</b> at the latest, ordered by arrival time.
+     * Consecutive time ranges sharing their bounds find every arrival exactly once.
+     *
+     * @param start start of the time range (exclusive)
+     * @param end   end of the time range (inclusive)
+     * @return time slots of the flights arriving in the time range
+     * @throws NullPointerException if start or end is null
+     */
+    List<FlightTimeSlot> findArrivals(LocalDateTime start, LocalDateTime end);
+}
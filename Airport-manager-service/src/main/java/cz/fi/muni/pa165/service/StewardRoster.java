@@ -0,0 +1,81 @@
+package cz.fi.muni.pa165.service;
+
+import cz.fi.muni.pa165.dao.FlightTimeSlot;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A cache of {@link Steward} rosters, i.e. the {@link Flight} entities a steward serves sorted by departure time.
+ * <p>
+ * A steward is expected to serve at most one flight at a time. Rosters are loaded lazily from the
+ * persistence storage and have to be evicted once a flight or a steward changes.
+ *
+ * @author Karel Jiranek
+ */
+public interface StewardRoster {
+
+    /**
+     * Finds flights of the steward which depart after <b>start</b> and before <b>end</b>.
+     *
+     * @param stewardId id of the {@link Steward} entity
+     * @param start     time to start searching from (exclusive)
+     * @param end       time to stop searching (exclusive)
+     * @return flights ordered by departure time, empty list if not any
+     * @throws NullPointerException if any argument is null
+     */
+    List<FlightTimeSlot> getFlightsInTimeRange(Long stewardId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Finds the last flight of the steward which departed before <b>time</b>.
+     *
+     * @param stewardId id of the {@link Steward} entity
+     * @param time      the time
+     * @return the last departed flight, null if not any
+     * @throws NullPointerException if any argument is null
+     */
+    FlightTimeSlot getLastFlight(Long stewardId, LocalDateTime time);
+
+    /**
+     * Finds the flight the steward is serving at <b>time</b>.
+     *
+     * @param stewardId id of the {@link Steward} entity
+     * @param time      the time
+     * @return the flight in the air, null if the steward is not in the air
+     * @throws NullPointerException if any argument is null
+     */
+    FlightTimeSlot getCurrentFlight(Long stewardId, LocalDateTime time);
+
+    /**
+     * Finds the first flight of the steward which departs after <b>time</b>.
+     *
+     * @param stewardId id of the {@link Steward} entity
+     * @param time      the time
+     * @return the next flight, null if not any
+     * @throws NullPointerException if any argument is null
+     */
+    FlightTimeSlot getNextFlight(Long stewardId, LocalDateTime time);
+
+    /**
+     * Evicts the roster of the steward.
+     *
+     * @param stewardId id of the {@link Steward} entity
+     */
+    void evictSteward(Long stewardId);
+
+    /**
+     * Evicts rosters of the given stewards and of every steward whose cached roster contains the flight.
+     *
+     * @param flightId   id of the changed {@link Flight} entity
+     * @param stewardIds ids of stewards currently assigned to the flight
+     */
+    void evictFlight(Long flightId, Collection<Long> stewardIds);
+
+    /**
+     * Evicts all rosters.
+     */
+    void clear();
+}
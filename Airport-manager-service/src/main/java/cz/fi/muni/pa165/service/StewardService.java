@@ -5,6 +5,7 @@ import cz.fi.muni.pa165.entities.Steward;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -22,6 +23,14 @@ public interface StewardService {
      */
     Steward getSteward(Long id);
 
+    /**
+     * Get stewards with given ids by a single query.
+     *
+     * @param ids Ids identifying stewards.
+     * @return Found stewards, in no particular order. Ids without a steward are skipped.
+     */
+    List<Steward> getStewardsByIds(Collection<Long> ids);
+
     /**
      * Delete steward
      *
@@ -37,6 +46,18 @@ public interface StewardService {
      */
     List<Steward> getAllStewardsNameOrdered();
 
+    /**
+     * Get a page of stewards ordered by surname/first name. The page follows the steward <b>afterId</b>,
+     * or precedes the steward <b>beforeId</b> if given, or is the first page if neither is given.
+     *
+     * @param afterId  Id of the last steward of the previous page, may be null.
+     * @param beforeId Id of the first steward of the next page, may be null.
+     * @param limit    Maximal number of returned stewards.
+     * @return Ordered list of stewards.
+     * @throws IllegalArgumentException if both afterId and beforeId are given.
+     */
+    List<Steward> getStewardsPage(Long afterId, Long beforeId, int limit);
+
     /**
      * Create steward with name and surname.
      *
@@ -45,6 +66,13 @@ public interface StewardService {
      */
     Long createSteward(String firstName, String surName);
 
+    /**
+     * Create all stewards in JDBC batches.
+     *
+     * @param stewards Stewards to create, detached with their ids set afterwards.
+     */
+    void addAll(Collection<Steward> stewards);
+
     /**
      * Update steward/
      *
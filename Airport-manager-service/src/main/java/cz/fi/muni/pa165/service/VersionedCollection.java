@@ -0,0 +1,13 @@
+package cz.fi.muni.pa165.service;
+
+/**
+ * Collections of entities whose changes are counted by {@link CollectionVersions}.
+ *
+ * @author Robert Duriancik
+ */
+public enum VersionedCollection {
+    FLIGHTS,
+    AIRPLANES,
+    DESTINATIONS,
+    STEWARDS
+}
@@ -0,0 +1,17 @@
+package cz.fi.muni.pa165.service.events;
+
+import cz.fi.muni.pa165.entities.Airplane;
+
+import java.time.LocalDateTime;
+
+/**
+ * A {@link Airplane} entity was created, updated or deleted.
+ *
+ * @author Robert Duriancik
+ */
+public final class AirplaneChanged extends EntityChanged {
+
+    public AirplaneChanged(LocalDateTime occurredAt, Long airplaneId, Change change) {
+        super(occurredAt, airplaneId, change);
+    }
+}
@@ -0,0 +1,17 @@
+package cz.fi.muni.pa165.service.events;
+
+import cz.fi.muni.pa165.entities.Destination;
+
+import java.time.LocalDateTime;
+
+/**
+ * A {@link Destination} entity was created, updated or deleted.
+ *
+ * @author Robert Duriancik
+ */
+public final class DestinationChanged extends EntityChanged {
+
+    public DestinationChanged(LocalDateTime occurredAt, Long destinationId, Change change) {
+        super(occurredAt, destinationId, change);
+    }
+}
@@ -0,0 +1,27 @@
+package cz.fi.muni.pa165.service.events;
+
+import cz.fi.muni.pa165.service.DomainEventBus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change of the stored entities, published by the services on the {@link DomainEventBus}
+ * once the change is committed. The events are immutable.
+ *
+ * @author Robert Duriancik
+ */
+public abstract class DomainEvent {
+
+    private final LocalDateTime occurredAt;
+
+    /**
+     * @param occurredAt time of the change
+     */
+    protected DomainEvent(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
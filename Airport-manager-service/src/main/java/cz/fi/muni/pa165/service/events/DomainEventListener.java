@@ -0,0 +1,32 @@
+package cz.fi.muni.pa165.service.events;
+
+import cz.fi.muni.pa165.service.DomainEventBus;
+
+import java.util.List;
+
+/**
+ * A listener of the events of a type, subscribed to the {@link DomainEventBus}.
+ *
+ * @param <E> type of the events
+ * @author Robert Duriancik
+ */
+@FunctionalInterface
+public interface DomainEventListener<E extends DomainEvent> {
+
+    /**
+     * Handles a batch of the events in the order they were published. The batches of a listener
+     * are handled one at a time, but not always by the same thread.
+     *
+     * @param events the events, not empty
+     */
+    void onEvents(List<E> events);
+
+    /**
+     * Called before the next batch once some events were dropped, as the queue of the listener was full.
+     * A listener keeping a state derived from the events should rebuild it.
+     *
+     * @param count number of the dropped events
+     */
+    default void onEventsDropped(long count) {
+    }
+}
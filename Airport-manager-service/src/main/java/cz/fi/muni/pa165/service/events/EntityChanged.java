@@ -0,0 +1,45 @@
+package cz.fi.muni.pa165.service.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change of an entity referenced by the flights, which is either created, updated or deleted.
+ *
+ * @author Robert Duriancik
+ */
+public abstract class EntityChanged extends DomainEvent {
+
+    /**
+     * Kinds of the changes.
+     */
+    public enum Change {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Long entityId;
+    private final Change change;
+
+    protected EntityChanged(LocalDateTime occurredAt, Long entityId, Change change) {
+        super(occurredAt);
+        this.entityId = entityId;
+        this.change = change;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+                "entityId=" + entityId +
+                ", change=" + change +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package cz.fi.muni.pa165.service.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * A flight was created.
+ *
+ * @author Robert Duriancik
+ */
+public final class FlightCreated extends FlightEvent {
+
+    private final LocalDateTime departureTime;
+    private final LocalDateTime arrivalTime;
+
+    public FlightCreated(LocalDateTime occurredAt, Long flightId, LocalDateTime departureTime, LocalDateTime arrivalTime) {
+        super(occurredAt, flightId);
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public LocalDateTime getArrivalTime() {
+        return arrivalTime;
+    }
+
+    @Override
+    public String toString() {
+        return "FlightCreated{" +
+                "flightId=" + getFlightId() +
+                ", departureTime=" + departureTime +
+                ", arrivalTime=" + arrivalTime +
+                '}';
+    }
+}
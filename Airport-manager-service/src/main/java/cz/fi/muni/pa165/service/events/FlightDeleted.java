@@ -0,0 +1,22 @@
+package cz.fi.muni.pa165.service.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * A flight was deleted.
+ *
+ * @author Robert Duriancik
+ */
+public final class FlightDeleted extends FlightEvent {
+
+    public FlightDeleted(LocalDateTime occurredAt, Long flightId) {
+        super(occurredAt, flightId);
+    }
+
+    @Override
+    public String toString() {
+        return "FlightDeleted{" +
+                "flightId=" + getFlightId() +
+                '}';
+    }
+}
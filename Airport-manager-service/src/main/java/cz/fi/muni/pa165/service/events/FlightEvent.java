@@ -0,0 +1,24 @@
+package cz.fi.muni.pa165.service.events;
+
+import cz.fi.muni.pa165.entities.Flight;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change of a {@link Flight} entity.
+ *
+ * @author Robert Duriancik
+ */
+public abstract class FlightEvent extends DomainEvent {
+
+    private final Long flightId;
+
+    protected FlightEvent(LocalDateTime occurredAt, Long flightId) {
+        super(occurredAt);
+        this.flightId = flightId;
+    }
+
+    public Long getFlightId() {
+        return flightId;
+    }
+}
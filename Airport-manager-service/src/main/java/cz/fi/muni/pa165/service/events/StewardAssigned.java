@@ -0,0 +1,30 @@
+package cz.fi.muni.pa165.service.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * A steward was added to the crew of a flight. The change of the flight is published as {@link FlightUpdated} too.
+ *
+ * @author Robert Duriancik
+ */
+public final class StewardAssigned extends FlightEvent {
+
+    private final Long stewardId;
+
+    public StewardAssigned(LocalDateTime occurredAt, Long flightId, Long stewardId) {
+        super(occurredAt, flightId);
+        this.stewardId = stewardId;
+    }
+
+    public Long getStewardId() {
+        return stewardId;
+    }
+
+    @Override
+    public String toString() {
+        return "StewardAssigned{" +
+                "flightId=" + getFlightId() +
+                ", stewardId=" + stewardId +
+                '}';
+    }
+}
@@ -0,0 +1,17 @@
+package cz.fi.muni.pa165.service.events;
+
+import cz.fi.muni.pa165.entities.Steward;
+
+import java.time.LocalDateTime;
+
+/**
+ * A {@link Steward} entity was created, updated or deleted.
+ *
+ * @author Robert Duriancik
+ */
+public final class StewardChanged extends EntityChanged {
+
+    public StewardChanged(LocalDateTime occurredAt, Long stewardId, Change change) {
+        super(occurredAt, stewardId, change);
+    }
+}
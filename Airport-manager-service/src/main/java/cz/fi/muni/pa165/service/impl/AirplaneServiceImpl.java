@@ -2,19 +2,19 @@ package cz.fi.muni.pa165.service.impl;
 
 import cz.fi.muni.pa165.dao.AirplaneDao;
 import cz.fi.muni.pa165.entities.Airplane;
-import cz.fi.muni.pa165.entities.Flight;
 import cz.fi.muni.pa165.exceptions.AirplaneDataAccessException;
 import cz.fi.muni.pa165.service.AirplaneService;
-import cz.fi.muni.pa165.service.FlightService;
+import cz.fi.muni.pa165.service.CollectionVersions;
+import cz.fi.muni.pa165.service.DomainEventBus;
+import cz.fi.muni.pa165.service.VersionedCollection;
+import cz.fi.muni.pa165.service.events.AirplaneChanged;
+import cz.fi.muni.pa165.service.events.EntityChanged.Change;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * @author Jan Cakl
@@ -25,7 +25,10 @@ public class AirplaneServiceImpl implements AirplaneService {
     private AirplaneDao airplaneDao;
 
     @Autowired
-    private FlightService flightService;
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
 
     @Override
     public Airplane findById(Long id) {
@@ -37,10 +40,21 @@ public class AirplaneServiceImpl implements AirplaneService {
         }
     }
 
+    @Override
+    public Airplane getReference(Long id) {
+        try {
+            return airplaneDao.getReference(id);
+        } catch (Exception e) {
+            throw new AirplaneDataAccessException("Exception while getting airplane reference by ID.", e);
+        }
+    }
+
     @Override
     public void deleteAirplane(Airplane airplane) {
         try {
             airplaneDao.deleteAirplane(airplane);
+            collectionVersions.changed(VersionedCollection.AIRPLANES);
+            domainEventBus.publish(new AirplaneChanged(LocalDateTime.now(), airplane.getId(), Change.DELETED));
         } catch (Exception e) {
             throw new AirplaneDataAccessException("Exception while deleting airplane: " + airplane, e);
         }
@@ -50,16 +64,34 @@ public class AirplaneServiceImpl implements AirplaneService {
     public Long addAirplane(Airplane airplane) {
         try {
             airplaneDao.addAirplane(airplane);
+            collectionVersions.changed(VersionedCollection.AIRPLANES);
+            domainEventBus.publish(new AirplaneChanged(LocalDateTime.now(), airplane.getId(), Change.CREATED));
             return airplane.getId();
         } catch (Exception e) {
             throw new AirplaneDataAccessException("Exception while adding airplane: " + airplane, e);
         }
     }
 
+    @Override
+    public void addAll(Collection<Airplane> airplanes) {
+        try {
+            airplaneDao.addAll(airplanes);
+            collectionVersions.changed(VersionedCollection.AIRPLANES);
+            LocalDateTime now = LocalDateTime.now();
+            for (Airplane airplane : airplanes) {
+                domainEventBus.publish(new AirplaneChanged(now, airplane.getId(), Change.CREATED));
+            }
+        } catch (Exception e) {
+            throw new AirplaneDataAccessException("Exception while adding airplanes.", e);
+        }
+    }
+
     @Override
     public void updateAirplane(Airplane airplane) {
         try {
             airplaneDao.updateAirplane(airplane);
+            collectionVersions.changed(VersionedCollection.AIRPLANES);
+            domainEventBus.publish(new AirplaneChanged(LocalDateTime.now(), airplane.getId(), Change.UPDATED));
         } catch (Exception e) {
             throw new AirplaneDataAccessException("Exception while updating airplane: " + airplane, e);
         }
@@ -75,6 +107,22 @@ public class AirplaneServiceImpl implements AirplaneService {
         }
     }
 
+    @Override
+    public List<Airplane> findPage(Long afterId, Long beforeId, int limit) {
+        if (afterId != null && beforeId != null) {
+            throw new IllegalArgumentException("Cannot page both after and before an airplane");
+        }
+
+        try {
+            if (beforeId != null) {
+                return airplaneDao.findPageBefore(beforeId, limit);
+            }
+            return airplaneDao.findPageAfter(afterId, limit);
+        } catch (Exception e) {
+            throw new AirplaneDataAccessException("Exception while fetching a page of airplanes.", e);
+        }
+    }
+
     @Override
     public List<Airplane> findByName(String name) {
         try {
@@ -114,24 +162,7 @@ public class AirplaneServiceImpl implements AirplaneService {
     @Override
     public List<Airplane> findByUsedAfterDateTime(LocalDateTime sinceDateTime) {
         try {
-            List<Flight> allFlightSince = flightService.getFlightsSince(sinceDateTime);
-            List<Airplane> allAirplanes = airplaneDao.findAll();
-
-            if (allFlightSince.isEmpty()) {
-                return Collections.emptyList();
-            }
-
-            List<Airplane> allUsedAirPlanes = new ArrayList<>();
-
-            for (Airplane airplane : allAirplanes) {
-                for (Flight flight : allFlightSince) {
-                    if (flight.getAirplane() != null && flight.getAirplane().equals(airplane)) {
-                        allUsedAirPlanes.add(airplane);
-                        break;
-                    }
-                }
-            }
-            return allUsedAirPlanes;
+            return airplaneDao.findUsedAfter(sinceDateTime);
         } catch (Exception e) {
             throw new AirplaneDataAccessException("Exception while finding airplane by used after time: " + sinceDateTime, e);
         }
@@ -140,30 +171,7 @@ public class AirplaneServiceImpl implements AirplaneService {
     @Override
     public List<Airplane> findByFreeAfterDateTime(LocalDateTime sinceDateTime) {
         try {
-            List<Flight> allFlightSince = flightService.getFlightsSince(sinceDateTime);
-            List<Airplane> allAirplanes = airplaneDao.findAll();
-
-            if (allFlightSince.isEmpty()) {
-                return allAirplanes;
-            }
-
-            List<Airplane> allFreeAirPlanes = new ArrayList<>();
-
-            for (Airplane airplane : allAirplanes) {
-                boolean used = false;
-                for (Flight flight : allFlightSince) {
-                    if (flight.getAirplane() != null && flight.getAirplane().equals(airplane)) {
-                        used = true;
-                        break;
-                    }
-                }
-
-                if (!used) {
-                    allFreeAirPlanes.add(airplane);
-                }
-            }
-
-            return allFreeAirPlanes;
+            return airplaneDao.findFreeAfter(sinceDateTime);
         } catch (Exception e) {
             throw new AirplaneDataAccessException("Exception while finding airplane by free after time: " + sinceDateTime, e);
         }
@@ -172,15 +180,7 @@ public class AirplaneServiceImpl implements AirplaneService {
     @Override
     public List<Airplane> findFreeAirplanesInTimeRange(LocalDateTime start, LocalDateTime end) {
         try {
-            List<Flight> flightsInRange = flightService.getFlightsInTimeRange(start, end);
-            Set<Airplane> assignedAirplanes = flightsInRange.stream()
-                    .map(Flight::getAirplane)
-                    .collect(Collectors.toSet());
-
-            List<Airplane> allAirplanes = new ArrayList<>(airplaneDao.findAll());
-            allAirplanes.removeAll(assignedAirplanes);
-
-            return allAirplanes;
+            return airplaneDao.findFreeInTimeRange(start, end);
         } catch (Exception e) {
             throw new AirplaneDataAccessException("Exception while finding airplanes in time range", e);
         }
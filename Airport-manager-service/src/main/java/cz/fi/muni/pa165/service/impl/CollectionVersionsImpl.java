@@ -0,0 +1,72 @@
+package cz.fi.muni.pa165.service.impl;
+
+import cz.fi.muni.pa165.service.CollectionVersions;
+import cz.fi.muni.pa165.service.VersionedCollection;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static cz.fi.muni.pa165.service.impl.TransactionHooks.afterCommit;
+
+/**
+ * Implementation of the {@link CollectionVersions} with an atomic counter and a change time per collection.
+ * The tag is the random identifier of the start followed by the versions of the collections.
+ *
+ * @author Robert Duriancik
+ */
+@Component
+public class CollectionVersionsImpl implements CollectionVersions {
+
+    private final String startId = Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+
+    private final Map<VersionedCollection, AtomicLong> versions = new EnumMap<>(VersionedCollection.class);
+
+    private final Map<VersionedCollection, AtomicLong> lastModified = new EnumMap<>(VersionedCollection.class);
+
+    public CollectionVersionsImpl() {
+        long start = System.currentTimeMillis();
+        for (VersionedCollection collection : VersionedCollection.values()) {
+            versions.put(collection, new AtomicLong());
+            lastModified.put(collection, new AtomicLong(start));
+        }
+    }
+
+    @Override
+    public void changed(VersionedCollection collection) {
+        Objects.requireNonNull(collection, "collection is null");
+        afterCommit(() -> {
+            // the time first, so that a client never sees the new version with the previous time
+            lastModified.get(collection).accumulateAndGet(System.currentTimeMillis(), Math::max);
+            versions.get(collection).incrementAndGet();
+        });
+    }
+
+    @Override
+    public long getVersion(VersionedCollection collection) {
+        Objects.requireNonNull(collection, "collection is null");
+        return versions.get(collection).get();
+    }
+
+    @Override
+    public String getTag(VersionedCollection... collections) {
+        StringBuilder tag = new StringBuilder(startId);
+        for (VersionedCollection collection : collections) {
+            tag.append('-').append(getVersion(collection));
+        }
+        return tag.toString();
+    }
+
+    @Override
+    public long getLastModified(VersionedCollection... collections) {
+        long result = 0;
+        for (VersionedCollection collection : collections) {
+            Objects.requireNonNull(collection, "collection is null");
+            result = Math.max(result, lastModified.get(collection).get());
+        }
+        return result;
+    }
+}
@@ -5,11 +5,18 @@ import cz.fi.muni.pa165.dao.FlightDao;
 import cz.fi.muni.pa165.entities.Destination;
 import cz.fi.muni.pa165.entities.Flight;
 import cz.fi.muni.pa165.exceptions.DestinationDataAccessException;
+import cz.fi.muni.pa165.service.CollectionVersions;
 import cz.fi.muni.pa165.service.DestinationService;
+import cz.fi.muni.pa165.service.DomainEventBus;
+import cz.fi.muni.pa165.service.VersionedCollection;
+import cz.fi.muni.pa165.service.events.DestinationChanged;
+import cz.fi.muni.pa165.service.events.EntityChanged.Change;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,9 +30,15 @@ public class DestinationServiceImpl implements DestinationService {
     @Autowired
     private DestinationDao destinationDao;
 
+    @Autowired
+    private CollectionVersions collectionVersions;
+
     @Autowired
     private FlightDao flightDao;
 
+    @Autowired
+    private DomainEventBus domainEventBus;
+
     @Override
     public Long createDestination(String country, String city) {
         Destination destination = new Destination();
@@ -34,16 +47,34 @@ public class DestinationServiceImpl implements DestinationService {
 
         try {
             destinationDao.addDestination(destination);
+            collectionVersions.changed(VersionedCollection.DESTINATIONS);
+            domainEventBus.publish(new DestinationChanged(LocalDateTime.now(), destination.getId(), Change.CREATED));
             return destination.getId();
         } catch (Exception e) {
             throw new DestinationDataAccessException("Exception while adding destination: " + destination, e);
         }
     }
 
+    @Override
+    public void addAll(Collection<Destination> destinations) {
+        try {
+            destinationDao.addAll(destinations);
+            collectionVersions.changed(VersionedCollection.DESTINATIONS);
+            LocalDateTime now = LocalDateTime.now();
+            for (Destination destination : destinations) {
+                domainEventBus.publish(new DestinationChanged(now, destination.getId(), Change.CREATED));
+            }
+        } catch (Exception e) {
+            throw new DestinationDataAccessException("Exception while adding destinations.", e);
+        }
+    }
+
     @Override
     public void removeDestination(Destination destination) {
         try {
             destinationDao.removeDestination(destination);
+            collectionVersions.changed(VersionedCollection.DESTINATIONS);
+            domainEventBus.publish(new DestinationChanged(LocalDateTime.now(), destination.getId(), Change.DELETED));
         } catch (Exception e) {
             throw new DestinationDataAccessException("Exception while removing destination: " + destination, e);
         }
@@ -53,6 +84,8 @@ public class DestinationServiceImpl implements DestinationService {
     public void updateDestination(Destination destination) {
         try {
             destinationDao.updateDestination(destination);
+            collectionVersions.changed(VersionedCollection.DESTINATIONS);
+            domainEventBus.publish(new DestinationChanged(LocalDateTime.now(), destination.getId(), Change.UPDATED));
         } catch (Exception e) {
             throw new DestinationDataAccessException("Exception while updating destination: " + destination, e);
         }
@@ -67,6 +100,15 @@ public class DestinationServiceImpl implements DestinationService {
         }
     }
 
+    @Override
+    public Destination getDestinationReference(Long id) {
+        try {
+            return destinationDao.getDestinationReference(id);
+        } catch (Exception e) {
+            throw new DestinationDataAccessException("Exception while getting destination reference by ID.", e);
+        }
+    }
+
     @Override
     public List<Destination> getDestinationsByCountry(String country) {
         try {
@@ -91,16 +133,29 @@ public class DestinationServiceImpl implements DestinationService {
     }
 
     @Override
-    public List<Flight> getAllIncomingFlights(Destination destination) {
+    public List<Destination> getDestinationsPage(Long afterId, Long beforeId, int limit) {
+        if (afterId != null && beforeId != null) {
+            throw new IllegalArgumentException("Cannot page both after and before a destination");
+        }
+
         try {
-            List<Flight> flights = flightDao.getAllFlights();
-            List<Flight> incoming = new ArrayList<>();
-            for(Flight flight : flights) {
-                if(flight.getArrivalLocation().equals(destination)) {
-                    incoming.add(flight);
-                }
+            if (beforeId != null) {
+                return destinationDao.getDestinationsPageBefore(beforeId, limit);
             }
-            return incoming;
+            return destinationDao.getDestinationsPageAfter(afterId, limit);
+        } catch (Exception e) {
+            throw new DestinationDataAccessException("Exception while fetching a page of destinations.", e);
+        }
+    }
+
+    @Override
+    public List<Flight> getAllIncomingFlights(Destination destination) {
+        if (destination == null || destination.getId() == null) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return flightDao.getIncomingFlights(destination.getId());
         } catch (Exception e) {
             throw new DestinationDataAccessException("Exception while getting all incoming flights in destination: " + destination, e);
         }
@@ -108,15 +163,12 @@ public class DestinationServiceImpl implements DestinationService {
 
     @Override
     public List<Flight> getAllOutgoingFlights(Destination destination) {
+        if (destination == null || destination.getId() == null) {
+            return new ArrayList<>();
+        }
+
         try {
-            List<Flight> flights = flightDao.getAllFlights();
-            List<Flight> outgoing = new ArrayList<>();
-            for(Flight flight : flights) {
-                if(flight.getDepartureLocation().equals(destination)) {
-                    outgoing.add(flight);
-                }
-            }
-            return outgoing;
+            return flightDao.getOutgoingFlights(destination.getId());
         } catch (Exception e) {
             throw new DestinationDataAccessException("Exception while getting all outgoing flights in destination: " + destination, e);
         }
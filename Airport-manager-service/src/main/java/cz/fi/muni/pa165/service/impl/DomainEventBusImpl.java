@@ -0,0 +1,279 @@
+package cz.fi.muni.pa165.service.impl;
+
+import cz.fi.muni.pa165.service.DomainEventBus;
+import cz.fi.muni.pa165.service.events.DomainEvent;
+import cz.fi.muni.pa165.service.events.DomainEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of the {@link DomainEventBus}.
+ * <p>
+ * The events of a transaction are collected by a single synchronization and dispatched together after the commit.
+ * A listener with queued events is scheduled on the pool once, and handles a batch of at most
+ * <b>{@value #BATCH_SIZE_PROPERTY}</b> events at a time, then it is rescheduled behind the other listeners.
+ * So a listener sees its events in order, and a slow one delays the others by a single batch at most.
+ * The pool and the queues are configured by the properties <b>airport.events.*</b>.
+ *
+ * @author Robert Duriancik
+ */
+@Component
+public class DomainEventBusImpl implements DomainEventBus {
+
+    static final String THREADS_PROPERTY = "airport.events.threads";
+    static final String QUEUE_CAPACITY_PROPERTY = "airport.events.queue-capacity";
+    static final String BATCH_SIZE_PROPERTY = "airport.events.batch-size";
+
+    private final static Logger logger = LoggerFactory.getLogger(DomainEventBusImpl.class);
+
+    private final int queueCapacity;
+    private final int batchSize;
+    private final ThreadPoolExecutor executor;
+
+    private final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+    private final LongAdder published = new LongAdder();
+
+    @Autowired
+    public DomainEventBusImpl(Environment environment) {
+        this(environment.getProperty(THREADS_PROPERTY, Integer.class, 2),
+                environment.getProperty(QUEUE_CAPACITY_PROPERTY, Integer.class, 10_000),
+                environment.getProperty(BATCH_SIZE_PROPERTY, Integer.class, 100));
+    }
+
+    /**
+     * @param threads       number of the threads running the listeners
+     * @param queueCapacity number of the events queued for a listener, more are dropped
+     * @param batchSize     maximal number of the events handled by a listener at once
+     */
+    public DomainEventBusImpl(int threads, int queueCapacity, int batchSize) {
+        if (threads < 1 || queueCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Threads, queue capacity and batch size must be positive.");
+        }
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("airport-events-");
+        threadFactory.setDaemon(true);
+        // a listener is queued at most once, so the queue of the pool is bounded by the listeners
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Stops the threads once the running batches are done, the queued events are dropped.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void publish(DomainEvent event) {
+        Objects.requireNonNull(event, "event is null");
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(Collections.singletonList(event));
+            return;
+        }
+
+        PendingEvents pending = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingEvents && ((PendingEvents) synchronization).getBus() == this) {
+                pending = (PendingEvents) synchronization;
+                break;
+            }
+        }
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    @Override
+    public <E extends DomainEvent> void subscribe(String name, Class<E> eventType, DomainEventListener<E> listener) {
+        Objects.requireNonNull(name, "name is null");
+        Objects.requireNonNull(eventType, "eventType is null");
+        Objects.requireNonNull(listener, "listener is null");
+        subscriptions.add(new Subscription<>(name, eventType, listener));
+    }
+
+    @Override
+    public void unsubscribe(DomainEventListener<?> listener) {
+        subscriptions.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    private void dispatch(List<DomainEvent> events) {
+        published.add(events.size());
+        for (Subscription<?> subscription : subscriptions) {
+            subscription.offer(events);
+        }
+    }
+
+    @Override
+    public void writePrometheus(Writer writer) throws IOException {
+        writer.write("# HELP airport_events_published_total Domain events published by the committed transactions.\n");
+        writer.write("# TYPE airport_events_published_total counter\n");
+        writer.write("airport_events_published_total " + published.sum() + '\n');
+
+        writer.write("# HELP airport_events_queued Domain events waiting for the listener.\n");
+        writer.write("# TYPE airport_events_queued gauge\n");
+        for (Subscription<?> subscription : subscriptions) {
+            writer.write("airport_events_queued{listener=\"" + subscription.name + "\"} "
+                    + subscription.queue.size() + '\n');
+        }
+
+        writer.write("# HELP airport_events_delivered_total Domain events handled by the listener.\n");
+        writer.write("# TYPE airport_events_delivered_total counter\n");
+        for (Subscription<?> subscription : subscriptions) {
+            writer.write("airport_events_delivered_total{listener=\"" + subscription.name + "\"} "
+                    + subscription.delivered.sum() + '\n');
+        }
+
+        writer.write("# HELP airport_events_batches_total Batches of domain events handled by the listener.\n");
+        writer.write("# TYPE airport_events_batches_total counter\n");
+        for (Subscription<?> subscription : subscriptions) {
+            writer.write("airport_events_batches_total{listener=\"" + subscription.name + "\"} "
+                    + subscription.batches.sum() + '\n');
+        }
+
+        writer.write("# HELP airport_events_dropped_total Domain events dropped as the queue of the listener was full.\n");
+        writer.write("# TYPE airport_events_dropped_total counter\n");
+        for (Subscription<?> subscription : subscriptions) {
+            writer.write("airport_events_dropped_total{listener=\"" + subscription.name + "\"} "
+                    + subscription.dropped.sum() + '\n');
+        }
+
+        writer.write("# HELP airport_events_failures_total Batches of domain events failed by the listener.\n");
+        writer.write("# TYPE airport_events_failures_total counter\n");
+        for (Subscription<?> subscription : subscriptions) {
+            writer.write("airport_events_failures_total{listener=\"" + subscription.name + "\"} "
+                    + subscription.failures.sum() + '\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * Events of a transaction, dispatched once it commits.
+     */
+    private class PendingEvents extends TransactionSynchronizationAdapter {
+
+        private final List<DomainEvent> events = new ArrayList<>();
+
+        private DomainEventBusImpl getBus() {
+            return DomainEventBusImpl.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            dispatch(events);
+        }
+    }
+
+    /**
+     * A listener with its queue of the events. It is scheduled on the pool whenever it has events
+     * and is not scheduled yet.
+     */
+    private class Subscription<E extends DomainEvent> {
+
+        private final String name;
+        private final Class<E> eventType;
+        private final DomainEventListener<E> listener;
+        private final BlockingQueue<E> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong droppedSinceBatch = new AtomicLong();
+
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private Subscription(String name, Class<E> eventType, DomainEventListener<E> listener) {
+            this.name = name;
+            this.eventType = eventType;
+            this.listener = listener;
+        }
+
+        private void offer(List<DomainEvent> events) {
+            boolean offered = false;
+            for (DomainEvent event : events) {
+                if (!eventType.isInstance(event)) {
+                    continue;
+                }
+                offered = true;
+                if (!queue.offer(eventType.cast(event))) {
+                    droppedSinceBatch.incrementAndGet();
+                    dropped.increment();
+                }
+            }
+            if (offered) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::handleBatch);
+                } catch (RejectedExecutionException e) {
+                    logger.debug("Domain event bus is shut down, dropping the events of " + name);
+                }
+            }
+        }
+
+        private void handleBatch() {
+            try {
+                long droppedCount = droppedSinceBatch.getAndSet(0);
+                if (droppedCount > 0) {
+                    logger.warn("Dropped " + droppedCount + " domain events of the listener " + name
+                            + ", its queue was full.");
+                    listener.onEventsDropped(droppedCount);
+                }
+
+                List<E> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+                queue.drainTo(batch, batchSize);
+                if (!batch.isEmpty()) {
+                    listener.onEvents(Collections.unmodifiableList(batch));
+                    delivered.add(batch.size());
+                    batches.increment();
+                }
+            } catch (RuntimeException e) {
+                failures.increment();
+                logger.warn("Listener " + name + " of the domain events failed.", e);
+            } finally {
+                scheduled.set(false);
+                // events offered while the batch was handled
+                if ((!queue.isEmpty() || droppedSinceBatch.get() > 0) && subscriptions.contains(this)) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package cz.fi.muni.pa165.service.impl;
+
+import cz.fi.muni.pa165.dto.AirplaneDTO;
+import cz.fi.muni.pa165.dto.DestinationDTO;
+import cz.fi.muni.pa165.dto.FlightDTO;
+import cz.fi.muni.pa165.dto.StewardDTO;
+import cz.fi.muni.pa165.dto.UserDTO;
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
+import cz.fi.muni.pa165.entities.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Hand-written mappers between the entities and the DTOs of the API module.
+ * Each mapper copies the same properties Dozer matches by name, through plain getters and setters.
+ * Pairs without a mapper here (e.g. the create DTOs) are left to Dozer.
+ *
+ * @author Karel Jiranek
+ */
+final class DtoMappers {
+
+    private static final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> MAPPERS = new HashMap<>();
+
+    static {
+        register(Airplane.class, AirplaneDTO.class, DtoMappers::toAirplaneDTO);
+        register(AirplaneDTO.class, Airplane.class, DtoMappers::toAirplane);
+        register(Destination.class, DestinationDTO.class, DtoMappers::toDestinationDTO);
+        register(DestinationDTO.class, Destination.class, DtoMappers::toDestination);
+        register(Steward.class, StewardDTO.class, DtoMappers::toStewardDTO);
+        register(StewardDTO.class, Steward.class, DtoMappers::toSteward);
+        register(User.class, UserDTO.class, DtoMappers::toUserDTO);
+        register(UserDTO.class, User.class, DtoMappers::toUser);
+        register(Flight.class, FlightDTO.class, DtoMappers::toFlightDTO);
+    }
+
+    private DtoMappers() {
+    }
+
+    /**
+     * Finds the mapper from the source class, or its closest superclass with a mapper
+     * (entities may be Hibernate proxy subclasses), to the target class.
+     *
+     * @param sourceClass class of the mapped object
+     * @param targetClass class to map to
+     * @return the mapper, or null if there is none for the pair
+     */
+    static Function<Object, Object> find(Class<?> sourceClass, Class<?> targetClass) {
+        for (Class<?> c = sourceClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            Map<Class<?>, Function<Object, Object>> byTarget = MAPPERS.get(c);
+            if (byTarget != null) {
+                return byTarget.get(targetClass);
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S, T> void register(Class<S> sourceClass, Class<T> targetClass, Function<S, T> mapper) {
+        MAPPERS.computeIfAbsent(sourceClass, c -> new HashMap<>()).put(targetClass, (Function<Object, Object>) mapper);
+    }
+
+    static AirplaneDTO toAirplaneDTO(Airplane airplane) {
+        if (airplane == null) {
+            return null;
+        }
+        AirplaneDTO dto = new AirplaneDTO();
+        dto.setId(airplane.getId());
+        dto.setName(airplane.getName());
+        dto.setType(airplane.getType());
+        dto.setCapacity(airplane.getCapacity());
+        return dto;
+    }
+
+    static Airplane toAirplane(AirplaneDTO dto) {
+        Airplane airplane = new Airplane();
+        airplane.setId(dto.getId());
+        airplane.setName(dto.getName());
+        airplane.setType(dto.getType());
+        airplane.setCapacity(dto.getCapacity());
+        return airplane;
+    }
+
+    static DestinationDTO toDestinationDTO(Destination destination) {
+        if (destination == null) {
+            return null;
+        }
+        DestinationDTO dto = new DestinationDTO();
+        dto.setId(destination.getId());
+        dto.setCountry(destination.getCountry());
+        dto.setCity(destination.getCity());
+        return dto;
+    }
+
+    static Destination toDestination(DestinationDTO dto) {
+        Destination destination = new Destination();
+        destination.setId(dto.getId());
+        destination.setCountry(dto.getCountry());
+        destination.setCity(dto.getCity());
+        return destination;
+    }
+
+    static StewardDTO toStewardDTO(Steward steward) {
+        if (steward == null) {
+            return null;
+        }
+        StewardDTO dto = new StewardDTO();
+        dto.setId(steward.getId());
+        dto.setFirstName(steward.getFirstName());
+        dto.setSurname(steward.getSurname());
+        return dto;
+    }
+
+    static Steward toSteward(StewardDTO dto) {
+        Steward steward = new Steward();
+        steward.setId(dto.getId());
+        steward.setFirstName(dto.getFirstName());
+        steward.setSurname(dto.getSurname());
+        return steward;
+    }
+
+    static UserDTO toUserDTO(User user) {
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setPasswordHash(user.getPasswordHash());
+        dto.setEmail(user.getEmail());
+        dto.setName(user.getName());
+        dto.setSurname(user.getSurname());
+        dto.setRegistered(user.getRegistered());
+        dto.setAdmin(user.isAdmin());
+        return dto;
+    }
+
+    static User toUser(UserDTO dto) {
+        User user = new User();
+        user.setId(dto.getId());
+        user.setPasswordHash(dto.getPasswordHash());
+        user.setEmail(dto.getEmail());
+        user.setName(dto.getName());
+        user.setSurname(dto.getSurname());
+        user.setRegistered(dto.getRegistered());
+        user.setAdmin(dto.isAdmin());
+        return user;
+    }
+
+    static FlightDTO toFlightDTO(Flight flight) {
+        FlightDTO dto = new FlightDTO();
+        dto.setId(flight.getId());
+        dto.setDepartureLocation(toDestinationDTO(flight.getDepartureLocation()));
+        dto.setArrivalLocation(toDestinationDTO(flight.getArrivalLocation()));
+        dto.setDepartureTime(flight.getDepartureTime());
+        dto.setArrivalTime(flight.getArrivalTime());
+        dto.setAirplane(toAirplaneDTO(flight.getAirplane()));
+
+        List<Steward> stewards = flight.getStewards();
+        if (stewards != null) {
+            List<StewardDTO> stewardDTOs = new ArrayList<>(stewards.size());
+            for (Steward steward : stewards) {
+                stewardDTOs.add(toStewardDTO(steward));
+            }
+            dto.setStewards(stewardDTOs);
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,246 @@
+package cz.fi.muni.pa165.service.impl;
+
+import cz.fi.muni.pa165.dao.FlightTimeSlot;
+import cz.fi.muni.pa165.service.DomainEventBus;
+import cz.fi.muni.pa165.service.FlightBoard;
+import cz.fi.muni.pa165.service.FlightBoardEvent;
+import cz.fi.muni.pa165.service.FlightTimeIndex;
+import cz.fi.muni.pa165.service.events.DomainEventListener;
+import cz.fi.muni.pa165.service.events.FlightCreated;
+import cz.fi.muni.pa165.service.events.FlightDeleted;
+import cz.fi.muni.pa165.service.events.FlightEvent;
+import cz.fi.muni.pa165.service.events.FlightUpdated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the {@link FlightBoard} running on a single scheduled thread.
+ * <p>
+ * Every tick, configured by the property <b>{@value #TICK_MILLIS_PROPERTY}</b>, finds the departures and arrivals
+ * since the previous tick in the {@link FlightTimeIndex}, so a tick without any of them costs two lookups
+ * in the sorted maps of the index. The ticks start from the time the first listener subscribes.
+ * The changes of the flights are received from the {@link DomainEventBus} in batches, and are published
+ * with the time they occurred at. A reset is published once the bus drops some of the changes.
+ *
+ * @author Robert Duriancik
+ */
+@Component
+public class FlightBoardImpl implements FlightBoard, DomainEventListener<FlightEvent> {
+
+    static final String TICK_MILLIS_PROPERTY = "airport.board.tick-millis";
+    static final String LISTENER_NAME = "flight-board";
+
+    private final static Logger logger = LoggerFactory.getLogger(FlightBoardImpl.class);
+
+    @Autowired
+    private FlightTimeIndex flightTimeIndex;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @Autowired
+    private Environment environment;
+
+    private final Clock clock;
+
+    private final List<Consumer<FlightBoardEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    private final ScheduledExecutorService executor;
+
+    private volatile long sequence;
+
+    /**
+     * End of the time range of the previous tick, null while there are no listeners. Accessed by the board thread.
+     */
+    private LocalDateTime lastTime;
+
+    public FlightBoardImpl() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param clock clock of the ticks
+     */
+    public FlightBoardImpl(Clock clock) {
+        this.clock = clock;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("airport-flight-board-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * Subscribes to the changes of the flights and starts the ticks of the board.
+     */
+    @PostConstruct
+    public void start() {
+        long tickMillis = environment.getProperty(TICK_MILLIS_PROPERTY, Long.class, 1000L);
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException(TICK_MILLIS_PROPERTY + " must be positive.");
+        }
+        domainEventBus.subscribe(LISTENER_NAME, FlightEvent.class, this);
+        executor.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the thread of the board, the events not delivered yet are dropped.
+     */
+    @PreDestroy
+    public void shutdown() {
+        domainEventBus.unsubscribe(this);
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void onEvents(List<FlightEvent> events) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        execute(() -> {
+            for (FlightEvent event : events) {
+                if (event instanceof FlightCreated) {
+                    FlightCreated created = (FlightCreated) event;
+                    publish(FlightBoardEvent.Type.CREATED, event.getFlightId(), event.getOccurredAt(),
+                            created.getDepartureTime(), created.getArrivalTime());
+                } else if (event instanceof FlightUpdated) {
+                    FlightUpdated updated = (FlightUpdated) event;
+                    publish(FlightBoardEvent.Type.CHANGED, event.getFlightId(), event.getOccurredAt(),
+                            updated.getDepartureTime(), updated.getArrivalTime());
+                } else if (event instanceof FlightDeleted) {
+                    publish(FlightBoardEvent.Type.DELETED, event.getFlightId(), event.getOccurredAt());
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onEventsDropped(long count) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        execute(() -> publish(FlightBoardEvent.Type.RESET, null, now));
+    }
+
+    @Override
+    public void advanceTo(LocalDateTime now) {
+        Objects.requireNonNull(now, "now is null");
+        execute(() -> advance(now));
+    }
+
+    @Override
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public void subscribe(Consumer<FlightBoardEvent> listener) {
+        Objects.requireNonNull(listener, "listener is null");
+        LocalDateTime now = LocalDateTime.now(clock);
+        listeners.add(listener);
+        execute(() -> {
+            if (lastTime == null) {
+                lastTime = now;
+            }
+        });
+    }
+
+    @Override
+    public void unsubscribe(Consumer<FlightBoardEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    private void tick() {
+        try {
+            advance(LocalDateTime.now(clock));
+        } catch (RuntimeException e) {
+            // the next tick retries the same time range
+            logger.warn("Flight board tick failed.", e);
+        }
+    }
+
+    private void advance(LocalDateTime now) {
+        if (listeners.isEmpty()) {
+            lastTime = null;
+            return;
+        }
+        if (lastTime == null) {
+            lastTime = now;
+            return;
+        }
+        if (!now.isAfter(lastTime)) {
+            return;
+        }
+
+        List<Transition> transitions = new ArrayList<>();
+        for (FlightTimeSlot slot : flightTimeIndex.findDepartures(lastTime, now)) {
+            transitions.add(new Transition(FlightBoardEvent.Type.DEPARTED, slot.getFlightId(), slot.getDepartureTime()));
+        }
+        for (FlightTimeSlot slot : flightTimeIndex.findArrivals(lastTime, now)) {
+            transitions.add(new Transition(FlightBoardEvent.Type.ARRIVED, slot.getFlightId(), slot.getArrivalTime()));
+        }
+        lastTime = now;
+
+        // a stable sort keeps a departure before the arrival at the same time
+        transitions.sort(Comparator.comparing(transition -> transition.time));
+        for (Transition transition : transitions) {
+            publish(transition.type, transition.flightId, transition.time);
+        }
+    }
+
+    private void publish(FlightBoardEvent.Type type, Long flightId, LocalDateTime time) {
+        publish(type, flightId, time, null, null);
+    }
+
+    private void publish(FlightBoardEvent.Type type, Long flightId, LocalDateTime time,
+                         LocalDateTime departureTime, LocalDateTime arrivalTime) {
+        FlightBoardEvent event = new FlightBoardEvent(sequence + 1, type, flightId, time, departureTime, arrivalTime);
+        sequence = event.getSequence();
+        for (Consumer<FlightBoardEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                logger.warn("Listener of the flight board failed on " + event, e);
+            }
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Flight board is shut down, dropping its update.");
+        }
+    }
+
+    private static final class Transition {
+
+        private final FlightBoardEvent.Type type;
+        private final Long flightId;
+        private final LocalDateTime time;
+
+        private Transition(FlightBoardEvent.Type type, Long flightId, LocalDateTime time) {
+            this.type = type;
+            this.flightId = flightId;
+            this.time = time;
+        }
+    }
+}
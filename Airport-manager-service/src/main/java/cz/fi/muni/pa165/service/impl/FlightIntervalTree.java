@@ -0,0 +1,184 @@
+package cz.fi.muni.pa165.service.impl;
+
+import cz.fi.muni.pa165.dao.FlightTimeSlot;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+/**
+ * An interval tree of flight time slots. It is an AVL tree ordered by the departure time and the flight id,
+ * every node of which keeps the latest arrival time within its subtree. A search skips any subtree arriving
+ * too early and any node departing too late together with its right subtree, so finding the <i>k</i> slots
+ * overlapping a time range takes O(log n + k log n) at most.
+ * <p>
+ * The tree is not thread-safe.
+ *
+ * @author Robert Duriancik
+ */
+final class FlightIntervalTree {
+
+    private static final Comparator<FlightTimeSlot> ORDER = Comparator
+            .comparing(FlightTimeSlot::getDepartureTime)
+            .thenComparing(FlightTimeSlot::getFlightId);
+
+    private Node root;
+
+    /**
+     * Adds a slot, which must not be in the tree yet.
+     */
+    void add(FlightTimeSlot slot) {
+        root = insert(root, slot);
+    }
+
+    /**
+     * Removes a slot equal to the given one by its departure time and flight id.
+     */
+    void remove(FlightTimeSlot slot) {
+        root = delete(root, slot);
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    /**
+     * Finds the slots departing before <b>end</b> and arriving after <b>start</b>.
+     *
+     * @param start     start of the time range
+     * @param end       end of the time range
+     * @param inclusive whether a slot departing at the end or arriving at the start is found too
+     * @param consumer  consumer of the found slots, called in the order of the departure times
+     */
+    void findOverlapping(LocalDateTime start, LocalDateTime end, boolean inclusive, Consumer<FlightTimeSlot> consumer) {
+        search(root, start, end, inclusive, consumer);
+    }
+
+    private static void search(Node node, LocalDateTime start, LocalDateTime end, boolean inclusive,
+                               Consumer<FlightTimeSlot> consumer) {
+        if (node == null || !arrivesAfter(node.maxArrival, start, inclusive)) {
+            return;
+        }
+        search(node.left, start, end, inclusive, consumer);
+        if (!departsBefore(node.slot.getDepartureTime(), end, inclusive)) {
+            // the right subtree departs even later
+            return;
+        }
+        if (arrivesAfter(node.slot.getArrivalTime(), start, inclusive)) {
+            consumer.accept(node.slot);
+        }
+        search(node.right, start, end, inclusive, consumer);
+    }
+
+    private static boolean arrivesAfter(LocalDateTime arrival, LocalDateTime start, boolean inclusive) {
+        return inclusive ? !arrival.isBefore(start) : arrival.isAfter(start);
+    }
+
+    private static boolean departsBefore(LocalDateTime departure, LocalDateTime end, boolean inclusive) {
+        return inclusive ? !departure.isAfter(end) : departure.isBefore(end);
+    }
+
+    private static Node insert(Node node, FlightTimeSlot slot) {
+        if (node == null) {
+            return new Node(slot);
+        }
+        if (ORDER.compare(slot, node.slot) < 0) {
+            node.left = insert(node.left, slot);
+        } else {
+            node.right = insert(node.right, slot);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, FlightTimeSlot slot) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = ORDER.compare(slot, node.slot);
+        if (comparison < 0) {
+            node.left = delete(node.left, slot);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, slot);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.slot = successor.slot;
+            node.right = delete(node.right, successor.slot);
+        }
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxArrival = node.slot.getArrivalTime();
+        if (node.left != null && node.left.maxArrival.isAfter(maxArrival)) {
+            maxArrival = node.left.maxArrival;
+        }
+        if (node.right != null && node.right.maxArrival.isAfter(maxArrival)) {
+            maxArrival = node.right.maxArrival;
+        }
+        node.maxArrival = maxArrival;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+
+        private FlightTimeSlot slot;
+        private Node left;
+        private Node right;
+        private int height = 1;
+        private LocalDateTime maxArrival;
+
+        private Node(FlightTimeSlot slot) {
+            this.slot = slot;
+            this.maxArrival = slot.getArrivalTime();
+        }
+    }
+}
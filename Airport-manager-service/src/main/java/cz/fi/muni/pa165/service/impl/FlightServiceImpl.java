@@ -4,17 +4,35 @@ import cz.fi.muni.pa165.dao.FlightDao;
 import cz.fi.muni.pa165.entities.Flight;
 import cz.fi.muni.pa165.entities.Steward;
 import cz.fi.muni.pa165.exceptions.FlightDataAccessException;
+import cz.fi.muni.pa165.service.CollectionVersions;
+import cz.fi.muni.pa165.service.DomainEventBus;
 import cz.fi.muni.pa165.service.FlightService;
+import cz.fi.muni.pa165.service.FlightTimeIndex;
+import cz.fi.muni.pa165.service.StewardRoster;
+import cz.fi.muni.pa165.service.VersionedCollection;
+import cz.fi.muni.pa165.service.events.FlightCreated;
+import cz.fi.muni.pa165.service.events.FlightDeleted;
+import cz.fi.muni.pa165.service.events.FlightUpdated;
+import cz.fi.muni.pa165.service.events.StewardAssigned;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static cz.fi.muni.pa165.service.impl.TransactionHooks.afterCommit;
+
 /**
  * Implementation of the {@link FlightService}.
+ * <p>
+ * Time window queries are answered by the {@link FlightTimeIndex}. The index and the {@link StewardRoster}
+ * are updated once the modifying transaction commits, so that the following requests read the change.
+ * Any other work following a change is left to the listeners of the events published on the {@link DomainEventBus}.
  *
  * @author Robert Duriancik
  */
@@ -25,20 +43,63 @@ public class FlightServiceImpl implements FlightService {
     @Autowired
     private FlightDao flightDao;
 
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private FlightTimeIndex flightTimeIndex;
+
+    @Autowired
+    private StewardRoster stewardRoster;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
     @Override
     public Long addFlight(Flight flight) {
         try {
             flightDao.addFlight(flight);
+            collectionVersions.changed(VersionedCollection.FLIGHTS);
+            afterCommit(flightUpdated(flight));
+            domainEventBus.publish(new FlightCreated(LocalDateTime.now(), flight.getId(),
+                    flight.getDepartureTime(), flight.getArrivalTime()));
             return flight.getId();
         } catch (Exception e) {
             throw new FlightDataAccessException("Exception while adding flight: " + flight, e);
         }
     }
 
+    @Override
+    public void addAll(Collection<Flight> flights) {
+        try {
+            flightDao.addAll(flights);
+            collectionVersions.changed(VersionedCollection.FLIGHTS);
+            List<Runnable> updates = flights.stream()
+                    .map(this::flightUpdated)
+                    .collect(Collectors.toList());
+            afterCommit(() -> updates.forEach(Runnable::run));
+            LocalDateTime now = LocalDateTime.now();
+            for (Flight flight : flights) {
+                domainEventBus.publish(new FlightCreated(now, flight.getId(),
+                        flight.getDepartureTime(), flight.getArrivalTime()));
+            }
+        } catch (Exception e) {
+            throw new FlightDataAccessException("Exception while adding flights.", e);
+        }
+    }
+
     @Override
     public void deleteFlight(Flight flight) {
         try {
             flightDao.deleteFlight(flight);
+            collectionVersions.changed(VersionedCollection.FLIGHTS);
+            Long id = flight.getId();
+            List<Long> stewardIds = getStewardIds(flight);
+            afterCommit(() -> {
+                flightTimeIndex.remove(id);
+                stewardRoster.evictFlight(id, stewardIds);
+            });
+            domainEventBus.publish(new FlightDeleted(LocalDateTime.now(), id));
         } catch (Exception e) {
             throw new FlightDataAccessException("Exception while deleting flight: " + flight, e);
         }
@@ -48,6 +109,10 @@ public class FlightServiceImpl implements FlightService {
     public void updateFlight(Flight flight) {
         try {
             flightDao.updateFlight(flight);
+            collectionVersions.changed(VersionedCollection.FLIGHTS);
+            afterCommit(flightUpdated(flight));
+            domainEventBus.publish(new FlightUpdated(LocalDateTime.now(), flight.getId(),
+                    flight.getDepartureTime(), flight.getArrivalTime()));
         } catch (Exception e) {
             throw new FlightDataAccessException("Exception while updating flight: " + flight, e);
         }
@@ -62,6 +127,15 @@ public class FlightServiceImpl implements FlightService {
         }
     }
 
+    @Override
+    public Flight getFlightWithCrew(Long id) {
+        try {
+            return flightDao.getFlightWithCrew(id);
+        } catch (Exception e) {
+            throw new FlightDataAccessException("Exception while fetching flight with crew with id " + id, e);
+        }
+    }
+
     @Override
     public List<Flight> getAllFlights() {
         try {
@@ -71,6 +145,50 @@ public class FlightServiceImpl implements FlightService {
         }
     }
 
+    @Override
+    public List<Flight> getFlightsPage(Long afterId, Long beforeId, int limit) {
+        if (afterId != null && beforeId != null) {
+            throw new IllegalArgumentException("Cannot page both after and before a flight");
+        }
+
+        try {
+            if (beforeId != null) {
+                return flightDao.getFlightsPageBefore(beforeId, limit);
+            }
+            return flightDao.getFlightsPageAfter(afterId, limit);
+        } catch (Exception e) {
+            throw new FlightDataAccessException("Exception while fetching a page of flights.", e);
+        }
+    }
+
+    @Override
+    public void scrollAllFlights(Consumer<Flight> consumer) {
+        if (consumer == null) {
+            throw new NullPointerException("Consumer is null");
+        }
+
+        try {
+            flightDao.scrollAllFlights(consumer);
+        } catch (UncheckedIOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new FlightDataAccessException("Exception while scrolling all flights.", e);
+        }
+    }
+
+    @Override
+    public List<Flight> getFlightsByIds(Collection<Long> ids) {
+        if (ids == null) {
+            throw new NullPointerException("Ids are null");
+        }
+
+        try {
+            return flightDao.getFlightsByIds(ids);
+        } catch (Exception e) {
+            throw new FlightDataAccessException("Exception while fetching flights with ids " + ids, e);
+        }
+    }
+
     @Override
     public Duration getFlightTime(Flight flight) {
         if (flight == null) {
@@ -89,18 +207,11 @@ public class FlightServiceImpl implements FlightService {
             throw new NullPointerException("sinceDateTime cannot be null.");
         }
 
-        List<Flight> flights = getAllFlights();
-        List<Flight> flightsSinceDateTime = flights.stream()
-                .filter(flight -> {
-                    LocalDateTime arrivalTime = flight.getArrivalTime();
-                    LocalDateTime departureTime = flight.getDepartureTime();
-                    return arrivalTime.isAfter(sinceDateTime) ||
-                            departureTime.isAfter(sinceDateTime);
-
-                })
-                .collect(Collectors.toList());
-
-        return flightsSinceDateTime;
+        try {
+            return flightDao.getFlightsSince(sinceDateTime);
+        } catch (Exception e) {
+            throw new FlightDataAccessException("Exception while fetching flights since " + sinceDateTime, e);
+        }
     }
 
     @Override
@@ -109,22 +220,11 @@ public class FlightServiceImpl implements FlightService {
             throw new NullPointerException("Start or end date is null");
         }
 
-        List<Flight> flights = getAllFlights();
-        List<Flight> flightsInRange = flights.stream()
-                .filter(flight -> {
-                    LocalDateTime arrivalTime = flight.getArrivalTime();
-                    LocalDateTime departureTime = flight.getDepartureTime();
-
-                    boolean isDepartureInRange = (departureTime.isAfter(start) || departureTime.isEqual(start)) &&
-                            (departureTime.isBefore(end) || departureTime.isEqual(end));
-                    boolean isArrivalInRange = (arrivalTime.isAfter(start) || arrivalTime.isEqual(start)) &&
-                            (arrivalTime.isBefore(end) || arrivalTime.isEqual(end));
-
-                    return isDepartureInRange || isArrivalInRange;
-                })
-                .collect(Collectors.toList());
-
-        return flightsInRange;
+        try {
+            return flightDao.getFlightsByIds(flightTimeIndex.findFlightIdsInTimeRange(start, end));
+        } catch (Exception e) {
+            throw new FlightDataAccessException("Exception while fetching flights between " + start + " and " + end, e);
+        }
     }
 
     @Override
@@ -133,16 +233,11 @@ public class FlightServiceImpl implements FlightService {
             throw new NullPointerException("now cannot be null");
         }
 
-        List<Flight> flights = getAllFlights();
-        List<Flight> currentFlighs = flights.stream()
-                .filter(flight -> {
-                    LocalDateTime arrivalTime = flight.getArrivalTime();
-                    LocalDateTime departureTime = flight.getDepartureTime();
-                    return departureTime.isBefore(now) && arrivalTime.isAfter(now);
-                })
-                .collect(Collectors.toList());
-
-        return currentFlighs;
+        try {
+            return flightDao.getFlightsByIds(flightTimeIndex.findCurrentFlightIds(now));
+        } catch (Exception e) {
+            throw new FlightDataAccessException("Exception while fetching current flights.", e);
+        }
     }
 
     @Override
@@ -160,5 +255,24 @@ public class FlightServiceImpl implements FlightService {
 
         flight.addSteward(steward);
         updateFlight(flight);
+        domainEventBus.publish(new StewardAssigned(LocalDateTime.now(), flight.getId(), steward.getId()));
+    }
+
+    /**
+     * Creates the after commit update of the index and the rosters. Stewards are read at once,
+     * as the lazy collection may not be accessible after the commit.
+     */
+    private Runnable flightUpdated(Flight flight) {
+        List<Long> stewardIds = getStewardIds(flight);
+        return () -> {
+            flightTimeIndex.put(flight.getId(), flight.getDepartureTime(), flight.getArrivalTime());
+            stewardRoster.evictFlight(flight.getId(), stewardIds);
+        };
+    }
+
+    private static List<Long> getStewardIds(Flight flight) {
+        return flight.getStewards().stream()
+                .map(Steward::getId)
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,259 @@
+package cz.fi.muni.pa165.service.impl;
+
+import cz.fi.muni.pa165.dao.FlightDao;
+import cz.fi.muni.pa165.dao.FlightTimeSlot;
+import cz.fi.muni.pa165.exceptions.FlightDataAccessException;
+import cz.fi.muni.pa165.service.FlightTimeIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static cz.fi.muni.pa165.service.impl.TransactionHooks.afterCommit;
+
+/**
+ * Implementation of the {@link FlightTimeIndex} backed by an interval tree of the flights
+ * and by sorted maps of departure and arrival times.
+ * <p>
+ * Overlap and "in the air" queries are answered by the {@link FlightIntervalTree}, so they do not depend
+ * on the length of the flights. Departures and arrivals are found in the sorted maps directly.
+ * The index is loaded lazily from the persistence storage on the first query. A load in a read-write
+ * transaction may see its uncommitted flights, so it answers the queries of the transaction and is kept
+ * only once the transaction commits, unless the index changed while it was loaded.
+ *
+ * @author Robert Duriancik
+ */
+@Component
+public class FlightTimeIndexImpl implements FlightTimeIndex {
+
+    @Autowired
+    private FlightDao flightDao;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final AtomicLong modifications = new AtomicLong();
+
+    private Slots slots = new Slots();
+
+    private volatile boolean loaded;
+
+    @Override
+    public void put(Long flightId, LocalDateTime departureTime, LocalDateTime arrivalTime) {
+        if (flightId == null || departureTime == null || arrivalTime == null) {
+            throw new NullPointerException("Flight id, departure or arrival time is null");
+        }
+
+        lock.writeLock().lock();
+        try {
+            modifications.incrementAndGet();
+            // an index which is not loaded yet will read the change from the persistence storage
+            if (loaded) {
+                slots.remove(flightId);
+                slots.add(new FlightTimeSlot(flightId, departureTime, arrivalTime));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long flightId) {
+        if (flightId == null) {
+            throw new NullPointerException("Flight id is null");
+        }
+
+        lock.writeLock().lock();
+        try {
+            modifications.incrementAndGet();
+            slots.remove(flightId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            modifications.incrementAndGet();
+            slots = new Slots();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<Long> findCurrentFlightIds(LocalDateTime time) {
+        if (time == null) {
+            throw new NullPointerException("Time is null");
+        }
+
+        Slots current = ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Set<Long> result = new HashSet<>();
+            current.intervals.findOverlapping(time, time, false, slot -> result.add(slot.getFlightId()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<Long> findFlightIdsInTimeRange(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            throw new NullPointerException("Start or end is null");
+        }
+
+        Slots current = ensureLoaded();
+        if (start.isAfter(end)) {
+            return Collections.emptySet();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Long> result = new HashSet<>();
+            current.intervals.findOverlapping(start, end, true, slot -> result.add(slot.getFlightId()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<FlightTimeSlot> findDepartures(LocalDateTime start, LocalDateTime end) {
+        return findSlots(true, start, end);
+    }
+
+    @Override
+    public List<FlightTimeSlot> findArrivals(LocalDateTime start, LocalDateTime end) {
+        return findSlots(false, start, end);
+    }
+
+    private List<FlightTimeSlot> findSlots(boolean departure, LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            throw new NullPointerException("Start or end is null");
+        }
+
+        Slots current = ensureLoaded();
+        if (!start.isBefore(end)) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            NavigableMap<LocalDateTime, Set<Long>> map = departure ? current.departures : current.arrivals;
+            List<FlightTimeSlot> result = new ArrayList<>();
+            for (Set<Long> ids : map.subMap(start, false, end, true).values()) {
+                for (Long id : ids) {
+                    result.add(current.slots.get(id));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the slots to answer a query from. These are the shared slots, or the slots loaded
+     * for the current read-write transaction until it commits.
+     */
+    private Slots ensureLoaded() {
+        if (loaded) {
+            return slots;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            long modificationsBeforeLoad = modifications.get();
+            Slots transactionSlots = load();
+            afterCommit(() -> {
+                lock.writeLock().lock();
+                try {
+                    if (!loaded && modifications.get() == modificationsBeforeLoad) {
+                        slots = transactionSlots;
+                        loaded = true;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+            return transactionSlots;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                slots = load();
+                loaded = true;
+            }
+            return slots;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Slots load() {
+        try {
+            Slots loadedSlots = new Slots();
+            for (FlightTimeSlot slot : flightDao.getAllFlightTimeSlots()) {
+                loadedSlots.add(slot);
+            }
+            return loadedSlots;
+        } catch (Exception e) {
+            throw new FlightDataAccessException("Exception while loading the flight time index.", e);
+        }
+    }
+
+    /**
+     * Time slots of the flights with the interval tree and the sorted maps of their times.
+     */
+    private static final class Slots {
+        private final Map<Long, FlightTimeSlot> slots = new HashMap<>();
+        private final NavigableMap<LocalDateTime, Set<Long>> departures = new TreeMap<>();
+        private final NavigableMap<LocalDateTime, Set<Long>> arrivals = new TreeMap<>();
+        private final FlightIntervalTree intervals = new FlightIntervalTree();
+
+        private void add(FlightTimeSlot slot) {
+            slots.put(slot.getFlightId(), slot);
+            departures.computeIfAbsent(slot.getDepartureTime(), key -> new HashSet<>()).add(slot.getFlightId());
+            arrivals.computeIfAbsent(slot.getArrivalTime(), key -> new HashSet<>()).add(slot.getFlightId());
+            intervals.add(slot);
+        }
+
+        private void remove(Long flightId) {
+            FlightTimeSlot slot = slots.remove(flightId);
+            if (slot == null) {
+                return;
+            }
+
+            removeId(departures, slot.getDepartureTime(), flightId);
+            removeId(arrivals, slot.getArrivalTime(), flightId);
+            intervals.remove(slot);
+        }
+
+        private static void removeId(NavigableMap<LocalDateTime, Set<Long>> map, LocalDateTime time, Long flightId) {
+            Set<Long> ids = map.get(time);
+            if (ids != null) {
+                ids.remove(flightId);
+                if (ids.isEmpty()) {
+                    map.remove(time);
+                }
+            }
+        }
+    }
+}
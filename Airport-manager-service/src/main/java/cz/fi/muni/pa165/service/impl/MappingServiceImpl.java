@@ -3,21 +3,34 @@ package cz.fi.muni.pa165.service.impl;
 import cz.fi.muni.pa165.service.MappingService;
 import org.dozer.Mapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
 
 /**
+ * Maps entities and DTOs with the hand-written {@link DtoMappers}, falling back to Dozer for pairs without one.
+ * Setting the <b>airport.mapping</b> property to <b>dozer</b> maps everything with Dozer.
+ *
  * @author Karel Jiranek
  */
 @Service
 public class MappingServiceImpl implements MappingService {
 
+    /**
+     * Value of the <b>airport.mapping</b> property which disables the hand-written mappers.
+     */
+    static final String DOZER_MAPPING = "dozer";
+
     @Autowired
     private Mapper dozer;
 
+    @Value("${airport.mapping:specialized}")
+    private String mapping;
+
     /**
      * Map objects of any type to given class.
      *
@@ -27,9 +40,9 @@ public class MappingServiceImpl implements MappingService {
      * @return List of mapped objects.
      */
     public  <T> List<T> mapTo(Collection<?> objects, Class<T> mapToClass) {
-        List<T> mappedCollection = new ArrayList<>();
+        List<T> mappedCollection = new ArrayList<>(objects.size());
         for (Object object : objects) {
-            mappedCollection.add(dozer.map(object, mapToClass));
+            mappedCollection.add(mapTo(object, mapToClass));
         }
         return mappedCollection;
     }
@@ -44,6 +57,12 @@ public class MappingServiceImpl implements MappingService {
      */
     public  <T> T mapTo(Object object, Class<T> mapToClass)
     {
+        if (object != null && !DOZER_MAPPING.equals(mapping)) {
+            Function<Object, Object> mapper = DtoMappers.find(object.getClass(), mapToClass);
+            if (mapper != null) {
+                return mapToClass.cast(mapper.apply(object));
+            }
+        }
         return dozer.map(object,mapToClass);
     }
 
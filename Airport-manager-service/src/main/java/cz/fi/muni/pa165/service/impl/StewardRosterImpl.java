@@ -0,0 +1,167 @@
+package cz.fi.muni.pa165.service.impl;
+
+import cz.fi.muni.pa165.dao.FlightDao;
+import cz.fi.muni.pa165.dao.FlightTimeSlot;
+import cz.fi.muni.pa165.exceptions.StewardDataAccessException;
+import cz.fi.muni.pa165.service.StewardRoster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static cz.fi.muni.pa165.service.impl.TransactionHooks.afterCommit;
+
+/**
+ * Implementation of the {@link StewardRoster} which keeps a departure time sorted map per steward,
+ * so the last, current and next flight are found by floor and ceiling lookups.
+ * <p>
+ * A roster read by a read-write transaction may contain its uncommitted changes, so it is cached only once
+ * the transaction commits. A roster is not cached at all if any roster was evicted while it was loaded.
+ *
+ * @author Karel Jiranek
+ */
+@Component
+public class StewardRosterImpl implements StewardRoster {
+
+    @Autowired
+    private FlightDao flightDao;
+
+    private final Map<Long, Roster> rosters = new ConcurrentHashMap<>();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Override
+    public List<FlightTimeSlot> getFlightsInTimeRange(Long stewardId, LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            throw new NullPointerException("Start or end is null");
+        }
+        if (!start.isBefore(end)) {
+            return Collections.emptyList();
+        }
+
+        List<FlightTimeSlot> flights = new ArrayList<>();
+        getRoster(stewardId).departures.subMap(start, false, end, false).values().forEach(flights::addAll);
+        return flights;
+    }
+
+    @Override
+    public FlightTimeSlot getLastFlight(Long stewardId, LocalDateTime time) {
+        if (time == null) {
+            throw new NullPointerException("Time is null");
+        }
+
+        Map.Entry<LocalDateTime, List<FlightTimeSlot>> last = getRoster(stewardId).departures.lowerEntry(time);
+        return last == null ? null : last.getValue().get(last.getValue().size() - 1);
+    }
+
+    @Override
+    public FlightTimeSlot getCurrentFlight(Long stewardId, LocalDateTime time) {
+        if (time == null) {
+            throw new NullPointerException("Time is null");
+        }
+
+        Map.Entry<LocalDateTime, List<FlightTimeSlot>> last = getRoster(stewardId).departures.lowerEntry(time);
+        if (last == null) {
+            return null;
+        }
+        for (FlightTimeSlot flight : last.getValue()) {
+            if (flight.getArrivalTime().isAfter(time)) {
+                return flight;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public FlightTimeSlot getNextFlight(Long stewardId, LocalDateTime time) {
+        if (time == null) {
+            throw new NullPointerException("Time is null");
+        }
+
+        Map.Entry<LocalDateTime, List<FlightTimeSlot>> next = getRoster(stewardId).departures.higherEntry(time);
+        return next == null ? null : next.getValue().get(0);
+    }
+
+    @Override
+    public void evictSteward(Long stewardId) {
+        if (stewardId != null) {
+            evictions.incrementAndGet();
+            rosters.remove(stewardId);
+        }
+    }
+
+    @Override
+    public void evictFlight(Long flightId, Collection<Long> stewardIds) {
+        if (stewardIds != null) {
+            stewardIds.forEach(this::evictSteward);
+        }
+        if (flightId != null) {
+            evictions.incrementAndGet();
+            rosters.values().removeIf(roster -> roster.flightIds.contains(flightId));
+        }
+    }
+
+    @Override
+    public void clear() {
+        evictions.incrementAndGet();
+        rosters.clear();
+    }
+
+    private Roster getRoster(Long stewardId) {
+        if (stewardId == null) {
+            throw new NullPointerException("Steward id is null");
+        }
+
+        Roster roster = rosters.get(stewardId);
+        if (roster != null) {
+            return roster;
+        }
+
+        long evictionsBeforeLoad = evictions.get();
+        try {
+            roster = new Roster(flightDao.getStewardFlightTimeSlots(stewardId));
+        } catch (Exception e) {
+            throw new StewardDataAccessException("Exception while loading roster of steward with id " + stewardId, e);
+        }
+
+        Roster loaded = roster;
+        Runnable cache = () -> {
+            if (evictions.get() == evictionsBeforeLoad) {
+                rosters.putIfAbsent(stewardId, loaded);
+            }
+        };
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            cache.run();
+        } else {
+            afterCommit(cache);
+        }
+        return roster;
+    }
+
+    /**
+     * Immutable roster of a single steward.
+     */
+    private static final class Roster {
+        private final NavigableMap<LocalDateTime, List<FlightTimeSlot>> departures = new TreeMap<>();
+        private final Set<Long> flightIds = new HashSet<>();
+
+        private Roster(List<FlightTimeSlot> flights) {
+            for (FlightTimeSlot flight : flights) {
+                departures.computeIfAbsent(flight.getDepartureTime(), key -> new ArrayList<>()).add(flight);
+                flightIds.add(flight.getFlightId());
+            }
+        }
+    }
+}
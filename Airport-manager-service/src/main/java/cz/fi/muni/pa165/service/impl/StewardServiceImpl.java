@@ -1,22 +1,31 @@
 package cz.fi.muni.pa165.service.impl;
 
 
+import cz.fi.muni.pa165.dao.FlightTimeSlot;
 import cz.fi.muni.pa165.dao.StewardDao;
 import cz.fi.muni.pa165.entities.Flight;
 import cz.fi.muni.pa165.entities.Steward;
 import cz.fi.muni.pa165.exceptions.StewardDataAccessException;
+import cz.fi.muni.pa165.service.CollectionVersions;
+import cz.fi.muni.pa165.service.DomainEventBus;
 import cz.fi.muni.pa165.service.FlightService;
+import cz.fi.muni.pa165.service.StewardRoster;
 import cz.fi.muni.pa165.service.StewardService;
+import cz.fi.muni.pa165.service.VersionedCollection;
+import cz.fi.muni.pa165.service.events.EntityChanged.Change;
+import cz.fi.muni.pa165.service.events.StewardChanged;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
+import static cz.fi.muni.pa165.service.impl.TransactionHooks.afterCommit;
+
 /**
  * Implementation of the {@link StewardService}. This class is part of the service
  * module of the application that provides the implementation of the business
@@ -29,9 +38,18 @@ public class StewardServiceImpl implements StewardService{
     @Autowired
     private StewardDao stewardDao;
 
+    @Autowired
+    private CollectionVersions collectionVersions;
+
     @Autowired
     private FlightService flightService;
 
+    @Autowired
+    private StewardRoster stewardRoster;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
     /**
      * Get steward by id.
      * @param id Id identifying steward.
@@ -42,6 +60,15 @@ public class StewardServiceImpl implements StewardService{
         return stewardDao.getSteward(id);
     }
 
+    @Override
+    public List<Steward> getStewardsByIds(Collection<Long> ids) {
+        try {
+            return stewardDao.getStewardsByIds(ids);
+        } catch (Exception e) {
+            throw new StewardDataAccessException("Exception while getting stewards with ids " + ids, e);
+        }
+    }
+
     /**
      * Delete steward
      *
@@ -51,6 +78,10 @@ public class StewardServiceImpl implements StewardService{
     public void deleteSteward(Steward steward){
         try {
             stewardDao.deleteSteward(steward);
+            collectionVersions.changed(VersionedCollection.STEWARDS);
+            Long id = steward.getId();
+            afterCommit(() -> stewardRoster.evictSteward(id));
+            domainEventBus.publish(new StewardChanged(LocalDateTime.now(), id, Change.DELETED));
         }catch (Exception e) {
             throw new StewardDataAccessException("Exception while deleting steward: " + steward, e);
         }
@@ -75,6 +106,22 @@ public class StewardServiceImpl implements StewardService{
         return stewards;
     }
 
+    @Override
+    public List<Steward> getStewardsPage(Long afterId, Long beforeId, int limit) {
+        if (afterId != null && beforeId != null) {
+            throw new IllegalArgumentException("Cannot page both after and before a steward");
+        }
+
+        try {
+            if (beforeId != null) {
+                return stewardDao.listStewardsPageBefore(beforeId, limit);
+            }
+            return stewardDao.listStewardsPageAfter(afterId, limit);
+        } catch (Exception e) {
+            throw new StewardDataAccessException("Exception while fetching a page of stewards.", e);
+        }
+    }
+
     /**
      * Create steward with name and surname.
      *
@@ -88,12 +135,28 @@ public class StewardServiceImpl implements StewardService{
         steward.setFirstName(firstName);
         steward.setSurname(surName);
         stewardDao.createSteward(steward);
+        collectionVersions.changed(VersionedCollection.STEWARDS);
+        domainEventBus.publish(new StewardChanged(LocalDateTime.now(), steward.getId(), Change.CREATED));
         return steward.getId();
         }catch (Exception e) {
             throw new StewardDataAccessException("Exception while deleting steward.", e);
         }
     }
 
+    @Override
+    public void addAll(Collection<Steward> stewards) {
+        try {
+            stewardDao.addAll(stewards);
+            collectionVersions.changed(VersionedCollection.STEWARDS);
+            LocalDateTime now = LocalDateTime.now();
+            for (Steward steward : stewards) {
+                domainEventBus.publish(new StewardChanged(now, steward.getId(), Change.CREATED));
+            }
+        } catch (Exception e) {
+            throw new StewardDataAccessException("Exception while adding stewards.", e);
+        }
+    }
+
     /**
      * Update steward name (first name and surname).
      *
@@ -103,6 +166,8 @@ public class StewardServiceImpl implements StewardService{
     public void updateSteward(Steward steward){
         try {
             stewardDao.updateSteward(steward);
+            collectionVersions.changed(VersionedCollection.STEWARDS);
+            domainEventBus.publish(new StewardChanged(LocalDateTime.now(), steward.getId(), Change.UPDATED));
         }catch (Exception e) {
             throw new StewardDataAccessException("Exception while deleting steward: " + steward, e);
         }
@@ -123,32 +188,11 @@ public class StewardServiceImpl implements StewardService{
      * Get first future flight that given steward going to serve in future.
      *
      * @param id Steward id.
-     * @return First future flight that given steward going to serve in future.
+     * @return First future flight that given steward going to serve in future. Null if not any.
      */
     @Override
     public Flight getStewardFutureFlight(long id){
-        Steward steward = stewardDao.getSteward(id);
-        List<Flight> allFlights = flightService.getAllFlights();
-
-        // No flights found
-        if (allFlights == null){
-            return null;
-        }
-
-        // Init last flight
-        Flight firstFutureFlight = allFlights.get(0);
-
-        // Find first future flight
-        for (Flight flight: allFlights){
-            List<Steward> flightStewards = flight.getStewards();
-            LocalDateTime flightDepartureTime = flight.getDepartureTime();
-            if (flightStewards.contains(steward) &&
-                    flightDepartureTime.isBefore(firstFutureFlight.getDepartureTime()) &&
-                    flightDepartureTime.isAfter(LocalDateTime.now())){
-                firstFutureFlight = flight;
-            }
-        }
-        return firstFutureFlight;
+        return toFlight(stewardRoster.getNextFlight(id, LocalDateTime.now()));
     }
 
     /**
@@ -158,23 +202,17 @@ public class StewardServiceImpl implements StewardService{
      * @param id Steward id.
      * @param startTime Time to start searching from.
      * @param stopTime Time to stop searching.
-     * @return All stewards flights in given time range. Empty list if not any.
+     * @return All stewards flights in given time range ordered by departure time. Empty list if not any.
      */
     @Override
     public List<Flight> getAllStewardFlightsInTimeRange(long id, LocalDateTime startTime, LocalDateTime stopTime){
-        Steward steward = stewardDao.getSteward(id);
-        List<Flight> allStewardFlightsAfter = new ArrayList<>();
-
-        for (Flight flight : flightService.getAllFlights()) {
-            List<Steward> flightStewards = flight.getStewards();
-            LocalDateTime departureTime = flight.getDepartureTime();
-            if (flightStewards.contains(steward) &&
-                    departureTime.isAfter(startTime) &&
-                    departureTime.isBefore(stopTime)){
-                allStewardFlightsAfter.add(flight);
-            }
+        List<Long> flightIds = stewardRoster.getFlightsInTimeRange(id, startTime, stopTime).stream()
+                .map(FlightTimeSlot::getFlightId)
+                .collect(Collectors.toList());
+        if (flightIds.isEmpty()) {
+            return new ArrayList<>();
         }
-        return allStewardFlightsAfter;
+        return flightService.getFlightsByIds(flightIds);
     }
 
     /**
@@ -185,28 +223,7 @@ public class StewardServiceImpl implements StewardService{
      */
     @Override
     public Flight getStewardLastFlight(long id){
-        Steward steward = stewardDao.getSteward(id);
-        List<Flight> allFlights = flightService.getAllFlights();
-
-        // No flights found
-        if (allFlights == null){
-            return null;
-        }
-
-        // Init last flight
-        Flight lastFlight = allFlights.get(0);
-
-        // Find last flight
-        for (Flight flight: allFlights){
-            List<Steward> flightStewards = flight.getStewards();
-            LocalDateTime flightDepartureTime = flight.getDepartureTime();
-            if (flightStewards.contains(steward) &&
-                    flightDepartureTime.isBefore(LocalDateTime.now()) &&
-                    flightDepartureTime.isAfter(lastFlight.getDepartureTime())){
-                lastFlight = flight;
-            }
-        }
-        return lastFlight;
+        return toFlight(stewardRoster.getLastFlight(id, LocalDateTime.now()));
     }
 
     /**
@@ -217,29 +234,23 @@ public class StewardServiceImpl implements StewardService{
      */
     @Override
     public Flight getStewardCurrentFlight(long id){
-        Steward steward = stewardDao.getSteward(id);
-
-        for (Flight flight : flightService.getAllFlights()) {
-            List<Steward> flightStewards = flight.getStewards();
-            if (flightStewards.contains(steward) &&
-                    flight.getDepartureTime().isBefore(LocalDateTime.now()) &&
-                    flight.getArrivalTime().isAfter(LocalDateTime.now())){
-                return flight;
-            }
-        }
-        return null;
+        return toFlight(stewardRoster.getCurrentFlight(id, LocalDateTime.now()));
     }
 
     @Override
     public List<Steward> getFreeStewardsInTimeRange(LocalDateTime start, LocalDateTime end) {
-        List<Flight> flights = flightService.getFlightsInTimeRange(start, end);
-        Set<Steward> assignedStewards = flights.stream()
-                .flatMap(flight -> flight.getStewards().stream())
-                .collect(Collectors.toSet());
-
-        List<Steward> allStewards = new ArrayList<>(stewardDao.listAllStewards());
-        allStewards.removeAll(assignedStewards);
-        return allStewards;
+        if (start == null || end == null) {
+            throw new NullPointerException("Start or end is null");
+        }
+
+        try {
+            return stewardDao.findFreeInTimeRange(start, end);
+        } catch (Exception e) {
+            throw new StewardDataAccessException("Exception while finding free stewards in time range", e);
+        }
     }
 
+    private Flight toFlight(FlightTimeSlot slot) {
+        return slot == null ? null : flightService.getFlight(slot.getFlightId());
+    }
 }
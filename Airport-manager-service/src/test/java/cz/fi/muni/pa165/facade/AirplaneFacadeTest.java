@@ -98,6 +98,19 @@ public class AirplaneFacadeTest extends BaseFacadeTest {
         verify(airplaneService).findAll();
     }
 
+    @Test
+    public void testFindPage() throws Exception {
+        when(airplaneService.findPage(airplaneId, null, 10))
+                .thenReturn(Collections.singletonList(airplane));
+        when(mappingService.mapTo(Collections.singletonList(airplane), AirplaneDTO.class))
+                .thenReturn(Collections.singletonList(airplaneDTO));
+
+        List<AirplaneDTO> returnedAirplaneDTOS = airplaneFacade.findPage(airplaneId, null, 10);
+
+        Assert.assertEquals(returnedAirplaneDTOS, Collections.singletonList(airplaneDTO));
+        verify(airplaneService).findPage(airplaneId, null, 10);
+    }
+
     @Test
     public void testDeleteAirplane() throws Exception {
         when(airplaneService.findById(airplaneId)).thenReturn(airplane);
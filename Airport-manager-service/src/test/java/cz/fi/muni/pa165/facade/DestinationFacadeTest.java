@@ -104,6 +104,18 @@ public class DestinationFacadeTest extends BaseFacadeTest {
         Assert.assertTrue(destinationsByCountry.containsAll(Arrays.asList(destinationDTO1, destinationDTO2)));
     }
 
+    @Test
+    public void getDestinationsPageTest() {
+        List<Destination> destinations = Arrays.asList(destination1, destination2);
+        List<DestinationDTO> destinationDTOS = Arrays.asList(destinationDTO1, destinationDTO2);
+
+        when(destinationService.getDestinationsPage(null, null, 2)).thenReturn(destinations);
+        when(mappingService.mapTo(destinations, DestinationDTO.class)).thenReturn(destinationDTOS);
+
+        Assert.assertEquals(destinationFacade.getDestinationsPage(null, null, 2), destinationDTOS);
+        verify(destinationService).getDestinationsPage(null, null, 2);
+    }
+
     @Test
     public void getDestinationsByCityTest() {
         when(destinationService.getDestinationsByCity("Boston")).thenReturn(Collections.singletonList(destination1));
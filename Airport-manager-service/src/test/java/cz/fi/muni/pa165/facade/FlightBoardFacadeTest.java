@@ -0,0 +1,189 @@
+package cz.fi.muni.pa165.facade;
+
+import cz.fi.muni.pa165.dto.FlightBoardDTO;
+import cz.fi.muni.pa165.dto.FlightBoardEventDTO;
+import cz.fi.muni.pa165.dto.FlightDTO;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.service.FlightBoard;
+import cz.fi.muni.pa165.service.FlightBoardEvent;
+import cz.fi.muni.pa165.service.FlightService;
+import cz.fi.muni.pa165.service.MappingService;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for FlightBoardFacade
+ *
+ * @author Robert Duriancik
+ */
+public class FlightBoardFacadeTest extends BaseFacadeTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2017, 12, 24, 12, 0);
+
+    @Mock
+    private FlightBoard flightBoard;
+
+    @Mock
+    private FlightService flightService;
+
+    @Mock
+    private MappingService mappingService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<Consumer<FlightBoardEvent>> boardListener;
+
+    @InjectMocks
+    private FlightBoardFacadeImpl flightBoardFacade;
+
+    private List<FlightBoardEventDTO> events;
+
+    @BeforeMethod
+    public void resetMocks() {
+        Mockito.reset(flightBoard, flightService, mappingService);
+        events = new ArrayList<>();
+    }
+
+    @Test
+    public void getBoardReadsSequenceBeforeFlights() {
+        List<Flight> flights = Collections.singletonList(new Flight());
+        List<FlightDTO> flightDTOs = Collections.singletonList(new FlightDTO());
+        when(flightBoard.getSequence()).thenReturn(7L);
+        when(flightService.getCurrentFlights(NOON)).thenReturn(flights);
+        when(mappingService.mapTo(flights, FlightDTO.class)).thenReturn(flightDTOs);
+
+        FlightBoardDTO board = flightBoardFacade.getBoard(NOON);
+
+        Assert.assertEquals(board.getLastEventId(), 7L);
+        Assert.assertEquals(board.getTime(), NOON);
+        Assert.assertSame(board.getFlights(), flightDTOs);
+        InOrder inOrder = inOrder(flightBoard, flightService);
+        inOrder.verify(flightBoard).getSequence();
+        inOrder.verify(flightService).getCurrentFlights(NOON);
+    }
+
+    @Test
+    public void eventCarriesMappedFlight() {
+        Flight flight = new Flight();
+        FlightDTO flightDTO = new FlightDTO();
+        when(flightService.getFlightWithCrew(3L)).thenReturn(flight);
+        when(mappingService.mapTo(flight, FlightDTO.class)).thenReturn(flightDTO);
+
+        subscribe().accept(new FlightBoardEvent(4, FlightBoardEvent.Type.DEPARTED, 3L, NOON));
+
+        Assert.assertEquals(events.size(), 1);
+        FlightBoardEventDTO event = events.get(0);
+        Assert.assertEquals(event.getId(), 4L);
+        Assert.assertEquals(event.getType(), FlightBoardEventDTO.Type.DEPARTED);
+        Assert.assertEquals(event.getFlightId(), Long.valueOf(3L));
+        Assert.assertEquals(event.getTime(), NOON);
+        Assert.assertSame(event.getFlight(), flightDTO);
+    }
+
+    @Test
+    public void deletedEventDoesNotLoadFlight() {
+        subscribe().accept(new FlightBoardEvent(1, FlightBoardEvent.Type.DELETED, 3L, NOON));
+
+        Assert.assertEquals(events.size(), 1);
+        Assert.assertNull(events.get(0).getFlight());
+        verify(flightService, never()).getFlightWithCrew(any());
+    }
+
+    @Test
+    public void resetEventDoesNotLoadFlight() {
+        subscribe().accept(new FlightBoardEvent(1, FlightBoardEvent.Type.RESET, null, NOON));
+
+        Assert.assertEquals(events.size(), 1);
+        Assert.assertEquals(events.get(0).getType(), FlightBoardEventDTO.Type.RESET);
+        verify(flightService, never()).getFlightWithCrew(any());
+    }
+
+    @Test
+    public void changedFlightInAirIsLoaded() {
+        LocalDateTime now = LocalDateTime.now();
+        Flight flight = new Flight();
+        FlightDTO flightDTO = new FlightDTO();
+        when(flightService.getFlightWithCrew(3L)).thenReturn(flight);
+        when(mappingService.mapTo(flight, FlightDTO.class)).thenReturn(flightDTO);
+
+        subscribe().accept(new FlightBoardEvent(1, FlightBoardEvent.Type.CHANGED, 3L, now,
+                now.minusHours(1), now.plusHours(1)));
+
+        Assert.assertEquals(events.size(), 1);
+        Assert.assertEquals(events.get(0).getType(), FlightBoardEventDTO.Type.CHANGED);
+        Assert.assertSame(events.get(0).getFlight(), flightDTO);
+    }
+
+    @Test
+    public void changedFlightOutOfAirIsDeletedWithoutLoading() {
+        subscribe().accept(new FlightBoardEvent(1, FlightBoardEvent.Type.CHANGED, 3L, NOON,
+                NOON.plusHours(1), NOON.plusHours(2)));
+
+        Assert.assertEquals(events.size(), 1);
+        Assert.assertEquals(events.get(0).getType(), FlightBoardEventDTO.Type.DELETED);
+        Assert.assertEquals(events.get(0).getFlightId(), Long.valueOf(3L));
+        Assert.assertNull(events.get(0).getFlight());
+        verify(flightService, never()).getFlightWithCrew(any());
+    }
+
+    @Test
+    public void createdFlightOutOfAirIsSkippedWithoutLoading() {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        subscribe().accept(new FlightBoardEvent(1, FlightBoardEvent.Type.CREATED, 3L, NOON,
+                tomorrow, tomorrow.plusHours(2)));
+
+        Assert.assertTrue(events.isEmpty());
+        verify(flightService, never()).getFlightWithCrew(any());
+    }
+
+    @Test
+    public void eventOfMissingFlightIsSkipped() {
+        when(flightService.getFlightWithCrew(3L)).thenReturn(null);
+
+        subscribe().accept(new FlightBoardEvent(1, FlightBoardEvent.Type.CHANGED, 3L, NOON));
+
+        Assert.assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void listenerIsRegisteredOnce() {
+        Consumer<FlightBoardEventDTO> listener = events::add;
+        flightBoardFacade.subscribe(listener);
+        flightBoardFacade.subscribe(listener);
+        verify(flightBoard, times(1)).subscribe(any());
+
+        flightBoardFacade.unsubscribe(listener);
+        flightBoardFacade.unsubscribe(listener);
+        verify(flightBoard, times(1)).unsubscribe(any());
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void subscribeNull() {
+        flightBoardFacade.subscribe(null);
+    }
+
+    private Consumer<FlightBoardEvent> subscribe() {
+        flightBoardFacade.subscribe(events::add);
+        verify(flightBoard).subscribe(boardListener.capture());
+        return boardListener.getValue();
+    }
+}
@@ -2,16 +2,22 @@ package cz.fi.muni.pa165.facade;
 
 import cz.fi.muni.pa165.dto.FlightCreateDTO;
 import cz.fi.muni.pa165.dto.FlightDTO;
+import cz.fi.muni.pa165.dto.FlightImportErrorDTO;
+import cz.fi.muni.pa165.dto.FlightImportReportDTO;
 import cz.fi.muni.pa165.dto.FlightUpdateDTO;
 import cz.fi.muni.pa165.entities.Airplane;
 import cz.fi.muni.pa165.entities.Destination;
 import cz.fi.muni.pa165.entities.Flight;
 import cz.fi.muni.pa165.entities.Steward;
+import cz.fi.muni.pa165.exceptions.FlightDataAccessException;
 import cz.fi.muni.pa165.service.*;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -19,9 +25,17 @@ import org.testng.annotations.Test;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -47,6 +61,9 @@ public class FlightFacadeTest extends BaseFacadeTest {
 
     private DestinationService destinationService;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Mock
     private Flight flight;
 
@@ -72,7 +89,7 @@ public class FlightFacadeTest extends BaseFacadeTest {
 
     @BeforeMethod
     public void resetMocks() {
-        Mockito.reset(mappingService, flightService);
+        Mockito.reset(mappingService, flightService, stewardService, destinationService, airplaneService);
     }
 
     @Test
@@ -82,12 +99,33 @@ public class FlightFacadeTest extends BaseFacadeTest {
         when(flightCreateDTO.getArrivalTime()).thenReturn(LocalDateTime.now());
         when(flightCreateDTO.getDepartureTime()).thenReturn(LocalDateTime.now());
         when(flightCreateDTO.getDepartureLocationId()).thenReturn(1L);
-        when(destinationService.getDestinationById(1L)).thenReturn(new Destination());
-        when(airplaneService.findById(1L)).thenReturn(new Airplane());
-        when(stewardService.getSteward(1L)).thenReturn(new Steward());
+        when(flightCreateDTO.getStewardIds()).thenReturn(Arrays.asList(5L, 4L));
+        Destination destination = new Destination();
+        Airplane reference = new Airplane();
+        Steward first = new Steward();
+        first.setId(4L);
+        Steward second = new Steward();
+        second.setId(5L);
+        when(destinationService.getDestinationReference(1L)).thenReturn(destination);
+        when(airplaneService.getReference(1L)).thenReturn(reference);
+        when(stewardService.getStewardsByIds(Arrays.asList(5L, 4L))).thenReturn(Arrays.asList(first, second));
+
+        flightFacade.createFlight(flightCreateDTO);
+
+        ArgumentCaptor<Flight> captor = ArgumentCaptor.forClass(Flight.class);
+        verify(flightService).addFlight(captor.capture());
+        Assert.assertSame(captor.getValue().getDepartureLocation(), destination);
+        Assert.assertSame(captor.getValue().getAirplane(), reference);
+        Assert.assertEquals(captor.getValue().getStewards(), Arrays.asList(second, first));
+        verify(stewardService, Mockito.never()).getSteward(any());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testCreateFlightUnknownSteward() {
+        when(flightCreateDTO.getStewardIds()).thenReturn(Collections.singletonList(9L));
+        when(stewardService.getStewardsByIds(Collections.singletonList(9L))).thenReturn(Collections.emptyList());
 
         flightFacade.createFlight(flightCreateDTO);
-        verify(flightService).addFlight(any(Flight.class));
     }
 
     @Test
@@ -97,9 +135,8 @@ public class FlightFacadeTest extends BaseFacadeTest {
         when(flightUpdateDTO.getArrivalTime()).thenReturn(LocalDateTime.now());
         when(flightUpdateDTO.getDepartureTime()).thenReturn(LocalDateTime.now());
         when(flightUpdateDTO.getDepartureLocationId()).thenReturn(1L);
-        when(destinationService.getDestinationById(1L)).thenReturn(new Destination());
-        when(airplaneService.findById(1L)).thenReturn(new Airplane());
-        when(stewardService.getSteward(1L)).thenReturn(new Steward());
+        when(destinationService.getDestinationReference(1L)).thenReturn(new Destination());
+        when(airplaneService.getReference(1L)).thenReturn(new Airplane());
 
         flightFacade.updateFlight(flightUpdateDTO);
         verify(flightService).updateFlight(any(Flight.class));
@@ -107,11 +144,11 @@ public class FlightFacadeTest extends BaseFacadeTest {
 
     @Test
     public void testGetFlight() {
-        when(flightService.getFlight(flight.getId())).thenReturn(flight);
+        when(flightService.getFlightWithCrew(flight.getId())).thenReturn(flight);
         when(mappingService.mapTo(flight, FlightDTO.class)).thenReturn(flightDTO);
         FlightDTO temp = flightFacade.getFlight(flight.getId());
 
-        verify(flightService).getFlight(flight.getId());
+        verify(flightService).getFlightWithCrew(flight.getId());
         Assert.assertTrue(flightDTO.equals(temp));
     }
 
@@ -180,6 +217,33 @@ public class FlightFacadeTest extends BaseFacadeTest {
         }
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExportFlights() {
+        doAnswer(invocation -> {
+            ((Consumer<Flight>) invocation.getArguments()[0]).accept(flight);
+            return null;
+        }).when(flightService).scrollAllFlights(any());
+        when(mappingService.mapTo(flight, FlightDTO.class)).thenReturn(flightDTO);
+
+        List<FlightDTO> exported = new ArrayList<>();
+        flightFacade.exportFlights(exported::add);
+
+        Assert.assertEquals(exported, Collections.singletonList(flightDTO));
+    }
+
+    @Test
+    public void testGetFlightsPage() {
+        List<Flight> flights = Collections.singletonList(flight);
+        List<FlightDTO> flightsDto = Collections.singletonList(flightDTO);
+
+        when(flightService.getFlightsPage(2L, null, 10)).thenReturn(flights);
+        when(mappingService.mapTo(flights, FlightDTO.class)).thenReturn(flightsDto);
+
+        Assert.assertEquals(flightFacade.getFlightsPage(2L, null, 10), flightsDto);
+        verify(flightService).getFlightsPage(2L, null, 10);
+    }
+
     @Test
     public void testDeleteFlight() {
         when(flightService.getFlight(flight.getId())).thenReturn(flight);
@@ -218,4 +282,175 @@ public class FlightFacadeTest extends BaseFacadeTest {
         verify(airplaneService).findById(airplane.getId());
         verify(flightService).updateFlight(flight);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportFlights() {
+        mockImportReferences();
+        FlightCreateDTO unknownAirplane = importRow(1L, 2L, 3L);
+        unknownAirplane.setAirplaneId(7L);
+        FlightCreateDTO wrongTimes = importRow(1L, 2L, 3L);
+        wrongTimes.setArrivalTime(wrongTimes.getDepartureTime().minusHours(1));
+        Iterator<FlightCreateDTO> rows = Arrays.asList(importRow(1L, 2L, 3L), unknownAirplane, null, wrongTimes).iterator();
+        Iterator<FlightCreateDTO> unreadableThirdRow = new Iterator<FlightCreateDTO>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public FlightCreateDTO next() {
+                FlightCreateDTO next = rows.next();
+                if (++row == 3) {
+                    throw new IllegalArgumentException("Line 3 cannot be read");
+                }
+                return next;
+            }
+        };
+
+        FlightImportReportDTO report = flightFacade.importFlights(unreadableThirdRow);
+
+        ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(flightService).addAll(captor.capture());
+        Flight imported = (Flight) captor.getValue().iterator().next();
+        Assert.assertEquals(captor.getValue().size(), 1);
+        Assert.assertEquals(imported.getDepartureLocation().getId(), Long.valueOf(1L));
+        Assert.assertEquals(imported.getArrivalLocation().getId(), Long.valueOf(2L));
+        Assert.assertEquals(imported.getAirplane().getId(), Long.valueOf(3L));
+        Assert.assertEquals(imported.getStewards().get(0).getId(), Long.valueOf(4L));
+
+        Assert.assertEquals(report.getImported(), 1);
+        Assert.assertEquals(report.getRejected(), 3);
+        Assert.assertEquals(report.getChunks().size(), 1);
+        Assert.assertEquals(report.getChunks().get(0).getLastRow(), 4);
+        Assert.assertEquals(report.getChunks().get(0).getErrors(), Arrays.asList(
+                new FlightImportErrorDTO(2, "Airplane 7 does not exist"),
+                new FlightImportErrorDTO(3, "Line 3 cannot be read"),
+                new FlightImportErrorDTO(4, "Arrival time cannot be before departure time.")));
+    }
+
+    @Test
+    public void testImportFlightsInChunks() {
+        mockImportReferences();
+        List<FlightCreateDTO> rows = new ArrayList<>();
+        for (int i = 0; i <= FlightFacadeImpl.IMPORT_CHUNK_SIZE; i++) {
+            rows.add(importRow(1L, 2L, 3L));
+        }
+
+        FlightImportReportDTO report = flightFacade.importFlights(rows.iterator());
+
+        verify(flightService, times(2)).addAll(any());
+        Assert.assertEquals(report.getImported(), FlightFacadeImpl.IMPORT_CHUNK_SIZE + 1);
+        Assert.assertEquals(report.getChunks().size(), 2);
+        Assert.assertEquals(report.getChunks().get(1).getIndex(), 1);
+        Assert.assertEquals(report.getChunks().get(1).getFirstRow(), FlightFacadeImpl.IMPORT_CHUNK_SIZE + 1);
+        Assert.assertEquals(report.getChunks().get(1).getImported(), 1);
+    }
+
+    @Test
+    public void testImportFlightsChunkRolledBack() {
+        mockImportReferences();
+        doThrow(new FlightDataAccessException("Exception while adding flights.",
+                new IllegalStateException("constraint violated"))).when(flightService).addAll(any());
+
+        FlightImportReportDTO report = flightFacade.importFlights(
+                Arrays.asList(importRow(1L, 2L, 3L), importRow(2L, 1L, 3L)).iterator());
+
+        Assert.assertEquals(report.getImported(), 0);
+        Assert.assertEquals(report.getRejected(), 2);
+        Assert.assertEquals(report.getChunks().get(0).getErrors().get(1),
+                new FlightImportErrorDTO(2, "Rolled back: constraint violated"));
+        verify(flightService, times(3)).addAll(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportFlightsChunkRetriedRowByRow() {
+        mockImportReferences();
+        // the commit of the chunk fails on the second flight, which fails alone again
+        doAnswer(invocation -> {
+            Collection<Flight> flights = (Collection<Flight>) invocation.getArguments()[0];
+            if (flights.stream().anyMatch(flight -> flight.getDepartureLocation().getId() == 2L)) {
+                throw new DataIntegrityViolationException("Error while persisting flights.",
+                        new IllegalStateException("constraint violated"));
+            }
+            return null;
+        }).when(flightService).addAll(any());
+
+        FlightImportReportDTO report = flightFacade.importFlights(Arrays.asList(
+                importRow(1L, 2L, 3L), importRow(2L, 1L, 3L), importRow(1L, 2L, 3L)).iterator());
+
+        Assert.assertEquals(report.getImported(), 2);
+        Assert.assertEquals(report.getRejected(), 1);
+        Assert.assertEquals(report.getChunks().get(0).getImported(), 2);
+        Assert.assertEquals(report.getChunks().get(0).getErrors(), Collections.singletonList(
+                new FlightImportErrorDTO(2, "Rolled back: constraint violated")));
+        verify(flightService, times(4)).addAll(any());
+    }
+
+    @Test
+    public void testImportFlightsReportsLineNumbers() {
+        mockImportReferences();
+        Iterator<FlightCreateDTO> rows = Arrays.asList(importRow(1L, 2L, 3L), importRow(1L, 2L, 7L)).iterator();
+        FlightImportRows lines = new FlightImportRows() {
+            private long lineNumber = 1;
+
+            @Override
+            public long getLineNumber() {
+                return lineNumber;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public FlightCreateDTO next() {
+                // a header and a blank line precede every row
+                lineNumber += 2;
+                return rows.next();
+            }
+        };
+
+        FlightImportReportDTO report = flightFacade.importFlights(lines);
+
+        Assert.assertEquals(report.getChunks().get(0).getFirstRow(), 3);
+        Assert.assertEquals(report.getChunks().get(0).getLastRow(), 5);
+        Assert.assertEquals(report.getChunks().get(0).getErrors(), Collections.singletonList(
+                new FlightImportErrorDTO(5, "Airplane 7 does not exist")));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testImportFlightsNull() {
+        flightFacade.importFlights(null);
+    }
+
+    private void mockImportReferences() {
+        Destination brno = new Destination("Czech Republic", "Brno");
+        brno.setId(1L);
+        Destination london = new Destination("United Kingdom", "London");
+        london.setId(2L);
+        Airplane boeing = new Airplane();
+        boeing.setId(3L);
+        Steward john = new Steward();
+        john.setId(4L);
+
+        when(destinationService.getAllDestinations()).thenReturn(Arrays.asList(brno, london));
+        when(airplaneService.findAll()).thenReturn(Collections.singletonList(boeing));
+        when(stewardService.getAllStewardsNameOrdered()).thenReturn(Collections.singletonList(john));
+    }
+
+    private static FlightCreateDTO importRow(Long departureLocationId, Long arrivalLocationId, Long airplaneId) {
+        FlightCreateDTO row = new FlightCreateDTO();
+        row.setDepartureLocationId(departureLocationId);
+        row.setArrivalLocationId(arrivalLocationId);
+        row.setAirplaneId(airplaneId);
+        row.setDepartureTime(LocalDateTime.of(2018, 1, 1, 10, 0));
+        row.setArrivalTime(LocalDateTime.of(2018, 1, 1, 12, 0));
+        row.setStewardIds(Collections.singletonList(4L));
+        return row;
+    }
+}
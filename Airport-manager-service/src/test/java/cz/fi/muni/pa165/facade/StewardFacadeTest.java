@@ -114,6 +114,17 @@ public class StewardFacadeTest extends BaseFacadeTest {
         verify(stewardService).getAllStewardsNameOrdered();
     }
 
+    @Test
+    public void testListStewardsPage() throws Exception {
+        when(stewardService.getStewardsPage(null, 5L, 10)).thenReturn(Collections.singletonList(steward));
+        when(mappingService.mapTo(Collections.singletonList(steward), StewardDTO.class)).thenReturn(Collections.singletonList(stewardDTO));
+
+        List<StewardDTO> returnedStewardDTOS = stewardFacade.listStewardsPage(null, 5L, 10);
+
+        Assert.assertEquals(returnedStewardDTOS, Collections.singletonList(stewardDTO));
+        verify(stewardService).getStewardsPage(null, 5L, 10);
+    }
+
     @Test
     public void testFindAll() throws Exception {
         when(stewardService.getAllStewardsNameOrdered()).thenReturn(Collections.singletonList(steward));
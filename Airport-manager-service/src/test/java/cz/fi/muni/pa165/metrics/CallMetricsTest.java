@@ -0,0 +1,142 @@
+package cz.fi.muni.pa165.metrics;
+
+import cz.fi.muni.pa165.ServiceConfig;
+import cz.fi.muni.pa165.facade.DestinationFacade;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.stereotype.Service;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Robert Duriancik
+ */
+public class CallMetricsTest {
+
+    private CallMetrics callMetrics;
+
+    private Timetable timetable;
+
+    @BeforeMethod
+    public void createProxy() {
+        callMetrics = new CallMetrics();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new TimetableImpl());
+        proxyFactory.addAspect(new CallMetricsAspect(callMetrics));
+        timetable = proxyFactory.getProxy();
+    }
+
+    @Test
+    public void recordsCallsAndResultSizes() throws IOException {
+        timetable.getFlights(2);
+        timetable.getFlights(3);
+        timetable.countFlights();
+
+        String metrics = export();
+        Assert.assertTrue(metrics.contains("# TYPE airport_call_duration_seconds histogram\n"));
+        Assert.assertTrue(metrics.contains(
+                "airport_call_duration_seconds_count{layer=\"service\",class=\"Timetable\",method=\"getFlights\"} 2\n"));
+        Assert.assertTrue(metrics.contains(
+                "airport_call_duration_seconds_bucket{layer=\"service\",class=\"Timetable\",method=\"getFlights\",le=\"+Inf\"} 2\n"));
+        Assert.assertTrue(metrics.contains(
+                "airport_call_result_size_sum{layer=\"service\",class=\"Timetable\",method=\"getFlights\"} 5\n"));
+        Assert.assertTrue(metrics.contains(
+                "airport_call_result_size_count{layer=\"service\",class=\"Timetable\",method=\"getFlights\"} 2\n"));
+        Assert.assertTrue(metrics.contains(
+                "airport_call_duration_seconds_count{layer=\"service\",class=\"Timetable\",method=\"countFlights\"} 1\n"));
+        Assert.assertFalse(metrics.contains(
+                "airport_call_result_size_count{layer=\"service\",class=\"Timetable\",method=\"countFlights\"}"));
+    }
+
+    @Test
+    public void recordsErrors() throws IOException {
+        timetable.getFlights(1);
+        try {
+            timetable.getFlights(-1);
+            Assert.fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // expected, recorded as an error
+        }
+
+        String metrics = export();
+        Assert.assertTrue(metrics.contains(
+                "airport_call_errors_total{layer=\"service\",class=\"Timetable\",method=\"getFlights\"} 1\n"));
+        Assert.assertTrue(metrics.contains(
+                "airport_call_duration_seconds_count{layer=\"service\",class=\"Timetable\",method=\"getFlights\"} 2\n"));
+    }
+
+    @Test
+    public void bucketsAreCumulative() throws IOException, NoSuchMethodException {
+        Method countFlights = Timetable.class.getMethod("countFlights");
+        callMetrics.record(countFlights, TimetableImpl.class, 200_000L, false, -1);
+        callMetrics.record(countFlights, TimetableImpl.class, 3_000_000L, false, -1);
+        callMetrics.record(countFlights, TimetableImpl.class, 20_000_000_000L, false, -1);
+
+        String metrics = export();
+        String labels = "layer=\"service\",class=\"Timetable\",method=\"countFlights\"";
+        Assert.assertTrue(metrics.contains("airport_call_duration_seconds_bucket{" + labels + ",le=\"0.0005\"} 1\n"));
+        Assert.assertTrue(metrics.contains("airport_call_duration_seconds_bucket{" + labels + ",le=\"0.0025\"} 1\n"));
+        Assert.assertTrue(metrics.contains("airport_call_duration_seconds_bucket{" + labels + ",le=\"0.005\"} 2\n"));
+        Assert.assertTrue(metrics.contains("airport_call_duration_seconds_bucket{" + labels + ",le=\"10\"} 2\n"));
+        Assert.assertTrue(metrics.contains("airport_call_duration_seconds_bucket{" + labels + ",le=\"+Inf\"} 3\n"));
+        Assert.assertTrue(metrics.contains("airport_call_duration_seconds_sum{" + labels + "} 20.0032\n"));
+    }
+
+    @Test
+    public void recordsLayersOfApplicationBeans() throws IOException {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("metrics",
+                    Collections.singletonMap(MetricsConfig.METRICS_ENABLED_PROPERTY, "true")));
+            context.register(ServiceConfig.class);
+            context.refresh();
+
+            context.getBean(DestinationFacade.class).getAllDestinations();
+
+            StringWriter writer = new StringWriter();
+            context.getBean(CallMetrics.class).writePrometheus(writer);
+            String metrics = writer.toString();
+            Assert.assertTrue(metrics.contains("{layer=\"facade\",class=\"DestinationFacade\",method=\"getAllDestinations\"}"));
+            Assert.assertTrue(metrics.contains("{layer=\"service\",class=\"DestinationService\",method=\"getAllDestinations\"}"));
+            Assert.assertTrue(metrics.contains("{layer=\"dao\",class=\"DestinationDao\","));
+        }
+    }
+
+    private String export() throws IOException {
+        StringWriter writer = new StringWriter();
+        callMetrics.writePrometheus(writer);
+        return writer.toString();
+    }
+
+    public interface Timetable {
+
+        List<Integer> getFlights(int count);
+
+        int countFlights();
+    }
+
+    // not static, so that the component scan of the application contexts does not pick it up
+    @Service
+    public class TimetableImpl implements Timetable {
+
+        @Override
+        public List<Integer> getFlights(int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Negative count");
+            }
+            return Arrays.asList(new Integer[count]);
+        }
+
+        @Override
+        public int countFlights() {
+            return 0;
+        }
+    }
+}
@@ -2,8 +2,7 @@ package cz.fi.muni.pa165.service;
 
 import cz.fi.muni.pa165.dao.AirplaneDao;
 import cz.fi.muni.pa165.entities.Airplane;
-import cz.fi.muni.pa165.entities.Destination;
-import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.exceptions.AirplaneDataAccessException;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -14,7 +13,6 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -26,8 +24,6 @@ import static org.mockito.Mockito.*;
 public class AirplaneServiceTest extends BaseServiceTest {
     @Mock
     private AirplaneDao airplaneDao;
-    @Mock
-    private FlightService flightService;
 
     @Autowired
     @InjectMocks
@@ -52,7 +48,7 @@ public class AirplaneServiceTest extends BaseServiceTest {
         airplane.setType(airplaneType);
         airplane.setCapacity(airplaneCapacity);
 
-        Mockito.reset(airplaneDao, flightService);
+        Mockito.reset(airplaneDao);
     }
 
     @Test
@@ -72,6 +68,34 @@ public class AirplaneServiceTest extends BaseServiceTest {
         airplaneService.findById(null);
     }
 
+    @Test
+    public void testAddAll() throws Exception {
+        airplaneService.addAll(Collections.singletonList(airplane));
+
+        verify(airplaneDao).addAll(Collections.singletonList(airplane));
+    }
+
+    @Test(expectedExceptions = {AirplaneDataAccessException.class})
+    public void testAddAll_exceptionHandling() throws Exception {
+        doThrow(new NullPointerException()).when(airplaneDao).addAll(null);
+
+        airplaneService.addAll(null);
+    }
+
+    @Test
+    public void testGetReference() throws Exception {
+        when(airplaneDao.getReference(1L)).thenReturn(airplane);
+
+        Assert.assertSame(airplaneService.getReference(1L), airplane);
+    }
+
+    @Test(expectedExceptions = {AirplaneDataAccessException.class})
+    public void testGetReference_exceptionHandling() throws Exception {
+        doThrow(new NullPointerException()).when(airplaneDao).getReference(null);
+
+        airplaneService.getReference(null);
+    }
+
     @Test
     public void testDeleteAirplane() throws Exception {
         airplaneService.deleteAirplane(airplane);
@@ -124,6 +148,38 @@ public class AirplaneServiceTest extends BaseServiceTest {
         verify(airplaneDao).findAll();
     }
 
+    @Test
+    public void testFindPage() throws Exception {
+        when(airplaneDao.findPageAfter(airplaneId, 10)).thenReturn(Collections.singletonList(airplane));
+
+        List<Airplane> returnedAirplanes = airplaneService.findPage(airplaneId, null, 10);
+
+        Assert.assertEquals(returnedAirplanes, Collections.singletonList(airplane));
+        verify(airplaneDao).findPageAfter(airplaneId, 10);
+    }
+
+    @Test
+    public void testFindPage_before() throws Exception {
+        when(airplaneDao.findPageBefore(airplaneId, 10)).thenReturn(Collections.singletonList(airplane));
+
+        List<Airplane> returnedAirplanes = airplaneService.findPage(null, airplaneId, 10);
+
+        Assert.assertEquals(returnedAirplanes, Collections.singletonList(airplane));
+        verify(airplaneDao).findPageBefore(airplaneId, 10);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testFindPage_bothCursors() throws Exception {
+        airplaneService.findPage(airplaneId, airplaneId, 10);
+    }
+
+    @Test(expectedExceptions = {DataAccessException.class})
+    public void testFindPage_exceptionHandling() throws Exception {
+        doThrow(new IllegalArgumentException()).when(airplaneDao).findPageAfter(null, 0);
+
+        airplaneService.findPage(null, null, 0);
+    }
+
     @Test
     public void testFindByName() throws Exception {
         when(airplaneDao.findByName(airplaneName)).thenReturn(Collections.singletonList(airplane));
@@ -195,173 +251,53 @@ public class AirplaneServiceTest extends BaseServiceTest {
     @Test
     public void testFindByUsedAfterDateTime() throws Exception {
         LocalDateTime testTime = LocalDateTime.now();
-
-        Airplane airplane2 = new Airplane();
-        airplane2.setId(3L);
-        airplane2.setName("AirBus");
-        airplane2.setType("Tryskac");
-        airplane2.setCapacity(5);
-
-        Flight flight1 = new Flight();
-        flight1.setId(1L);
-        flight1.setDepartureLocation(new Destination("PK", "PKCity"));
-        flight1.setArrivalLocation(new Destination("LK", "LKCity"));
-        flight1.setDepartureTime(testTime.plusDays(1));
-        flight1.setArrivalTime(testTime.plusDays(1).plusHours(1));
-        flight1.setAirplane(airplane);
-
-        List<Airplane> testedAirplanes = Arrays.asList(airplane, airplane2);
-        List<Airplane> expectedAirplanes = Arrays.asList(airplane);
-
-
-        when(flightService.getFlightsSince(testTime)).thenReturn(Arrays.asList(flight1));
-        when(airplaneDao.findAll()).thenReturn(testedAirplanes);
+        when(airplaneDao.findUsedAfter(testTime)).thenReturn(Collections.singletonList(airplane));
 
         List<Airplane> returnedAirplanes = airplaneService.findByUsedAfterDateTime(testTime);
 
-        Assert.assertEquals(returnedAirplanes, expectedAirplanes);
+        Assert.assertEquals(returnedAirplanes, Collections.singletonList(airplane));
+        verify(airplaneDao, never()).findAll();
     }
 
-    @Test
-    public void testFindByUsedAfterDateTime_noFlights() throws Exception {
-        LocalDateTime testTime = LocalDateTime.now();
-
-        Airplane airplane2 = new Airplane();
-        airplane2.setId(3L);
-        airplane2.setName("AirBus");
-        airplane2.setType("Tryskac");
-        airplane2.setCapacity(5);
-
-        List<Airplane> testedAirplanes = Arrays.asList(airplane, airplane2);
-
-        when(flightService.getFlightsSince(testTime)).thenReturn(Collections.emptyList());
-        when(airplaneDao.findAll()).thenReturn(testedAirplanes);
-
-        List<Airplane> returnedAirplanes = airplaneService.findByUsedAfterDateTime(testTime);
-
-        Assert.assertEquals(returnedAirplanes, Collections.emptyList());
+    @Test(expectedExceptions = AirplaneDataAccessException.class)
+    public void testFindByUsedAfterDateTime_null() throws Exception {
+        doThrow(new NullPointerException()).when(airplaneDao).findUsedAfter(null);
+        airplaneService.findByUsedAfterDateTime(null);
     }
 
     @Test
     public void testFindByFreeAfterDateTime() throws Exception {
         LocalDateTime testTime = LocalDateTime.now();
-
         Airplane airplane2 = new Airplane();
         airplane2.setId(3L);
         airplane2.setName("AirBus");
         airplane2.setType("Tryskac");
         airplane2.setCapacity(5);
-
-        Flight flight1 = new Flight();
-        flight1.setId(1L);
-        flight1.setDepartureLocation(new Destination("PK", "PKCity"));
-        flight1.setArrivalLocation(new Destination("LK", "LKCity"));
-        flight1.setDepartureTime(testTime.plusDays(1));
-        flight1.setArrivalTime(testTime.plusDays(1).plusHours(1));
-        flight1.setAirplane(airplane);
-
-        List<Airplane> testedAirplanes = Arrays.asList(airplane, airplane2);
-        List<Airplane> expectedAirplanes = Arrays.asList(airplane2);
-
-
-        when(flightService.getFlightsSince(testTime)).thenReturn(Arrays.asList(flight1));
-        when(airplaneDao.findAll()).thenReturn(testedAirplanes);
+        when(airplaneDao.findFreeAfter(testTime)).thenReturn(Collections.singletonList(airplane2));
 
         List<Airplane> returnedAirplanes = airplaneService.findByFreeAfterDateTime(testTime);
 
-        Assert.assertEquals(returnedAirplanes, expectedAirplanes);
+        Assert.assertEquals(returnedAirplanes, Collections.singletonList(airplane2));
+        verify(airplaneDao, never()).findAll();
     }
 
-    @Test
-    public void testFindByFreeAfterDateTime_noFlights() throws Exception {
+    @Test(expectedExceptions = AirplaneDataAccessException.class)
+    public void testFindByFreeAfterDateTime_daoFailure() throws Exception {
         LocalDateTime testTime = LocalDateTime.now();
-
-        Airplane airplane2 = new Airplane();
-        airplane2.setId(3L);
-        airplane2.setName("AirBus");
-        airplane2.setType("Tryskac");
-        airplane2.setCapacity(5);
-
-        List<Airplane> testedAirplanes = Arrays.asList(airplane, airplane2);
-
-        when(flightService.getFlightsSince(testTime)).thenReturn(Collections.emptyList());
-        when(airplaneDao.findAll()).thenReturn(testedAirplanes);
-
-        List<Airplane> returnedAirplanes = airplaneService.findByFreeAfterDateTime(testTime);
-
-        Assert.assertEquals(returnedAirplanes, testedAirplanes);
-    }
-
-    @Test
-    public void testFindByFreeAfterDateTime_allAirplanesUsed() throws Exception {
-        LocalDateTime testTime = LocalDateTime.now();
-
-        Airplane airplane2 = new Airplane();
-        airplane2.setId(3L);
-        airplane2.setName("AirBus");
-        airplane2.setType("Tryskac");
-        airplane2.setCapacity(5);
-
-        Flight flight1 = new Flight();
-        flight1.setId(1L);
-        flight1.setDepartureLocation(new Destination("PK", "PKCity"));
-        flight1.setArrivalLocation(new Destination("LK", "LKCity"));
-        flight1.setDepartureTime(testTime.plusDays(1));
-        flight1.setArrivalTime(testTime.plusDays(1).plusHours(1));
-        flight1.setAirplane(airplane);
-
-        Flight flight2 = new Flight();
-        flight2.setId(2L);
-        flight2.setDepartureLocation(new Destination("MK", "MKCity"));
-        flight2.setArrivalLocation(new Destination("FK", "FKCity"));
-        flight2.setDepartureTime(testTime.minusMonths(1));
-        flight2.setArrivalTime(testTime.minusMonths(1).plusHours(1));
-        flight2.setAirplane(airplane2);
-
-        List<Airplane> testedAirplanes = Arrays.asList(airplane, airplane2);
-
-        when(flightService.getFlightsSince(testTime)).thenReturn(Arrays.asList(flight1, flight2));
-        when(airplaneDao.findAll()).thenReturn(testedAirplanes);
-
-        List<Airplane> returnedAirplanes = airplaneService.findByFreeAfterDateTime(testTime);
-
-        Assert.assertEquals(returnedAirplanes, Collections.emptyList());
+        doThrow(new IllegalStateException()).when(airplaneDao).findFreeAfter(testTime);
+        airplaneService.findByFreeAfterDateTime(testTime);
     }
 
     @Test
     public void testFindFreeAirplanesInTimeRange() throws Exception {
         LocalDateTime testTime = LocalDateTime.now();
-
-        Airplane airplane2 = new Airplane();
-        airplane2.setId(3L);
-        airplane2.setName("AirBus");
-        airplane2.setType("Tryskac");
-        airplane2.setCapacity(5);
-
-        Flight flight1 = new Flight();
-        flight1.setId(1L);
-        flight1.setDepartureLocation(new Destination("PK", "PKCity"));
-        flight1.setArrivalLocation(new Destination("LK", "LKCity"));
-        flight1.setDepartureTime(testTime.plusDays(1));
-        flight1.setArrivalTime(testTime.plusDays(1).plusHours(1));
-        flight1.setAirplane(airplane);
-
-        Flight flight2 = new Flight();
-        flight2.setId(2L);
-        flight2.setDepartureLocation(new Destination("MK", "MKCity"));
-        flight2.setArrivalLocation(new Destination("FK", "FKCity"));
-        flight2.setDepartureTime(testTime.minusMonths(1));
-        flight2.setArrivalTime(testTime.minusMonths(1).plusHours(1));
-        flight2.setAirplane(airplane2);
-
-        List<Airplane> testedAirplanes = Arrays.asList(airplane, airplane2);
-        when(flightService.getFlightsInTimeRange(testTime, testTime.plusDays(2))).thenReturn(Arrays.asList(flight1));
-        when(airplaneDao.findAll()).thenReturn(testedAirplanes);
+        when(airplaneDao.findFreeInTimeRange(testTime, testTime.plusDays(2)))
+                .thenReturn(Collections.singletonList(airplane));
 
         List<Airplane> result = airplaneService.findFreeAirplanesInTimeRange(testTime, testTime.plusDays(2));
 
-        Assert.assertEquals(result.size(), 1);
-        Assert.assertEquals(result.get(0), airplane2);
+        Assert.assertEquals(result, Collections.singletonList(airplane));
+        verify(airplaneDao, never()).findAll();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package cz.fi.muni.pa165.service;
+
+import cz.fi.muni.pa165.service.impl.CollectionVersionsImpl;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * @author Robert Duriancik
+ */
+public class CollectionVersionsTest extends BaseServiceTest {
+
+    private CollectionVersions collectionVersions;
+
+    @BeforeMethod
+    public void createVersions() {
+        collectionVersions = new CollectionVersionsImpl();
+    }
+
+    @Test
+    public void changedIncreasesVersionOnCommit() {
+        collectionVersions.changed(VersionedCollection.FLIGHTS);
+        Assert.assertEquals(collectionVersions.getVersion(VersionedCollection.FLIGHTS), 0);
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        Assert.assertEquals(collectionVersions.getVersion(VersionedCollection.FLIGHTS), 1);
+    }
+
+    @Test
+    public void changedKeepsVersionOnRollback() {
+        collectionVersions.changed(VersionedCollection.FLIGHTS);
+
+        TestTransaction.end();
+        Assert.assertEquals(collectionVersions.getVersion(VersionedCollection.FLIGHTS), 0);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void tagChangesWithItsCollectionsOnly() {
+        String flightsTag = collectionVersions.getTag(VersionedCollection.FLIGHTS, VersionedCollection.STEWARDS);
+        String airplanesTag = collectionVersions.getTag(VersionedCollection.AIRPLANES);
+
+        collectionVersions.changed(VersionedCollection.STEWARDS);
+
+        Assert.assertEquals(collectionVersions.getVersion(VersionedCollection.STEWARDS), 1);
+        Assert.assertNotEquals(collectionVersions.getTag(VersionedCollection.FLIGHTS, VersionedCollection.STEWARDS),
+                flightsTag);
+        Assert.assertEquals(collectionVersions.getTag(VersionedCollection.AIRPLANES), airplanesTag);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void lastModifiedIsTheLatestChange() {
+        long start = collectionVersions.getLastModified(VersionedCollection.AIRPLANES);
+        Assert.assertTrue(start <= System.currentTimeMillis());
+
+        collectionVersions.changed(VersionedCollection.FLIGHTS);
+        long changed = collectionVersions.getLastModified(VersionedCollection.FLIGHTS);
+
+        Assert.assertTrue(changed >= start);
+        Assert.assertEquals(collectionVersions.getLastModified(VersionedCollection.AIRPLANES), start);
+        Assert.assertEquals(
+                collectionVersions.getLastModified(VersionedCollection.AIRPLANES, VersionedCollection.FLIGHTS), changed);
+    }
+
+    @Test
+    public void tagsDifferBetweenStarts() {
+        Assert.assertNotEquals(new CollectionVersionsImpl().getTag(VersionedCollection.FLIGHTS),
+                collectionVersions.getTag(VersionedCollection.FLIGHTS));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void changedNull() {
+        collectionVersions.changed(null);
+    }
+}
@@ -18,6 +18,7 @@ import java.util.List;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -85,6 +86,31 @@ public class DestinationServiceTest extends BaseServiceTest  {
         destinationService.removeDestination(null);
     }
 
+    @Test
+    public void addAllTest(){
+        destinationService.addAll(Arrays.asList(destinationA, destinationB));
+        verify(destinationDao).addAll(Arrays.asList(destinationA, destinationB));
+    }
+
+    @Test (expectedExceptions = DestinationDataAccessException.class)
+    public void addAllInvalidTest(){
+        doThrow(new IllegalArgumentException())
+                .when(destinationDao).addAll(Collections.singletonList(destinationA));
+        destinationService.addAll(Collections.singletonList(destinationA));
+    }
+
+    @Test
+    public void getDestinationReferenceTest(){
+        when(destinationDao.getDestinationReference(1L)).thenReturn(destinationA);
+        Assert.assertSame(destinationService.getDestinationReference(1L), destinationA);
+    }
+
+    @Test (expectedExceptions = DestinationDataAccessException.class)
+    public void getDestinationReferenceNullTest(){
+        doThrow(new NullPointerException()).when(destinationDao).getDestinationReference(null);
+        destinationService.getDestinationReference(null);
+    }
+
     @Test (expectedExceptions = DestinationDataAccessException.class)
     public void createDestinationCountryNullTest(){
         doThrow(new NullPointerException())
@@ -189,21 +215,51 @@ public class DestinationServiceTest extends BaseServiceTest  {
         Assert.assertEquals(allDestinations.size(), 0);
     }
 
+    @Test
+    public void getDestinationsPageTest(){
+        when(destinationDao.getDestinationsPageAfter(DESTINATION_A_ID, 2))
+                .thenReturn(Collections.singletonList(destinationB));
+        List<Destination> page = destinationService.getDestinationsPage(DESTINATION_A_ID, null, 2);
+
+        Assert.assertEquals(page, Collections.singletonList(destinationB));
+    }
+
+    @Test
+    public void getDestinationsPageBeforeTest(){
+        when(destinationDao.getDestinationsPageBefore(DESTINATION_B_ID, 2))
+                .thenReturn(Collections.singletonList(destinationA));
+        List<Destination> page = destinationService.getDestinationsPage(null, DESTINATION_B_ID, 2);
+
+        Assert.assertEquals(page, Collections.singletonList(destinationA));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void getDestinationsPageBothCursorsTest(){
+        destinationService.getDestinationsPage(DESTINATION_A_ID, DESTINATION_B_ID, 2);
+    }
+
+    @Test(expectedExceptions = DestinationDataAccessException.class)
+    public void getDestinationsPageDaoFailureTest(){
+        doThrow(new IllegalArgumentException()).when(destinationDao).getDestinationsPageAfter(UNSIGNED_ID, 0);
+        destinationService.getDestinationsPage(UNSIGNED_ID, null, 0);
+    }
+
     @Test
     public void getAllIncomingFlightsTest(){
-        when(flightDao.getAllFlights())
-                .thenReturn(Arrays.asList(flightA, flightB, flightC));
+        when(flightDao.getIncomingFlights(DESTINATION_A_ID))
+                .thenReturn(Arrays.asList(flightA, flightB));
         List<Flight> allIncomingFlights = destinationService.getAllIncomingFlights(destinationA);
 
         Assert.assertNotNull(allIncomingFlights);
         Assert.assertEquals(allIncomingFlights.size(), 2);
 
-        allIncomingFlights.containsAll(Arrays.asList(flightA, flightB));
+        Assert.assertTrue(allIncomingFlights.containsAll(Arrays.asList(flightA, flightB)));
+        verify(flightDao, never()).getAllFlights();
     }
 
     @Test
     public void getAllIncomingFlightsNoFlightsTest(){
-        when(flightDao.getAllFlights())
+        when(flightDao.getIncomingFlights(DESTINATION_A_ID))
                 .thenReturn(Collections.emptyList());
         List<Flight> allIncomingFlights = destinationService.getAllIncomingFlights(destinationA);
 
@@ -211,21 +267,40 @@ public class DestinationServiceTest extends BaseServiceTest  {
         Assert.assertEquals(allIncomingFlights.size(), 0);
     }
 
+    @Test
+    public void getAllIncomingFlightsUnsavedDestinationTest(){
+        Destination unsaved = new Destination();
+        unsaved.setCountry(DESTINATION_AB_COUNTRY);
+        unsaved.setCity(DESTINATION_A_CITY);
+
+        Assert.assertTrue(destinationService.getAllIncomingFlights(unsaved).isEmpty());
+        Assert.assertTrue(destinationService.getAllIncomingFlights(nullDestination).isEmpty());
+    }
+
+    @Test(expectedExceptions = DestinationDataAccessException.class)
+    public void getAllIncomingFlightsDaoFailureTest(){
+        Destination failing = new Destination();
+        failing.setId(UNSIGNED_ID);
+        doThrow(new IllegalStateException()).when(flightDao).getIncomingFlights(UNSIGNED_ID);
+        destinationService.getAllIncomingFlights(failing);
+    }
+
     @Test
     public void getAllOutgoingFlightsTest(){
-        when(flightDao.getAllFlights())
-                .thenReturn(Arrays.asList(flightA, flightB, flightC));
+        when(flightDao.getOutgoingFlights(DESTINATION_B_ID))
+                .thenReturn(Arrays.asList(flightA, flightB));
         List<Flight> allOutgoingFlights = destinationService.getAllOutgoingFlights(destinationB);
 
         Assert.assertNotNull(allOutgoingFlights);
         Assert.assertEquals(allOutgoingFlights.size(), 2);
 
         Assert.assertTrue(allOutgoingFlights.containsAll(Arrays.asList(flightA, flightB)));
+        verify(flightDao, never()).getAllFlights();
     }
 
     @Test
     public void getAllOutgoingFlightsNoFlightsTest(){
-        when(flightDao.getAllFlights())
+        when(flightDao.getOutgoingFlights(DESTINATION_A_ID))
                 .thenReturn(Collections.emptyList());
         List<Flight> allOutgoingFlights = destinationService.getAllOutgoingFlights(destinationA);
 
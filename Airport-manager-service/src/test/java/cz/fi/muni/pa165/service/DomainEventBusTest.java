@@ -0,0 +1,225 @@
+package cz.fi.muni.pa165.service;
+
+import cz.fi.muni.pa165.service.events.AirplaneChanged;
+import cz.fi.muni.pa165.service.events.DomainEvent;
+import cz.fi.muni.pa165.service.events.DomainEventListener;
+import cz.fi.muni.pa165.service.events.EntityChanged;
+import cz.fi.muni.pa165.service.events.FlightDeleted;
+import cz.fi.muni.pa165.service.events.FlightEvent;
+import cz.fi.muni.pa165.service.impl.DomainEventBusImpl;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Robert Duriancik
+ */
+public class DomainEventBusTest extends BaseServiceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2017, 12, 24, 12, 0);
+
+    private DomainEventBusImpl domainEventBus;
+
+    private BlockingQueue<List<FlightEvent>> batches;
+
+    @BeforeMethod
+    public void createBus() {
+        domainEventBus = new DomainEventBusImpl(2, 3, 2);
+        batches = new LinkedBlockingQueue<>();
+    }
+
+    @AfterMethod
+    public void shutdownBus() {
+        domainEventBus.shutdown();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void eventIsDispatchedWithoutTransaction() throws InterruptedException {
+        domainEventBus.subscribe("test", FlightEvent.class, batches::add);
+        domainEventBus.publish(new FlightDeleted(NOON, 1L));
+
+        Assert.assertEquals(flightIds(nextBatch()), list(1L));
+    }
+
+    @Test
+    public void eventsAreDispatchedOnCommit() throws InterruptedException {
+        domainEventBus.subscribe("test", FlightEvent.class, batches::add);
+        domainEventBus.publish(new FlightDeleted(NOON, 1L));
+        domainEventBus.publish(new FlightDeleted(NOON, 2L));
+        Assert.assertNull(batches.poll(100, TimeUnit.MILLISECONDS));
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        Assert.assertEquals(flightIds(nextBatch()), list(1L, 2L));
+    }
+
+    @Test
+    public void eventsAreDroppedOnRollback() throws InterruptedException {
+        domainEventBus.subscribe("test", FlightEvent.class, batches::add);
+        domainEventBus.publish(new FlightDeleted(NOON, 1L));
+
+        TestTransaction.end();
+        Assert.assertNull(batches.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void listenerGetsItsTypeOnly() throws InterruptedException {
+        BlockingQueue<List<EntityChanged>> entityBatches = new LinkedBlockingQueue<>();
+        domainEventBus.subscribe("flights", FlightEvent.class, batches::add);
+        domainEventBus.subscribe("entities", EntityChanged.class, entityBatches::add);
+
+        domainEventBus.publish(new AirplaneChanged(NOON, 3L, EntityChanged.Change.UPDATED));
+        domainEventBus.publish(new FlightDeleted(NOON, 1L));
+
+        Assert.assertEquals(flightIds(nextBatch()), list(1L));
+        List<EntityChanged> entityBatch = entityBatches.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(entityBatch);
+        Assert.assertEquals(entityBatch.size(), 1);
+        Assert.assertEquals(entityBatch.get(0).getEntityId(), Long.valueOf(3L));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void slowListenerGetsBatchesInOrderAndIsToldOfDrops() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong dropped = new AtomicLong();
+        domainEventBus.subscribe("slow", FlightEvent.class, new DomainEventListener<FlightEvent>() {
+            @Override
+            public void onEvents(List<FlightEvent> events) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                batches.add(events);
+            }
+
+            @Override
+            public void onEventsDropped(long count) {
+                dropped.addAndGet(count);
+            }
+        });
+
+        domainEventBus.publish(new FlightDeleted(NOON, 1L));
+        // the first event is taken by the blocked listener, three more fill the queue and the last is dropped
+        awaitQueued("slow", 0);
+        for (long id = 2; id <= 5; id++) {
+            domainEventBus.publish(new FlightDeleted(NOON, id));
+        }
+        release.countDown();
+
+        Assert.assertEquals(flightIds(nextBatch()), list(1L));
+        Assert.assertEquals(flightIds(nextBatch()), list(2L, 3L));
+        Assert.assertEquals(flightIds(nextBatch()), list(4L));
+        Assert.assertEquals(dropped.get(), 1);
+        Assert.assertTrue(metrics().contains("airport_events_dropped_total{listener=\"slow\"} 1\n"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void failingListenerKeepsReceiving() throws InterruptedException {
+        domainEventBus.subscribe("failing", FlightEvent.class, events -> {
+            batches.add(events);
+            throw new IllegalStateException();
+        });
+
+        domainEventBus.publish(new FlightDeleted(NOON, 1L));
+        Assert.assertEquals(flightIds(nextBatch()), list(1L));
+        domainEventBus.publish(new FlightDeleted(NOON, 2L));
+        Assert.assertEquals(flightIds(nextBatch()), list(2L));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void unsubscribedListenerGetsNoEvents() throws InterruptedException {
+        DomainEventListener<FlightEvent> listener = batches::add;
+        domainEventBus.subscribe("test", FlightEvent.class, listener);
+        domainEventBus.unsubscribe(listener);
+
+        domainEventBus.publish(new FlightDeleted(NOON, 1L));
+        Assert.assertNull(batches.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void metricsCountDeliveredEvents() throws InterruptedException {
+        domainEventBus.subscribe("test", FlightEvent.class, batches::add);
+        domainEventBus.publish(new FlightDeleted(NOON, 1L));
+        nextBatch();
+
+        // the counters are updated once the listener returns
+        String metrics = metrics();
+        for (int i = 0; i < 50 && !metrics.contains("airport_events_delivered_total{listener=\"test\"} 1\n"); i++) {
+            Thread.sleep(10);
+            metrics = metrics();
+        }
+        Assert.assertTrue(metrics.contains("airport_events_published_total 1\n"));
+        Assert.assertTrue(metrics.contains("airport_events_delivered_total{listener=\"test\"} 1\n"));
+        Assert.assertTrue(metrics.contains("airport_events_batches_total{listener=\"test\"} 1\n"));
+        Assert.assertTrue(metrics.contains("airport_events_queued{listener=\"test\"} 0\n"));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void publishNull() {
+        domainEventBus.publish(null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void zeroQueueCapacity() {
+        new DomainEventBusImpl(1, 0, 1);
+    }
+
+    private List<FlightEvent> nextBatch() throws InterruptedException {
+        List<FlightEvent> batch = batches.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(batch, "No events delivered");
+        return batch;
+    }
+
+    private void awaitQueued(String listener, int queued) throws InterruptedException {
+        String line = "airport_events_queued{listener=\"" + listener + "\"} " + queued + "\n";
+        for (int i = 0; i < 500 && !metrics().contains(line); i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(metrics().contains(line));
+    }
+
+    private String metrics() {
+        StringWriter writer = new StringWriter();
+        try {
+            domainEventBus.writePrometheus(writer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    private static List<Long> flightIds(List<? extends DomainEvent> events) {
+        List<Long> ids = new ArrayList<>();
+        for (DomainEvent event : events) {
+            ids.add(((FlightEvent) event).getFlightId());
+        }
+        return ids;
+    }
+
+    private static List<Long> list(Long... ids) {
+        return Arrays.asList(ids);
+    }
+}
@@ -0,0 +1,222 @@
+package cz.fi.muni.pa165.service;
+
+import cz.fi.muni.pa165.dao.FlightTimeSlot;
+import cz.fi.muni.pa165.service.events.FlightCreated;
+import cz.fi.muni.pa165.service.events.FlightDeleted;
+import cz.fi.muni.pa165.service.events.FlightUpdated;
+import cz.fi.muni.pa165.service.events.StewardAssigned;
+import cz.fi.muni.pa165.service.events.FlightEvent;
+import cz.fi.muni.pa165.service.impl.DomainEventBusImpl;
+import cz.fi.muni.pa165.service.impl.FlightBoardImpl;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Robert Duriancik
+ */
+public class FlightBoardTest extends BaseServiceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2017, 12, 24, 12, 0);
+
+    @Mock
+    private FlightTimeIndex flightTimeIndex;
+
+    @Mock
+    private DomainEventBus domainEventBus;
+
+    @Mock
+    private Consumer<FlightBoardEvent> listener;
+
+    @InjectMocks
+    private FlightBoardImpl flightBoard;
+
+    private BlockingQueue<FlightBoardEvent> events;
+
+    @BeforeMethod
+    public void createBoard() {
+        flightBoard = new FlightBoardImpl(Clock.fixed(NOON.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        MockitoAnnotations.initMocks(this);
+        events = new LinkedBlockingQueue<>();
+    }
+
+    @AfterMethod
+    public void shutdownBoard() {
+        flightBoard.shutdown();
+    }
+
+    @Test
+    public void changesArePublishedInOrder() throws InterruptedException {
+        flightBoard.subscribe(events::add);
+        flightBoard.onEvents(Arrays.asList(
+                new FlightCreated(NOON, 1L, NOON, NOON.plusHours(1)),
+                new FlightUpdated(NOON.plusMinutes(1), 1L, NOON, NOON.plusHours(2))));
+        flightBoard.onEvents(Collections.singletonList(new FlightDeleted(NOON.plusMinutes(2), 1L)));
+
+        FlightBoardEvent created = nextEvent();
+        assertEvent(created, 1, FlightBoardEvent.Type.CREATED, 1L, NOON);
+        Assert.assertEquals(created.getDepartureTime(), NOON);
+        Assert.assertEquals(created.getArrivalTime(), NOON.plusHours(1));
+        FlightBoardEvent changed = nextEvent();
+        assertEvent(changed, 2, FlightBoardEvent.Type.CHANGED, 1L, NOON.plusMinutes(1));
+        Assert.assertEquals(changed.getArrivalTime(), NOON.plusHours(2));
+        FlightBoardEvent deleted = nextEvent();
+        assertEvent(deleted, 3, FlightBoardEvent.Type.DELETED, 1L, NOON.plusMinutes(2));
+        Assert.assertNull(deleted.getDepartureTime());
+        Assert.assertEquals(flightBoard.getSequence(), 3);
+    }
+
+    @Test
+    public void stewardAssignmentIsNotPublished() throws InterruptedException {
+        flightBoard.subscribe(events::add);
+        flightBoard.onEvents(Arrays.asList(
+                new StewardAssigned(NOON, 1L, 5L),
+                new FlightDeleted(NOON, 2L)));
+
+        assertEvent(nextEvent(), 1, FlightBoardEvent.Type.DELETED, 2L, NOON);
+    }
+
+    @Test
+    public void changesWithoutListenersAreDropped() throws InterruptedException {
+        flightBoard.onEvents(Collections.singletonList(new FlightDeleted(NOON, 1L)));
+        flightBoard.subscribe(events::add);
+        flightBoard.onEvents(Collections.singletonList(new FlightUpdated(NOON, 2L, NOON, NOON.plusHours(1))));
+
+        assertEvent(nextEvent(), 1, FlightBoardEvent.Type.CHANGED, 2L, NOON);
+    }
+
+    @Test
+    public void droppedChangesPublishReset() throws InterruptedException {
+        // the changes of a transaction are queued at once, so all but the first overflow the queue
+        DomainEventBusImpl bus = new DomainEventBusImpl(1, 1, 10);
+        try {
+            bus.subscribe("flight-board", FlightEvent.class, flightBoard);
+            flightBoard.subscribe(events::add);
+            bus.publish(new FlightDeleted(NOON, 1L));
+            bus.publish(new FlightDeleted(NOON, 2L));
+            bus.publish(new FlightDeleted(NOON, 3L));
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+
+            assertEvent(nextEvent(), 1, FlightBoardEvent.Type.RESET, null, NOON);
+            assertEvent(nextEvent(), 2, FlightBoardEvent.Type.DELETED, 1L, NOON);
+        } finally {
+            bus.shutdown();
+        }
+    }
+
+    @Test
+    public void droppedChangesWithoutListenersAreIgnored() throws InterruptedException {
+        flightBoard.onEventsDropped(5);
+        flightBoard.subscribe(events::add);
+        flightBoard.onEvents(Collections.singletonList(new FlightDeleted(NOON, 1L)));
+
+        assertEvent(nextEvent(), 1, FlightBoardEvent.Type.DELETED, 1L, NOON);
+    }
+
+    @Test
+    public void advancePublishesTransitionsInTimeOrder() throws InterruptedException {
+        when(flightTimeIndex.findDepartures(NOON, NOON.plusHours(1))).thenReturn(Collections.singletonList(
+                new FlightTimeSlot(2L, NOON.plusMinutes(30), NOON.plusHours(2))));
+        when(flightTimeIndex.findArrivals(NOON, NOON.plusHours(1))).thenReturn(Collections.singletonList(
+                new FlightTimeSlot(1L, NOON.minusHours(1), NOON.plusMinutes(10))));
+
+        flightBoard.subscribe(events::add);
+        flightBoard.advanceTo(NOON.plusHours(1));
+
+        assertEvent(nextEvent(), 1, FlightBoardEvent.Type.ARRIVED, 1L, NOON.plusMinutes(10));
+        assertEvent(nextEvent(), 2, FlightBoardEvent.Type.DEPARTED, 2L, NOON.plusMinutes(30));
+    }
+
+    @Test
+    public void advanceContinuesFromPreviousTime() throws InterruptedException {
+        when(flightTimeIndex.findDepartures(any(), any())).thenReturn(Collections.emptyList());
+        when(flightTimeIndex.findArrivals(any(), any())).thenReturn(Collections.emptyList());
+
+        flightBoard.subscribe(events::add);
+        flightBoard.advanceTo(NOON.plusMinutes(1));
+        flightBoard.advanceTo(NOON.minusMinutes(1));
+        flightBoard.advanceTo(NOON.plusMinutes(2));
+        awaitBoard();
+
+        verify(flightTimeIndex).findDepartures(NOON, NOON.plusMinutes(1));
+        verify(flightTimeIndex).findDepartures(NOON.plusMinutes(1), NOON.plusMinutes(2));
+        verify(flightTimeIndex, times(2)).findDepartures(any(), any());
+        verify(flightTimeIndex, times(2)).findArrivals(any(), any());
+    }
+
+    @Test
+    public void advanceWithoutListenersDoesNotQueryIndex() throws InterruptedException {
+        flightBoard.advanceTo(NOON.plusHours(1));
+        flightBoard.subscribe(events::add);
+        awaitBoard();
+
+        verifyZeroInteractions(flightTimeIndex);
+    }
+
+    @Test
+    public void failingListenerDoesNotStopOthers() throws InterruptedException {
+        flightBoard.subscribe(event -> {
+            throw new IllegalStateException();
+        });
+        flightBoard.subscribe(events::add);
+        flightBoard.onEvents(Collections.singletonList(new FlightDeleted(NOON, 1L)));
+
+        assertEvent(nextEvent(), 1, FlightBoardEvent.Type.DELETED, 1L, NOON);
+    }
+
+    @Test
+    public void unsubscribedListenerGetsNoEvents() throws InterruptedException {
+        flightBoard.subscribe(listener);
+        flightBoard.subscribe(events::add);
+        flightBoard.unsubscribe(listener);
+        flightBoard.onEvents(Collections.singletonList(new FlightDeleted(NOON, 1L)));
+
+        nextEvent();
+        verifyZeroInteractions(listener);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void subscribeNull() {
+        flightBoard.subscribe(null);
+    }
+
+    private FlightBoardEvent nextEvent() throws InterruptedException {
+        FlightBoardEvent event = events.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(event, "No event published");
+        return event;
+    }
+
+    /**
+     * Waits until the board processes the submitted work, marked by a change of a flight.
+     */
+    private void awaitBoard() throws InterruptedException {
+        flightBoard.onEvents(Collections.singletonList(new FlightDeleted(NOON, Long.MAX_VALUE)));
+        Assert.assertEquals(nextEvent().getFlightId(), Long.valueOf(Long.MAX_VALUE));
+    }
+
+    private static void assertEvent(FlightBoardEvent event, long sequence, FlightBoardEvent.Type type,
+                                    Long flightId, LocalDateTime time) {
+        Assert.assertEquals(event.getSequence(), sequence);
+        Assert.assertEquals(event.getType(), type);
+        Assert.assertEquals(event.getFlightId(), flightId);
+        Assert.assertEquals(event.getTime(), time);
+    }
+}
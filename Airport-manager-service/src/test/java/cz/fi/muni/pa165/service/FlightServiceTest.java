@@ -5,23 +5,39 @@ import cz.fi.muni.pa165.entities.Airplane;
 import cz.fi.muni.pa165.entities.Destination;
 import cz.fi.muni.pa165.entities.Flight;
 import cz.fi.muni.pa165.entities.Steward;
+import cz.fi.muni.pa165.exceptions.FlightDataAccessException;
+import cz.fi.muni.pa165.service.events.DomainEvent;
+import cz.fi.muni.pa165.service.events.FlightCreated;
+import cz.fi.muni.pa165.service.events.FlightDeleted;
+import cz.fi.muni.pa165.service.events.FlightUpdated;
+import cz.fi.muni.pa165.service.events.StewardAssigned;
 import cz.fi.muni.pa165.service.impl.FlightServiceImpl;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
 
@@ -37,6 +53,18 @@ public class FlightServiceTest extends BaseServiceTest{
     @Mock
     private FlightDao flightDao;
 
+    @Mock
+    private FlightTimeIndex flightTimeIndex;
+
+    @Mock
+    private StewardRoster stewardRoster;
+
+    @Mock
+    private DomainEventBus domainEventBus;
+
+    @Captor
+    private ArgumentCaptor<Collection<Long>> stewardIds;
+
     @Autowired
     @InjectMocks
     private FlightServiceImpl flightService;
@@ -48,7 +76,7 @@ public class FlightServiceTest extends BaseServiceTest{
 
     @BeforeMethod
     public void resetMock() {
-        Mockito.reset(flightDao);
+        Mockito.reset(flightDao, flightTimeIndex, stewardRoster, domainEventBus);
     }
 
     @Test
@@ -166,6 +194,21 @@ public class FlightServiceTest extends BaseServiceTest{
         Assert.assertTrue(temp == null);
     }
 
+    @Test
+    public void getFlightWithCrewHappyDayScenario() {
+        when(flightDao.getFlightWithCrew(flight.getId())).thenReturn(flight);
+        Flight temp = flightService.getFlightWithCrew(flight.getId());
+        verify(flightDao).getFlightWithCrew(flight.getId());
+
+        Assert.assertEquals(temp, flight);
+    }
+
+    @Test(expectedExceptions = DataAccessException.class)
+    public void getFlightWithCrewNull() {
+        doThrow(new NullPointerException()).when(flightDao).getFlightWithCrew(null);
+        flightService.getFlightWithCrew(null);
+    }
+
     @Test
     public void getAllFlightsHappyScenario() {
         List<Flight> flights = new ArrayList<>();
@@ -181,6 +224,83 @@ public class FlightServiceTest extends BaseServiceTest{
         }
     }
 
+    @Test
+    public void getFlightsPageAfter() {
+        when(flightDao.getFlightsPageAfter(1L, 2)).thenReturn(Arrays.asList(flight, flight2));
+
+        Assert.assertEquals(flightService.getFlightsPage(1L, null, 2), Arrays.asList(flight, flight2));
+        verify(flightDao, never()).getFlightsPageBefore(any(), anyInt());
+    }
+
+    @Test
+    public void getFlightsPageBefore() {
+        when(flightDao.getFlightsPageBefore(3L, 2)).thenReturn(Arrays.asList(flight, flight2));
+
+        Assert.assertEquals(flightService.getFlightsPage(null, 3L, 2), Arrays.asList(flight, flight2));
+        verify(flightDao, never()).getFlightsPageAfter(any(), anyInt());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void getFlightsPageBothCursors() {
+        flightService.getFlightsPage(1L, 3L, 2);
+    }
+
+    @Test(expectedExceptions = FlightDataAccessException.class)
+    public void getFlightsPageDaoFailure() {
+        when(flightDao.getFlightsPageAfter(null, 0)).thenThrow(new IllegalArgumentException());
+
+        flightService.getFlightsPage(null, null, 0);
+    }
+
+    @Test
+    public void scrollAllFlights() {
+        Consumer<Flight> consumer = flight -> { };
+
+        flightService.scrollAllFlights(consumer);
+
+        verify(flightDao).scrollAllFlights(consumer);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void scrollAllFlightsNull() {
+        flightService.scrollAllFlights(null);
+    }
+
+    @Test(expectedExceptions = FlightDataAccessException.class)
+    public void scrollAllFlightsDaoFailure() {
+        Consumer<Flight> consumer = flight -> { };
+        doThrow(new IllegalStateException()).when(flightDao).scrollAllFlights(consumer);
+
+        flightService.scrollAllFlights(consumer);
+    }
+
+    @Test(expectedExceptions = UncheckedIOException.class)
+    public void scrollAllFlightsConsumerFailure() {
+        Consumer<Flight> consumer = flight -> { };
+        doThrow(new UncheckedIOException(new IOException())).when(flightDao).scrollAllFlights(consumer);
+
+        flightService.scrollAllFlights(consumer);
+    }
+
+    @Test
+    public void getFlightsByIds() {
+        List<Long> ids = Arrays.asList(1L, 2L);
+        when(flightDao.getFlightsByIds(ids)).thenReturn(Arrays.asList(flight, flight2));
+
+        Assert.assertEquals(flightService.getFlightsByIds(ids), Arrays.asList(flight, flight2));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void getFlightsByIdsNull() {
+        flightService.getFlightsByIds(null);
+    }
+
+    @Test(expectedExceptions = DataAccessException.class)
+    public void getFlightsByIdsDaoFailure() {
+        doThrow(new IllegalStateException()).when(flightDao).getFlightsByIds(any());
+        flightService.getFlightsByIds(Collections.singletonList(1L));
+    }
+
     @Test
     public void getFlightTimeHappyDayScenario() {
         LocalDateTime time1 = LocalDateTime.of(2000,5,1,6,30);
@@ -215,17 +335,20 @@ public class FlightServiceTest extends BaseServiceTest{
         flights.add(flight);
         flights.add(flight2);
 
-        when(flightDao.getAllFlights()).thenReturn(flights);
-        List<Flight> result = flightService.getFlightsSince(LocalDateTime.of(2000, 3, 1, 10, 30));
-        verify(flightDao).getAllFlights();
+        LocalDateTime since = LocalDateTime.of(2000, 3, 1, 10, 30);
+        when(flightDao.getFlightsSince(since)).thenReturn(flights);
+        List<Flight> result = flightService.getFlightsSince(since);
+        verify(flightDao).getFlightsSince(since);
+        verify(flightDao, never()).getAllFlights();
         Assert.assertTrue(result.size() == 2);
     }
 
     @Test
     public void getFlightsSinceHappyDayScenario2() {
-        when(flightDao.getAllFlights()).thenReturn(new ArrayList<>());
-        List<Flight> result = flightService.getFlightsSince(LocalDateTime.of(2000, 10, 1, 10, 30));
-        verify(flightDao).getAllFlights();
+        LocalDateTime since = LocalDateTime.of(2000, 10, 1, 10, 30);
+        when(flightDao.getFlightsSince(since)).thenReturn(new ArrayList<>());
+        List<Flight> result = flightService.getFlightsSince(since);
+        verify(flightDao).getFlightsSince(since);
         Assert.assertTrue(result.isEmpty());
     }
 
@@ -237,13 +360,23 @@ public class FlightServiceTest extends BaseServiceTest{
     @Test
     public void getCurrentFlights() {
         LocalDateTime current = LocalDateTime.of(2000, 4, 1, 15, 30);
-        when(flightDao.getAllFlights()).thenReturn(Arrays.asList(flight, flight2));
+        Set<Long> ids = Collections.singleton(flight.getId());
+        when(flightTimeIndex.findCurrentFlightIds(current)).thenReturn(ids);
+        when(flightDao.getFlightsByIds(ids)).thenReturn(Collections.singletonList(flight));
 
         List<Flight> result = flightService.getCurrentFlights(current);
 
         Assert.assertEquals(1, result.size());
         Assert.assertEquals(Collections.singletonList(flight), result);
-        verify(flightDao).getAllFlights();
+        verify(flightTimeIndex).findCurrentFlightIds(current);
+        verify(flightDao, never()).getAllFlights();
+    }
+
+    @Test(expectedExceptions = DataAccessException.class)
+    public void getCurrentFlightsDaoFailure() {
+        LocalDateTime current = LocalDateTime.of(2000, 4, 1, 15, 30);
+        doThrow(new IllegalStateException()).when(flightTimeIndex).findCurrentFlightIds(current);
+        flightService.getCurrentFlights(current);
     }
 
     @Test(expectedExceptions = NullPointerException.class)
@@ -293,12 +426,109 @@ public class FlightServiceTest extends BaseServiceTest{
     public void getFlightsInTimeRange() {
         LocalDateTime start = LocalDateTime.of(2000, 4, 1, 10, 30);
         LocalDateTime end = LocalDateTime.of(2000, 4, 20, 10, 30);
-        when(flightDao.getAllFlights()).thenReturn(Arrays.asList(flight, flight2));
+        Set<Long> ids = Collections.singleton(flight.getId());
+        when(flightTimeIndex.findFlightIdsInTimeRange(start, end)).thenReturn(ids);
+        when(flightDao.getFlightsByIds(ids)).thenReturn(Collections.singletonList(flight));
 
         List<Flight> result = flightService.getFlightsInTimeRange(start, end);
 
         Assert.assertEquals(1, result.size());
         Assert.assertEquals(flight, result.get(0));
+        verify(flightTimeIndex).findFlightIdsInTimeRange(start, end);
+        verify(flightDao, never()).getAllFlights();
+    }
+
+    @Test
+    public void addFlightDoesNotUpdateTimeIndexBeforeCommit() {
+        flight.setId(null);
+        flightService.addFlight(flight);
+        verify(flightTimeIndex, never()).put(any(), any(), any());
+        // the bus itself defers the event until the commit
+        FlightCreated event = (FlightCreated) publishedEvent();
+        Assert.assertEquals(event.getFlightId(), flight.getId());
+        Assert.assertEquals(event.getDepartureTime(), flight.getDepartureTime());
+        Assert.assertEquals(event.getArrivalTime(), flight.getArrivalTime());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void addFlightUpdatesTimeIndexWithoutTransaction() {
+        flightService.addFlight(flight);
+        InOrder inOrder = inOrder(flightTimeIndex, domainEventBus);
+        inOrder.verify(flightTimeIndex).put(flight.getId(), flight.getDepartureTime(), flight.getArrivalTime());
+        inOrder.verify(domainEventBus).publish(any(FlightCreated.class));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void addAllUpdatesTimeIndexWithoutTransaction() {
+        flightService.addAll(Collections.singletonList(flight));
+        verify(flightDao).addAll(Collections.singletonList(flight));
+        verify(flightTimeIndex).put(flight.getId(), flight.getDepartureTime(), flight.getArrivalTime());
+        Assert.assertEquals(((FlightCreated) publishedEvent()).getFlightId(), flight.getId());
+    }
+
+    @Test
+    public void addAllDoesNotUpdateTimeIndexBeforeCommit() {
+        flightService.addAll(Collections.singletonList(flight));
+        verify(flightTimeIndex, never()).put(any(), any(), any());
+    }
+
+    @Test(expectedExceptions = FlightDataAccessException.class)
+    public void addAllNull() {
+        doThrow(new NullPointerException()).when(flightDao).addAll(null);
+        flightService.addAll(null);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void updateFlightUpdatesTimeIndex() {
+        flightService.updateFlight(flight);
+        verify(flightTimeIndex).put(flight.getId(), flight.getDepartureTime(), flight.getArrivalTime());
+        Assert.assertEquals(((FlightUpdated) publishedEvent()).getFlightId(), flight.getId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void addStewardEvictsRosters() {
+        Steward steward = new Steward();
+        steward.setId(5L);
+        steward.setSurname("Novotny");
+        steward.setFirstName("Petr");
+
+        flightService.addSteward(flight, steward);
+
+        verify(stewardRoster).evictFlight(eq(flight.getId()), stewardIds.capture());
+        Assert.assertTrue(stewardIds.getValue().contains(5L));
+
+        ArgumentCaptor<DomainEvent> events = ArgumentCaptor.forClass(DomainEvent.class);
+        verify(domainEventBus, times(2)).publish(events.capture());
+        Assert.assertTrue(events.getAllValues().get(0) instanceof FlightUpdated);
+        StewardAssigned assigned = (StewardAssigned) events.getAllValues().get(1);
+        Assert.assertEquals(assigned.getFlightId(), flight.getId());
+        Assert.assertEquals(assigned.getStewardId(), Long.valueOf(5L));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void deleteFlightUpdatesTimeIndex() {
+        flightService.deleteFlight(flight);
+        verify(flightTimeIndex).remove(flight.getId());
+        verify(stewardRoster).evictFlight(eq(flight.getId()), any());
+        Assert.assertEquals(((FlightDeleted) publishedEvent()).getFlightId(), flight.getId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void failedUpdateDoesNotTouchTimeIndex() {
+        doThrow(new IllegalArgumentException()).when(flightDao).updateFlight(flight);
+        try {
+            flightService.updateFlight(flight);
+            Assert.fail("Expected DataAccessException");
+        } catch (DataAccessException e) {
+            verify(flightTimeIndex, never()).put(any(), any(), any());
+            verifyZeroInteractions(domainEventBus);
+        }
     }
 
     @Test(expectedExceptions = {NullPointerException.class})
@@ -306,6 +536,12 @@ public class FlightServiceTest extends BaseServiceTest{
         flightService.getFlightsInTimeRange(null, null);
     }
 
+    private DomainEvent publishedEvent() {
+        ArgumentCaptor<DomainEvent> event = ArgumentCaptor.forClass(DomainEvent.class);
+        verify(domainEventBus).publish(event.capture());
+        return event.getValue();
+    }
+
     private void createFlight() {
 
         LocalDateTime time1 = LocalDateTime.of(2000, 4, 1, 10, 30);
@@ -0,0 +1,286 @@
+package cz.fi.muni.pa165.service;
+
+import cz.fi.muni.pa165.dao.FlightDao;
+import cz.fi.muni.pa165.dao.FlightTimeSlot;
+import cz.fi.muni.pa165.service.impl.FlightTimeIndexImpl;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Robert Duriancik
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class FlightTimeIndexTest extends BaseServiceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2017, 12, 24, 12, 0);
+
+    @Mock
+    private FlightDao flightDao;
+
+    @InjectMocks
+    private FlightTimeIndexImpl flightTimeIndex;
+
+    @BeforeMethod
+    public void createIndex() {
+        flightTimeIndex = new FlightTimeIndexImpl();
+        MockitoAnnotations.initMocks(this);
+        when(flightDao.getAllFlightTimeSlots()).thenReturn(Arrays.asList(
+                new FlightTimeSlot(1L, NOON.minusHours(2), NOON.plusHours(1)),
+                new FlightTimeSlot(2L, NOON.plusHours(1), NOON.plusHours(3)),
+                new FlightTimeSlot(3L, NOON.minusDays(1), NOON.minusDays(1).plusHours(10))
+        ));
+    }
+
+    @Test
+    public void findCurrentFlightIds() {
+        Assert.assertEquals(flightTimeIndex.findCurrentFlightIds(NOON), Collections.singleton(1L));
+        Assert.assertEquals(flightTimeIndex.findCurrentFlightIds(NOON.plusHours(2)), Collections.singleton(2L));
+        Assert.assertTrue(flightTimeIndex.findCurrentFlightIds(NOON.plusHours(3)).isEmpty());
+    }
+
+    @Test
+    public void findCurrentFlightIdsExcludesEndpoints() {
+        Assert.assertTrue(flightTimeIndex.findCurrentFlightIds(NOON.plusHours(1)).isEmpty());
+    }
+
+    @Test
+    public void findFlightIdsInTimeRange() {
+        Assert.assertEquals(flightTimeIndex.findFlightIdsInTimeRange(NOON, NOON.plusHours(1)),
+                new HashSet<>(Arrays.asList(1L, 2L)));
+        Assert.assertEquals(flightTimeIndex.findFlightIdsInTimeRange(NOON.plusHours(3), NOON.plusDays(1)),
+                Collections.singleton(2L));
+        Assert.assertTrue(flightTimeIndex.findFlightIdsInTimeRange(NOON.minusHours(12), NOON.minusHours(3)).isEmpty());
+    }
+
+    @Test
+    public void findFlightIdsInTimeRangeSpannedByFlight() {
+        Assert.assertEquals(flightTimeIndex.findFlightIdsInTimeRange(NOON.minusHours(1), NOON),
+                Collections.singleton(1L));
+        Assert.assertEquals(flightTimeIndex.findFlightIdsInTimeRange(NOON.minusDays(1).plusHours(1),
+                NOON.minusDays(1).plusHours(2)), Collections.singleton(3L));
+    }
+
+    @Test
+    public void findFlightIdsInInvertedTimeRange() {
+        Assert.assertTrue(flightTimeIndex.findFlightIdsInTimeRange(NOON.plusDays(1), NOON.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    public void findDeparturesAndArrivals() {
+        Assert.assertEquals(flightTimeIndex.findDepartures(NOON.minusDays(2), NOON.plusHours(1)), Arrays.asList(
+                new FlightTimeSlot(3L, NOON.minusDays(1), NOON.minusDays(1).plusHours(10)),
+                new FlightTimeSlot(1L, NOON.minusHours(2), NOON.plusHours(1)),
+                new FlightTimeSlot(2L, NOON.plusHours(1), NOON.plusHours(3))));
+        Assert.assertEquals(flightTimeIndex.findArrivals(NOON, NOON.plusHours(3)), Arrays.asList(
+                new FlightTimeSlot(1L, NOON.minusHours(2), NOON.plusHours(1)),
+                new FlightTimeSlot(2L, NOON.plusHours(1), NOON.plusHours(3))));
+    }
+
+    @Test
+    public void findDeparturesExcludesStart() {
+        Assert.assertTrue(flightTimeIndex.findDepartures(NOON.plusHours(1), NOON.plusHours(2)).isEmpty());
+        Assert.assertTrue(flightTimeIndex.findArrivals(NOON.plusHours(1), NOON.plusHours(2)).isEmpty());
+        Assert.assertTrue(flightTimeIndex.findArrivals(NOON.plusHours(3), NOON.plusHours(3)).isEmpty());
+    }
+
+    @Test
+    public void indexIsLoadedOnce() {
+        flightTimeIndex.findCurrentFlightIds(NOON);
+        flightTimeIndex.findFlightIdsInTimeRange(NOON, NOON.plusHours(1));
+        verify(flightDao, times(1)).getAllFlightTimeSlots();
+    }
+
+    @Test
+    public void invalidateReloadsIndex() {
+        flightTimeIndex.findCurrentFlightIds(NOON);
+        flightTimeIndex.invalidate();
+        flightTimeIndex.findCurrentFlightIds(NOON);
+        verify(flightDao, times(2)).getAllFlightTimeSlots();
+    }
+
+    @Test
+    @Transactional
+    public void indexLoadedInTransactionIsKeptOnCommit() {
+        flightTimeIndex.findCurrentFlightIds(NOON);
+        flightTimeIndex.findCurrentFlightIds(NOON);
+        verify(flightDao, times(2)).getAllFlightTimeSlots();
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        flightTimeIndex.findCurrentFlightIds(NOON);
+        verify(flightDao, times(2)).getAllFlightTimeSlots();
+    }
+
+    @Test
+    @Transactional
+    public void uncommittedFlightIsNotKeptOnRollback() {
+        FlightTimeSlot committed = new FlightTimeSlot(1L, NOON.minusHours(2), NOON.plusHours(1));
+        when(flightDao.getAllFlightTimeSlots()).thenReturn(Arrays.asList(committed,
+                new FlightTimeSlot(4L, NOON.minusHours(1), NOON.plusHours(1))));
+        Assert.assertEquals(flightTimeIndex.findCurrentFlightIds(NOON), new HashSet<>(Arrays.asList(1L, 4L)));
+
+        TestTransaction.end();
+        when(flightDao.getAllFlightTimeSlots()).thenReturn(Collections.singletonList(committed));
+        Assert.assertEquals(flightTimeIndex.findCurrentFlightIds(NOON), Collections.singleton(1L));
+        verify(flightDao, times(2)).getAllFlightTimeSlots();
+    }
+
+    @Test
+    @Transactional
+    public void indexChangedDuringTransactionLoadIsNotKept() {
+        flightTimeIndex.findCurrentFlightIds(NOON);
+        flightTimeIndex.remove(1L);
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        flightTimeIndex.findCurrentFlightIds(NOON);
+        verify(flightDao, times(2)).getAllFlightTimeSlots();
+    }
+
+    @Test
+    public void putBeforeLoadIsIgnored() {
+        flightTimeIndex.put(4L, NOON.minusHours(1), NOON.plusHours(1));
+        Assert.assertEquals(flightTimeIndex.findCurrentFlightIds(NOON), Collections.singleton(1L));
+    }
+
+    @Test
+    public void putAddsAndReplacesFlight() {
+        flightTimeIndex.findCurrentFlightIds(NOON);
+
+        flightTimeIndex.put(4L, NOON.minusHours(1), NOON.plusHours(1));
+        Assert.assertEquals(flightTimeIndex.findCurrentFlightIds(NOON), new HashSet<>(Arrays.asList(1L, 4L)));
+
+        flightTimeIndex.put(1L, NOON.plusHours(5), NOON.plusHours(6));
+        Assert.assertEquals(flightTimeIndex.findCurrentFlightIds(NOON), Collections.singleton(4L));
+        Assert.assertEquals(flightTimeIndex.findFlightIdsInTimeRange(NOON.plusHours(5), NOON.plusHours(5)),
+                Collections.singleton(1L));
+    }
+
+    @Test
+    public void removeDropsFlight() {
+        flightTimeIndex.findCurrentFlightIds(NOON);
+        flightTimeIndex.put(4L, NOON.minusDays(5), NOON.plusDays(5));
+        Assert.assertEquals(flightTimeIndex.findCurrentFlightIds(NOON.plusDays(2)), Collections.singleton(4L));
+
+        flightTimeIndex.remove(4L);
+        flightTimeIndex.remove(3L);
+        Assert.assertTrue(flightTimeIndex.findCurrentFlightIds(NOON.plusDays(2)).isEmpty());
+        Assert.assertTrue(flightTimeIndex.findFlightIdsInTimeRange(NOON.minusDays(1), NOON.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    public void matchesFullScan() {
+        Random random = new Random(42);
+        List<FlightTimeSlot> slots = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            LocalDateTime departure = NOON.plusMinutes(random.nextInt(60 * 24 * 30));
+            slots.add(new FlightTimeSlot(id, departure, departure.plusMinutes(30 + random.nextInt(60 * 14))));
+        }
+        when(flightDao.getAllFlightTimeSlots()).thenReturn(slots);
+
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime time = NOON.plusMinutes(random.nextInt(60 * 24 * 31));
+            LocalDateTime end = time.plusMinutes(random.nextInt(60 * 24));
+
+            Set<Long> current = slots.stream()
+                    .filter(s -> s.getDepartureTime().isBefore(time) && s.getArrivalTime().isAfter(time))
+                    .map(FlightTimeSlot::getFlightId)
+                    .collect(Collectors.toSet());
+            Set<Long> inRange = slots.stream()
+                    .filter(s -> !s.getDepartureTime().isAfter(end) && !s.getArrivalTime().isBefore(time))
+                    .map(FlightTimeSlot::getFlightId)
+                    .collect(Collectors.toSet());
+
+            Assert.assertEquals(flightTimeIndex.findCurrentFlightIds(time), current);
+            Assert.assertEquals(flightTimeIndex.findFlightIdsInTimeRange(time, end), inRange);
+        }
+    }
+
+    @Test
+    public void matchesFullScanAfterUpdates() {
+        Random random = new Random(7);
+        when(flightDao.getAllFlightTimeSlots()).thenReturn(Collections.emptyList());
+        flightTimeIndex.findCurrentFlightIds(NOON);
+
+        Map<Long, FlightTimeSlot> slots = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            long id = 1 + random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                flightTimeIndex.remove(id);
+                slots.remove(id);
+            } else {
+                // a few flights last for days, spanning most of the queried ranges
+                LocalDateTime departure = NOON.plusMinutes(random.nextInt(60 * 24 * 10));
+                int minutes = random.nextInt(20) == 0 ? 60 * 24 * 5 : 30 + random.nextInt(60 * 14);
+                FlightTimeSlot slot = new FlightTimeSlot(id, departure, departure.plusMinutes(minutes));
+                flightTimeIndex.put(id, slot.getDepartureTime(), slot.getArrivalTime());
+                slots.put(id, slot);
+            }
+        }
+
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime time = NOON.plusMinutes(random.nextInt(60 * 24 * 11));
+            LocalDateTime end = time.plusMinutes(random.nextInt(60 * 6));
+
+            Set<Long> current = slots.values().stream()
+                    .filter(s -> s.getDepartureTime().isBefore(time) && s.getArrivalTime().isAfter(time))
+                    .map(FlightTimeSlot::getFlightId)
+                    .collect(Collectors.toSet());
+            Set<Long> inRange = slots.values().stream()
+                    .filter(s -> !s.getDepartureTime().isAfter(end) && !s.getArrivalTime().isBefore(time))
+                    .map(FlightTimeSlot::getFlightId)
+                    .collect(Collectors.toSet());
+
+            Assert.assertEquals(flightTimeIndex.findCurrentFlightIds(time), current);
+            Assert.assertEquals(flightTimeIndex.findFlightIdsInTimeRange(time, end), inRange);
+        }
+    }
+
+    @Test(expectedExceptions = DataAccessException.class)
+    public void loadFailure() {
+        when(flightDao.getAllFlightTimeSlots()).thenThrow(new IllegalStateException());
+        flightTimeIndex.findCurrentFlightIds(NOON);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void findCurrentFlightIdsNull() {
+        flightTimeIndex.findCurrentFlightIds(null);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void findFlightIdsInTimeRangeNull() {
+        flightTimeIndex.findFlightIdsInTimeRange(NOON, null);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void findDeparturesNull() {
+        flightTimeIndex.findDepartures(null, NOON);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void putNull() {
+        flightTimeIndex.put(1L, null, NOON);
+    }
+}
@@ -0,0 +1,201 @@
+package cz.fi.muni.pa165.service;
+
+import cz.fi.muni.pa165.dto.AirplaneDTO;
+import cz.fi.muni.pa165.dto.DestinationDTO;
+import cz.fi.muni.pa165.dto.FlightDTO;
+import cz.fi.muni.pa165.dto.StewardDTO;
+import cz.fi.muni.pa165.dto.UserCreateDTO;
+import cz.fi.muni.pa165.dto.UserDTO;
+import cz.fi.muni.pa165.entities.Airplane;
+import cz.fi.muni.pa165.entities.Destination;
+import cz.fi.muni.pa165.entities.Flight;
+import cz.fi.muni.pa165.entities.Steward;
+import cz.fi.muni.pa165.entities.User;
+import cz.fi.muni.pa165.service.impl.MappingServiceImpl;
+import org.dozer.Mapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks that the hand-written mappers produce the same objects as Dozer.
+ *
+ * @author Karel Jiranek
+ */
+public class MappingServiceTest extends BaseServiceTest {
+
+    @Autowired
+    private MappingService mappingService;
+
+    @Autowired
+    private Mapper dozer;
+
+    private Airplane airplane;
+    private Destination brno;
+    private Destination london;
+    private Steward steward;
+    private Flight flight;
+    private User user;
+
+    @BeforeMethod
+    public void prepareTestData() {
+        airplane = new Airplane();
+        airplane.setId(1L);
+        airplane.setName("Boeing");
+        airplane.setType("737");
+        airplane.setCapacity(180);
+
+        brno = new Destination("Czech Republic", "Brno");
+        brno.setId(2L);
+        london = new Destination("United Kingdom", "London");
+        london.setId(3L);
+
+        steward = new Steward();
+        steward.setId(4L);
+        steward.setFirstName("John");
+        steward.setSurname("Dail");
+        Steward other = new Steward();
+        other.setId(5L);
+        other.setFirstName("Jane");
+        other.setSurname("Doe");
+
+        flight = new Flight();
+        flight.setId(6L);
+        flight.setDepartureLocation(brno);
+        flight.setArrivalLocation(london);
+        flight.setDepartureTime(LocalDateTime.of(2017, Month.DECEMBER, 24, 10, 0));
+        flight.setArrivalTime(LocalDateTime.of(2017, Month.DECEMBER, 24, 12, 30));
+        flight.setAirplane(airplane);
+        flight.setStewards(Arrays.asList(steward, other));
+
+        user = new User();
+        user.setId(7L);
+        user.setEmail("john@example.com");
+        user.setName("John");
+        user.setSurname("Dail");
+        user.setPasswordHash("hash");
+        user.setRegistered(LocalDateTime.of(2017, Month.NOVEMBER, 1, 8, 0));
+        user.setAdmin(true);
+    }
+
+    @Test
+    public void entitiesToDtos() throws Exception {
+        assertSameAsDozer(airplane, AirplaneDTO.class);
+        assertSameAsDozer(brno, DestinationDTO.class);
+        assertSameAsDozer(steward, StewardDTO.class);
+        assertSameAsDozer(user, UserDTO.class);
+        assertSameAsDozer(flight, FlightDTO.class);
+    }
+
+    @Test
+    public void dtosToEntities() throws Exception {
+        assertSameAsDozer(dozer.map(airplane, AirplaneDTO.class), Airplane.class);
+        assertSameAsDozer(dozer.map(brno, DestinationDTO.class), Destination.class);
+        assertSameAsDozer(dozer.map(steward, StewardDTO.class), Steward.class);
+        assertSameAsDozer(dozer.map(user, UserDTO.class), User.class);
+    }
+
+    @Test
+    public void flightWithoutStewards() throws Exception {
+        flight.setStewards(new ArrayList<>());
+        assertSameAsDozer(flight, FlightDTO.class);
+    }
+
+    @Test
+    public void entitySubclass() throws Exception {
+        Airplane proxyLike = new Airplane() {
+        };
+        proxyLike.setId(8L);
+        proxyLike.setName("Airbus");
+        proxyLike.setType("A320");
+        proxyLike.setCapacity(150);
+
+        assertSameAsDozer(proxyLike, AirplaneDTO.class);
+    }
+
+    @Test
+    public void mapList() throws Exception {
+        List<FlightDTO> mapped = mappingService.mapTo(Arrays.asList(flight, flight), FlightDTO.class);
+
+        Assert.assertEquals(mapped.size(), 2);
+        assertSameProperties(mapped.get(1), dozer.map(flight, FlightDTO.class), "flight");
+    }
+
+    @Test
+    public void dozerUsedOnlyWithoutMapper() {
+        Mapper mockDozer = mock(Mapper.class);
+        MappingServiceImpl service = new MappingServiceImpl();
+        ReflectionTestUtils.setField(service, "dozer", mockDozer);
+
+        service.mapTo(flight, FlightDTO.class);
+        service.mapTo(new AirplaneDTO(), Airplane.class);
+        verify(mockDozer, never()).map(any(), any());
+
+        UserCreateDTO userCreateDTO = new UserCreateDTO();
+        service.mapTo(userCreateDTO, User.class);
+        verify(mockDozer).map(userCreateDTO, User.class);
+    }
+
+    @Test
+    public void dozerOnlyConfiguration() {
+        Mapper mockDozer = mock(Mapper.class);
+        MappingServiceImpl service = new MappingServiceImpl();
+        ReflectionTestUtils.setField(service, "dozer", mockDozer);
+        ReflectionTestUtils.setField(service, "mapping", "dozer");
+
+        service.mapTo(flight, FlightDTO.class);
+        verify(mockDozer).map(flight, FlightDTO.class);
+    }
+
+    private void assertSameAsDozer(Object source, Class<?> targetClass) throws Exception {
+        assertSameProperties(mappingService.mapTo(source, targetClass), dozer.map(source, targetClass),
+                targetClass.getSimpleName());
+    }
+
+    /**
+     * Compares two objects property by property, descending into the DTOs, entities and lists.
+     */
+    private static void assertSameProperties(Object actual, Object expected, String path)
+            throws IntrospectionException, ReflectiveOperationException {
+        if (actual == null || expected == null) {
+            Assert.assertEquals(actual, expected, path);
+            return;
+        }
+        if (actual instanceof List) {
+            List<?> actualList = (List<?>) actual;
+            List<?> expectedList = (List<?>) expected;
+            Assert.assertEquals(actualList.size(), expectedList.size(), path);
+            for (int i = 0; i < actualList.size(); i++) {
+                assertSameProperties(actualList.get(i), expectedList.get(i), path + "[" + i + "]");
+            }
+            return;
+        }
+        if (!actual.getClass().getName().startsWith("cz.fi.muni.pa165")) {
+            Assert.assertEquals(actual, expected, path);
+            return;
+        }
+
+        for (PropertyDescriptor property : Introspector.getBeanInfo(expected.getClass(), Object.class)
+                .getPropertyDescriptors()) {
+            Method getter = property.getReadMethod();
+            if (getter != null) {
+                assertSameProperties(getter.invoke(actual), getter.invoke(expected), path + "." + property.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package cz.fi.muni.pa165.service;
+
+import cz.fi.muni.pa165.dao.FlightDao;
+import cz.fi.muni.pa165.dao.FlightTimeSlot;
+import cz.fi.muni.pa165.service.impl.StewardRosterImpl;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Karel Jiranek
+ */
+public class StewardRosterTest extends BaseServiceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2017, Month.DECEMBER, 24, 12, 0);
+
+    private final FlightTimeSlot past = new FlightTimeSlot(1L, NOON.minusDays(2), NOON.minusDays(2).plusHours(3));
+    private final FlightTimeSlot current = new FlightTimeSlot(2L, NOON.minusHours(1), NOON.plusHours(2));
+    private final FlightTimeSlot future = new FlightTimeSlot(3L, NOON.plusDays(1), NOON.plusDays(1).plusHours(5));
+    private final FlightTimeSlot later = new FlightTimeSlot(4L, NOON.plusDays(3), NOON.plusDays(3).plusHours(5));
+
+    @Mock
+    private FlightDao flightDao;
+
+    @InjectMocks
+    private StewardRosterImpl stewardRoster;
+
+    @BeforeMethod
+    public void createRoster() {
+        stewardRoster = new StewardRosterImpl();
+        MockitoAnnotations.initMocks(this);
+        when(flightDao.getStewardFlightTimeSlots(1L)).thenReturn(Arrays.asList(past, current, future, later));
+        when(flightDao.getStewardFlightTimeSlots(2L)).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    public void getLastFlight() {
+        Assert.assertEquals(stewardRoster.getLastFlight(1L, NOON), current);
+        Assert.assertEquals(stewardRoster.getLastFlight(1L, NOON.minusHours(1)), past);
+        Assert.assertNull(stewardRoster.getLastFlight(1L, NOON.minusDays(3)));
+        Assert.assertNull(stewardRoster.getLastFlight(2L, NOON));
+    }
+
+    @Test
+    public void getCurrentFlight() {
+        Assert.assertEquals(stewardRoster.getCurrentFlight(1L, NOON), current);
+        Assert.assertNull(stewardRoster.getCurrentFlight(1L, NOON.plusHours(2)));
+        Assert.assertNull(stewardRoster.getCurrentFlight(1L, NOON.minusDays(3)));
+        Assert.assertNull(stewardRoster.getCurrentFlight(2L, NOON));
+    }
+
+    @Test
+    public void getNextFlight() {
+        Assert.assertEquals(stewardRoster.getNextFlight(1L, NOON), future);
+        Assert.assertEquals(stewardRoster.getNextFlight(1L, future.getDepartureTime()), later);
+        Assert.assertNull(stewardRoster.getNextFlight(1L, NOON.plusDays(4)));
+        Assert.assertNull(stewardRoster.getNextFlight(2L, NOON));
+    }
+
+    @Test
+    public void getFlightsInTimeRange() {
+        Assert.assertEquals(stewardRoster.getFlightsInTimeRange(1L, NOON.minusDays(3), NOON.plusDays(2)),
+                Arrays.asList(past, current, future));
+        Assert.assertEquals(stewardRoster.getFlightsInTimeRange(1L, LocalDateTime.MIN, LocalDateTime.MAX),
+                Arrays.asList(past, current, future, later));
+        Assert.assertEquals(stewardRoster.getFlightsInTimeRange(1L, past.getDepartureTime(), future.getDepartureTime()),
+                Collections.singletonList(current));
+        Assert.assertTrue(stewardRoster.getFlightsInTimeRange(1L, NOON, NOON.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rosterIsCached() {
+        stewardRoster.getLastFlight(1L, NOON);
+        stewardRoster.getNextFlight(1L, NOON);
+        stewardRoster.getCurrentFlight(1L, NOON);
+        verify(flightDao, times(1)).getStewardFlightTimeSlots(1L);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void evictSteward() {
+        stewardRoster.getLastFlight(1L, NOON);
+        stewardRoster.evictSteward(1L);
+        stewardRoster.getLastFlight(1L, NOON);
+        verify(flightDao, times(2)).getStewardFlightTimeSlots(1L);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void evictFlightEvictsRostersContainingFlight() {
+        stewardRoster.getLastFlight(1L, NOON);
+        stewardRoster.getLastFlight(2L, NOON);
+
+        // steward 1 was removed from flight 3, steward 2 was assigned to it
+        stewardRoster.evictFlight(3L, Collections.singletonList(2L));
+        stewardRoster.getLastFlight(1L, NOON);
+        stewardRoster.getLastFlight(2L, NOON);
+
+        verify(flightDao, times(2)).getStewardFlightTimeSlots(1L);
+        verify(flightDao, times(2)).getStewardFlightTimeSlots(2L);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void evictUnrelatedFlight() {
+        stewardRoster.getLastFlight(1L, NOON);
+        stewardRoster.evictFlight(10L, Collections.emptyList());
+        stewardRoster.getLastFlight(1L, NOON);
+        verify(flightDao, times(1)).getStewardFlightTimeSlots(1L);
+    }
+
+    @Test
+    public void rosterReadInTransactionIsCachedOnCommit() {
+        stewardRoster.getLastFlight(1L, NOON);
+        stewardRoster.getLastFlight(1L, NOON);
+        verify(flightDao, times(2)).getStewardFlightTimeSlots(1L);
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        stewardRoster.getLastFlight(1L, NOON);
+        verify(flightDao, times(2)).getStewardFlightTimeSlots(1L);
+    }
+
+    @Test
+    public void rosterReadInRolledBackTransactionIsNotCached() {
+        stewardRoster.getLastFlight(1L, NOON);
+
+        TestTransaction.end();
+        stewardRoster.getLastFlight(1L, NOON);
+        verify(flightDao, times(2)).getStewardFlightTimeSlots(1L);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rosterLoadedDuringEvictionIsNotCached() {
+        when(flightDao.getStewardFlightTimeSlots(1L)).thenAnswer(invocation -> {
+            // a flight of the steward changes while the roster is loaded
+            stewardRoster.evictFlight(2L, Collections.singletonList(1L));
+            return Arrays.asList(past, current, future, later);
+        });
+
+        stewardRoster.getLastFlight(1L, NOON);
+        stewardRoster.getLastFlight(1L, NOON);
+        verify(flightDao, times(2)).getStewardFlightTimeSlots(1L);
+    }
+
+    @Test(expectedExceptions = DataAccessException.class)
+    public void loadFailure() {
+        when(flightDao.getStewardFlightTimeSlots(3L)).thenThrow(new IllegalStateException());
+        stewardRoster.getLastFlight(3L, NOON);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void getLastFlightNullTime() {
+        stewardRoster.getLastFlight(1L, null);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void getNextFlightNullSteward() {
+        stewardRoster.getNextFlight(null, NOON);
+    }
+}
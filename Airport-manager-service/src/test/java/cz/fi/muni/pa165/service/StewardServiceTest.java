@@ -1,10 +1,12 @@
 package cz.fi.muni.pa165.service;
 
+import cz.fi.muni.pa165.dao.FlightTimeSlot;
 import cz.fi.muni.pa165.dao.StewardDao;
 import cz.fi.muni.pa165.entities.Airplane;
 import cz.fi.muni.pa165.entities.Destination;
 import cz.fi.muni.pa165.entities.Flight;
 import cz.fi.muni.pa165.entities.Steward;
+import cz.fi.muni.pa165.exceptions.StewardDataAccessException;
 import cz.fi.muni.pa165.service.impl.StewardServiceImpl;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -12,6 +14,8 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -40,8 +44,6 @@ public class StewardServiceTest extends BaseServiceTest{
     
     private  LocalDateTime departureTime_future;
     private LocalDateTime arrivalTime_future;
-    private  LocalDateTime departureTime_future1;
-    private LocalDateTime arrivalTime_future1;
     private  LocalDateTime departureTime_past;
     private LocalDateTime arrivalTime_past;
 
@@ -52,6 +54,9 @@ public class StewardServiceTest extends BaseServiceTest{
     @Mock
     private FlightService flightService;
 
+    @Mock
+    private StewardRoster stewardRoster;
+
     @Autowired
     @InjectMocks
     private StewardServiceImpl stewardService;
@@ -70,6 +75,7 @@ public class StewardServiceTest extends BaseServiceTest{
     public void resetMock() {
         Mockito.reset(stewardDao);
         Mockito.reset(flightService);
+        Mockito.reset(stewardRoster);
     }
     
     private void createSteward() {
@@ -90,9 +96,6 @@ public class StewardServiceTest extends BaseServiceTest{
         departureTime_future = LocalDateTime.of(2020, Month.NOVEMBER, 20, 8, 30);
         arrivalTime_future = LocalDateTime.of(2030, Month.NOVEMBER, 25, 20, 30);
         
-        departureTime_future1 = LocalDateTime.of(2025, Month.NOVEMBER, 20, 8, 30);
-        arrivalTime_future1 = LocalDateTime.of(2035, Month.NOVEMBER, 25, 20, 30);
-        
         departureTime_past = LocalDateTime.of(2000, Month.NOVEMBER, 20, 8, 30);
         arrivalTime_past = LocalDateTime.of(2000, Month.NOVEMBER, 25, 20, 30);
 
@@ -103,6 +106,30 @@ public class StewardServiceTest extends BaseServiceTest{
         airplane.setType("AK-447");
     }
     
+    @Test
+    public void addAllOkTest() {
+        stewardService.addAll(Arrays.asList(steward, steward1));
+        verify(stewardDao).addAll(Arrays.asList(steward, steward1));
+    }
+
+    @Test(expectedExceptions = StewardDataAccessException.class)
+    public void addAllNullTest() {
+        doThrow(new NullPointerException()).when(stewardDao).addAll(null);
+        stewardService.addAll(null);
+    }
+
+    @Test
+    public void getStewardsByIdsOkTest() {
+        when(stewardDao.getStewardsByIds(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(steward, steward1));
+        assertEquals(stewardService.getStewardsByIds(Arrays.asList(1L, 2L)), Arrays.asList(steward, steward1));
+    }
+
+    @Test(expectedExceptions = StewardDataAccessException.class)
+    public void getStewardsByIdsNullTest() {
+        doThrow(new NullPointerException()).when(stewardDao).getStewardsByIds(null);
+        stewardService.getStewardsByIds(null);
+    }
+
     @Test
     public void createStewardOkTest() {
         stewardService.createSteward("Name1", "Surname1");
@@ -200,331 +227,166 @@ public class StewardServiceTest extends BaseServiceTest{
         }
     }
     
+    @Test
+    public void getStewardsPageAfterTest() {
+        List<Steward> stewards = Arrays.asList(steward, steward1);
+        when(stewardDao.listStewardsPageAfter(1L, 2)).thenReturn(stewards);
+
+        assertEquals(stewardService.getStewardsPage(1L, null, 2), stewards);
+        verify(stewardDao, never()).listStewardsPageBefore(any(), anyInt());
+    }
+
+    @Test
+    public void getStewardsPageBeforeTest() {
+        List<Steward> stewards = Arrays.asList(steward, steward1);
+        when(stewardDao.listStewardsPageBefore(1L, 2)).thenReturn(stewards);
+
+        assertEquals(stewardService.getStewardsPage(null, 1L, 2), stewards);
+        verify(stewardDao, never()).listStewardsPageAfter(any(), anyInt());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void getStewardsPageBothCursorsTest() {
+        stewardService.getStewardsPage(1L, 2L, 2);
+    }
+
+    @Test(expectedExceptions = StewardDataAccessException.class)
+    public void getStewardsPageDaoFailureTest() {
+        when(stewardDao.listStewardsPageAfter(null, 0)).thenThrow(new IllegalArgumentException());
+
+        stewardService.getStewardsPage(null, null, 0);
+    }
+
     @Test
     public void getAllStewardFlightsTest() {
-        Flight flight1 = new Flight();
-        flight1.setAirplane(airplane);
-        flight1.setDepartureTime(departureTime_past);
-        flight1.setArrivalTime(arrivalTime_past);
-        flight1.setDepartureLocation(new Destination());
-        flight1.addSteward(steward1);
-        
-        Flight flight2 = new Flight();
-        flight2.setAirplane(airplane);
-        flight2.setDepartureTime(departureTime_future);
-        flight2.setArrivalTime(arrivalTime_future);
-        flight2.setDepartureLocation(new Destination());
-        flight2.addSteward(steward1);
-        
-        Flight flight3 = new Flight();
-        flight3.setAirplane(airplane);
-        flight3.setDepartureTime(departureTime_future1);
-        flight3.setArrivalTime(arrivalTime_future1);
-        flight3.setDepartureLocation(new Destination());
-        flight3.addSteward(steward);
-        
-        List<Flight> flights_expected_steward1 = new ArrayList<>();
-        flights_expected_steward1.add(flight2);
-        flights_expected_steward1.add(flight1);
-        
-        List<Flight> flights = new ArrayList<>();
-        flights.add(flight3);
-        flights.add(flight2);
-        flights.add(flight1);
+        Flight flight1 = createFlight(1L, departureTime_past, arrivalTime_past, steward1);
+        Flight flight2 = createFlight(2L, departureTime_future, arrivalTime_future, steward1);
 
-        when(stewardDao.getSteward(steward1.getId())).thenReturn(steward1);
-        when(flightService.getAllFlights()).thenReturn(flights);
-        
-        assertEquals(stewardService.getAllStewardFlights(steward1.getId()),flights_expected_steward1);
+        when(stewardRoster.getFlightsInTimeRange(steward1.getId(), LocalDateTime.MIN, LocalDateTime.MAX))
+                .thenReturn(Arrays.asList(toSlot(flight1), toSlot(flight2)));
+        when(flightService.getFlightsByIds(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(flight1, flight2));
 
-        List<Flight> flights_expected_steward = new ArrayList<>();
-        flights_expected_steward.add(flight3);
-        
-        when(stewardDao.getSteward(steward.getId())).thenReturn(steward);
-        when(flightService.getAllFlights()).thenReturn(flights);
-        
-        assertEquals(stewardService.getAllStewardFlights(steward.getId()),flights_expected_steward);
-        
-        
-        List<Flight> flights_without_steward = new ArrayList<>();
-        flights_without_steward.add(flight2);
-        flights_without_steward.add(flight1);
-        
-        when(stewardDao.getSteward(steward.getId())).thenReturn(steward);
-        when(flightService.getAllFlights()).thenReturn(flights_without_steward);
-        
-        assertEquals(stewardService.getAllStewardFlights(steward.getId()),new ArrayList<>());
+        assertEquals(stewardService.getAllStewardFlights(steward1.getId()), Arrays.asList(flight1, flight2));
+
+        when(stewardRoster.getFlightsInTimeRange(steward.getId(), LocalDateTime.MIN, LocalDateTime.MAX))
+                .thenReturn(Collections.emptyList());
+
+        assertEquals(stewardService.getAllStewardFlights(steward.getId()), new ArrayList<>());
+        verify(flightService, never()).getAllFlights();
+        verify(flightService, times(1)).getFlightsByIds(any());
     }
-    
+
     @Test
     public void getStewardCurrentFlightTest() {
-     
-        LocalDateTime departureTime_current = LocalDateTime.of(2017, Month.NOVEMBER, 20, 8, 30);
-        LocalDateTime arrivalTime_current = LocalDateTime.of(2100, Month.NOVEMBER, 25, 20, 30);
-        
-        Flight flight1 = new Flight();
-        flight1.setAirplane(airplane);
-        flight1.setDepartureTime(departureTime_current);
-        flight1.setArrivalTime(arrivalTime_current);
-        flight1.setDepartureLocation(new Destination());
-        flight1.addSteward(steward1);
-        
-        Flight flight2 = new Flight();
-        flight2.setAirplane(airplane);
-        flight2.setDepartureTime(departureTime_past);
-        flight2.setArrivalTime(arrivalTime_past);
-        flight2.setDepartureLocation(new Destination());
-        flight2.addSteward(steward);
-        
-        List<Flight> flights = new ArrayList<>();
-        flights.add(flight2);
-        flights.add(flight1);
-        
-        when(stewardDao.getSteward(steward1.getId())).thenReturn(steward1);
-        when(flightService.getAllFlights()).thenReturn(flights);
+        Flight flight1 = createFlight(1L, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1), steward1);
 
-        assertEquals(stewardService.getStewardCurrentFlight(steward1.getId()),flight1);
-        
-        when(stewardDao.getSteward(steward.getId())).thenReturn(steward);
-        when(flightService.getAllFlights()).thenReturn(flights);
+        when(stewardRoster.getCurrentFlight(eq(steward1.getId()), any(LocalDateTime.class))).thenReturn(toSlot(flight1));
+        when(flightService.getFlight(1L)).thenReturn(flight1);
+
+        assertEquals(stewardService.getStewardCurrentFlight(steward1.getId()), flight1);
+
+        when(stewardRoster.getCurrentFlight(eq(steward.getId()), any(LocalDateTime.class))).thenReturn(null);
 
         assertNull(stewardService.getStewardCurrentFlight(steward.getId()));
-        
-        List<Flight> flights_empty = new ArrayList<>();
-        
-        when(stewardDao.getSteward(steward.getId())).thenReturn(steward);
-        when(flightService.getAllFlights()).thenReturn(flights_empty);
-        
-        assertNull(stewardService.getStewardCurrentFlight(steward.getId()));
+        verify(flightService, never()).getAllFlights();
     }
-    
+
     @Test
     public void getStewardFutureFlightTest() {
+        Flight flight1 = createFlight(1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), steward);
 
-        Flight flight1 = new Flight();
-        flight1.setAirplane(airplane);
-        flight1.setDepartureTime(departureTime_past);
-        flight1.setArrivalTime(arrivalTime_past);
-        flight1.setDepartureLocation(new Destination());
-        flight1.addSteward(steward);
-        
-        Flight flight2 = new Flight();
-        flight2.setAirplane(airplane);
-        flight2.setDepartureTime(departureTime_future);
-        flight2.setArrivalTime(arrivalTime_future);
-        flight2.setDepartureLocation(new Destination());
-        flight2.addSteward(steward1);
-        
-        Flight flight3 = new Flight();
-        flight3.setAirplane(airplane);
-        flight3.setDepartureTime(departureTime_future);
-        flight3.setArrivalTime(arrivalTime_future);
-        flight3.setDepartureLocation(new Destination());
-        flight3.addSteward(steward);
-        
-        Flight flight4 = new Flight();
-        flight4.setAirplane(airplane);
-        flight4.setDepartureTime(departureTime_future1);
-        flight4.setArrivalTime(arrivalTime_future1);
-        flight4.setDepartureLocation(new Destination());
-        flight4.addSteward(steward1);
-        
-        List<Flight> flights = new ArrayList<>();
-        flights.add(flight4);
-        flights.add(flight3);
-        flights.add(flight2);
-        flights.add(flight1);
-        
-        when(stewardDao.getSteward(steward.getId())).thenReturn(steward);
-        when(flightService.getAllFlights()).thenReturn(flights);
-        
-        assertEquals(flight3,stewardService.getStewardFutureFlight(steward.getId()));
-        
-        List<Flight> flights_empty = new ArrayList<>();
-        
-        when(stewardDao.getSteward(steward.getId())).thenReturn(steward);
-        when(flightService.getAllFlights()).thenReturn(flights_empty);
-        
-        assertNull(stewardService.getStewardCurrentFlight(steward.getId()));
-        
-        when(stewardDao.getSteward(steward1.getId())).thenReturn(steward1);
-        when(flightService.getAllFlights()).thenReturn(flights);
-        
-        assertNull(stewardService.getStewardCurrentFlight(steward1.getId()));
+        when(stewardRoster.getNextFlight(eq(steward.getId()), any(LocalDateTime.class))).thenReturn(toSlot(flight1));
+        when(flightService.getFlight(1L)).thenReturn(flight1);
+
+        assertEquals(stewardService.getStewardFutureFlight(steward.getId()), flight1);
+
+        when(stewardRoster.getNextFlight(eq(steward1.getId()), any(LocalDateTime.class))).thenReturn(null);
+
+        assertNull(stewardService.getStewardFutureFlight(steward1.getId()));
+        verify(flightService, never()).getAllFlights();
     }
+
     @Test
     public void getAllStewardFlightsInTimeRangeTest(){
-        
-        Steward steward3 = new Steward();
-        steward3.setId(3L);
-        steward3.setFirstName("Name3");
-        steward3.setSurname("Surname3");
-        
         LocalDateTime startTime = LocalDateTime.of(2019, Month.NOVEMBER, 19, 8, 30);
         LocalDateTime stopTime = LocalDateTime.of(2026, Month.NOVEMBER, 26, 20, 30);
-        
-        Flight flight1 = new Flight();
-        flight1.setAirplane(airplane);
-        flight1.setDepartureTime(departureTime_past);
-        flight1.setArrivalTime(arrivalTime_past);
-        flight1.setDepartureLocation(new Destination());
-        flight1.addSteward(steward);
-        
-        Flight flight2 = new Flight();
-        flight2.setAirplane(airplane);
-        flight2.setDepartureTime(departureTime_future);
-        flight2.setArrivalTime(arrivalTime_future);
-        flight2.setDepartureLocation(new Destination());
-        flight2.addSteward(steward);
-        
-        Flight flight3 = new Flight();
-        flight3.setAirplane(airplane);
-        flight3.setDepartureTime(departureTime_future1);
-        flight3.setArrivalTime(arrivalTime_future1);
-        flight3.setDepartureLocation(new Destination());
-        flight3.addSteward(steward1);
-        
-        Flight flight4 = new Flight();
-        flight4.setAirplane(airplane);
-        flight4.setDepartureTime(departureTime_past);
-        flight4.setArrivalTime(arrivalTime_past);
-        flight4.setDepartureLocation(new Destination());
-        flight4.addSteward(steward3);
-        
-        List<Flight> flight = new ArrayList<>();
-        flight.add(flight2);
-        
-        List<Flight> flights = new ArrayList<>();
-        flights.add(flight4);
-        flights.add(flight3);
-        flights.add(flight2);
-        flights.add(flight1);
-        
-        when(stewardDao.getSteward(steward.getId())).thenReturn(steward);
-        when(flightService.getAllFlights()).thenReturn(flights);
-        
-        assertEquals(stewardService.getAllStewardFlightsInTimeRange(steward.getId(), startTime, stopTime), flight);
-        
-        List<Flight> flight_steward1 = new ArrayList<>();
-        flight_steward1.add(flight3);
-        
-        when(stewardDao.getSteward(steward1.getId())).thenReturn(steward1);
-        when(flightService.getAllFlights()).thenReturn(flights);
-        
-        assertEquals(stewardService.getAllStewardFlightsInTimeRange(steward1.getId(), startTime, stopTime), flight_steward1);
-        
-        when(stewardDao.getSteward(steward3.getId())).thenReturn(steward3);
-        when(flightService.getAllFlights()).thenReturn(flights);
-        
-        assertEquals(stewardService.getAllStewardFlightsInTimeRange(steward3.getId(), startTime, stopTime), new ArrayList<>());
-        
-        when(stewardDao.getSteward(steward.getId())).thenReturn(steward);
-        when(flightService.getAllFlights()).thenReturn(new ArrayList<>());
-        
-        assertEquals(stewardService.getAllStewardFlightsInTimeRange(steward.getId(), startTime, stopTime),new ArrayList<>());
+        Flight flight2 = createFlight(2L, departureTime_future, arrivalTime_future, steward);
+
+        when(stewardRoster.getFlightsInTimeRange(steward.getId(), startTime, stopTime))
+                .thenReturn(Collections.singletonList(toSlot(flight2)));
+        when(flightService.getFlightsByIds(Collections.singletonList(2L))).thenReturn(Collections.singletonList(flight2));
+
+        assertEquals(stewardService.getAllStewardFlightsInTimeRange(steward.getId(), startTime, stopTime),
+                Collections.singletonList(flight2));
+
+        when(stewardRoster.getFlightsInTimeRange(steward1.getId(), startTime, stopTime))
+                .thenReturn(Collections.emptyList());
+
+        assertEquals(stewardService.getAllStewardFlightsInTimeRange(steward1.getId(), startTime, stopTime),
+                new ArrayList<>());
     }
-    
+
     @Test
     public void getStewardLastFlightTest(){
-        
-        Steward steward3 = new Steward();
-        steward3.setId(3L);
-        steward3.setFirstName("Name33");
-        steward3.setSurname("Surname33");
-        
-        Flight flight1 = new Flight();
-        flight1.setAirplane(airplane);
-        flight1.setDepartureTime(departureTime_past);
-        flight1.setArrivalTime(arrivalTime_past);
-        flight1.setDepartureLocation(new Destination());
-        flight1.addSteward(steward);
-        
-        Flight flight2 = new Flight();
-        flight2.setAirplane(airplane);
-        flight2.setDepartureTime(departureTime_future1);
-        flight2.setArrivalTime(arrivalTime_future1);
-        flight2.setDepartureLocation(new Destination());
-        flight2.addSteward(steward1);
-        
-        Flight flight3 = new Flight();
-        flight3.setAirplane(airplane);
-        flight3.setDepartureTime(departureTime_future);
-        flight3.setArrivalTime(arrivalTime_future);
-        flight3.setDepartureLocation(new Destination());
-        flight3.addSteward(steward);
-        
-        List<Flight> flights = new ArrayList<>();
-        flights.add(flight3);
-        flights.add(flight2);
-        flights.add(flight1);
-        
-        when(stewardDao.getSteward(steward.getId())).thenReturn(steward);
-        when(flightService.getAllFlights()).thenReturn(flights);
-        
+        Flight flight3 = createFlight(3L, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), steward);
+
+        when(stewardRoster.getLastFlight(eq(steward.getId()), any(LocalDateTime.class))).thenReturn(toSlot(flight3));
+        when(flightService.getFlight(3L)).thenReturn(flight3);
+
         assertEquals(stewardService.getStewardLastFlight(steward.getId()), flight3);
+
+        when(stewardRoster.getLastFlight(eq(steward1.getId()), any(LocalDateTime.class))).thenReturn(null);
+
+        assertNull(stewardService.getStewardLastFlight(steward1.getId()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void deleteStewardEvictsRosterTest() {
+        stewardService.deleteSteward(steward);
+        verify(stewardRoster).evictSteward(steward.getId());
     }
 
     @Test
-    public void getFreeStewardsInTimeRangeTest2() {
+    public void getFreeStewardsInTimeRangeTest() {
         Steward steward3 = new Steward();
         steward3.setId(3L);
         steward3.setFirstName("Name33");
         steward3.setSurname("Surname33");
 
-        Flight flight1 = new Flight();
-        flight1.setAirplane(airplane);
-        flight1.setDepartureTime(departureTime_past);
-        flight1.setArrivalTime(arrivalTime_past);
-        flight1.setDepartureLocation(new Destination());
-        flight1.addSteward(steward);
-        flight1.addSteward(steward1);
-
-        Flight flight2 = new Flight();
-        flight2.setAirplane(airplane);
-        flight2.setDepartureTime(departureTime_future1);
-        flight2.setArrivalTime(arrivalTime_future1);
-        flight2.setDepartureLocation(new Destination());
-        flight2.addSteward(steward1);
-        flight2.addSteward(steward3);
-
-        when(flightService.getFlightsInTimeRange(departureTime_past, arrivalTime_past)).thenReturn(Collections.singletonList(flight1));
-        when(stewardDao.listAllStewards()).thenReturn(Arrays.asList(steward, steward1, steward3));
+        when(stewardDao.findFreeInTimeRange(departureTime_past, arrivalTime_past))
+                .thenReturn(Arrays.asList(steward1, steward3));
 
         List<Steward> result = stewardService.getFreeStewardsInTimeRange(departureTime_past, arrivalTime_past);
 
-        assertEquals(result.size(), 1);
-        assertTrue(result.contains(steward3));
+        assertEquals(result, Arrays.asList(steward1, steward3));
+        verify(stewardDao, never()).listAllStewards();
+        verify(flightService, never()).getFlightsInTimeRange(any(), any());
     }
 
-    @Test
-    public void getFreeStewardsInTimeRangeTest() {
-        Flight flight1 = new Flight();
-        flight1.setAirplane(airplane);
-        flight1.setDepartureTime(departureTime_past);
-        flight1.setArrivalTime(arrivalTime_past);
-        flight1.setDepartureLocation(new Destination());
-        flight1.addSteward(steward);
-
-        Flight flight2 = new Flight();
-        flight2.setAirplane(airplane);
-        flight2.setDepartureTime(departureTime_future1);
-        flight2.setArrivalTime(arrivalTime_future1);
-        flight2.setDepartureLocation(new Destination());
-        flight2.addSteward(steward1);
-
-        Steward steward3 = new Steward();
-        steward3.setId(3L);
-        steward3.setFirstName("Name33");
-        steward3.setSurname("Surname33");
-
+    @Test(expectedExceptions = NullPointerException.class)
+    public void getFreeStewardsInTimeRangeNullTest() {
+        stewardService.getFreeStewardsInTimeRange(null, arrivalTime_past);
+    }
 
-        when(flightService.getFlightsInTimeRange(departureTime_past, arrivalTime_past)).thenReturn(Collections.singletonList(flight1));
-        when(stewardDao.listAllStewards()).thenReturn(Arrays.asList(steward, steward1, steward3));
+    @Test(expectedExceptions = DataAccessException.class)
+    public void getFreeStewardsInTimeRangeDaoFailureTest() {
+        doThrow(new IllegalStateException()).when(stewardDao).findFreeInTimeRange(departureTime_past, arrivalTime_past);
+        stewardService.getFreeStewardsInTimeRange(departureTime_past, arrivalTime_past);
+    }
 
-        List<Steward> result = stewardService.getFreeStewardsInTimeRange(departureTime_past, arrivalTime_past);
+    private Flight createFlight(Long id, LocalDateTime departureTime, LocalDateTime arrivalTime, Steward flightSteward) {
+        Flight flight = new Flight();
+        flight.setId(id);
+        flight.setAirplane(airplane);
+        flight.setDepartureTime(departureTime);
+        flight.setArrivalTime(arrivalTime);
+        flight.setDepartureLocation(new Destination());
+        flight.addSteward(flightSteward);
+        return flight;
+    }
 
-        assertEquals(result.size(), 2);
-        assertTrue(result.contains(steward1));
-        assertTrue(result.contains(steward3));
+    private static FlightTimeSlot toSlot(Flight flight) {
+        return new FlightTimeSlot(flight.getId(), flight.getDepartureTime(), flight.getArrivalTime());
     }
 }
@@ -0,0 +1,56 @@
+package cz.fi.muni.pa165.config;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sets the caching of the static assets served by the container. An asset requested with its current fingerprint
+ * is cached for the maximum age without revalidation, any other request has to be revalidated,
+ * which the container answers from the last modification time of the asset.
+ *
+ * @author Robert Duriancik
+ * @see AssetFingerprints
+ */
+public class AssetCacheFilter extends OncePerRequestFilter {
+
+    /**
+     * URL patterns of the static assets.
+     */
+    public static final String[] URL_PATTERNS = {"/css/*", "/js/*", "/partials/*"};
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    private final AssetFingerprints assetFingerprints;
+    private final String fingerprintedCacheControl;
+
+    /**
+     * @param assetFingerprints fingerprints of the assets
+     * @param maxAgeSeconds     time the clients cache an asset requested with its fingerprint for
+     */
+    public AssetCacheFilter(AssetFingerprints assetFingerprints, long maxAgeSeconds) {
+        this.assetFingerprints = assetFingerprints;
+        this.fingerprintedCacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic()
+                .getHeaderValue() + ", immutable";
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String version = request.getParameter(AssetFingerprints.VERSION_PARAMETER);
+        if (version != null && assetFingerprints.matches(urlPathHelper.getPathWithinApplication(request), version)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, fingerprintedCacheControl);
+        } else {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        filterChain.doFilter(request, response);
+    }
+}
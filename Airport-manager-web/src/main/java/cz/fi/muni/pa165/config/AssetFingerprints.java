@@ -0,0 +1,118 @@
+package cz.fi.muni.pa165.config;
+
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.ServletContextAware;
+
+import javax.servlet.ServletContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Fingerprints of the static assets of the web application, the hashes of their contents. An asset requested
+ * with its fingerprint in the {@value #VERSION_PARAMETER} parameter is cached by the clients for a long time,
+ * the fingerprint changes with the content, and so does the URL. The fingerprint of a directory covers
+ * all the assets in it, for the templates loaded by the scripts.
+ * <p>
+ * The fingerprints are available to the JSP pages in the application attribute {@value #ATTRIBUTE},
+ * e.g. <code>${assets.url('/css/style.css')}</code>. They are computed once, as the assets are part
+ * of the deployed application.
+ *
+ * @author Robert Duriancik
+ */
+public class AssetFingerprints implements ServletContextAware {
+
+    public static final String ATTRIBUTE = "assets";
+
+    public static final String VERSION_PARAMETER = "v";
+
+    private final ConcurrentMap<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    private ServletContext servletContext;
+
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        this.servletContext = servletContext;
+        servletContext.setAttribute(ATTRIBUTE, this);
+    }
+
+    /**
+     * Returns the URL of the asset with its fingerprint.
+     *
+     * @param path path of the asset within the application, starting with a slash
+     * @return path with the fingerprint parameter
+     * @throws IllegalArgumentException if there is no such asset
+     */
+    public String url(String path) {
+        return path + "?" + VERSION_PARAMETER + "=" + fingerprint(path);
+    }
+
+    /**
+     * Returns the fingerprint of the asset or of all the assets in the directory.
+     *
+     * @param path path of the asset or the directory within the application, starting with a slash
+     * @return hash of the content
+     * @throws IllegalArgumentException if there is no such asset or directory
+     */
+    public String fingerprint(String path) {
+        String fingerprint = findFingerprint(path);
+        if (fingerprint == null) {
+            throw new IllegalArgumentException("No asset " + path);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Tells whether the version is the fingerprint of the asset or of a directory containing it.
+     *
+     * @param path    path of the requested asset within the application
+     * @param version the requested version
+     * @return true if the version identifies the current content of the asset
+     */
+    public boolean matches(String path, String version) {
+        for (String current = path; !current.isEmpty(); current = current.substring(0, current.lastIndexOf('/'))) {
+            if (version.equals(findFingerprint(current))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String findFingerprint(String path) {
+        String normalized = path.replaceAll("/{2,}", "/");
+        if (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        // not computeIfAbsent, the fingerprint of a directory needs the fingerprints of its content
+        String fingerprint = fingerprints.get(normalized);
+        if (fingerprint == null) {
+            fingerprint = computeFingerprint(normalized);
+            if (fingerprint != null) {
+                fingerprints.putIfAbsent(normalized, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    private String computeFingerprint(String path) {
+        Set<String> children = servletContext.getResourcePaths(path + "/");
+        if (children != null) {
+            StringBuilder content = new StringBuilder();
+            for (String child : new TreeSet<>(children)) {
+                content.append(child).append('=').append(findFingerprint(child)).append('\n');
+            }
+            return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (InputStream content = servletContext.getResourceAsStream(path)) {
+            return content == null ? null : DigestUtils.md5DigestAsHex(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read asset " + path, e);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package cz.fi.muni.pa165.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses the responses with gzip for the clients accepting it. A response is compressed if its content type
+ * is one of the compressible types and its body reaches the minimum size, smaller bodies are sent as they are.
+ * The body of a compressible type is buffered until the minimum size is reached, then it is compressed
+ * as it is written, so that streamed responses are compressed too. The body of any other type
+ * is passed through on the first flush, which also sends the headers of a stream of events before its first event.
+ * An asynchronously processed response is finished by the last asynchronous dispatch.
+ * <p>
+ * The compressed body is a representation of its own, so its entity tag gets the suffix
+ * <b>{@value #GZIP_ETAG_SUFFIX}</b> inside the quotes, see {@link #toGzipEtag(String)}.
+ *
+ * @author Robert Duriancik
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+
+    static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    private final boolean enabled;
+    private final int minSize;
+    private final int level;
+    private final List<MediaType> compressibleTypes;
+
+    /**
+     * @param enabled           whether the responses are compressed at all
+     * @param minSize           minimum size of a compressed body in bytes
+     * @param level             deflate compression level from 1 (fastest) to 9 (smallest)
+     * @param compressibleTypes content types to compress, may contain wildcards such as <b>text/*</b>
+     */
+    public CompressionFilter(boolean enabled, int minSize, int level, Collection<String> compressibleTypes) {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("minSize is negative");
+        }
+        if (level < 1 || level > 9) {
+            throw new IllegalArgumentException("level is not between 1 and 9");
+        }
+        this.enabled = enabled;
+        this.minSize = minSize;
+        this.level = level;
+        this.compressibleTypes = MediaType.parseMediaTypes(String.join(",", compressibleTypes));
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || HttpMethod.HEAD.matches(request.getMethod()) || !acceptsGzip(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // the asynchronous dispatch gets the response wrapped by the initial one
+        GzipResponseWrapper wrapper = WebUtils.getNativeResponse(response, GzipResponseWrapper.class);
+        if (wrapper == null) {
+            wrapper = new GzipResponseWrapper(response);
+        }
+        filterChain.doFilter(request, wrapper);
+        if (!isAsyncStarted(request)) {
+            wrapper.finish();
+        }
+    }
+
+    /**
+     * Returns the entity tag of the compressed body, given the tag of the plain one.
+     *
+     * @param etag strong or weak entity tag, including the quotes
+     * @return the tag with the suffix inside the quotes
+     */
+    static String toGzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + GZIP_ETAG_SUFFIX + '"';
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (headers.hasMoreElements()) {
+            for (String coding : StringUtils.tokenizeToStringArray(headers.nextElement(), ",")) {
+                String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+                if (parts.length > 0 && (GZIP.equalsIgnoreCase(parts[0]) || "*".equals(parts[0]))
+                        && (parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isCompressible(HttpServletResponse response) {
+        if (response.getContentType() == null || response.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        int status = response.getStatus();
+        if (status == HttpServletResponse.SC_NO_CONTENT || status == HttpServletResponse.SC_NOT_MODIFIED
+                || status == HttpServletResponse.SC_PARTIAL_CONTENT) {
+            return false;
+        }
+
+        MediaType contentType;
+        try {
+            contentType = MediaType.parseMediaType(response.getContentType());
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        for (MediaType compressibleType : compressibleTypes) {
+            if (compressibleType.includes(contentType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Response buffering the body until it decides whether to compress it.
+     */
+    private class GzipResponseWrapper extends HttpServletResponseWrapper {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private long contentLength = -1;
+        private OutputStream target;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        GzipResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            if (outputStream == null) {
+                outputStream = new BodyOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (outputStream != null && writer == null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            if (writer == null) {
+                outputStream = new BodyOutputStream();
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (target == null) {
+                contentLength = len;
+            } else if (!isCompressed()) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.addIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            } else if (outputStream != null) {
+                outputStream.flush();
+            }
+            // the message converters flush the buffer at the end of a body, a small one stays buffered until the end
+            if (target == null && !isCompressible(this)) {
+                start(false);
+            }
+            if (target != null) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (target != null) {
+                throw new IllegalStateException("The response is already committed");
+            }
+            buffer.reset();
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            resetBuffer();
+            contentLength = -1;
+            super.reset();
+        }
+
+        private boolean isCompressed() {
+            return target instanceof GZIPOutputStream;
+        }
+
+        /**
+         * Decides between the compressed and the plain body and writes the buffered part of it.
+         */
+        private void start(boolean compress) throws IOException {
+            if (compress) {
+                setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                String etag = getHeader(HttpHeaders.ETAG);
+                if (etag != null && etag.endsWith("\"")) {
+                    setHeader(HttpHeaders.ETAG, toGzipEtag(etag));
+                }
+                target = new GZIPOutputStream(super.getOutputStream(), 8192, true) {
+                    {
+                        def.setLevel(level);
+                    }
+                };
+            } else {
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                }
+                target = super.getOutputStream();
+            }
+            buffer.writeTo(target);
+            buffer.reset();
+        }
+
+        /**
+         * Writes the rest of the body, called once the request has been processed.
+         */
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                if (buffer.size() == 0) {
+                    return;
+                }
+                contentLength = buffer.size();
+                start(false);
+            }
+            if (isCompressed()) {
+                ((GZIPOutputStream) target).finish();
+            }
+        }
+
+        private class BodyOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (target == null) {
+                    buffer.write(b, off, len);
+                    if (buffer.size() >= minSize) {
+                        start(isCompressible(GzipResponseWrapper.this));
+                    }
+                } else {
+                    target.write(b, off, len);
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (target == null) {
+                    if (buffer.size() == 0 || isCompressible(GzipResponseWrapper.this)) {
+                        return;
+                    }
+                    start(false);
+                }
+                target.flush();
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new UnsupportedOperationException("Non-blocking writes are not supported");
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package cz.fi.muni.pa165.config;
+
+import cz.fi.muni.pa165.controllers.ConditionalGet;
+import cz.fi.muni.pa165.service.CollectionVersions;
+import cz.fi.muni.pa165.service.VersionedCollection;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Enumeration;
+
+/**
+ * Answers the conditional GET and HEAD requests of the handlers annotated with {@link ConditionalGet}.
+ * The strong entity tag and the last modification time are computed from the versions of the collections
+ * before the handler runs, so that a response read after a change never carries the tag from before it.
+ * A request matching them is answered with 304 Not Modified without invoking the handler, hence without
+ * loading or serializing any data. Other requests get the tag and the time in the response headers.
+ * A request revalidating a compressed body is matched against the tag the {@link CompressionFilter} gave it.
+ *
+ * @author Robert Duriancik
+ */
+public class ConditionalGetInterceptor extends HandlerInterceptorAdapter {
+
+    private final CollectionVersions collectionVersions;
+
+    public ConditionalGetInterceptor(CollectionVersions collectionVersions) {
+        this.collectionVersions = collectionVersions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the asynchronous dispatch of a response already checked
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        if (method != HttpMethod.GET && method != HttpMethod.HEAD) {
+            return true;
+        }
+
+        VersionedCollection[] collections = getCollections((HandlerMethod) handler);
+        if (collections.length == 0) {
+            return true;
+        }
+
+        String etag = "\"" + collectionVersions.getTag(collections) + "\"";
+        // a client caching the compressed body revalidates it with the tag given by the compression filter
+        String gzipEtag = CompressionFilter.toGzipEtag(etag);
+        if (containsEtag(request, gzipEtag)) {
+            etag = gzipEtag;
+        }
+        long lastModified = collectionVersions.getLastModified(collections);
+        return !new ServletWebRequest(request, response).checkNotModified(etag, lastModified);
+    }
+
+    private static boolean containsEtag(HttpServletRequest request, String etag) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        while (headers.hasMoreElements()) {
+            for (String tag : StringUtils.tokenizeToStringArray(headers.nextElement(), ",")) {
+                if (tag.equals(etag) || tag.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static VersionedCollection[] getCollections(HandlerMethod handler) {
+        ConditionalGet conditionalGet = handler.getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            conditionalGet = handler.getBeanType().getAnnotation(ConditionalGet.class);
+        }
+        return conditionalGet == null ? new VersionedCollection[0] : conditionalGet.value();
+    }
+}
@@ -0,0 +1,251 @@
+package cz.fi.muni.pa165.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.fi.muni.pa165.dto.FlightBoardDTO;
+import cz.fi.muni.pa165.dto.FlightBoardEventDTO;
+import cz.fi.muni.pa165.exceptions.ServiceUnavailableException;
+import cz.fi.muni.pa165.facade.FlightBoardFacade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pushes the live flight board to its clients as Server-Sent Events. A client gets the flights in the air
+ * as a <b>board</b> event, then the changes as the events named by their type, such as <b>departed</b>.
+ * The id of every event is the id of the last change it reflects.
+ * <p>
+ * All clients share a single listener of the {@link FlightBoardFacade}, so a change is loaded and serialized once
+ * whatever the number of clients, and no change is loaded while there are no clients. The board sent on connect
+ * is cached until the next change, and is sent to every client again once the board lost some changes.
+ * Everything is sent by a single thread in the order of the changes, which also sends a comment as a heartbeat,
+ * so that the idle connections are kept open by the proxies and the disconnected clients are dropped.
+ *
+ * @author Robert Duriancik
+ */
+public class FlightBoardBroadcaster {
+
+    private static final String BOARD_EVENT = "board";
+
+    private final static Logger logger = LoggerFactory.getLogger(FlightBoardBroadcaster.class);
+
+    private final FlightBoardFacade flightBoardFacade;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMillis;
+    private final long heartbeatMillis;
+    private final ScheduledExecutorService executor;
+    private final Consumer<FlightBoardEventDTO> listener = event -> execute(() -> broadcast(event));
+
+    /**
+     * Connected clients, added by the sending thread once they got the board.
+     */
+    private final Set<SseEmitter> emitters = new CopyOnWriteArraySet<>();
+
+    /**
+     * Whether the listener is subscribed, the board sent to the connecting clients as JSON, null once a change
+     * arrives, and the id of its last change. Accessed by the sending thread.
+     */
+    private boolean subscribed;
+    private String board;
+    private long boardEventId;
+
+    /**
+     * @param flightBoardFacade    facade of the board
+     * @param objectMapper         mapper serializing the events
+     * @param emitterTimeoutMillis time in milliseconds after which a connection is closed, the clients reconnect
+     * @param heartbeatMillis      time in milliseconds between the heartbeats
+     */
+    public FlightBoardBroadcaster(FlightBoardFacade flightBoardFacade, ObjectMapper objectMapper,
+                                  long emitterTimeoutMillis, long heartbeatMillis) {
+        if (emitterTimeoutMillis < 1 || heartbeatMillis < 1) {
+            throw new IllegalArgumentException("Timeout and heartbeat interval must be positive.");
+        }
+        this.flightBoardFacade = flightBoardFacade;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("airport-flight-board-sse-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    /**
+     * Starts the heartbeats.
+     */
+    public void start() {
+        executor.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Unsubscribes from the board and closes the connections.
+     */
+    public void shutdown() {
+        execute(() -> {
+            emitters.forEach(SseEmitter::complete);
+            emitters.clear();
+            release();
+        });
+        executor.shutdown();
+    }
+
+    /**
+     * Connects a client, which gets the current board first.
+     *
+     * @return emitter of the events, to be returned by the request handler
+     */
+    public SseEmitter connect() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        emitter.onCompletion(() -> {
+            emitters.remove(emitter);
+            execute(this::release);
+        });
+        try {
+            executor.execute(() -> add(emitter));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("The flight board is shut down");
+        }
+        return emitter;
+    }
+
+    /**
+     * Writes the number of the connected clients in the Prometheus text format.
+     *
+     * @param writer writer of the metrics
+     * @throws IOException if the writer fails
+     */
+    public void writePrometheus(Writer writer) throws IOException {
+        writer.write("# HELP airport_board_clients Clients connected to the live flight board.\n");
+        writer.write("# TYPE airport_board_clients gauge\n");
+        writer.write("airport_board_clients " + emitters.size() + '\n');
+        writer.flush();
+    }
+
+    private void add(SseEmitter emitter) {
+        // subscribes before reading the board, so that no change is missed in between
+        if (!subscribed) {
+            flightBoardFacade.subscribe(listener);
+            subscribed = true;
+            board = null;
+        }
+        try {
+            loadBoard();
+            emitter.send(boardEvent());
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Sending the flight board failed.", e);
+            emitter.completeWithError(e);
+            release();
+            return;
+        }
+        emitters.add(emitter);
+    }
+
+    /**
+     * Reads the board unless it is cached.
+     */
+    private void loadBoard() throws JsonProcessingException {
+        if (board == null) {
+            FlightBoardDTO boardDTO = flightBoardFacade.getBoard(LocalDateTime.now());
+            board = objectMapper.writeValueAsString(boardDTO);
+            boardEventId = boardDTO.getLastEventId();
+        }
+    }
+
+    private SseEmitter.SseEventBuilder boardEvent() {
+        // the JSON is written as it is by the string converter
+        return SseEmitter.event()
+                .name(BOARD_EVENT)
+                .id(Long.toString(boardEventId))
+                .data(board, MediaType.TEXT_PLAIN);
+    }
+
+    /**
+     * Unsubscribes the listener once the last client disconnects.
+     */
+    private void release() {
+        if (subscribed && emitters.isEmpty()) {
+            flightBoardFacade.unsubscribe(listener);
+            subscribed = false;
+            board = null;
+        }
+    }
+
+    private void broadcast(FlightBoardEventDTO event) {
+        board = null;
+        if (event.getType() == FlightBoardEventDTO.Type.RESET) {
+            resetBoard();
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            logger.warn("Serializing " + event + " failed.", e);
+            return;
+        }
+        String name = event.getType().name().toLowerCase(Locale.ROOT);
+        String id = Long.toString(event.getId());
+        send(() -> SseEmitter.event().name(name).id(id).data(data, MediaType.TEXT_PLAIN));
+    }
+
+    /**
+     * Sends a fresh board to all clients, as some changes were lost.
+     */
+    private void resetBoard() {
+        try {
+            loadBoard();
+        } catch (IOException | RuntimeException e) {
+            // the clients reconnect and read the board again
+            logger.warn("Reading the flight board after a reset failed.", e);
+            emitters.forEach(emitter -> emitter.completeWithError(e));
+            emitters.clear();
+            release();
+            return;
+        }
+        send(this::boardEvent);
+    }
+
+    private void heartbeat() {
+        // also bounds the age of the cached board, in case a change was not delivered
+        board = null;
+        send(() -> SseEmitter.event().comment("heartbeat"));
+    }
+
+    /**
+     * Sends an event to all clients, a builder is built only once so every client gets its own.
+     */
+    private void send(Supplier<SseEmitter.SseEventBuilder> event) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(event.get());
+            } catch (IOException | RuntimeException e) {
+                // the client disconnected
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+        release();
+    }
+
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Flight board broadcaster is shut down, dropping its update.");
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package cz.fi.muni.pa165.config;
+
+import cz.fi.muni.pa165.exceptions.ServiceUnavailableException;
+import cz.fi.muni.pa165.jdbc.SqlRecorder;
+import cz.fi.muni.pa165.jdbc.SqlStatistics;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs the work of slow request handlers on a bounded pool of threads, so that the container threads
+ * are released while it runs. The handlers return the {@link DeferredResult} of {@link #submit(Supplier)},
+ * which is completed by the pool.
+ * <p>
+ * A request is answered with 503 Service Unavailable if the queue of the pool is full, or if the work
+ * does not complete within the timeout. Work still queued at the timeout is skipped. The request attributes
+ * and the SQL recording of the request are carried over to the pool thread, for the links of the responses
+ * and the statistics of {@link SqlStatisticsFilter}.
+ *
+ * @author Robert Duriancik
+ */
+public class RequestExecutor {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final String name;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * @param name          name of the pool, used in its thread names and metrics
+     * @param threads       number of the threads
+     * @param queueCapacity number of the requests waiting for a thread, more are rejected
+     * @param timeoutMillis time in milliseconds in which a request has to be completed
+     */
+    public RequestExecutor(String name, int threads, int queueCapacity, long timeoutMillis) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Threads and queue capacity must be positive.");
+        }
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("Timeout must be positive.");
+        }
+        this.name = name;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("airport-" + name + "-"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Submits the work of a request handler.
+     *
+     * @param task work of the handler, run on a thread of the pool
+     * @param <T>  type of the result
+     * @return result completed with the value of the task, or with the exception thrown by it
+     */
+    public <T> DeferredResult<T> submit(Supplier<T> task) {
+        DeferredResult<T> result = new DeferredResult<>(timeoutMillis);
+        result.onTimeout(() -> {
+            timeouts.increment();
+            result.setErrorResult(new ServiceUnavailableException("The request timed out, try again later"));
+        });
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        SqlStatistics statistics = SqlRecorder.current();
+        long submitted = System.nanoTime();
+        try {
+            executor.execute(() -> run(task, result, requestAttributes, statistics, submitted));
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            result.setErrorResult(new ServiceUnavailableException("Too many concurrent requests, try again later"));
+        }
+        return result;
+    }
+
+    private <T> void run(Supplier<T> task, DeferredResult<T> result, RequestAttributes requestAttributes,
+                         SqlStatistics statistics, long submitted) {
+        long started = System.nanoTime();
+        queued.increment();
+        queueNanos.add(started - submitted);
+        if (result.isSetOrExpired()) {
+            return;
+        }
+
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        if (statistics != null) {
+            SqlRecorder.resume(statistics);
+        }
+        try {
+            result.setResult(task.get());
+        } catch (RuntimeException e) {
+            result.setErrorResult(e);
+        } finally {
+            SqlRecorder.stop();
+            RequestContextHolder.resetRequestAttributes();
+            runs.increment();
+            runNanos.add(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Stops the threads once the submitted work is done.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Writes the metrics of the pools in the Prometheus text format.
+     *
+     * @param executors the pools
+     * @param writer    writer of the metrics
+     * @throws IOException if the writer fails
+     */
+    public static void writePrometheus(Collection<RequestExecutor> executors, Writer writer) throws IOException {
+        writer.write("# HELP airport_executor_threads Threads of the request executor.\n");
+        writer.write("# TYPE airport_executor_threads gauge\n");
+        for (RequestExecutor executor : executors) {
+            int active = executor.executor.getActiveCount();
+            writer.write("airport_executor_threads{pool=\"" + executor.name + "\",state=\"active\"} " + active + '\n');
+            writer.write("airport_executor_threads{pool=\"" + executor.name + "\",state=\"idle\"} "
+                    + Math.max(0, executor.executor.getPoolSize() - active) + '\n');
+        }
+
+        writer.write("# HELP airport_executor_queued_requests Requests waiting for a thread of the executor.\n");
+        writer.write("# TYPE airport_executor_queued_requests gauge\n");
+        for (RequestExecutor executor : executors) {
+            writer.write("airport_executor_queued_requests{pool=\"" + executor.name + "\"} "
+                    + executor.executor.getQueue().size() + '\n');
+        }
+
+        writer.write("# HELP airport_executor_queue_seconds Time the requests waited for a thread of the executor.\n");
+        writer.write("# TYPE airport_executor_queue_seconds summary\n");
+        for (RequestExecutor executor : executors) {
+            writer.write("airport_executor_queue_seconds_sum{pool=\"" + executor.name + "\"} "
+                    + executor.queueNanos.sum() / NANOS_PER_SECOND + '\n');
+            writer.write("airport_executor_queue_seconds_count{pool=\"" + executor.name + "\"} "
+                    + executor.queued.sum() + '\n');
+        }
+
+        writer.write("# HELP airport_executor_run_seconds Time of the work of the requests run by the executor.\n");
+        writer.write("# TYPE airport_executor_run_seconds summary\n");
+        for (RequestExecutor executor : executors) {
+            writer.write("airport_executor_run_seconds_sum{pool=\"" + executor.name + "\"} "
+                    + executor.runNanos.sum() / NANOS_PER_SECOND + '\n');
+            writer.write("airport_executor_run_seconds_count{pool=\"" + executor.name + "\"} "
+                    + executor.runs.sum() + '\n');
+        }
+
+        writer.write("# HELP airport_executor_rejections_total Requests rejected as the queue of the executor was full.\n");
+        writer.write("# TYPE airport_executor_rejections_total counter\n");
+        for (RequestExecutor executor : executors) {
+            writer.write("airport_executor_rejections_total{pool=\"" + executor.name + "\"} "
+                    + executor.rejections.sum() + '\n');
+        }
+
+        writer.write("# HELP airport_executor_timeouts_total Requests of the executor which timed out.\n");
+        writer.write("# TYPE airport_executor_timeouts_total counter\n");
+        for (RequestExecutor executor : executors) {
+            writer.write("airport_executor_timeouts_total{pool=\"" + executor.name + "\"} "
+                    + executor.timeouts.sum() + '\n');
+        }
+        writer.flush();
+    }
+}
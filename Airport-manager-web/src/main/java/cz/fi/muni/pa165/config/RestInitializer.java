@@ -1,8 +1,35 @@
 package cz.fi.muni.pa165.config;
 
+import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.servlet.support.AbstractAnnotationConfigDispatcherServletInitializer;
 
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
+import javax.servlet.FilterRegistration;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import java.util.EnumSet;
+
 public class RestInitializer extends AbstractAnnotationConfigDispatcherServletInitializer {
+
+    /**
+     * Registers the filters of the API and also the ones of the whole application, including the static assets
+     * served by the container.
+     */
+    @Override
+    public void onStartup(ServletContext servletContext) throws ServletException {
+        super.onStartup(servletContext);
+
+        FilterRegistration.Dynamic compression = servletContext.addFilter("compressionFilter",
+                new DelegatingFilterProxy("compressionFilter"));
+        compression.setAsyncSupported(isAsyncSupported());
+        compression.addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC), false, "/*");
+
+        FilterRegistration.Dynamic assetCache = servletContext.addFilter("assetCacheFilter",
+                new DelegatingFilterProxy("assetCacheFilter"));
+        assetCache.addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), false, AssetCacheFilter.URL_PATTERNS);
+    }
+
     @Override
     protected Class<?>[] getRootConfigClasses() {
         return new Class<?>[]{RestSpringMvcConfig.class};
@@ -17,4 +44,9 @@ public class RestInitializer extends AbstractAnnotationConfigDispatcherServletIn
     protected String[] getServletMappings() {
         return new String[]{"/api/*"};
     }
+
+    @Override
+    protected Filter[] getServletFilters() {
+        return new Filter[]{new DelegatingFilterProxy("sqlStatisticsFilter")};
+    }
 }
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import cz.fi.muni.pa165.facade.FlightBoardFacade;
+import cz.fi.muni.pa165.service.CollectionVersions;
 import cz.muni.fi.pa165.sampledata.AirportManagerSampleDataConfiguration;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,19 +14,27 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.config.EnableHypermediaSupport;
+import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.validation.Validator;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configures a REST application with HATEOAS responses using HAL format.
@@ -34,6 +44,7 @@ import java.util.List;
 @EnableWebMvc
 @Configuration
 @Import(AirportManagerSampleDataConfiguration.class)
+@PropertySource("classpath:airport.properties")
 @ComponentScan(basePackages = {"cz.fi.muni.pa165.controllers", "cz.fi.muni.pa165.hateoas"})
 public class RestSpringMvcConfig extends WebMvcConfigurerAdapter {
 
@@ -42,6 +53,15 @@ public class RestSpringMvcConfig extends WebMvcConfigurerAdapter {
     @Autowired
     private BeanFactory beanFactory;
 
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private FlightBoardFacade flightBoardFacade;
+
     @Bean
     public MappingJackson2HttpMessageConverter customJackson2HttpMessageConverter() {
         MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
@@ -71,9 +91,102 @@ public class RestSpringMvcConfig extends WebMvcConfigurerAdapter {
         return new LocalValidatorFactoryBean();
     }
 
+    /**
+     * Provides the filter recording the SQL statements of the requests, registered by {@link RestInitializer}.
+     *
+     * @return filter configured by the properties <b>airport.sql.*</b>
+     */
+    @Bean
+    public SqlStatisticsFilter sqlStatisticsFilter() {
+        return new SqlStatisticsFilter(
+                environment.getProperty("airport.sql.debug-headers", Boolean.class, false),
+                environment.getProperty("airport.sql.slow-request.statements", Long.class, 50L),
+                environment.getProperty("airport.sql.slow-request.millis", Long.class, 1000L));
+    }
+
+    /**
+     * Provides the filter compressing the responses, registered by {@link RestInitializer}.
+     *
+     * @return filter configured by the properties <b>airport.compression.*</b>
+     */
+    @Bean
+    public CompressionFilter compressionFilter() {
+        return new CompressionFilter(
+                environment.getProperty("airport.compression.enabled", Boolean.class, true),
+                environment.getProperty("airport.compression.min-size-bytes", Integer.class, 1024),
+                environment.getProperty("airport.compression.level", Integer.class, 6),
+                Arrays.asList(environment.getProperty("airport.compression.mime-types", String[].class,
+                        new String[]{MediaType.APPLICATION_JSON_VALUE, MediaTypes.HAL_JSON_VALUE})));
+    }
+
+    @Bean
+    public AssetFingerprints assetFingerprints() {
+        return new AssetFingerprints();
+    }
+
+    /**
+     * Provides the filter setting the caching of the static assets, registered by {@link RestInitializer}.
+     *
+     * @return filter configured by the property <b>airport.assets.max-age-seconds</b>
+     */
+    @Bean
+    public AssetCacheFilter assetCacheFilter() {
+        return new AssetCacheFilter(assetFingerprints(),
+                environment.getProperty("airport.assets.max-age-seconds", Long.class, TimeUnit.DAYS.toSeconds(365)));
+    }
+
+    /**
+     * Provides the executor of the searches of free airplanes and stewards.
+     *
+     * @return executor configured by the properties <b>airport.executor.availability.*</b>
+     */
+    @Bean(destroyMethod = "shutdown")
+    public RequestExecutor availabilityExecutor() {
+        return requestExecutor("availability");
+    }
+
+    /**
+     * Provides the executor of the flight lists of destinations and stewards.
+     *
+     * @return executor configured by the properties <b>airport.executor.flight-lists.*</b>
+     */
+    @Bean(destroyMethod = "shutdown")
+    public RequestExecutor flightListExecutor() {
+        return requestExecutor("flight-lists");
+    }
+
+    /**
+     * Provides the broadcaster of the live flight board to the connected clients.
+     *
+     * @return broadcaster configured by the properties <b>airport.board.*</b>
+     */
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public FlightBoardBroadcaster flightBoardBroadcaster() {
+        return new FlightBoardBroadcaster(flightBoardFacade, objectMapper(),
+                environment.getProperty("airport.board.emitter-timeout-millis", Long.class,
+                        TimeUnit.MINUTES.toMillis(30)),
+                environment.getProperty("airport.board.heartbeat-millis", Long.class,
+                        TimeUnit.SECONDS.toMillis(15)));
+    }
+
+    private RequestExecutor requestExecutor(String name) {
+        String prefix = "airport.executor." + name + ".";
+        return new RequestExecutor(name,
+                environment.getProperty(prefix + "threads", Integer.class, 4),
+                environment.getProperty(prefix + "queue-capacity", Integer.class, 50),
+                environment.getProperty(prefix + "timeout-millis", Long.class, 10_000L));
+    }
+
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
         converters.add(customJackson2HttpMessageConverter());
+        // writes the lines of the Server-Sent Events
+        converters.add(new StringHttpMessageConverter(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConditionalGetInterceptor(collectionVersions));
     }
 
     @Override
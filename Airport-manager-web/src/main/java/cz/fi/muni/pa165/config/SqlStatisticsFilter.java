@@ -0,0 +1,130 @@
+package cz.fi.muni.pa165.config;
+
+import cz.fi.muni.pa165.jdbc.SqlRecorder;
+import cz.fi.muni.pa165.jdbc.SqlStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the SQL statements executed during each request. Requests exceeding the statement count
+ * or the JDBC time threshold are logged together with their most expensive statements.
+ * In the debug mode the count and the time are also returned in the response headers
+ * {@value #STATEMENT_COUNT_HEADER} and {@value #SQL_TIME_HEADER}, for which the response body is buffered
+ * until the request completes. An asynchronously processed request is reported once its last dispatch completes.
+ * The streams of Server-Sent Events are not recorded, as they last as long as their clients stay connected.
+ *
+ * @author Robert Duriancik
+ */
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-Sql-Statement-Count";
+
+    public static final String SQL_TIME_HEADER = "X-Sql-Time";
+
+    /**
+     * Number of the distinct statements logged for a slow request.
+     */
+    private static final int LOGGED_STATEMENTS = 10;
+
+    private static final String STATISTICS_ATTRIBUTE = SqlStatisticsFilter.class.getName() + ".statistics";
+
+    private final static Logger logger = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+
+    private final boolean debugHeaders;
+    private final long statementThreshold;
+    private final long nanosThreshold;
+
+    /**
+     * @param debugHeaders       whether the statistics are returned in the response headers
+     * @param statementThreshold number of statements above which a request is logged
+     * @param millisThreshold    JDBC time in milliseconds above which a request is logged
+     */
+    public SqlStatisticsFilter(boolean debugHeaders, long statementThreshold, long millisThreshold) {
+        if (statementThreshold < 0 || millisThreshold < 0) {
+            throw new IllegalArgumentException("Thresholds must not be negative.");
+        }
+        this.debugHeaders = debugHeaders;
+        this.statementThreshold = statementThreshold;
+        this.nanosThreshold = TimeUnit.MILLISECONDS.toNanos(millisThreshold);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // an asynchronously processed request is recorded by all its dispatches and the executor threads
+        SqlStatistics statistics = (SqlStatistics) request.getAttribute(STATISTICS_ATTRIBUTE);
+        if (statistics == null) {
+            statistics = SqlRecorder.start();
+            request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+        } else {
+            SqlRecorder.resume(statistics);
+        }
+        ContentCachingResponseWrapper cachingResponse = null;
+        if (debugHeaders) {
+            cachingResponse = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            if (cachingResponse == null) {
+                cachingResponse = new ContentCachingResponseWrapper(response);
+            }
+        }
+        try {
+            filterChain.doFilter(request, cachingResponse == null ? response : cachingResponse);
+        } finally {
+            SqlRecorder.stop();
+            if (!isAsyncStarted(request)) {
+                if (cachingResponse != null) {
+                    if (!response.isCommitted()) {
+                        response.setHeader(STATEMENT_COUNT_HEADER, Long.toString(statistics.getStatementCount()));
+                        response.setHeader(SQL_TIME_HEADER, formatMillis(statistics.getTotalNanos()));
+                    }
+                    cachingResponse.copyBodyToResponse();
+                }
+                logIfSlow(request, statistics);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    private void logIfSlow(HttpServletRequest request, SqlStatistics statistics) {
+        if (statistics.getStatementCount() <= statementThreshold && statistics.getTotalNanos() <= nanosThreshold) {
+            return;
+        }
+        StringBuilder message = new StringBuilder()
+                .append("Slow request ").append(request.getMethod()).append(' ').append(request.getRequestURI())
+                .append(": ").append(statistics.getStatementCount()).append(" statements in ")
+                .append(formatMillis(statistics.getTotalNanos())).append(" ms");
+        List<SqlStatistics.Statement> statements = statistics.getStatements();
+        for (SqlStatistics.Statement statement : statements.subList(0, Math.min(LOGGED_STATEMENTS, statements.size()))) {
+            message.append("\n  ").append(statement.getCount()).append("x ")
+                    .append(formatMillis(statement.getTotalNanos())).append(" ms: ").append(statement.getSql());
+        }
+        logger.warn(message.toString());
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
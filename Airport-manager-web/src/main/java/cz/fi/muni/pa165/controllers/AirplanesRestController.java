@@ -1,15 +1,20 @@
 package cz.fi.muni.pa165.controllers;
 
+import cz.fi.muni.pa165.config.RequestExecutor;
 import cz.fi.muni.pa165.dto.AirplaneDTO;
 import cz.fi.muni.pa165.exceptions.AirplaneDataAccessException;
 import cz.fi.muni.pa165.exceptions.InvalidRequestException;
 import cz.fi.muni.pa165.exceptions.ResourceNotFoundException;
+import cz.fi.muni.pa165.exceptions.ServerException;
 import cz.fi.muni.pa165.facade.AirplaneFacade;
 import cz.fi.muni.pa165.hateoas.AirplaneResource;
 import cz.fi.muni.pa165.hateoas.AirplaneResourceAssembler;
+import cz.fi.muni.pa165.hateoas.KeysetPage;
+import cz.fi.muni.pa165.service.VersionedCollection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.Resources;
 import org.springframework.http.HttpEntity;
@@ -18,6 +23,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.validation.Valid;
 import java.time.LocalDateTime;
@@ -27,30 +33,52 @@ import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 
 
 @RestController
+@ConditionalGet(VersionedCollection.AIRPLANES)
 @RequestMapping("/airplanes")
 public class AirplanesRestController {
 
     private AirplaneFacade airplaneFacade;
     private AirplaneResourceAssembler airplaneResourceAssembler;
+    private RequestExecutor availabilityExecutor;
     private final static Logger logger = LoggerFactory.getLogger(AirplanesRestController.class);
 
 
     public AirplanesRestController(
             @Autowired AirplaneFacade airplaneFacade,
-            @Autowired AirplaneResourceAssembler airplaneResourceAssembler
+            @Autowired AirplaneResourceAssembler airplaneResourceAssembler,
+            @Autowired @Qualifier("availabilityExecutor") RequestExecutor availabilityExecutor
     ) {
 
         this.airplaneFacade = airplaneFacade;
         this.airplaneResourceAssembler = airplaneResourceAssembler;
+        this.availabilityExecutor = availabilityExecutor;
     }
 
     @RequestMapping(method = RequestMethod.GET)
-    public final HttpEntity<Resources<AirplaneResource>> getAirplanes() {
-        List<AirplaneResource> resourcesCollection = airplaneResourceAssembler.toResources(airplaneFacade.findAll());
-        Resources<AirplaneResource> airplaneResources = new Resources<>(resourcesCollection,
-                linkTo(AirplanesRestController.class).withSelfRel(),
+    public final HttpEntity<Resources<AirplaneResource>> getAirplanes(
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        if (after != null && before != null) {
+            throw new InvalidRequestException("Cannot page both after and before an airplane");
+        }
+
+        int pageLimit = KeysetPage.limit(limit);
+        List<AirplaneDTO> rows;
+        try {
+            rows = airplaneFacade.findPage(after, before, pageLimit + 1);
+        } catch (AirplaneDataAccessException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw new ResourceNotFoundException(e.getCause().getMessage());
+            }
+            throw new ServerException(e);
+        }
+
+        Resources<AirplaneResource> resources = KeysetPage.toResources(
+                rows, after, before, pageLimit, AirplaneDTO::getId,
+                airplaneResourceAssembler, linkTo(AirplanesRestController.class),
                 linkTo(AirplanesRestController.class).slash("/create").withRel("create"));
-        return new ResponseEntity<>(airplaneResources, HttpStatus.OK);
+        return new ResponseEntity<>(resources, HttpStatus.OK);
     }
 
     @RequestMapping(value = "/{id}", method = RequestMethod.GET)
@@ -83,18 +111,21 @@ public class AirplanesRestController {
         return new ResponseEntity<>(airplaneResource, HttpStatus.OK);
     }
 
+    @ConditionalGet({VersionedCollection.AIRPLANES, VersionedCollection.FLIGHTS})
     @RequestMapping(value = "/free", method = RequestMethod.GET)
-    public final HttpEntity<Resources<AirplaneResource>> getFreeAirplanesInTimeRange(@RequestParam("start")
+    public final DeferredResult<HttpEntity<Resources<AirplaneResource>>> getFreeAirplanesInTimeRange(@RequestParam("start")
                                                                                      @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
                                                                                              LocalDateTime start,
                                                                                      @RequestParam("end")
                                                                                      @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
                                                                                              LocalDateTime end) {
-        List<AirplaneResource> freeAirplanes = airplaneResourceAssembler.toResources(airplaneFacade.getFreeAirplanesInTimeRange(start, end));
-
-        Resources<AirplaneResource> airplaneResources = new Resources<>(freeAirplanes,
-                linkTo(AirplanesRestController.class).withSelfRel(),
-                linkTo(AirplanesRestController.class).slash("/create").withRel("create"));
-        return new ResponseEntity<>(airplaneResources, HttpStatus.OK);
+        return availabilityExecutor.submit(() -> {
+            List<AirplaneResource> freeAirplanes = airplaneResourceAssembler.toResources(airplaneFacade.getFreeAirplanesInTimeRange(start, end));
+
+            Resources<AirplaneResource> airplaneResources = new Resources<>(freeAirplanes,
+                    linkTo(AirplanesRestController.class).withSelfRel(),
+                    linkTo(AirplanesRestController.class).slash("/create").withRel("create"));
+            return new ResponseEntity<>(airplaneResources, HttpStatus.OK);
+        });
     }
 }
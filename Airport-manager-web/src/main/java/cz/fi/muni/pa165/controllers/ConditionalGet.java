@@ -0,0 +1,31 @@
+package cz.fi.muni.pa165.controllers;
+
+import cz.fi.muni.pa165.service.VersionedCollection;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the collections the response of a GET handler is built from. The response gets an entity tag
+ * and a last modification time from their versions, and a conditional request matching them is answered
+ * with 304 Not Modified before the handler is invoked.
+ * <p>
+ * An annotation of a method overrides the one of its controller. A method whose response does not depend
+ * on the collections only, for example on the current time, disables the check with an empty value.
+ *
+ * @author Robert Duriancik
+ * @see cz.fi.muni.pa165.config.ConditionalGetInterceptor
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ConditionalGet {
+
+    /**
+     * @return the collections the response is built from
+     */
+    VersionedCollection[] value();
+}
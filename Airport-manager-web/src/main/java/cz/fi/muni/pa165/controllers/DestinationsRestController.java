@@ -1,16 +1,22 @@
 package cz.fi.muni.pa165.controllers;
 
 
+import cz.fi.muni.pa165.config.RequestExecutor;
 import cz.fi.muni.pa165.dto.DestinationDTO;
+import cz.fi.muni.pa165.exceptions.DestinationDataAccessException;
 import cz.fi.muni.pa165.exceptions.InvalidRequestException;
 import cz.fi.muni.pa165.exceptions.ResourceNotFoundException;
+import cz.fi.muni.pa165.exceptions.ServerException;
 import cz.fi.muni.pa165.facade.DestinationFacade;
 import cz.fi.muni.pa165.facade.FlightFacade;
 import cz.fi.muni.pa165.hateoas.DestinationResource;
 import cz.fi.muni.pa165.hateoas.DestinationResourceAssembler;
 import cz.fi.muni.pa165.hateoas.FlightResource;
 import cz.fi.muni.pa165.hateoas.FlightResourceAssembler;
+import cz.fi.muni.pa165.hateoas.KeysetPage;
+import cz.fi.muni.pa165.service.VersionedCollection;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.hateoas.ExposesResourceFor;
 import org.springframework.hateoas.Resources;
 import org.springframework.http.HttpEntity;
@@ -19,6 +25,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -29,6 +36,7 @@ import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
  * @author Karel Jiranek
  */
 @RestController
+@ConditionalGet(VersionedCollection.DESTINATIONS)
 @ExposesResourceFor(DestinationDTO.class)
 @RequestMapping("/destinations")
 public class DestinationsRestController {
@@ -37,39 +45,63 @@ public class DestinationsRestController {
     private DestinationResourceAssembler destinationResourceAssembler;
     private DestinationFacade destinationFacade;
     private FlightResourceAssembler flightResourceAssembler;
+    private RequestExecutor flightListExecutor;
 
     /**
      * Create DestinationsRestController
      * @param destinationFacade Destination facade.
      * @param destinationResourceAssembler Destination Resource Assembler.
+     * @param flightListExecutor Executor of the flight lists.
      */
     public DestinationsRestController(
             @Autowired DestinationFacade destinationFacade,
             @Autowired FlightFacade flightFacade,
             @SuppressWarnings("SpringJavaAutowiringInspection")
             @Autowired DestinationResourceAssembler destinationResourceAssembler,
-            @Autowired FlightResourceAssembler flightResourceAssembler)
+            @Autowired FlightResourceAssembler flightResourceAssembler,
+            @Autowired @Qualifier("flightListExecutor") RequestExecutor flightListExecutor)
      {
         this.destinationFacade = destinationFacade;
         this.destinationResourceAssembler = destinationResourceAssembler;
         this.flightFacade = flightFacade;
         this.flightResourceAssembler = flightResourceAssembler;
+        this.flightListExecutor = flightListExecutor;
     }
 
 
     /**
-     * Get all destinations.
+     * Get a page of destinations ordered by id.
      *
-     * @return All destinations.
+     * @param after  Id of the destination the page follows, may be null.
+     * @param before Id of the destination the page precedes, may be null.
+     * @param limit  Maximal number of destinations in the page.
+     * @return Page of destinations with next/prev links.
      */
     @RequestMapping(method = RequestMethod.GET)
-    public final HttpEntity<Resources<DestinationResource>> destinations() {
-        List<DestinationDTO> allDestinations = destinationFacade.getAllDestinations();
-        Resources<DestinationResource> destinationResources = new Resources<>(
-                destinationResourceAssembler.toResources(allDestinations),
-                linkTo(DestinationsRestController.class).withSelfRel(),
+    public final HttpEntity<Resources<DestinationResource>> destinations(
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        if (after != null && before != null) {
+            throw new InvalidRequestException("Cannot page both after and before a destination");
+        }
+
+        int pageLimit = KeysetPage.limit(limit);
+        List<DestinationDTO> rows;
+        try {
+            rows = destinationFacade.getDestinationsPage(after, before, pageLimit + 1);
+        } catch (DestinationDataAccessException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw new ResourceNotFoundException(e.getCause().getMessage());
+            }
+            throw new ServerException(e);
+        }
+
+        Resources<DestinationResource> resources = KeysetPage.toResources(
+                rows, after, before, pageLimit, DestinationDTO::getId,
+                destinationResourceAssembler, linkTo(DestinationsRestController.class),
                 linkTo(DestinationsRestController.class).slash("/create").withRel("create"));
-        return new ResponseEntity<>(destinationResources, HttpStatus.OK);
+        return new ResponseEntity<>(resources, HttpStatus.OK);
     }
 
     /**
@@ -176,32 +208,38 @@ public class DestinationsRestController {
      * Get all incoming flight to destination.
      *
      * @param id Destination id.
-     * @return All incoming flight to given destination.
-     * @throws Exception If something went wrong.
+     * @return All incoming flight to given destination, completed by the flight list executor.
      */
+    @ConditionalGet({VersionedCollection.FLIGHTS, VersionedCollection.AIRPLANES, VersionedCollection.DESTINATIONS,
+            VersionedCollection.STEWARDS})
     @RequestMapping(value = "/{id}/incomingFlights", method = RequestMethod.GET)
-    public final HttpEntity<Resources<FlightResource>> incomingFlights(@PathVariable("id") long id) throws Exception {
-        DestinationDTO destinationById = destinationFacade.getDestinationById(id);
-        if (destinationById == null) throw new ResourceNotFoundException("Destinations with id" + id + " not found");
-        List<FlightResource> resourcesCollection = flightResourceAssembler.toResources(destinationFacade.getAllIncomingFlights(destinationById));
-        Resources<FlightResource> flightResources = new Resources<>(resourcesCollection);
-        return new ResponseEntity<>(flightResources, HttpStatus.OK);
+    public final DeferredResult<HttpEntity<Resources<FlightResource>>> incomingFlights(@PathVariable("id") long id) {
+        return flightListExecutor.submit(() -> {
+            DestinationDTO destinationById = destinationFacade.getDestinationById(id);
+            if (destinationById == null) throw new ResourceNotFoundException("Destinations with id" + id + " not found");
+            List<FlightResource> resourcesCollection = flightResourceAssembler.toResources(destinationFacade.getAllIncomingFlights(destinationById));
+            Resources<FlightResource> flightResources = new Resources<>(resourcesCollection);
+            return new ResponseEntity<>(flightResources, HttpStatus.OK);
+        });
     }
 
     /**
      * Get all outgoing flight to destination.
      *
      * @param id Destination id.
-     * @return All outgoing flight to given destination.
-     * @throws Exception If something went wrong.
+     * @return All outgoing flight to given destination, completed by the flight list executor.
      */
+    @ConditionalGet({VersionedCollection.FLIGHTS, VersionedCollection.AIRPLANES, VersionedCollection.DESTINATIONS,
+            VersionedCollection.STEWARDS})
     @RequestMapping(value = "/{id}/outgoingFlights", method = RequestMethod.GET)
-    public final HttpEntity<Resources<FlightResource>> outgoingFlights (@PathVariable("id") long id) throws Exception {
-        DestinationDTO destinationById = destinationFacade.getDestinationById(id);
-        if (destinationById == null) throw new ResourceNotFoundException("Destinations with id" + id + " not found");
-        List<FlightResource> resourcesCollection = flightResourceAssembler.toResources(destinationFacade.getAllOutgoingFlights(destinationById));
-        Resources<FlightResource> flightResources = new Resources<>(resourcesCollection);
-        return new ResponseEntity<>(flightResources, HttpStatus.OK);
+    public final DeferredResult<HttpEntity<Resources<FlightResource>>> outgoingFlights (@PathVariable("id") long id) {
+        return flightListExecutor.submit(() -> {
+            DestinationDTO destinationById = destinationFacade.getDestinationById(id);
+            if (destinationById == null) throw new ResourceNotFoundException("Destinations with id" + id + " not found");
+            List<FlightResource> resourcesCollection = flightResourceAssembler.toResources(destinationFacade.getAllOutgoingFlights(destinationById));
+            Resources<FlightResource> flightResources = new Resources<>(resourcesCollection);
+            return new ResponseEntity<>(flightResources, HttpStatus.OK);
+        });
     }
 
 
@@ -4,6 +4,7 @@ import cz.fi.muni.pa165.exceptions.ErrorResource;
 import cz.fi.muni.pa165.exceptions.ResourceAlreadyExistsException;
 import cz.fi.muni.pa165.exceptions.ResourceNotFoundException;
 import cz.fi.muni.pa165.exceptions.ServerException;
+import cz.fi.muni.pa165.exceptions.ServiceUnavailableException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -29,6 +30,8 @@ public class ExceptionHandler {
             httpStatus = HttpStatus.NOT_FOUND;
         } else if (e instanceof ResourceAlreadyExistsException) {
             httpStatus = HttpStatus.UNPROCESSABLE_ENTITY;
+        } else if (e instanceof ServiceUnavailableException) {
+            httpStatus = HttpStatus.SERVICE_UNAVAILABLE;
         } else {
             httpStatus = HttpStatus.INTERNAL_SERVER_ERROR;
         }
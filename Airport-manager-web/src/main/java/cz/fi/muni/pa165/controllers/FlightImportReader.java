@@ -0,0 +1,132 @@
+package cz.fi.muni.pa165.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.fi.muni.pa165.dto.FlightCreateDTO;
+import cz.fi.muni.pa165.facade.FlightImportRows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the rows of a flight import one by one from a CSV or newline delimited JSON request body.
+ * Blank lines are skipped. A line that cannot be read is reported as an {@link IllegalArgumentException}
+ * from {@link #next()}, so that the import rejects it and continues with the following line.
+ * The lines are counted including the header and the blank lines, as in the imported file.
+ *
+ * @author Robert Duriancik
+ */
+final class FlightImportReader implements FlightImportRows {
+
+    /**
+     * Columns of the CSV import. Steward ids are separated by semicolons, times are ISO-8601 date times.
+     */
+    static final String CSV_HEADER = "departureLocationId,arrivalLocationId,departureTime,arrivalTime,airplaneId,stewardIds";
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private String nextLine;
+    private long lineNumber;
+    private long rowLineNumber;
+
+    private FlightImportReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Creates a reader of CSV rows. The first line is skipped if it is the {@link #CSV_HEADER}.
+     */
+    static FlightImportReader csv(BufferedReader reader) {
+        FlightImportReader importReader = new FlightImportReader(reader, null);
+        if (importReader.hasNext() && importReader.nextLine.trim().equals(CSV_HEADER)) {
+            importReader.nextLine = null;
+        }
+        return importReader;
+    }
+
+    /**
+     * Creates a reader of newline delimited JSON documents of {@link FlightCreateDTO}.
+     */
+    static FlightImportReader ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+        return new FlightImportReader(reader, objectMapper);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (nextLine == null) {
+                String line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+                lineNumber++;
+                if (!line.trim().isEmpty()) {
+                    nextLine = line;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public FlightCreateDTO next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        nextLine = null;
+        rowLineNumber = lineNumber;
+
+        try {
+            return objectMapper == null ? parseCsv(line) : objectMapper.readValue(line, FlightCreateDTO.class);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Line " + rowLineNumber + " cannot be read: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long getLineNumber() {
+        return rowLineNumber;
+    }
+
+    private static FlightCreateDTO parseCsv(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != 6) {
+            throw new IllegalArgumentException("expected 6 columns, found " + columns.length);
+        }
+
+        FlightCreateDTO flight = new FlightCreateDTO();
+        flight.setDepartureLocationId(parseId(columns[0]));
+        flight.setArrivalLocationId(parseId(columns[1]));
+        flight.setDepartureTime(parseTime(columns[2]));
+        flight.setArrivalTime(parseTime(columns[3]));
+        flight.setAirplaneId(parseId(columns[4]));
+
+        List<Long> stewardIds = new ArrayList<>();
+        for (String stewardId : columns[5].split(";")) {
+            if (!stewardId.trim().isEmpty()) {
+                stewardIds.add(parseId(stewardId));
+            }
+        }
+        flight.setStewardIds(stewardIds);
+        return flight;
+    }
+
+    private static Long parseId(String value) {
+        String id = value.trim();
+        return id.isEmpty() ? null : Long.valueOf(id);
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        String time = value.trim();
+        return time.isEmpty() ? null : LocalDateTime.parse(time, DateTimeFormatter.ISO_DATE_TIME);
+    }
+}
@@ -1,7 +1,11 @@
 package cz.fi.muni.pa165.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.fi.muni.pa165.config.FlightBoardBroadcaster;
 import cz.fi.muni.pa165.dto.FlightCreateDTO;
 import cz.fi.muni.pa165.dto.FlightDTO;
+import cz.fi.muni.pa165.dto.FlightImportReportDTO;
 import cz.fi.muni.pa165.dto.FlightUpdateDTO;
 import cz.fi.muni.pa165.exceptions.FlightDataAccessException;
 import cz.fi.muni.pa165.exceptions.InvalidRequestException;
@@ -10,9 +14,12 @@ import cz.fi.muni.pa165.exceptions.ServerException;
 import cz.fi.muni.pa165.facade.FlightFacade;
 import cz.fi.muni.pa165.hateoas.FlightResource;
 import cz.fi.muni.pa165.hateoas.FlightResourceAssembler;
+import cz.fi.muni.pa165.hateoas.KeysetPage;
+import cz.fi.muni.pa165.service.VersionedCollection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.hateoas.Resources;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
@@ -20,8 +27,16 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -31,30 +46,111 @@ import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
  * @author Robert Duriancik
  */
 @RestController
+@ConditionalGet({VersionedCollection.FLIGHTS, VersionedCollection.AIRPLANES, VersionedCollection.DESTINATIONS,
+        VersionedCollection.STEWARDS})
 @RequestMapping("/flights")
 public class FlightsRestController {
 
+    /**
+     * Media type of the flight export, one JSON document per line.
+     */
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    /**
+     * Media type of the CSV flight import.
+     */
+    private static final String CSV_MEDIA_TYPE = "text/csv";
+
     private FlightFacade flightFacade;
     private FlightResourceAssembler flightResourceAssembler;
+    private ObjectMapper objectMapper;
+    private FlightBoardBroadcaster flightBoardBroadcaster;
     private final static Logger logger = LoggerFactory.getLogger(FlightsRestController.class);
 
 
     public FlightsRestController(
             @Autowired FlightFacade flightFacade,
-            @Autowired FlightResourceAssembler flightResourceAssembler
+            @Autowired FlightResourceAssembler flightResourceAssembler,
+            @Autowired @Qualifier("objectMapper") ObjectMapper objectMapper,
+            @Autowired FlightBoardBroadcaster flightBoardBroadcaster
     ) {
         this.flightFacade = flightFacade;
         this.flightResourceAssembler = flightResourceAssembler;
+        this.objectMapper = objectMapper;
+        this.flightBoardBroadcaster = flightBoardBroadcaster;
     }
 
     @RequestMapping(method = RequestMethod.GET)
-    public final HttpEntity<Resources<FlightResource>> getFlights() {
-        List<FlightResource> resourcesCollection = flightResourceAssembler.toResources(flightFacade.getAllFlights());
-        Resources<FlightResource> flightResources = new Resources<>(
-                resourcesCollection,
-                linkTo(FlightsRestController.class).withSelfRel(),
+    public final HttpEntity<Resources<FlightResource>> getFlights(
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        if (after != null && before != null) {
+            throw new InvalidRequestException("Cannot page both after and before a flight");
+        }
+
+        int pageLimit = KeysetPage.limit(limit);
+        List<FlightDTO> rows;
+        try {
+            rows = flightFacade.getFlightsPage(after, before, pageLimit + 1);
+        } catch (FlightDataAccessException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw new ResourceNotFoundException(e.getCause().getMessage());
+            }
+            throw new ServerException(e);
+        }
+
+        Resources<FlightResource> resources = KeysetPage.toResources(
+                rows, after, before, pageLimit, FlightDTO::getId,
+                flightResourceAssembler, linkTo(FlightsRestController.class),
                 linkTo(FlightsRestController.class).slash("/create").withRel("create"));
-        return new ResponseEntity<>(flightResources, HttpStatus.OK);
+        return new ResponseEntity<>(resources, HttpStatus.OK);
+    }
+
+    /**
+     * Writes all flights ordered by departure time as newline delimited JSON. Flights are read through
+     * a database cursor and written one by one, so memory use does not grow with the number of flights.
+     *
+     * @param response response to write the flights to
+     * @throws IOException if writing the response fails
+     */
+    @RequestMapping(value = "/export", method = RequestMethod.GET)
+    public final void exportFlights(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON_MEDIA_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.setRootValueSeparator(null);
+        flightFacade.exportFlights(flightDTO -> {
+            try {
+                generator.writeObject(flightDTO);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.flush();
+    }
+
+    /**
+     * Imports flights from a CSV file with the {@link FlightImportReader#CSV_HEADER} columns, or from
+     * newline delimited JSON documents of {@link FlightCreateDTO}. The body is read row by row while
+     * the flights are stored in chunks, so the whole file is never held in memory.
+     *
+     * @param request request with the file as its body
+     * @return report of the import with the rejected rows of every chunk
+     * @throws IOException if reading the request fails
+     */
+    @RequestMapping(value = "/import", method = RequestMethod.POST, consumes = {CSV_MEDIA_TYPE, NDJSON_MEDIA_TYPE})
+    public final HttpEntity<FlightImportReportDTO> importFlights(HttpServletRequest request) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            FlightImportReader rows = MediaType.parseMediaType(request.getContentType())
+                    .isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))
+                    ? FlightImportReader.csv(reader)
+                    : FlightImportReader.ndjson(reader, objectMapper);
+            return new ResponseEntity<>(flightFacade.importFlights(rows), HttpStatus.OK);
+        }
     }
 
     @RequestMapping(value = "/{id}", method = RequestMethod.GET)
@@ -101,6 +197,7 @@ public class FlightsRestController {
         }
     }
 
+    @ConditionalGet({})
     @RequestMapping(value = "/current", method = RequestMethod.GET)
     public final HttpEntity<Resources<FlightResource>> getCurrentFlights() {
         List<FlightResource> resourcesCollection = flightResourceAssembler.toResources(
@@ -113,6 +210,20 @@ public class FlightsRestController {
         return new ResponseEntity<>(flightResources, HttpStatus.OK);
     }
 
+    /**
+     * Streams the live board of the flights in the air as Server-Sent Events. The client gets the flights
+     * in the air first, then the creations, changes, deletions, departures and arrivals of the flights
+     * as they happen. The stream is closed after the timeout of the board, the clients reconnect
+     * and get the flights in the air again.
+     *
+     * @return emitter of the events
+     */
+    @ConditionalGet({})
+    @RequestMapping(value = "/board", method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public final SseEmitter getBoard() {
+        return flightBoardBroadcaster.connect();
+    }
+
     @RequestMapping(value = "/create", method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE)
     public final HttpEntity<FlightResource> createFlight(@RequestBody @Valid FlightCreateDTO flightCreateDTO,
                                                          BindingResult bindingResult) throws Exception {
@@ -0,0 +1,48 @@
+package cz.fi.muni.pa165.controllers;
+
+import cz.fi.muni.pa165.config.FlightBoardBroadcaster;
+import cz.fi.muni.pa165.config.RequestExecutor;
+import cz.fi.muni.pa165.facade.MetricsFacade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Exports the metrics of the facade, service and DAO calls, of the request executors and of the live flight board
+ * for Prometheus.
+ *
+ * @author Robert Duriancik
+ */
+@RestController
+@RequestMapping("/metrics")
+public class MetricsRestController {
+
+    private MetricsFacade metricsFacade;
+    private List<RequestExecutor> requestExecutors;
+    private FlightBoardBroadcaster flightBoardBroadcaster;
+
+    public MetricsRestController(@Autowired MetricsFacade metricsFacade,
+                                 @Autowired List<RequestExecutor> requestExecutors,
+                                 @Autowired FlightBoardBroadcaster flightBoardBroadcaster) {
+        this.metricsFacade = metricsFacade;
+        this.requestExecutors = requestExecutors;
+        this.flightBoardBroadcaster = flightBoardBroadcaster;
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text format straight to the response, as the message converters
+     * of the application produce JSON only.
+     */
+    @RequestMapping(method = RequestMethod.GET)
+    public final void getMetrics(HttpServletResponse response) throws IOException {
+        response.setContentType(MetricsFacade.CONTENT_TYPE);
+        metricsFacade.writeMetrics(response.getWriter());
+        RequestExecutor.writePrometheus(requestExecutors, response.getWriter());
+        flightBoardBroadcaster.writePrometheus(response.getWriter());
+    }
+}
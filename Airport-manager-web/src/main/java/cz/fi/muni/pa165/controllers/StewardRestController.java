@@ -1,16 +1,21 @@
 package cz.fi.muni.pa165.controllers;
 
+import cz.fi.muni.pa165.config.RequestExecutor;
 import cz.fi.muni.pa165.dto.StewardCreateDTO;
 import cz.fi.muni.pa165.dto.StewardDTO;
 import cz.fi.muni.pa165.exceptions.InvalidRequestException;
 import cz.fi.muni.pa165.exceptions.ResourceNotFoundException;
+import cz.fi.muni.pa165.exceptions.ServerException;
 import cz.fi.muni.pa165.exceptions.StewardDataAccessException;
 import cz.fi.muni.pa165.facade.StewardFacade;
 import cz.fi.muni.pa165.hateoas.FlightResource;
 import cz.fi.muni.pa165.hateoas.FlightResourceAssembler;
+import cz.fi.muni.pa165.hateoas.KeysetPage;
 import cz.fi.muni.pa165.hateoas.StewardResource;
 import cz.fi.muni.pa165.hateoas.StewardResourceAssembler;
+import cz.fi.muni.pa165.service.VersionedCollection;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.Resources;
 import org.springframework.http.HttpEntity;
@@ -19,6 +24,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.validation.Valid;
 import java.time.LocalDateTime;
@@ -30,29 +36,54 @@ import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
  * @author Ondrej Prikryl
  */
 @RestController
+@ConditionalGet(VersionedCollection.STEWARDS)
 @RequestMapping("/stewards")
 public class StewardRestController {
 
     private StewardFacade stewardFacade;
     private StewardResourceAssembler assembler;
     private FlightResourceAssembler flightResourceAssembler;
+    private RequestExecutor availabilityExecutor;
+    private RequestExecutor flightListExecutor;
 
     public StewardRestController(@Autowired StewardFacade flightFacade,
                                  @Autowired StewardResourceAssembler stewardResourceAssembler,
-                                 @Autowired FlightResourceAssembler flightResourceAssembler) {
+                                 @Autowired FlightResourceAssembler flightResourceAssembler,
+                                 @Autowired @Qualifier("availabilityExecutor") RequestExecutor availabilityExecutor,
+                                 @Autowired @Qualifier("flightListExecutor") RequestExecutor flightListExecutor) {
 
         this.stewardFacade = flightFacade;
         this.assembler = stewardResourceAssembler;
         this.flightResourceAssembler = flightResourceAssembler;
+        this.availabilityExecutor = availabilityExecutor;
+        this.flightListExecutor = flightListExecutor;
     }
 
     @RequestMapping(method = RequestMethod.GET)
-    public final HttpEntity<Resources<StewardResource>> getStewards() {
-        List<StewardResource> resourcesCollection = assembler.toResources(stewardFacade.listAllStewards());
-        Resources<StewardResource> stewardResources = new Resources<>(resourcesCollection,
-                linkTo(StewardRestController.class).withSelfRel(),
+    public final HttpEntity<Resources<StewardResource>> getStewards(
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "before", required = false) Long before,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        if (after != null && before != null) {
+            throw new InvalidRequestException("Cannot page both after and before a steward");
+        }
+
+        int pageLimit = KeysetPage.limit(limit);
+        List<StewardDTO> rows;
+        try {
+            rows = stewardFacade.listStewardsPage(after, before, pageLimit + 1);
+        } catch (StewardDataAccessException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw new ResourceNotFoundException(e.getCause().getMessage());
+            }
+            throw new ServerException(e);
+        }
+
+        Resources<StewardResource> resources = KeysetPage.toResources(
+                rows, after, before, pageLimit, StewardDTO::getId,
+                assembler, linkTo(StewardRestController.class),
                 linkTo(StewardRestController.class).slash("/create").withRel("create"));
-        return new ResponseEntity<>(stewardResources, HttpStatus.OK);
+        return new ResponseEntity<>(resources, HttpStatus.OK);
     }
 
     @RequestMapping(value = "/{id}", method = RequestMethod.GET)
@@ -63,11 +94,15 @@ public class StewardRestController {
         return new ResponseEntity<>(resource, HttpStatus.OK);
     }
 
+    @ConditionalGet({VersionedCollection.FLIGHTS, VersionedCollection.AIRPLANES, VersionedCollection.DESTINATIONS,
+            VersionedCollection.STEWARDS})
     @RequestMapping(value = "/{id}/flights", method = RequestMethod.GET)
-    public final ResponseEntity<Resources<FlightResource>> getStewardFlights(@PathVariable("id") long id) throws Exception {
-        List<FlightResource> resourcesCollection = flightResourceAssembler.toResources(stewardFacade.getAllStewardFlights(id));
-        Resources<FlightResource> flightResources = new Resources<>(resourcesCollection);
-        return new ResponseEntity<>(flightResources, HttpStatus.OK);
+    public final DeferredResult<ResponseEntity<Resources<FlightResource>>> getStewardFlights(@PathVariable("id") long id) {
+        return flightListExecutor.submit(() -> {
+            List<FlightResource> resourcesCollection = flightResourceAssembler.toResources(stewardFacade.getAllStewardFlights(id));
+            Resources<FlightResource> flightResources = new Resources<>(resourcesCollection);
+            return new ResponseEntity<>(flightResources, HttpStatus.OK);
+        });
     }
 
     @RequestMapping(value = "/{id}", method = RequestMethod.DELETE)
@@ -107,18 +142,21 @@ public class StewardRestController {
         return new ResponseEntity<>(stewardResource, HttpStatus.OK);
     }
 
+    @ConditionalGet({VersionedCollection.STEWARDS, VersionedCollection.FLIGHTS})
     @RequestMapping(value = "/free", method = RequestMethod.GET)
-    public final HttpEntity<Resources<StewardResource>> getFreeStewardsInTimeRange(@RequestParam("start")
+    public final DeferredResult<HttpEntity<Resources<StewardResource>>> getFreeStewardsInTimeRange(@RequestParam("start")
                                                                                    @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
                                                                                            LocalDateTime start,
                                                                                    @RequestParam("end")
                                                                                    @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
                                                                                            LocalDateTime end) {
-        List<StewardResource> freeStewards = assembler.toResources(stewardFacade.getFreeStewardsInTimeRange(start, end));
-
-        Resources<StewardResource> stewardResources = new Resources<>(freeStewards,
-                linkTo(AirplanesRestController.class).withSelfRel(),
-                linkTo(AirplanesRestController.class).slash("/create").withRel("create"));
-        return new ResponseEntity<>(stewardResources, HttpStatus.OK);
+        return availabilityExecutor.submit(() -> {
+            List<StewardResource> freeStewards = assembler.toResources(stewardFacade.getFreeStewardsInTimeRange(start, end));
+
+            Resources<StewardResource> stewardResources = new Resources<>(freeStewards,
+                    linkTo(AirplanesRestController.class).withSelfRel(),
+                    linkTo(AirplanesRestController.class).slash("/create").withRel("create"));
+            return new ResponseEntity<>(stewardResources, HttpStatus.OK);
+        });
     }
 }
@@ -0,0 +1,10 @@
+package cz.fi.muni.pa165.exceptions;
+
+/**
+ * Exception converted by ExceptionHandler to SERVICE_UNAVAILABLE HTTP status.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
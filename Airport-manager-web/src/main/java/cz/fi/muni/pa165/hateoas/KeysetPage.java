@@ -0,0 +1,93 @@
+package cz.fi.muni.pa165.hateoas;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.ResourceSupport;
+import org.springframework.hateoas.Resources;
+import org.springframework.hateoas.mvc.ControllerLinkBuilder;
+import org.springframework.hateoas.mvc.ResourceAssemblerSupport;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Renders one page of a keyset paginated list as a HAL collection with next/prev links.
+ * The page is addressed by the id of the item it follows ("after") or precedes ("before").
+ *
+ * @author Robert Duriancik
+ */
+public final class KeysetPage {
+
+    /**
+     * Page size used when the request does not specify one.
+     */
+    public static final int DEFAULT_LIMIT = 100;
+
+    /**
+     * Largest page size served in one response.
+     */
+    public static final int MAX_LIMIT = 1000;
+
+    private KeysetPage() {
+    }
+
+    /**
+     * Clamps the requested page size to the range [1, {@link #MAX_LIMIT}].
+     *
+     * @param requested requested page size
+     * @return page size to use
+     */
+    public static int limit(int requested) {
+        return Math.max(1, Math.min(requested, MAX_LIMIT));
+    }
+
+    /**
+     * Assembles the page resources and links.
+     *
+     * @param rows      items fetched with a limit of <b>limit + 1</b>, in ascending order,
+     *                  the extra item only signals that another page exists
+     * @param afterId   cursor the page was requested after, may be null
+     * @param beforeId  cursor the page was requested before, may be null
+     * @param limit     page size
+     * @param id        id extractor of the items
+     * @param assembler assembler of the item resources
+     * @param base      link to the list endpoint
+     * @param links     additional links of the collection
+     * @return HAL collection of the page
+     */
+    public static <D, R extends ResourceSupport> Resources<R> toResources(List<D> rows, Long afterId, Long beforeId,
+                                                                          int limit, Function<D, Long> id,
+                                                                          ResourceAssemblerSupport<D, R> assembler,
+                                                                          ControllerLinkBuilder base, Link... links) {
+        boolean backward = beforeId != null;
+        boolean hasMore = rows.size() > limit;
+        List<D> page = hasMore
+                ? rows.subList(backward ? rows.size() - limit : 0, backward ? rows.size() : limit)
+                : rows;
+
+        List<Link> pageLinks = new ArrayList<>();
+        pageLinks.add(pageLink(base, backward ? "before" : "after", backward ? beforeId : afterId, limit, Link.REL_SELF));
+        for (Link link : links) {
+            pageLinks.add(link);
+        }
+        if (!page.isEmpty()) {
+            if (backward || hasMore) {
+                pageLinks.add(pageLink(base, "after", id.apply(page.get(page.size() - 1)), limit, Link.REL_NEXT));
+            }
+            if (backward ? hasMore : afterId != null) {
+                pageLinks.add(pageLink(base, "before", id.apply(page.get(0)), limit, Link.REL_PREVIOUS));
+            }
+        }
+
+        return new Resources<>(assembler.toResources(page), pageLinks);
+    }
+
+    private static Link pageLink(ControllerLinkBuilder base, String cursorName, Long cursor, int limit, String rel) {
+        UriComponentsBuilder uri = base.toUriComponentsBuilder().replaceQuery(null);
+        if (cursor != null) {
+            uri.queryParam(cursorName, cursor);
+        }
+        return new Link(uri.queryParam("limit", limit).build().toUriString(), rel);
+    }
+}
@@ -11,9 +11,11 @@
     <meta charset="UTF-8">
     <meta http-equiv="X-UA-Compatible" content="IE=edge">
     <meta name="viewport" content="width=device-width, initial-scale=1">
+    <%--fingerprints of the assets, see AssetFingerprints--%>
+    <meta name="partials-version" content="${assets.fingerprint('/partials')}">
     <title>Airport Manager</title>
 
-    <link rel="stylesheet" href="css/style.css"/>
+    <link rel="stylesheet" href="${pageContext.request.contextPath}${assets.url('/css/style.css')}"/>
 
     <%--BOOTSTRAP--%>
     <!-- Latest compiled and minified CSS -->
@@ -38,7 +40,7 @@
     <script src="https://ajax.googleapis.com/ajax/libs/angularjs/1.6.6/angular-resource.min.js"></script>
     <script src="https://ajax.googleapis.com/ajax/libs/angularjs/1.6.6/angular-route.min.js"></script>
 
-    <script src="${pageContext.request.contextPath}/js/angular_app.js"></script>
+    <script src="${pageContext.request.contextPath}${assets.url('/js/angular_app.js')}"></script>
 </head>
 <body>
 <nav class="navbar navbar-default navbar-static-top">
@@ -3,6 +3,22 @@
 var airportManagerApp = angular.module('airportManagerApp', ['ngRoute', 'managerControllers']);
 var managerControllers = angular.module('managerControllers', []);
 
+/* Requests the templates with the version of the partials, so that the browser caches them until they change */
+airportManagerApp.config(['$httpProvider',
+    function ($httpProvider) {
+        var partialsVersion = document.querySelector('meta[name="partials-version"]').getAttribute('content');
+        $httpProvider.interceptors.push(function () {
+            return {
+                request: function (config) {
+                    if (config.url.indexOf('partials/') === 0) {
+                        config.url += '?v=' + partialsVersion;
+                    }
+                    return config;
+                }
+            };
+        });
+    }]);
+
 /* Configures URL fragment routing  */
 airportManagerApp.config(['$routeProvider',
     function ($routeProvider) {
@@ -66,18 +82,62 @@ airportManagerApp.run(function ($rootScope) {
 /* Controllers */
 managerControllers.controller('MainCtrl',
     function ($scope, $rootScope, $routeParams, $http) {
-        $http.get('/pa165/api/flights/current').then(function (response) {
-            $scope.currentFlights = response.data._embedded.flights;
+        if (typeof EventSource === 'undefined') {
+            $http.get('/pa165/api/flights/current').then(function (response) {
+                $scope.currentFlights = response.data._embedded.flights;
+                formatFlightsDates($scope.currentFlights);
+            });
+            return;
+        }
+
+        /* The board of the flights in the air, sent on connect and then kept up to date by the events */
+        var flights = {};
+        var show = function () {
+            $scope.currentFlights = Object.keys(flights)
+                .map(function (id) {
+                    return angular.copy(flights[id]);
+                })
+                .sort(function (a, b) {
+                    return new Date(a.departureTime) - new Date(b.departureTime);
+                });
             formatFlightsDates($scope.currentFlights);
-        })
+        };
+        var inAir = function (flight, time) {
+            return new Date(flight.departureTime) < new Date(time) && new Date(flight.arrivalTime) > new Date(time);
+        };
+
+        var source = new EventSource('/pa165/api/flights/board');
+        source.addEventListener('board', function (message) {
+            var board = JSON.parse(message.data);
+            flights = {};
+            board.flights.forEach(function (flight) {
+                flights[flight.id] = flight;
+            });
+            $scope.$apply(show);
+        });
+        ['created', 'changed', 'deleted', 'departed', 'arrived'].forEach(function (type) {
+            source.addEventListener(type, function (message) {
+                var event = JSON.parse(message.data);
+                if (event.type === 'DEPARTED' || ((event.type === 'CREATED' || event.type === 'CHANGED')
+                        && inAir(event.flight, event.time))) {
+                    flights[event.flightId] = event.flight;
+                } else {
+                    delete flights[event.flightId];
+                }
+                $scope.$apply(show);
+            });
+        });
+        $scope.$on('$destroy', function () {
+            source.close();
+        });
     }
 );
 
 managerControllers.controller('AirplanesCtrl',
     function ($scope, $rootScope, $routeParams, $http, $location) {
         var get = function () {
-            $http.get('/pa165/api/airplanes').then(function (response) {
-                $scope.airplanes = response.data._embedded.airplanes;
+            loadAllPages($http, '/pa165/api/airplanes', 'airplanes', function (airplanes) {
+                $scope.airplanes = airplanes;
                 $scope.goToAirplaneDetail = function (airplaneId) {
                     console.log(airplaneId);
                     $location.path('/airplane/' + airplaneId);
@@ -182,12 +242,8 @@ managerControllers.controller('DestinationCtrl',
 
 
         var get = function () {
-            $http.get('/pa165/api/destinations').then(function (response) {
-                if (response.data._embedded !== undefined) {
-                    $scope.destinations = response.data._embedded.destinations;
-                } else {
-                    $scope.destinations = [];
-                }
+            loadAllPages($http, '/pa165/api/destinations', 'destinations', function (destinations) {
+                $scope.destinations = destinations;
                 $scope.goToDestinationDetail = function (destinationId) {
                     $location.path('/destinations/' + destinationId);
                 }
@@ -236,12 +292,8 @@ managerControllers.controller('DestinationCtrl',
 managerControllers.controller('StewardsCtrl',
     function ($scope, $rootScope, $routeParams, $http, $location) {
         var get = function () {
-            $http.get('/pa165/api/stewards').then(function (response) {
-                if (response.data._embedded !== undefined) {
-                    $scope.stewards = response.data._embedded.stewards;
-                } else {
-                    $scope.stewards = [];
-                }
+            loadAllPages($http, '/pa165/api/stewards', 'stewards', function (stewards) {
+                $scope.stewards = stewards;
 
                 $scope.goToStewardDetail = function (stewardId) {
                     $location.path('/steward/' + stewardId);
@@ -572,17 +624,31 @@ managerControllers.controller('FlightDetailCtrl',
 );
 
 function loadFlights($scope, $http) {
-    $http.get('/pa165/api/flights').then(function (response) {
-        if (response.data._embedded !== undefined) {
-            $scope.flights = response.data._embedded.flights;
-            formatFlightsDates($scope.flights);
-        } else {
-            $scope.flights = [];
-        }
-
+    loadAllPages($http, '/pa165/api/flights', 'flights', function (flights) {
+        $scope.flights = flights;
+        formatFlightsDates($scope.flights);
     });
 }
 
+// loads every page of a paginated list by following the next links, the callback gets all the items at once
+function loadAllPages($http, url, name, callback) {
+    var items = [];
+    var loadPage = function (pageUrl) {
+        $http.get(pageUrl).then(function (response) {
+            if (response.data._embedded !== undefined) {
+                items = items.concat(response.data._embedded[name]);
+            }
+            var links = response.data._links;
+            if (links !== undefined && links.next !== undefined) {
+                loadPage(links.next.href);
+            } else {
+                callback(items);
+            }
+        });
+    };
+    loadPage(url + '?limit=1000');
+}
+
 function formatFlightsDates(flights) {
     for (var i = 0; i < flights.length; ++i) {
         formatFlightDates(flights[i]);
@@ -0,0 +1,67 @@
+package cz.fi.muni.pa165.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Robert Duriancik
+ */
+public class AssetCacheFilterTest {
+
+    private AssetFingerprints assetFingerprints;
+
+    private AssetCacheFilter filter;
+
+    private MockHttpServletResponse response;
+
+    private MockFilterChain filterChain;
+
+    @BeforeMethod
+    public void createFilter() {
+        assetFingerprints = mock(AssetFingerprints.class);
+        when(assetFingerprints.matches("/js/angular_app.js", "abc")).thenReturn(true);
+        filter = new AssetCacheFilter(assetFingerprints, 3600);
+        response = new MockHttpServletResponse();
+        filterChain = new MockFilterChain();
+    }
+
+    @Test
+    public void fingerprintedAssetIsCachedForMaxAge() throws Exception {
+        filter.doFilter(request("/pa165/js/angular_app.js", "abc"), response, filterChain);
+
+        Assert.assertEquals(response.getHeader(HttpHeaders.CACHE_CONTROL), "max-age=3600, public, immutable");
+        Assert.assertNotNull(filterChain.getRequest());
+    }
+
+    @Test
+    public void outdatedFingerprintIsRevalidated() throws Exception {
+        filter.doFilter(request("/pa165/js/angular_app.js", "old"), response, filterChain);
+
+        Assert.assertEquals(response.getHeader(HttpHeaders.CACHE_CONTROL), "no-cache");
+        Assert.assertNotNull(filterChain.getRequest());
+    }
+
+    @Test
+    public void assetWithoutFingerprintIsRevalidated() throws Exception {
+        filter.doFilter(request("/pa165/js/angular_app.js", null), response, filterChain);
+
+        Assert.assertEquals(response.getHeader(HttpHeaders.CACHE_CONTROL), "no-cache");
+        verifyZeroInteractions(assetFingerprints);
+    }
+
+    private static MockHttpServletRequest request(String uri, String version) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setContextPath("/pa165");
+        if (version != null) {
+            request.setParameter(AssetFingerprints.VERSION_PARAMETER, version);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,110 @@
+package cz.fi.muni.pa165.config;
+
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author Robert Duriancik
+ */
+public class AssetFingerprintsTest {
+
+    private static final String STYLE = "body { margin: 0; }";
+
+    private Path root;
+
+    private MockServletContext servletContext;
+
+    private AssetFingerprints assetFingerprints;
+
+    @BeforeMethod
+    public void createAssets() throws IOException {
+        root = Files.createTempDirectory("assets");
+        write("css/style.css", STYLE);
+        write("partials/airplanes.html", "<table></table>");
+        write("partials/stewards.html", "<ul></ul>");
+
+        servletContext = new MockServletContext("file:" + root, new DefaultResourceLoader());
+        assetFingerprints = new AssetFingerprints();
+        assetFingerprints.setServletContext(servletContext);
+    }
+
+    @AfterMethod
+    public void deleteAssets() {
+        FileSystemUtils.deleteRecursively(root.toFile());
+    }
+
+    @Test
+    public void fingerprintIsHashOfContent() {
+        Assert.assertEquals(assetFingerprints.fingerprint("/css/style.css"),
+                DigestUtils.md5DigestAsHex(STYLE.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void urlCarriesFingerprint() {
+        Assert.assertEquals(assetFingerprints.url("/css/style.css"),
+                "/css/style.css?v=" + assetFingerprints.fingerprint("/css/style.css"));
+    }
+
+    @Test
+    public void directoryFingerprintDependsOnContent() throws IOException {
+        String fingerprint = assetFingerprints.fingerprint("/partials");
+        Assert.assertNotEquals(fingerprint, assetFingerprints.fingerprint("/partials/airplanes.html"));
+        Assert.assertEquals(assetFingerprints.fingerprint("/partials/"), fingerprint);
+
+        write("partials/stewards.html", "<ol></ol>");
+        AssetFingerprints changed = new AssetFingerprints();
+        changed.setServletContext(servletContext);
+        Assert.assertNotEquals(changed.fingerprint("/partials"), fingerprint);
+    }
+
+    @Test
+    public void fingerprintIsComputedOnce() throws IOException {
+        String fingerprint = assetFingerprints.fingerprint("/css/style.css");
+        write("css/style.css", "body { margin: 1px; }");
+
+        Assert.assertEquals(assetFingerprints.fingerprint("/css/style.css"), fingerprint);
+    }
+
+    @Test
+    public void matchesFingerprintOfAssetOrDirectory() {
+        String style = assetFingerprints.fingerprint("/css/style.css");
+        Assert.assertTrue(assetFingerprints.matches("/css/style.css", style));
+        Assert.assertTrue(assetFingerprints.matches("//css//style.css", style));
+        Assert.assertTrue(assetFingerprints.matches("/partials/airplanes.html",
+                assetFingerprints.fingerprint("/partials")));
+    }
+
+    @Test
+    public void doesNotMatchOtherVersion() {
+        Assert.assertFalse(assetFingerprints.matches("/css/style.css", "0123"));
+        Assert.assertFalse(assetFingerprints.matches("/css/style.css", assetFingerprints.fingerprint("/partials")));
+        Assert.assertFalse(assetFingerprints.matches("/css/missing.css", "0123"));
+    }
+
+    @Test
+    public void isAvailableToPages() {
+        Assert.assertSame(servletContext.getAttribute(AssetFingerprints.ATTRIBUTE), assetFingerprints);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void fingerprintOfMissingAsset() {
+        assetFingerprints.fingerprint("/css/missing.css");
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
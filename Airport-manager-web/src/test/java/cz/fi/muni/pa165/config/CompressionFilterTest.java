@@ -0,0 +1,265 @@
+package cz.fi.muni.pa165.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * @author Robert Duriancik
+ */
+public class CompressionFilterTest {
+
+    private static final int MIN_SIZE = 100;
+
+    private static final List<String> TYPES = Arrays.asList("application/json", "text/html", "text/plain");
+
+    private static final String BODY = repeat("{\"name\":\"Boeing 737\"}", 20);
+
+    private CompressionFilter filter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @BeforeMethod
+    public void createFilter() {
+        filter = new CompressionFilter(true, MIN_SIZE, 6, TYPES);
+        request = new MockHttpServletRequest("GET", "/api/airplanes");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void compressesAcceptedBody() throws Exception {
+        filter.doFilter(request, response, writing("application/json", BODY));
+
+        Assert.assertEquals(response.getHeader(HttpHeaders.CONTENT_ENCODING), "gzip");
+        Assert.assertEquals(response.getHeader(HttpHeaders.VARY), HttpHeaders.ACCEPT_ENCODING);
+        Assert.assertTrue(response.getContentAsByteArray().length < BODY.length());
+        Assert.assertEquals(gunzip(response.getContentAsByteArray()), BODY);
+    }
+
+    @Test
+    public void compressesBodyWrittenByWriter() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("text/html");
+            res.getWriter().write(BODY);
+        });
+
+        Assert.assertEquals(response.getHeader(HttpHeaders.CONTENT_ENCODING), "gzip");
+        Assert.assertEquals(gunzip(response.getContentAsByteArray()), BODY);
+    }
+
+    @Test
+    public void wildcardEncodingIsAccepted() throws Exception {
+        request = new MockHttpServletRequest("GET", "/api/airplanes");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "*");
+        filter.doFilter(request, response, writing("application/json", BODY));
+
+        Assert.assertEquals(response.getHeader(HttpHeaders.CONTENT_ENCODING), "gzip");
+    }
+
+    @Test
+    public void bodyIsPlainWithoutAcceptEncoding() throws Exception {
+        request = new MockHttpServletRequest("GET", "/api/airplanes");
+        filter.doFilter(request, response, writing("application/json", BODY));
+
+        assertPlain(BODY);
+    }
+
+    @Test
+    public void bodyIsPlainWhenGzipIsRefused() throws Exception {
+        request = new MockHttpServletRequest("GET", "/api/airplanes");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0");
+        filter.doFilter(request, response, writing("application/json", BODY));
+
+        assertPlain(BODY);
+    }
+
+    @Test
+    public void bodyIsPlainWhenDisabled() throws Exception {
+        filter = new CompressionFilter(false, MIN_SIZE, 6, TYPES);
+        filter.doFilter(request, response, writing("application/json", BODY));
+
+        assertPlain(BODY);
+    }
+
+    @Test
+    public void smallBodyIsPlainWithLength() throws Exception {
+        String body = "{\"id\":1}";
+        filter.doFilter(request, response, writing("application/json", body));
+
+        assertPlain(body);
+        Assert.assertEquals(response.getContentLength(), body.length());
+    }
+
+    @Test
+    public void excludedTypeIsPlain() throws Exception {
+        filter.doFilter(request, response, writing("image/png", BODY));
+
+        assertPlain(BODY);
+    }
+
+    @Test
+    public void encodedBodyIsNotCompressedAgain() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setHeader(HttpHeaders.CONTENT_ENCODING, "br");
+            res.setContentType("application/json");
+            res.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        });
+
+        Assert.assertEquals(response.getHeader(HttpHeaders.CONTENT_ENCODING), "br");
+        Assert.assertEquals(response.getContentAsString(), BODY);
+    }
+
+    @Test
+    public void plainLengthAddedAsHeaderIsDropped() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).addHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(BODY.length()));
+            writing("application/json", BODY).doFilter(req, res);
+        });
+
+        Assert.assertEquals(response.getHeader(HttpHeaders.CONTENT_ENCODING), "gzip");
+        Assert.assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        Assert.assertEquals(gunzip(response.getContentAsByteArray()), BODY);
+    }
+
+    @Test
+    public void plainLengthSetAsIntHeaderIsDropped() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setIntHeader(HttpHeaders.CONTENT_LENGTH, BODY.length());
+            ((HttpServletResponse) res).addIntHeader(HttpHeaders.CONTENT_LENGTH, BODY.length());
+            writing("application/json", BODY).doFilter(req, res);
+        });
+
+        Assert.assertEquals(response.getHeader(HttpHeaders.CONTENT_ENCODING), "gzip");
+        Assert.assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        Assert.assertEquals(gunzip(response.getContentAsByteArray()), BODY);
+    }
+
+    @Test
+    public void smallBodyKeepsLengthAddedAsHeader() throws Exception {
+        String body = "{\"id\":1}";
+        filter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).addHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(body.length()));
+            writing("application/json", body).doFilter(req, res);
+        });
+
+        assertPlain(body);
+        Assert.assertEquals(response.getContentLength(), body.length());
+    }
+
+    @Test
+    public void compressedBodyGetsItsOwnEtag() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setHeader(HttpHeaders.ETAG, "\"3-7\"");
+            writing("application/json", BODY).doFilter(req, res);
+        });
+
+        Assert.assertEquals(response.getHeader(HttpHeaders.ETAG), "\"3-7-gzip\"");
+    }
+
+    @Test
+    public void plainBodyKeepsEtag() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setHeader(HttpHeaders.ETAG, "\"3-7\"");
+            writing("application/json", "{}").doFilter(req, res);
+        });
+
+        Assert.assertEquals(response.getHeader(HttpHeaders.ETAG), "\"3-7\"");
+    }
+
+    @Test
+    public void flushCommitsStreamOfOtherType() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("text/event-stream");
+            res.getOutputStream().write("data: 1\n\n".getBytes(StandardCharsets.UTF_8));
+            res.flushBuffer();
+
+            Assert.assertTrue(response.isCommitted());
+            Assert.assertEquals(response.getContentAsString(), "data: 1\n\n");
+        });
+
+        Assert.assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void flushSendsCompressedPartOfStream() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("text/plain");
+            ServletOutputStream out = res.getOutputStream();
+            out.write(BODY.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            // the part written so far can be inflated before the stream ends
+            Assert.assertEquals(response.getHeader(HttpHeaders.CONTENT_ENCODING), "gzip");
+            Assert.assertTrue(response.getContentAsByteArray().length > 0);
+        });
+
+        Assert.assertEquals(gunzip(response.getContentAsByteArray()), BODY);
+    }
+
+    @Test
+    public void headRequestIsNotFiltered() throws Exception {
+        request.setMethod("HEAD");
+        filter.doFilter(request, response, writing("application/json", BODY));
+
+        assertPlain(BODY);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidLevel() {
+        new CompressionFilter(true, MIN_SIZE, 10, Arrays.asList("application/json"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void negativeMinSize() {
+        new CompressionFilter(true, -1, 6, Arrays.asList("application/json"));
+    }
+
+    private void assertPlain(String body) throws IOException {
+        Assert.assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(response.getContentAsString(), body);
+    }
+
+    private static FilterChain writing(String contentType, String body) {
+        return (req, res) -> {
+            res.setContentType(contentType);
+            res.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String repeat(String s, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(s);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package cz.fi.muni.pa165.config;
+
+import cz.fi.muni.pa165.controllers.ConditionalGet;
+import cz.fi.muni.pa165.service.CollectionVersions;
+import cz.fi.muni.pa165.service.VersionedCollection;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Robert Duriancik
+ */
+public class ConditionalGetInterceptorTest {
+
+    private ConditionalGetInterceptor interceptor;
+
+    private HandlerMethod handler;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @BeforeMethod
+    public void createInterceptor() throws NoSuchMethodException {
+        CollectionVersions collectionVersions = mock(CollectionVersions.class);
+        when(collectionVersions.getTag(any())).thenReturn("3-7");
+        when(collectionVersions.getLastModified(any())).thenReturn(-1L);
+        interceptor = new ConditionalGetInterceptor(collectionVersions);
+        handler = new HandlerMethod(new Controller(), "getFlights");
+        request = new MockHttpServletRequest("GET", "/api/flights");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void responseGetsEtag() {
+        Assert.assertTrue(interceptor.preHandle(request, response, handler));
+        Assert.assertEquals(response.getHeader(HttpHeaders.ETAG), "\"3-7\"");
+    }
+
+    @Test
+    public void matchingEtagIsNotModified() {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3-7\"");
+
+        Assert.assertFalse(interceptor.preHandle(request, response, handler));
+        Assert.assertEquals(response.getStatus(), 304);
+        Assert.assertEquals(response.getHeader(HttpHeaders.ETAG), "\"3-7\"");
+    }
+
+    @Test
+    public void matchingEtagOfCompressedBodyIsNotModified() {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1-1\", \"3-7-gzip\"");
+
+        Assert.assertFalse(interceptor.preHandle(request, response, handler));
+        Assert.assertEquals(response.getStatus(), 304);
+        Assert.assertEquals(response.getHeader(HttpHeaders.ETAG), "\"3-7-gzip\"");
+    }
+
+    @Test
+    public void outdatedEtagOfCompressedBodyIsModified() {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3-6-gzip\"");
+
+        Assert.assertTrue(interceptor.preHandle(request, response, handler));
+        Assert.assertEquals(response.getHeader(HttpHeaders.ETAG), "\"3-7\"");
+    }
+
+    private static class Controller {
+
+        @ConditionalGet(VersionedCollection.FLIGHTS)
+        public String getFlights() {
+            return "";
+        }
+    }
+}
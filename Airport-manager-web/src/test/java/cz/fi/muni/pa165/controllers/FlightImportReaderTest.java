@@ -0,0 +1,139 @@
+package cz.fi.muni.pa165.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import cz.fi.muni.pa165.dto.FlightCreateDTO;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+
+/**
+ * @author Robert Duriancik
+ */
+public class FlightImportReaderTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2017, 12, 24, 12, 0);
+
+    @Test
+    public void readsCsvRows() {
+        FlightImportReader reader = csv(FlightImportReader.CSV_HEADER + "\n"
+                + "1,2,2017-12-24T12:00:00,2017-12-24T14:00:00,3,4;5\n"
+                + "2,1,2017-12-24T16:00,2017-12-24T18:00,3,\n");
+
+        FlightCreateDTO first = reader.next();
+        Assert.assertEquals(first.getDepartureLocationId(), Long.valueOf(1L));
+        Assert.assertEquals(first.getArrivalLocationId(), Long.valueOf(2L));
+        Assert.assertEquals(first.getDepartureTime(), NOON);
+        Assert.assertEquals(first.getArrivalTime(), NOON.plusHours(2));
+        Assert.assertEquals(first.getAirplaneId(), Long.valueOf(3L));
+        Assert.assertEquals(first.getStewardIds(), Arrays.asList(4L, 5L));
+        Assert.assertEquals(reader.getLineNumber(), 2);
+
+        FlightCreateDTO second = reader.next();
+        Assert.assertEquals(second.getDepartureTime(), NOON.plusHours(4));
+        Assert.assertEquals(second.getStewardIds(), Collections.emptyList());
+        Assert.assertEquals(reader.getLineNumber(), 3);
+        Assert.assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void readsCsvWithoutHeader() {
+        FlightImportReader reader = csv("1,2,2017-12-24T12:00,2017-12-24T14:00,3,\n");
+
+        Assert.assertEquals(reader.next().getAirplaneId(), Long.valueOf(3L));
+        Assert.assertEquals(reader.getLineNumber(), 1);
+        Assert.assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void emptyColumnsAreNull() {
+        FlightCreateDTO flight = csv(" , ,,,,").next();
+
+        Assert.assertNull(flight.getDepartureLocationId());
+        Assert.assertNull(flight.getDepartureTime());
+        Assert.assertNull(flight.getAirplaneId());
+    }
+
+    @Test
+    public void blankLinesAreSkippedAndCounted() {
+        FlightImportReader reader = csv(FlightImportReader.CSV_HEADER + "\n\n   \n"
+                + "1,2,2017-12-24T12:00,2017-12-24T14:00,3,\n\n");
+
+        Assert.assertTrue(reader.hasNext());
+        reader.next();
+        Assert.assertEquals(reader.getLineNumber(), 4);
+        Assert.assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void malformedCsvLineIsRejectedWithItsLineNumber() {
+        FlightImportReader reader = csv(FlightImportReader.CSV_HEADER + "\n\n"
+                + "1,2,3\n"
+                + "1,2,yesterday,2017-12-24T14:00,3,\n"
+                + "1,2,2017-12-24T12:00,2017-12-24T14:00,3,\n");
+
+        assertRejected(reader, "Line 3 cannot be read: expected 6 columns, found 3");
+        assertRejected(reader, "Line 4 cannot be read: ");
+        Assert.assertEquals(reader.next().getAirplaneId(), Long.valueOf(3L));
+        Assert.assertEquals(reader.getLineNumber(), 5);
+    }
+
+    @Test
+    public void readsNdjsonRows() {
+        FlightImportReader reader = ndjson(
+                "{\"departureLocationId\":1,\"arrivalLocationId\":2,\"departureTime\":\"2017-12-24T12:00:00\","
+                        + "\"arrivalTime\":\"2017-12-24T14:00:00\",\"airplaneId\":3,\"stewardIds\":[4]}\n"
+                        + "\n"
+                        + "{\"departureLocationId\":2,\"arrivalLocationId\":1,\"airplaneId\":3}\n");
+
+        FlightCreateDTO first = reader.next();
+        Assert.assertEquals(first.getDepartureTime(), NOON);
+        Assert.assertEquals(first.getStewardIds(), Collections.singletonList(4L));
+        Assert.assertEquals(reader.getLineNumber(), 1);
+
+        Assert.assertEquals(reader.next().getDepartureLocationId(), Long.valueOf(2L));
+        Assert.assertEquals(reader.getLineNumber(), 3);
+        Assert.assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void malformedNdjsonLineIsRejectedWithItsLineNumber() {
+        FlightImportReader reader = ndjson("\n{\"departureLocationId\":\n{\"airplaneId\":3}\n");
+
+        assertRejected(reader, "Line 2 cannot be read: ");
+        Assert.assertEquals(reader.next().getAirplaneId(), Long.valueOf(3L));
+        Assert.assertEquals(reader.getLineNumber(), 3);
+    }
+
+    @Test(expectedExceptions = NoSuchElementException.class)
+    public void nextAfterLastRow() {
+        FlightImportReader reader = csv(FlightImportReader.CSV_HEADER + "\n");
+
+        Assert.assertFalse(reader.hasNext());
+        reader.next();
+    }
+
+    private static void assertRejected(FlightImportReader reader, String messagePrefix) {
+        try {
+            reader.next();
+            Assert.fail("Line was read");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().startsWith(messagePrefix), e.getMessage());
+        }
+    }
+
+    private static FlightImportReader csv(String content) {
+        return FlightImportReader.csv(new BufferedReader(new StringReader(content)));
+    }
+
+    private static FlightImportReader ndjson(String content) {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        return FlightImportReader.ndjson(new BufferedReader(new StringReader(content)), objectMapper);
+    }
+}